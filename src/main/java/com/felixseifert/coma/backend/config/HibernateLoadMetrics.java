@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.HibernateException;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Counts lazy loads outside of a transaction, i.e. initialised entity proxies and collections. With
+ * {@code hibernate.enable_lazy_load_no_trans} each of these loads opens its own session and connection, so they are
+ * a common cause of slow views. Entities read by queries are not counted. All other Hibernate statistics are
+ * published by Spring Boot as {@code hibernate.*} metrics.
+ */
+@Component
+public class HibernateLoadMetrics implements LoadEventListener, InitializeCollectionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String METRIC_NAME = "coma.hibernate.lazy.loads.outside.transaction";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter proxyLoads;
+
+    private Counter collectionLoads;
+
+    @PostConstruct
+    public void register() {
+        proxyLoads = meterRegistry.counter(METRIC_NAME, "type", "proxy");
+        collectionLoads = meterRegistry.counter(METRIC_NAME, "type", "collection");
+
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        eventListenerRegistry.appendListeners(EventType.LOAD, this);
+        eventListenerRegistry.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    // Proxies are initialised with an immediate load, other load types come from find and get calls
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        if(loadType == LoadEventListener.IMMEDIATE_LOAD &&
+                !TransactionSynchronizationManager.isActualTransactionActive()) {
+            proxyLoads.increment();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        if(!TransactionSynchronizationManager.isActualTransactionActive()) {
+            collectionLoads.increment();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the service implementations and the custom repository implementations. The timer
+ * {@value #METRIC_NAME} counts the calls and records their latency, tagged with layer, class, method, the channel of
+ * the request (see {@link RequestChannel}) and the exception thrown, if any. Within a sampled trace, each call also
+ * adds a span to the trace (see {@link Tracer}).
+ */
+@Aspect
+@Component
+public class MethodMetricsAspect {
+
+    static final String METRIC_NAME = "coma.method.calls";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RequestChannel requestChannel;
+
+    @Around("execution(public * com.felixseifert.coma.backend.service.*ServiceImpl.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service", TraceSpan.Kind.SERVICE);
+    }
+
+    @Around("execution(public * com.felixseifert.coma.backend.repos.*RepositoryCustomImpl.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "repository", TraceSpan.Kind.REPOSITORY);
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String layer, TraceSpan.Kind spanKind) throws Throwable {
+        String className = joinPoint.getTarget().getClass().getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        TraceSpan span = Tracer.startSpan(spanKind, className + "." + methodName);
+        try {
+            return joinPoint.proceed();
+        } catch(Throwable t) {
+            exception = t.getClass().getSimpleName();
+            span.setDetail(exception);
+            throw t;
+        } finally {
+            span.close();
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tag("layer", layer)
+                    .tag("class", className)
+                    .tag("method", methodName)
+                    .tag("channel", requestChannel.current())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
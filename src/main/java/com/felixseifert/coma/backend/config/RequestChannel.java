@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * Tells which kind of traffic the current thread serves, so metrics can separate UI traffic from calls of the
+ * REST API.
+ */
+@Component
+public class RequestChannel {
+
+    public static final String UI = "ui";
+    public static final String REST = "rest";
+    public static final String BACKGROUND = "background";
+
+    private static final String REST_PATH = "/rest/";
+
+    @Autowired(required = false)
+    private List<RequestChannelResolver> resolvers = List.of();
+
+    public String current() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if(requestAttributes instanceof ServletRequestAttributes) {
+            HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+            return request.getRequestURI().startsWith(request.getContextPath() + REST_PATH) ? REST : UI;
+        }
+        for(RequestChannelResolver resolver : resolvers) {
+            String channel = resolver.resolve();
+            if(channel != null) return channel;
+        }
+        return BACKGROUND;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+/**
+ * Identifies the channel of work which does not run in a servlet request, e.g. UI events received via push.
+ */
+public interface RequestChannelResolver {
+
+    /**
+     * @return channel of the current thread or null if this resolver does not know it
+     */
+    String resolve();
+}
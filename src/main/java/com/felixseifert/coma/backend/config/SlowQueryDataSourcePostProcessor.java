@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wraps the data sources, so the execution of every statement is timed and slow statements are handed to the
+ * {@link SlowQueryRecorder} together with their bind values and row count. The time of a query includes fetching
+ * its rows until the result set is closed. Spans of traced statements are recorded by {@link SqlTracing}, which
+ * does not depend on this wrapper. Every JDBC call then goes through a reflective proxy and the data source is only
+ * visible as {@link DataSource}, so it is meant for investigations and enabled with
+ * {@code coma.slow-query.enabled=true}.
+ */
+@Component
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryRecorder> slowQueryRecorderProvider;
+
+    private final boolean enabled;
+
+    private volatile SlowQueryRecorder slowQueryRecorder;
+
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryRecorder> slowQueryRecorderProvider,
+                                            @Value("${coma.slow-query.enabled:false}") boolean enabled) {
+        this.slowQueryRecorderProvider = slowQueryRecorderProvider;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(!enabled || !(bean instanceof DataSource) || Proxy.isProxyClass(bean.getClass())) {
+            return bean;
+        }
+        // Keep the data source closeable, so its pool is still shut down with the context
+        Class<?>[] interfaces = bean instanceof AutoCloseable ?
+                new Class<?>[]{DataSource.class, AutoCloseable.class} : new Class<?>[]{DataSource.class};
+        return Proxy.newProxyInstance(DataSource.class.getClassLoader(), interfaces,
+                new DataSourceHandler((DataSource) bean));
+    }
+
+    // Resolved lazily, since post processors are created before the other beans
+    private SlowQueryRecorder getSlowQueryRecorder() {
+        if(slowQueryRecorder == null) {
+            slowQueryRecorder = slowQueryRecorderProvider.getObject();
+        }
+        return slowQueryRecorder;
+    }
+
+    private void statementFinished(String sql, List<Object> parameters, int rowCount, long start) {
+        long end = System.nanoTime();
+        if(getSlowQueryRecorder().isSlow(end - start)) {
+            getSlowQueryRecorder().record(sql, parameters, rowCount, end - start);
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        DelegatingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if("equals".equals(method.getName()) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if("hashCode".equals(method.getName()) && (args == null || args.length == 0)) {
+                return System.identityHashCode(proxy);
+            }
+            return handle(method, args);
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object delegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch(InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private class DataSourceHandler extends DelegatingHandler {
+
+        DataSourceHandler(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if(result instanceof Connection && "getConnection".equals(method.getName())) {
+                return proxy(Connection.class, new ConnectionHandler((Connection) result));
+            }
+            return result;
+        }
+    }
+
+    private class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if(result instanceof PreparedStatement && "prepareStatement".equals(method.getName())) {
+                return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+            }
+            if(result instanceof Statement && "createStatement".equals(method.getName())) {
+                return proxy(Statement.class, new StatementHandler((Statement) result, null));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler extends DelegatingHandler {
+
+        private final String sql;
+
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        StatementHandler(Statement statement, String sql) {
+            super(statement);
+            this.sql = sql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if(name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            }
+            else if("clearParameters".equals(name)) {
+                parameters.clear();
+            }
+            if(!name.startsWith("execute")) {
+                return delegate(method, args);
+            }
+
+            String executedSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            List<Object> boundParameters = new ArrayList<>(parameters.values());
+            long start = System.nanoTime();
+            Object result = delegate(method, args);
+            if(result instanceof ResultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, executedSql, boundParameters,
+                        start));
+            }
+            statementFinished(executedSql, boundParameters, rowCount(result), start);
+            return result;
+        }
+
+        private int rowCount(Object result) {
+            if(result instanceof Number) return ((Number) result).intValue();
+            if(result instanceof int[]) return Arrays.stream((int[]) result).filter(count -> count > 0).sum();
+            return -1;
+        }
+    }
+
+    private class ResultSetHandler extends DelegatingHandler {
+
+        private final String sql;
+
+        private final List<Object> parameters;
+
+        private final long start;
+
+        private int rowCount = 0;
+
+        private boolean closed = false;
+
+        ResultSetHandler(ResultSet resultSet, String sql, List<Object> parameters, long start) {
+            super(resultSet);
+            this.sql = sql;
+            this.parameters = parameters;
+            this.start = start;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = delegate(method, args);
+            if("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                rowCount++;
+            }
+            else if("close".equals(method.getName()) && !closed) {
+                closed = true;
+                statementFinished(sql, parameters, rowCount, start);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import com.felixseifert.coma.backend.model.dto.SlowQueryDTO;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the latest SQL statements which took at least the configured threshold in a bounded ring buffer. Statements
+ * are measured by {@link SlowQueryDataSourcePostProcessor} from execution until their result set is closed. Bind
+ * values other than numbers and booleans are masked, since they may contain personal data like names or emails.
+ */
+@Component
+@Slf4j
+public class SlowQueryRecorder {
+
+    private static final String APP_PACKAGE = "com.felixseifert.coma.";
+
+    private static final String CONFIG_PACKAGE = APP_PACKAGE + "backend.config.";
+
+    @Getter
+    private final long thresholdMillis;
+
+    private final long thresholdNanos;
+
+    private final int capacity;
+
+    private final Deque<SlowQueryDTO> slowQueries;
+
+    public SlowQueryRecorder(@Value("${coma.slow-query.threshold-ms:200}") long thresholdMillis,
+                             @Value("${coma.slow-query.capacity:200}") int capacity) {
+        this.thresholdMillis = thresholdMillis;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.capacity = capacity;
+        this.slowQueries = new ArrayDeque<>(capacity);
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    public void record(String sql, List<Object> parameters, int rowCount, long elapsedNanos) {
+        SlowQueryDTO slowQuery = new SlowQueryDTO(LocalDateTime.now(), sql,
+                parameters.stream().map(SlowQueryRecorder::formatParameter).collect(Collectors.toList()),
+                rowCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), findCallSite());
+        log.debug("Slow query in {} took {} ms: {}", slowQuery.getCallSite(), slowQuery.getElapsedMillis(), sql);
+
+        synchronized(slowQueries) {
+            if(slowQueries.size() == capacity) {
+                slowQueries.removeLast();
+            }
+            slowQueries.addFirst(slowQuery);
+        }
+    }
+
+    /**
+     * @return recorded slow queries, the latest first
+     */
+    public List<SlowQueryDTO> getSlowQueries() {
+        synchronized(slowQueries) {
+            return Collections.unmodifiableList(new ArrayList<>(slowQueries));
+        }
+    }
+
+    public void clear() {
+        synchronized(slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    // Prefer the service method, otherwise take the first frame of the application (e.g. a view)
+    private static String findCallSite() {
+        List<StackWalker.StackFrame> appFrames = StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE))
+                .filter(frame -> !frame.getClassName().startsWith(CONFIG_PACKAGE))
+                .filter(frame -> !frame.getClassName().contains("$$"))
+                .collect(Collectors.toList()));
+        Optional<StackWalker.StackFrame> callSite = appFrames.stream()
+                .filter(frame -> frame.getClassName().endsWith("ServiceImpl"))
+                .findFirst();
+        return callSite.or(() -> appFrames.stream().findFirst())
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) + "." +
+                        frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown");
+    }
+
+    private static String formatParameter(Object parameter) {
+        if(parameter == null || parameter instanceof Number || parameter instanceof Boolean) {
+            return String.valueOf(parameter);
+        }
+        return "<" + parameter.getClass().getSimpleName() + ">";
+    }
+}
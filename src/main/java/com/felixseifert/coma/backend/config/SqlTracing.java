@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Adds the SQL statements Hibernate executes within a sampled trace as spans to the trace (see {@link Tracer}). The
+ * statement is taken from a statement inspector and timed by a session event listener, so the JDBC wrapper of
+ * {@link SlowQueryDataSourcePostProcessor} is not needed. The time of a query covers its execution, fetching its rows
+ * is not included. A statement inspector configured in the properties, e.g. by the tests, is still called.
+ */
+@Component
+public class SqlTracing implements HibernatePropertiesCustomizer {
+
+    private static final ThreadLocal<String> CURRENT_SQL = new ThreadLocal<>();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        Object configured = hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR);
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new TracingStatementInspector(toStatementInspector(configured)));
+        hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                TracingSessionEventListener.class.getName());
+    }
+
+    private static StatementInspector toStatementInspector(Object setting) {
+        if(setting == null || setting instanceof StatementInspector) {
+            return (StatementInspector) setting;
+        }
+        try {
+            Class<?> inspectorClass = setting instanceof Class ? (Class<?>) setting :
+                    Class.forName(setting.toString(), true, Thread.currentThread().getContextClassLoader());
+            return (StatementInspector) inspectorClass.getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException e) {
+            throw new IllegalStateException("Statement inspector " + setting + " cannot be created", e);
+        }
+    }
+
+    private static class TracingStatementInspector implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        private final StatementInspector delegate;
+
+        TracingStatementInspector(StatementInspector delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            String inspected = delegate != null ? delegate.inspect(sql) : sql;
+            if(Tracer.isTracing()) {
+                CURRENT_SQL.set(inspected != null ? inspected : sql);
+            }
+            return inspected;
+        }
+    }
+
+    /**
+     * Created by Hibernate for every session, hence public with a default constructor.
+     */
+    public static class TracingSessionEventListener extends BaseSessionEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private long startNanos = -1;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            started();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            finished(null);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            started();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            finished("batch");
+        }
+
+        private void started() {
+            startNanos = Tracer.isTracing() ? System.nanoTime() : -1;
+        }
+
+        private void finished(String detail) {
+            if(startNanos < 0) return;
+            String sql = CURRENT_SQL.get();
+            CURRENT_SQL.remove();
+            Tracer.recordSpan(TraceSpan.Kind.SQL, sql != null ? sql : "SQL statement", detail, startNanos,
+                    System.nanoTime());
+            startNanos = -1;
+        }
+    }
+}
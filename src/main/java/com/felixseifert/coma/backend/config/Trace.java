@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tree of spans recorded for a single request, e.g. one interaction with the UI or one call of the REST API.
+ */
+@Getter
+public class Trace {
+
+    private final long id;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Tracer tracer;
+
+    @Getter(AccessLevel.NONE)
+    private final int maxSpans;
+
+    private final String name;
+
+    private final LocalDateTime startedAt;
+
+    private TraceSpan root;
+
+    private String action;              // Name of the first UI span, describes the interaction
+
+    private int spanCount = 0;
+
+    private int droppedSpanCount = 0;
+
+    private int sqlCount = 0;
+
+    private double sqlMillis = 0;
+
+    Trace(long id, String name, Tracer tracer, int maxSpans) {
+        this.id = id;
+        this.name = name;
+        this.tracer = tracer;
+        this.maxSpans = maxSpans;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public String getDisplayName() {
+        return action != null ? action : name;
+    }
+
+    public double getDurationMillis() {
+        return root.getDurationMillis();
+    }
+
+    boolean isFull() {
+        return spanCount >= maxSpans;
+    }
+
+    void setRoot(TraceSpan root) {
+        this.root = root;
+        spanCount++;
+    }
+
+    void added(TraceSpan span) {
+        spanCount++;
+        if(action == null && span.getKind() == TraceSpan.Kind.UI) {
+            action = span.getName();
+        }
+    }
+
+    void addedSql(double millis) {
+        sqlCount++;
+        sqlMillis += millis;
+    }
+
+    void dropped() {
+        droppedSpanCount++;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timed section of a {@link Trace}. Spans are created and closed by the thread which runs the traced request and
+ * have to be closed in reverse order of their creation, best with try-with-resources.
+ */
+public class TraceSpan implements AutoCloseable {
+
+    public enum Kind {REQUEST, UI, SERVICE, REPOSITORY, SQL}
+
+    /**
+     * Returned if the current thread is not traced, closing it does nothing.
+     */
+    static final TraceSpan NOOP = new TraceSpan(null, null, null, null, 0);
+
+    @Getter
+    private final Kind kind;
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private String detail;
+
+    private final Trace trace;
+
+    private final TraceSpan parent;
+
+    private final long startNanos;
+
+    private long endNanos = -1;
+
+    private final List<TraceSpan> children = new ArrayList<>();
+
+    TraceSpan(Trace trace, TraceSpan parent, Kind kind, String name, long startNanos) {
+        this.trace = trace;
+        this.parent = parent;
+        this.kind = kind;
+        this.name = name;
+        this.startNanos = startNanos;
+        if(parent != null) {
+            parent.children.add(this);
+        }
+    }
+
+    public List<TraceSpan> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    public double getDurationMillis() {
+        return (endNanos - startNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return time between the start of the trace and the start of this span
+     */
+    public double getOffsetMillis() {
+        return (startNanos - trace.getRoot().startNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return false for the no-op span, so details which are costly to build can be skipped
+     */
+    public boolean isRecording() {
+        return this != NOOP;
+    }
+
+    public void setDetail(String detail) {
+        if(this != NOOP) {
+            this.detail = detail;
+        }
+    }
+
+    Trace getTrace() {
+        return trace;
+    }
+
+    TraceSpan getParent() {
+        return parent;
+    }
+
+    void end(long endNanos) {
+        this.endNanos = endNanos;
+    }
+
+    @Override
+    public void close() {
+        if(this == NOOP || endNanos >= 0) return;
+        end(System.nanoTime());
+        Tracer.closed(this);
+    }
+}
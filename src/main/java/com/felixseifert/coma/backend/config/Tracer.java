@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lightweight in-process tracing. {@link TracingFilter} starts a trace for a sample of UI and REST requests; while
+ * a trace is active, UI actions, service and repository calls and SQL statements add their spans to it. Finished
+ * traces are kept in a bounded ring buffer. Spans are started with the static methods, so components which are not
+ * Spring beans can be traced as well; outside of a sampled trace they return a no-op span.
+ */
+@Component
+@Slf4j
+public class Tracer {
+
+    private static final ThreadLocal<TraceSpan> CURRENT_SPAN = new ThreadLocal<>();
+
+    @Getter
+    private final double sampleRate;
+
+    private final int capacity;
+
+    private final int maxSpansPerTrace;
+
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    private final Deque<Trace> traces;
+
+    public Tracer(@Value("${coma.tracing.sample-rate:0.1}") double sampleRate,
+                  @Value("${coma.tracing.capacity:50}") int capacity,
+                  @Value("${coma.tracing.max-spans-per-trace:2000}") int maxSpansPerTrace) {
+        this.sampleRate = sampleRate;
+        this.capacity = capacity;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.traces = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Starts a new trace if the request is sampled. Within an active trace, a span of the current trace is started.
+     */
+    public TraceSpan startTrace(String name) {
+        if(isTracing()) {
+            return startSpan(TraceSpan.Kind.REQUEST, name);
+        }
+        if(sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return TraceSpan.NOOP;
+        }
+        Trace trace = new Trace(nextId.getAndIncrement(), name, this, maxSpansPerTrace);
+        TraceSpan root = new TraceSpan(trace, null, TraceSpan.Kind.REQUEST, name, System.nanoTime());
+        trace.setRoot(root);
+        CURRENT_SPAN.set(root);
+        return root;
+    }
+
+    public static boolean isTracing() {
+        return CURRENT_SPAN.get() != null;
+    }
+
+    public static TraceSpan startSpan(TraceSpan.Kind kind, String name) {
+        TraceSpan parent = CURRENT_SPAN.get();
+        if(parent == null) return TraceSpan.NOOP;
+        Trace trace = parent.getTrace();
+        if(trace.isFull()) {
+            trace.dropped();
+            return TraceSpan.NOOP;
+        }
+        TraceSpan span = new TraceSpan(trace, parent, kind, name, System.nanoTime());
+        trace.added(span);
+        CURRENT_SPAN.set(span);
+        return span;
+    }
+
+    /**
+     * Adds an already finished span, e.g. an SQL statement, to the current span.
+     */
+    public static void recordSpan(TraceSpan.Kind kind, String name, String detail, long startNanos, long endNanos) {
+        TraceSpan parent = CURRENT_SPAN.get();
+        if(parent == null) return;
+        Trace trace = parent.getTrace();
+        if(trace.isFull()) {
+            trace.dropped();
+            return;
+        }
+        TraceSpan span = new TraceSpan(trace, parent, kind, name, startNanos);
+        span.setDetail(detail);
+        span.end(endNanos);
+        trace.added(span);
+        if(kind == TraceSpan.Kind.SQL) {
+            trace.addedSql(span.getDurationMillis());
+        }
+    }
+
+    static void closed(TraceSpan span) {
+        if(CURRENT_SPAN.get() != span) {
+            log.warn("Span {} closed out of order", span.getName());
+        }
+        TraceSpan parent = span.getParent();
+        if(parent != null) {
+            CURRENT_SPAN.set(parent);
+        }
+        else {
+            CURRENT_SPAN.remove();
+            span.getTrace().getTracer().finish(span.getTrace());
+        }
+    }
+
+    /**
+     * @return finished traces, the latest first
+     */
+    public List<Trace> getTraces() {
+        synchronized(traces) {
+            return Collections.unmodifiableList(new ArrayList<>(traces));
+        }
+    }
+
+    public void clear() {
+        synchronized(traces) {
+            traces.clear();
+        }
+    }
+
+    private void finish(Trace trace) {
+        synchronized(traces) {
+            if(traces.size() == capacity) {
+                traces.removeLast();
+            }
+            traces.addFirst(trace);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Starts a trace for a sample of the UI interactions (Vaadin UIDL requests) and the calls of the REST API. Static
+ * resources, heartbeats and other requests are not traced. UI interactions only pass this filter because the push
+ * transport of {@link com.felixseifert.coma.ui.MainLayout} sends client messages as XHR instead of over the websocket.
+ */
+@Component
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String REST_PATH = "/rest/";
+
+    private static final String UIDL_PARAMETER = "v-r=uidl";
+
+    @Autowired
+    private Tracer tracer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String traceName = traceName(request);
+        if(traceName == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try(TraceSpan span = tracer.startTrace(traceName)) {
+            filterChain.doFilter(request, response);
+            if(span.isRecording()) span.setDetail("HTTP " + response.getStatus());
+        }
+    }
+
+    private String traceName(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if(path.startsWith(REST_PATH)) {
+            return request.getMethod() + " " + path;
+        }
+        // Query string is checked directly, reading a parameter could consume the body
+        String queryString = request.getQueryString();
+        if(queryString != null && queryString.contains(UIDL_PARAMETER)) {
+            return "UI interaction";
+        }
+        return null;
+    }
+}
@@ -19,8 +19,10 @@ package com.felixseifert.coma.backend.exceptions;
 public class ErrorMessages {
 
     public static final String PART_NUMBER_ALREADY_EXISTS = "Could not create new PN object. ID already exists.";
+    public static final String COMPLETE_PN_ALREADY_EXISTS = "Could not save PN object. The complete PN is already in use.";
     public static final String PART_NUMBER_ID_NOT_FOUND = "Given Part Number ID could not be found.";
     public static final String PART_NUMBER_NOT_SPECIFIED = "Given Part Number is blank.";
+    public static final String PART_NUMBERS_BULK_NOT_SUPPORTED = "Only new PN objects without request types, channel profiles and release flow can be created together.";
     public static final String PART_NUMBER_LOB_ID_NOT_FOUND = "Given Part Number Lob ID could not be found.";
 
     public static final String EMPLOYEE_NOT_FOUND = "Employee with given ID could not be found.";
@@ -47,12 +49,14 @@ public class ErrorMessages {
     public static final String SELECTABLE_VALUE_NOT_FOUND = "Given SelectableValue could not be found.";
     public static final String ABBREVIATION_NOT_SPECIFIED = "Given Abbreviation is blank.";
     public static final String COO_ALREADY_EXISTS = "Could not create new CoO. Name already exists.";
+    public static final String COO_ABBREVIATION_ALREADY_EXISTS = "Could not create new CoO. Abbreviation already exists.";
     public static final String COO_NOT_FOUND = "CoO with given name could not be found.";
     public static final String COO_NOT_SPECIFIED = "Given CoO is blank.";
     public static final String CODE_NOT_SPECIFIED = "Given code is blank.";
     public static final String PLANT_NOT_FOUND = "Plant with given name and CoO could not be found.";
     public static final String PLANT_CODE_NOT_FOUND = "Plant with given code could not be found.";
     public static final String PLANT_ALREADY_EXISTS = "Could not create new Plant. Name CoO combination already exists.";
+    public static final String PLANT_CODE_ALREADY_EXISTS = "Could not create new Plant. Code already exists.";
     public static final String DESCRIPTION_NOT_SPECIFIED = "Given description text is blank.";
     public static final String DESCRIPTION_CODE_NOT_SPECIFIED = "Given code is blank.";
     public static final String PRODUCT_DESCRIPTION_CODE_ALREADY_EXISTS = "Given product description code already exists.";
@@ -67,4 +71,14 @@ public class ErrorMessages {
     public static final String NO_EMPLOYEE_RESPONSIBLE = "Finished tasks need an Employee assigned (responsible).";
 
     public static final String REQUEST_DENIAL_NEEDS_COMMENTS = "Request is denied but no comments specified.";
+
+    public static final String IMPORT_PN_COLUMN_MISSING = "Import file does not contain a pn column.";
+    public static final String IMPORT_PN_LENGTH_INVALID = "A PN should have 10 digits.";
+    public static final String IMPORT_IDX_LENGTH_INVALID = "An index should have 3 digits.";
+    public static final String IMPORT_COMPLETE_PN_ALREADY_EXISTS = "The resulting complete PN already exists.";
+    public static final String IMPORT_COMPLETE_PN_DUPLICATED = "The resulting complete PN occurs more than once in the import file.";
+    public static final String IMPORT_REQUESTER_NOT_SPECIFIED = "Given requester email address is blank.";
+    public static final String IMPORT_EMPLOYEE_ROLE_MISSING = "Employee does not have the role required for this column.";
+    public static final String IMPORT_PLANT_NOT_OF_COO = "Given plant does not belong to given CoO.";
+    public static final String IMPORT_DATE_INVALID = "Dates have to be given in the format yyyy-MM-dd.";
 }
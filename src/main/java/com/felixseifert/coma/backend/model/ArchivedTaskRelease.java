@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model;
+
+import com.felixseifert.coma.backend.model.enums.CustomerNotification;
+import com.felixseifert.coma.backend.model.enums.CustomerNotificationConverter;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.model.enums.ProgressConverter;
+import com.felixseifert.coma.backend.model.enums.Role;
+import com.felixseifert.coma.backend.model.enums.RoleConverter;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finished {@link TaskRelease} whose PN was deleted, moved out of the active table by the archive job. Keeps the id
+ * of the original release and of its responsible employee, and its remaining release flow.
+ */
+@Entity
+@Table(name = "tasks_release_archive")
+@Getter
+@Setter
+public class ArchivedTaskRelease implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(nullable = false, name = "id")
+    private Long id;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(name = "responsible_employee_id")
+    private Integer responsibleEmployeeId;
+
+    @Convert(converter = RoleConverter.class)
+    @Column(name = "responsible_employee_role", columnDefinition = "smallint")
+    private Role responsibleEmployeeRole;
+
+    @ElementCollection
+    @CollectionTable(name = "roles_for_release_flow_archive", joinColumns = @JoinColumn(name = "task_release_id"))
+    @OrderColumn(name = "order_id")
+    @Convert(converter = RoleConverter.class)
+    @Column(name = "role", columnDefinition = "smallint")
+    private List<Role> remainingSteps = new ArrayList<>();
+
+    @Column(columnDefinition = "smallint")
+    @Convert(converter = ProgressConverter.class)
+    private Progress status;
+
+    @Column(columnDefinition = "smallint")
+    @Convert(converter = CustomerNotificationConverter.class)
+    private CustomerNotification customerNotification;
+
+    private String rejectionReasonOrFollowUp;
+
+    private LocalDateTime archivedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ArchivedTaskRelease)) return false;
+        ArchivedTaskRelease that = (ArchivedTaskRelease) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 86;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Completed {@link TaskStepRelease} of a finished release, moved out of the active table by the archive job. Keeps
+ * the ids of the original step, its release and the assigned employee.
+ */
+@Entity
+@Table(name = "task_steps_release_archive", indexes = @Index(columnList = "task_release_id"))
+@Getter
+@Setter
+public class ArchivedTaskStepRelease implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(nullable = false, name = "id")
+    private Long id;
+
+    @Column(name = "task_release_id", nullable = false)
+    private Long taskReleaseId;
+
+    private LocalDateTime completedAt;
+
+    @Column(length = 50)
+    private String roleOfEmployee;
+
+    @Column(length = 100)
+    private String teamOfEmployee;
+
+    @Column(name = "assigned_employee_id")
+    private Integer assignedEmployeeId;
+
+    @Column(name = "order_id", columnDefinition = "smallint")
+    private Integer orderId;
+
+    private LocalDateTime archivedAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ArchivedTaskStepRelease)) return false;
+        ArchivedTaskStepRelease that = (ArchivedTaskStepRelease) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 70;
+    }
+}
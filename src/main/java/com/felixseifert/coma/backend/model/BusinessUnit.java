@@ -18,6 +18,8 @@ package com.felixseifert.coma.backend.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
@@ -28,6 +30,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity(name = "business_units")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "business_units")
 @Getter
 @Setter
 public class BusinessUnit extends Auditable<String> implements Serializable {
@@ -50,6 +54,7 @@ public class BusinessUnit extends Auditable<String> implements Serializable {
     @JoinTable(name = "business_unit_employee",
             joinColumns = @JoinColumn(name = "business_unit_id"),
             inverseJoinColumns = @JoinColumn(name = "product_manager_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "business_units.product_managers")
     private Set<Employee> productManagers = new HashSet<>();
 
     @Override
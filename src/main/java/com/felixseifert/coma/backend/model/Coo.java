@@ -17,6 +17,8 @@
 package com.felixseifert.coma.backend.model;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.NaturalId;
 
@@ -29,6 +31,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity(name = "coos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "coos")
 @Data
 public class Coo implements Serializable {
 
@@ -50,6 +54,7 @@ public class Coo implements Serializable {
     private String abbreviation;
 
     @OneToMany(mappedBy = "coo", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "coos.plants")
     private Set<Plant> plants = new HashSet<>();
 
     public void addPlant(Plant plant) {
@@ -20,6 +20,8 @@ import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.enums.RoleConverter;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
@@ -29,6 +31,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity(name = "employees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employees")
 @Getter
 @Setter
 public class Employee extends Auditable<String> {
@@ -56,6 +60,7 @@ public class Employee extends Auditable<String> {
     private String location;
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employees.roles")
     @CollectionTable(name = "roles_of_employees", joinColumns = @JoinColumn(name = "employee_id"))
     @Column(columnDefinition = "smallint")
     @Convert(converter = RoleConverter.class)
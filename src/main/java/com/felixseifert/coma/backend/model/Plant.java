@@ -17,6 +17,8 @@
 package com.felixseifert.coma.backend.model;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
@@ -24,6 +26,8 @@ import javax.validation.constraints.NotNull;
 import java.io.Serializable;
 
 @Entity(name = "plants")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "plants")
 @Data
 public class Plant implements Serializable {
 
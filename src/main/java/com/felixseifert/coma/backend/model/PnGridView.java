@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model;
+
+import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import com.felixseifert.coma.backend.model.enums.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model of the PN grid with one row per {@link PartNumberObject}, holding the columns of
+ * {@link PartNumberObjectGridDTO} under the same names. Each sortable column has an index ending with the id, so the
+ * grid reads a page without joining or sorting the whole table. The rows are written from the base tables by
+ * {@link com.felixseifert.coma.backend.repos.PartNumberObjectRepositoryCustom#refreshPnGridView} in the transaction
+ * which changes the PN, its release or the responsible employee.
+ */
+@Entity
+@Table(name = "pn_grid_view", indexes = {
+        @Index(name = "idx_pn_grid_view_pn", columnList = "pn, id"),
+        @Index(name = "idx_pn_grid_view_due_date", columnList = "due_date, id"),
+        @Index(name = "idx_pn_grid_view_created_by", columnList = "created_by_team_department, id"),
+        @Index(name = "idx_pn_grid_view_created_date", columnList = "created_date, id"),
+        @Index(name = "idx_pn_grid_view_employee_name", columnList = "current_employee_name, id"),
+        @Index(name = "idx_pn_grid_view_employee_role", columnList = "current_employee_role, id"),
+        @Index(name = "idx_pn_grid_view_completed_at", columnList = "release_completed_at, id"),
+        @Index(name = "idx_pn_grid_view_status", columnList = "status, id"),
+        @Index(name = "idx_pn_grid_view_notification", columnList = "customer_notification, id"),
+        @Index(name = "idx_pn_grid_view_last_modified", columnList = "last_modified_date_time, id"),
+        @Index(name = "idx_pn_grid_view_employee_id", columnList = "current_employee_id"),
+        @Index(name = "idx_pn_grid_view_business_unit", columnList = "business_unit_id"),
+        @Index(name = "idx_pn_grid_view_customer", columnList = "customer_code")})
+@Getter
+@Setter
+public class PnGridView implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(nullable = false, name = "id")
+    private Integer id;             // Id of the PartNumberObject
+
+    @Column(nullable = false, length = 10)
+    private String pn;
+
+    @Column(columnDefinition = "Date")
+    private LocalDate dueDate;
+
+    @Column(length = 100)
+    private String createdByTeamDepartment;
+
+    private LocalDate createdDate;
+
+    private Integer currentEmployeeId;
+
+    private String currentEmployeeName;
+
+    @Convert(converter = RoleConverter.class)
+    @Column(columnDefinition = "smallint")
+    private Role currentEmployeeRole;
+
+    private LocalDateTime releaseCompletedAt;
+
+    @Column(columnDefinition = "smallint")
+    @Convert(converter = ProgressConverter.class)
+    private Progress status;
+
+    @Column(columnDefinition = "smallint")
+    @Convert(converter = CustomerNotificationConverter.class)
+    private CustomerNotification customerNotification;
+
+    private LocalDateTime lastModifiedDateTime;
+
+    private Integer businessUnitId;         // Only for filtering, names are looked up when needed
+
+    @Column(length = 10)
+    private String customerCode;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PnGridView)) return false;
+        PnGridView that = (PnGridView) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 88;
+    }
+}
@@ -17,8 +17,11 @@
 package com.felixseifert.coma.backend.model;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NaturalId;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -27,6 +30,8 @@ import java.io.Serializable;
 import java.util.Objects;
 
 @Entity(name = "product_descriptions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product_descriptions")
 @Data
 public class ProductDescription implements Serializable {
 
@@ -19,6 +19,8 @@ package com.felixseifert.coma.backend.model;
 import com.felixseifert.coma.backend.model.enums.ValueGroup;
 import com.felixseifert.coma.backend.model.enums.ValueGroupConverter;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
@@ -26,6 +28,8 @@ import javax.validation.constraints.NotNull;
 import java.io.Serializable;
 
 @Entity(name = "selectable_values")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "selectable_values")
 @Data
 public class SelectableValue implements Serializable {
 
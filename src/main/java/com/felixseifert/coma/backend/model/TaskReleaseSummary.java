@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model;
+
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.model.enums.ProgressConverter;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Number of orphaned releases per month of completion and status which were deleted by the retention job. Keeps the
+ * release statistics after the rows themselves are gone.
+ */
+@Entity
+@Table(name = "task_release_summaries", uniqueConstraints = @UniqueConstraint(columnNames = {"period", "status"}))
+@Getter
+@Setter
+public class TaskReleaseSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "native")
+    @GenericGenerator(name = "native", strategy = "native")
+    @Column(nullable = false, name = "id")
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String period;          // Month of completion as yyyy-MM
+
+    @Column(columnDefinition = "smallint")
+    @Convert(converter = ProgressConverter.class)
+    private Progress status;
+
+    private long taskReleaseCount;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskReleaseSummary)) return false;
+        TaskReleaseSummary that = (TaskReleaseSummary) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 87;
+    }
+}
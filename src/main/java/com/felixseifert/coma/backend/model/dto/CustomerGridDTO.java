@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.dto;
+
+import com.felixseifert.coma.backend.model.Customer_;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+@AllArgsConstructor
+@Getter
+public class CustomerGridDTO {
+
+    public static final Map<String, String> FIELD_MAPPING_DTO_TO_ORIGIN = new HashMap<>();
+
+    static {
+        FIELD_MAPPING_DTO_TO_ORIGIN.put("code", Customer_.CODE);
+        FIELD_MAPPING_DTO_TO_ORIGIN.put("name", Customer_.NAME);
+        FIELD_MAPPING_DTO_TO_ORIGIN.put("deliveryLocation", Customer_.DELIVERY_LOCATION);
+        FIELD_MAPPING_DTO_TO_ORIGIN.put("currency", Customer_.CURRENCY);
+    }
+
+    private String code;
+
+    private String name;
+
+    private String deliveryLocation;
+
+    private String currency;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CustomerGridDTO)) return false;
+        CustomerGridDTO that = (CustomerGridDTO) o;
+        return Objects.equals(code, that.code);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(code);
+    }
+}
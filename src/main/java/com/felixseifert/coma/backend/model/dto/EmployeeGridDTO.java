@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.dto;
+
+import com.felixseifert.coma.backend.model.Employee_;
+import com.felixseifert.coma.backend.model.enums.Role;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+public class EmployeeGridDTO {
+
+    public static final Map<String, String> FIELD_MAPPING_DTO_TO_ORIGIN = new HashMap<>();
+
+    static {
+        FIELD_MAPPING_DTO_TO_ORIGIN.put("name", Employee_.NAME);
+        FIELD_MAPPING_DTO_TO_ORIGIN.put("emailAddress", Employee_.EMAIL_ADDRESS);
+        FIELD_MAPPING_DTO_TO_ORIGIN.put("team", Employee_.TEAM);
+        FIELD_MAPPING_DTO_TO_ORIGIN.put("location", Employee_.LOCATION);
+    }
+
+    private Integer id;
+
+    private String name;
+
+    private String emailAddress;
+
+    private String team;
+
+    private String location;
+
+    private Set<Role> roles = new HashSet<>();
+
+    public EmployeeGridDTO(Integer id, String name, String emailAddress, String team, String location) {
+        this.id = id;
+        this.name = name;
+        this.emailAddress = emailAddress;
+        this.team = team;
+        this.location = location;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EmployeeGridDTO)) return false;
+        EmployeeGridDTO that = (EmployeeGridDTO) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 49;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class PartNumberImportResultDTO {
+
+    private int rowCount;
+
+    private int importedCount;
+
+    private List<Reject> rejects = new ArrayList<>();
+
+    public void addRow() {
+        rowCount++;
+    }
+
+    public void addImported(int count) {
+        importedCount += count;
+    }
+
+    public void addReject(int rowNumber, String pn, String reason) {
+        rejects.add(new Reject(rowNumber, pn, reason));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d of %d PNs imported, %d rejected", importedCount, rowCount, rejects.size());
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class Reject {
+
+        private int rowNumber;
+
+        private String pn;
+
+        private String reason;
+    }
+}
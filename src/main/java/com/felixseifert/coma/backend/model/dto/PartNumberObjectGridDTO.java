@@ -16,9 +16,6 @@
 
 package com.felixseifert.coma.backend.model.dto;
 
-import com.felixseifert.coma.backend.model.Employee_;
-import com.felixseifert.coma.backend.model.PartNumberObject_;
-import com.felixseifert.coma.backend.model.TaskRelease_;
 import com.felixseifert.coma.backend.model.enums.CustomerNotification;
 import com.felixseifert.coma.backend.model.enums.Progress;
 import com.felixseifert.coma.backend.model.enums.Role;
@@ -28,28 +25,17 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
 
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 public class PartNumberObjectGridDTO {
 
-    public static final Map<String, String> FIELD_MAPPING_DTO_TO_ORIGIN = new HashMap<>();
-
-    static {
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("id", PartNumberObject_.ID);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("b10", PartNumberObject_.PN);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("dueDate", PartNumberObject_.DUE_DATE);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("createdByTeamDepartment", PartNumberObject_.CREATED_BY_TEAM_DEPARTMENT);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("createdDate", PartNumberObject_.CREATED_DATE);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("currentEmployeeName", Employee_.NAME);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("currentEmployeeRole", TaskRelease_.CURRENT_EMPLOYEES_ROLE);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("releaseCompletedAt", TaskRelease_.FINISHED_AT);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("status", TaskRelease_.STATUS);
-        FIELD_MAPPING_DTO_TO_ORIGIN.put("customerNotification", TaskRelease_.CUSTOMER_NOTIFICATION);
-    }
+    // Also the attribute names of the read model PnGridView
+    public static final Set<String> FIELDS = Set.of("id", "pn", "dueDate", "createdByTeamDepartment",
+            "createdDate", "currentEmployeeName", "currentEmployeeRole", "releaseCompletedAt", "status",
+            "customerNotification");
 
     private Integer id;
 
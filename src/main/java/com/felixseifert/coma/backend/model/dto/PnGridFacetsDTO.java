@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Values of the PN grid facets with the number of PNs per value. The counts of a facet respect the filter on all
+ * other facets but not the selection of the facet itself, so that further values of a facet can still be added.
+ */
+@Getter
+public class PnGridFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Facet {
+        STATUS, CUSTOMER_NOTIFICATION, BUSINESS_UNIT, CUSTOMER, RESPONSIBLE_EMPLOYEE
+    }
+
+    private final Map<Facet, Map<Object, Value>> valuesByFacet = new EnumMap<>(Facet.class);
+
+    private long total;         // Number of PNs matching the complete filter
+
+    public void addToTotal(long count) {
+        total += count;
+    }
+
+    public void addCount(Facet facet, Object value, String label, long count) {
+        valuesByFacet.computeIfAbsent(facet, f -> new LinkedHashMap<>())
+                .computeIfAbsent(value, v -> new Value(facet, v, label, 0))
+                .count += count;
+    }
+
+    public List<Value> getValues(Facet facet) {
+        List<Value> values = new ArrayList<>(valuesByFacet.getOrDefault(facet, Map.of()).values());
+        values.sort(Comparator.comparingLong(Value::getCount).reversed()
+                .thenComparing(Value::getLabel, Comparator.nullsLast(Comparator.naturalOrder())));
+        return values;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class Value implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Facet facet;
+
+        private Object value;
+
+        @Setter
+        private String label;
+
+        private long count;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Value)) return false;
+            Value that = (Value) o;
+            return facet == that.facet && Objects.equals(value, that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(facet, value);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%d)", label, count);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.dto;
+
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO.Facet;
+import com.felixseifert.coma.backend.model.enums.CustomerNotification;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Filter of the PN grid. Empty sets and null values do not restrict the result.
+ */
+@Data
+public class PnGridFilter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String pn;
+
+    private LocalDate dueDateFrom;
+
+    private LocalDate dueDateTo;
+
+    private Set<Progress> statuses = new HashSet<>();
+
+    private Set<CustomerNotification> customerNotifications = new HashSet<>();
+
+    private Set<Integer> businessUnitIds = new HashSet<>();
+
+    private Set<String> customerCodes = new HashSet<>();
+
+    private Set<Integer> employeeIds = new HashSet<>();
+
+    public static PnGridFilter ofPn(String pn) {
+        PnGridFilter filter = new PnGridFilter();
+        filter.setPn(pn);
+        return filter;
+    }
+
+    public Set<?> getSelection(Facet facet) {
+        switch(facet) {
+            case STATUS:
+                return statuses;
+            case CUSTOMER_NOTIFICATION:
+                return customerNotifications;
+            case BUSINESS_UNIT:
+                return businessUnitIds;
+            case CUSTOMER:
+                return customerCodes;
+            case RESPONSIBLE_EMPLOYEE:
+                return employeeIds;
+            default:
+                throw new IllegalArgumentException("Unknown facet " + facet);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void setSelection(Facet facet, Collection<?> values) {
+        Set<Object> selection = (Set<Object>) getSelection(facet);
+        selection.clear();
+        selection.addAll(values);
+    }
+
+    public boolean matches(Facet facet, Object value) {
+        Set<?> selection = getSelection(facet);
+        return selection.isEmpty() || selection.contains(value);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lineage of a PN: its ancestors via predecessor and complete source PN, its descendants and the edges between them.
+ * The depth of a node is the number of edges on the shortest path to the PN.
+ */
+@Getter
+public class PnLineageDTO {
+
+    private final Node root;
+
+    private final List<Node> ancestors = new ArrayList<>();
+
+    private final List<Node> descendants = new ArrayList<>();
+
+    private final Set<Edge> edges = new LinkedHashSet<>();
+
+    public PnLineageDTO(Node root) {
+        this.root = root;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class Node {
+
+        private Integer id;
+
+        private String pn;
+
+        private String idx;
+
+        private int depth;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class Edge {
+
+        private Integer parentId;
+
+        private Integer childId;
+    }
+}
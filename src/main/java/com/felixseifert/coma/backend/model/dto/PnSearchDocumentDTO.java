@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.dto;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Searchable text of a PN as it is fed into the full-text search index and the fuzzy PN index.
+ */
+@AllArgsConstructor
+@Getter
+public class PnSearchDocumentDTO {
+
+    private Integer id;
+
+    private String pn;
+
+    private String idx;
+
+    private String productDescription;
+
+    private String customerPartNumber;
+
+    private String predecessor;
+
+    private String completeSourcePn;
+
+    private String comments;
+
+    public static PnSearchDocumentDTO of(PartNumberObject partNumberObject) {
+        return new PnSearchDocumentDTO(partNumberObject.getId(), partNumberObject.getPn(), partNumberObject.getIdx(),
+                partNumberObject.getProductDescription(), partNumberObject.getCustomerPartNumber(),
+                partNumberObject.getPredecessor(), partNumberObject.getCompleteSourcePn(),
+                partNumberObject.getLobs() != null ? partNumberObject.getLobs().getComments() : null);
+    }
+}
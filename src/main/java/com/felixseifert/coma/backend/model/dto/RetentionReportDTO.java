@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class RetentionReportDTO {
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    @Setter
+    private LocalDateTime finishedAt;
+
+    @Setter
+    private boolean complete;       // False if the run stopped at the batch limit and orphans are left
+
+    private int batchCount;
+
+    private int taskReleaseCount;
+
+    private int archivedTaskReleaseCount;
+
+    private int taskStepCount;
+
+    private int roleCount;
+
+    public void addBatch() {
+        batchCount++;
+    }
+
+    public void addTaskReleases(int count) {
+        taskReleaseCount += count;
+    }
+
+    public void addArchivedTaskReleases(int count) {
+        archivedTaskReleaseCount += count;
+    }
+
+    public void addTaskSteps(int count) {
+        taskStepCount += count;
+    }
+
+    public void addRoles(int count) {
+        roleCount += count;
+    }
+
+    public int getReclaimedRowCount() {
+        return taskReleaseCount + archivedTaskReleaseCount + taskStepCount + roleCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d releases, %d archived releases, %d task steps and %d release flow roles deleted " +
+                        "in %d batches%s", taskReleaseCount, archivedTaskReleaseCount, taskStepCount, roleCount,
+                batchCount, complete ? "" : " (batch limit reached)");
+    }
+}
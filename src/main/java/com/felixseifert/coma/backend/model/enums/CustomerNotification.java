@@ -20,7 +20,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @AllArgsConstructor
-public enum CustomerNotification {
+public enum CustomerNotification implements DatabaseCodeEnum {
 
     NOT_NOTIFIED("Not Notified", 10),
     NOTIFIED("Notified", 11),
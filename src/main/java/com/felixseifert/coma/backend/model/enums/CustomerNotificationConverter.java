@@ -16,23 +16,12 @@
 
 package com.felixseifert.coma.backend.model.enums;
 
-import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
-import java.util.Arrays;
 
 @Converter
-public class CustomerNotificationConverter implements AttributeConverter<CustomerNotification, Integer> {
+public class CustomerNotificationConverter extends DatabaseCodeConverter<CustomerNotification> {
 
-    @Override
-    public Integer convertToDatabaseColumn(CustomerNotification customerNotification) {
-        if(customerNotification == null) return null;
-        return customerNotification.getDatabaseCode();
-    }
-
-    @Override
-    public CustomerNotification convertToEntityAttribute(Integer databaseCode) {
-        if(databaseCode == null) return null;
-        return Arrays.stream(CustomerNotification.values()).filter(n -> n.getDatabaseCode().equals(databaseCode))
-                .findFirst().orElseThrow(IllegalArgumentException::new);
+    public CustomerNotificationConverter() {
+        super(CustomerNotification.class);
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.enums;
+
+import java.util.Arrays;
+
+/**
+ * Lookup table from database codes to the constants of a {@link DatabaseCodeEnum}. The constants are stored in an
+ * array indexed by their code, so a lookup neither iterates over all constants nor allocates objects.
+ */
+public class DatabaseCodeLookup<E extends Enum<E> & DatabaseCodeEnum> {
+
+    private final Class<E> enumType;
+
+    private final E[] constantsByCode;
+
+    public DatabaseCodeLookup(Class<E> enumType) {
+        this.enumType = enumType;
+
+        E[] constants = enumType.getEnumConstants();
+        int maxCode = Arrays.stream(constants).mapToInt(DatabaseCodeEnum::getDatabaseCode).max().orElse(-1);
+        constantsByCode = Arrays.copyOf(constants, maxCode + 1);
+        Arrays.fill(constantsByCode, null);
+
+        for(E constant : constants) {
+            int code = constant.getDatabaseCode();
+            if(code < 0) {
+                throw new IllegalStateException(String.format("%s.%s has negative database code %d",
+                        enumType.getSimpleName(), constant.name(), code));
+            }
+            if(constantsByCode[code] != null) {
+                throw new IllegalStateException(String.format("%s.%s and %s.%s have the same database code %d",
+                        enumType.getSimpleName(), constantsByCode[code].name(), enumType.getSimpleName(),
+                        constant.name(), code));
+            }
+            constantsByCode[code] = constant;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if no constant has the given database code
+     */
+    public E fromDatabaseCode(int databaseCode) {
+        E constant = databaseCode >= 0 && databaseCode < constantsByCode.length ? constantsByCode[databaseCode] : null;
+        if(constant == null) {
+            throw new IllegalArgumentException(
+                    "No " + enumType.getSimpleName() + " with database code " + databaseCode);
+        }
+        return constant;
+    }
+}
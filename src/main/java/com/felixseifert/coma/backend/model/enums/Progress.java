@@ -20,7 +20,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @AllArgsConstructor
-public enum Progress {
+public enum Progress implements DatabaseCodeEnum {
     RELEASED("Released", 1),
     DENIED("Denied", 2),
     IN_PROGRESS("Request in Progress", 10);
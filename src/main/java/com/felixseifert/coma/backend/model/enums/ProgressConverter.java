@@ -16,23 +16,12 @@
 
 package com.felixseifert.coma.backend.model.enums;
 
-import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
-import java.util.Arrays;
 
 @Converter
-public class ProgressConverter implements AttributeConverter<Progress, Integer> {
+public class ProgressConverter extends DatabaseCodeConverter<Progress> {
 
-    @Override
-    public Integer convertToDatabaseColumn(Progress progress) {
-        if(progress == null) return null;
-        return progress.getDatabaseCode();
-    }
-
-    @Override
-    public Progress convertToEntityAttribute(Integer databaseCode) {
-        if(databaseCode == null) return null;
-        return Arrays.stream(Progress.values()).filter(r -> r.getDatabaseCode().equals(databaseCode))
-                .findFirst().orElseThrow(IllegalArgumentException::new);
+    public ProgressConverter() {
+        super(Progress.class);
     }
 }
@@ -25,7 +25,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @AllArgsConstructor
-public enum Role {
+public enum Role implements DatabaseCodeEnum {
     SLC(Name.SLC, null, 1),
     SJP(Name.SJP, null, 2),
     PRODUCT_MANAGER(Name.PRODUCT_MANAGER, PartNumberObject_.PRODUCT_MANAGER, 10),
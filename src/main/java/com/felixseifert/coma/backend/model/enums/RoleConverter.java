@@ -16,23 +16,12 @@
 
 package com.felixseifert.coma.backend.model.enums;
 
-import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
-import java.util.Arrays;
 
 @Converter
-public class RoleConverter implements AttributeConverter<Role, Integer> {
+public class RoleConverter extends DatabaseCodeConverter<Role> {
 
-    @Override
-    public Integer convertToDatabaseColumn(Role role) {
-        if(role == null) return null;
-        return role.getDatabaseCode();
-    }
-
-    @Override
-    public Role convertToEntityAttribute(Integer databaseCode) {
-        if(databaseCode == null) return null;
-        return Arrays.stream(Role.values()).filter(r -> r.getDatabaseCode().equals(databaseCode))
-                .findFirst().orElseThrow(IllegalArgumentException::new);
+    public RoleConverter() {
+        super(Role.class);
     }
 }
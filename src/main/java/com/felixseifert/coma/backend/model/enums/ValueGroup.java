@@ -20,7 +20,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 @AllArgsConstructor
-public enum ValueGroup {
+public enum ValueGroup implements DatabaseCodeEnum {
     DEPARTMENT("Team/Department (for employees and PNs)", 0),
     LOCATION("Location", 1),
     CHANNEL_PROFILE("Channel Profile", 3),
@@ -16,23 +16,12 @@
 
 package com.felixseifert.coma.backend.model.enums;
 
-import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
-import java.util.stream.Stream;
 
 @Converter
-public class ValueGroupConverter implements AttributeConverter<ValueGroup, Integer> {
+public class ValueGroupConverter extends DatabaseCodeConverter<ValueGroup> {
 
-    @Override
-    public Integer convertToDatabaseColumn(ValueGroup valueGroup) {
-        if(valueGroup == null) return null;
-        return valueGroup.getDatabaseCode();
-    }
-
-    @Override
-    public ValueGroup convertToEntityAttribute(Integer databaseCode) {
-        if(databaseCode == null) return null;
-        return Stream.of(ValueGroup.values()).filter(c -> c.getDatabaseCode().equals(databaseCode))
-                .findFirst().orElseThrow(IllegalArgumentException::new);
+    public ValueGroupConverter() {
+        super(ValueGroup.class);
     }
 }
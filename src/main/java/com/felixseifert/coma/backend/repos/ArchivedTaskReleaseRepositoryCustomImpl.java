@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.repos;
+
+import com.felixseifert.coma.backend.model.ArchivedTaskRelease;
+import com.felixseifert.coma.backend.model.ArchivedTaskRelease_;
+import com.felixseifert.coma.backend.model.ArchivedTaskStepRelease;
+import com.felixseifert.coma.backend.model.ArchivedTaskStepRelease_;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ArchivedTaskReleaseRepositoryCustomImpl implements ArchivedTaskReleaseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Each tuple holds the {@link TaskReleaseRepositoryCustomImpl#TASK_RELEASE_ID}, the
+     * {@link TaskReleaseRepositoryCustomImpl#FINISHED_AT} and the {@link TaskReleaseRepositoryCustomImpl#STATUS}.
+     */
+    @Override
+    public List<Tuple> findFinishedBefore(LocalDateTime finishedBefore, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<ArchivedTaskRelease> root = cq.from(ArchivedTaskRelease.class);
+
+        cq.multiselect(root.get(ArchivedTaskRelease_.id).alias(TaskReleaseRepositoryCustomImpl.TASK_RELEASE_ID),
+                root.get(ArchivedTaskRelease_.finishedAt).alias(TaskReleaseRepositoryCustomImpl.FINISHED_AT),
+                root.get(ArchivedTaskRelease_.status).alias(TaskReleaseRepositoryCustomImpl.STATUS))
+                .where(cb.lessThan(root.get(ArchivedTaskRelease_.finishedAt), finishedBefore))
+                .orderBy(cb.asc(root.get(ArchivedTaskRelease_.id)));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .setHint(QueryHints.READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int deleteArchivedTaskSteps(List<Long> taskReleaseIds) {
+        if(taskReleaseIds.isEmpty()) return 0;
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<ArchivedTaskStepRelease> delete = cb.createCriteriaDelete(ArchivedTaskStepRelease.class);
+        Root<ArchivedTaskStepRelease> root = delete.from(ArchivedTaskStepRelease.class);
+
+        delete.where(root.get(ArchivedTaskStepRelease_.taskReleaseId).in(taskReleaseIds));
+
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int deleteArchivedRolesForReleaseFlow(List<Long> taskReleaseIds) {
+        if(taskReleaseIds.isEmpty()) return 0;
+        entityManager.flush();
+        return entityManager.createNativeQuery(
+                "delete from roles_for_release_flow_archive where task_release_id in (:ids)")
+                .setParameter("ids", taskReleaseIds)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ArchivedTaskRelease.class)
+                .executeUpdate();
+    }
+
+    /**
+     * Deletes the given archived releases without their children, see {@link #deleteArchivedTaskSteps(List)} and
+     * {@link #deleteArchivedRolesForReleaseFlow(List)}.
+     */
+    @Override
+    @Transactional
+    public int deleteArchivedTaskReleases(List<Long> taskReleaseIds) {
+        if(taskReleaseIds.isEmpty()) return 0;
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<ArchivedTaskRelease> delete = cb.createCriteriaDelete(ArchivedTaskRelease.class);
+        Root<ArchivedTaskRelease> root = delete.from(ArchivedTaskRelease.class);
+
+        delete.where(root.get(ArchivedTaskRelease_.id).in(taskReleaseIds));
+
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+}
@@ -26,6 +26,8 @@ public interface BusinessUnitRepositoryCustom {
 
     Optional<BusinessUnit> findByName(String name);
 
+    Optional<BusinessUnit> findBusinessUnitById(Integer id);
+
     List<BusinessUnit> findAllBusinessUnits();
 
     int countByProductManager(Employee productManager);
@@ -31,6 +31,8 @@ import java.util.Optional;
 
 public class BusinessUnitRepositoryCustomImpl implements BusinessUnitRepositoryCustom {
 
+    private static final String BUSINESS_UNIT_QUERY_REGION = "business_units.queries";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -47,6 +49,29 @@ public class BusinessUnitRepositoryCustomImpl implements BusinessUnitRepositoryC
         cq.where(cb.equal(root.get(BusinessUnit_.NAME), name));
         TypedQuery<BusinessUnit> typedQuery = entityManager.createQuery(cq);
         typedQuery.setHint("javax.persistence.fetchgraph", graph);
+        typedQuery.setHint(QueryHints.HINT_CACHEABLE, true);
+        typedQuery.setHint(QueryHints.HINT_CACHE_REGION, BUSINESS_UNIT_QUERY_REGION);
+        BusinessUnit response = null;
+        try {
+            response = typedQuery.getSingleResult();
+        }
+        catch(NoResultException nre) {}
+        return Optional.ofNullable(response);
+    }
+
+    @Override
+    public Optional<BusinessUnit> findBusinessUnitById(Integer id) {
+
+        EntityGraph<BusinessUnit> graph = entityManager.createEntityGraph(BusinessUnit.class);
+        graph.addAttributeNodes(BusinessUnit.FIELDS_TO_INITIALISE);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BusinessUnit> cq = cb.createQuery(BusinessUnit.class);
+        Root<BusinessUnit> root = cq.from(BusinessUnit.class);
+
+        cq.where(cb.equal(root.get(BusinessUnit_.ID), id));
+        TypedQuery<BusinessUnit> typedQuery = entityManager.createQuery(cq);
+        typedQuery.setHint("javax.persistence.fetchgraph", graph);
         BusinessUnit response = null;
         try {
             response = typedQuery.getSingleResult();
@@ -68,6 +93,8 @@ public class BusinessUnitRepositoryCustomImpl implements BusinessUnitRepositoryC
         TypedQuery<BusinessUnit> typedQuery = entityManager.createQuery(cq);
         typedQuery.setHint("javax.persistence.fetchgraph", graph);
         typedQuery.setHint(QueryHints.HINT_READONLY, true);
+        typedQuery.setHint(QueryHints.HINT_CACHEABLE, true);
+        typedQuery.setHint(QueryHints.HINT_CACHE_REGION, BUSINESS_UNIT_QUERY_REGION);
 
         return typedQuery.getResultList();
     }
@@ -18,14 +18,23 @@ package com.felixseifert.coma.backend.repos;
 
 import com.felixseifert.coma.backend.model.Coo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface CooRepository extends JpaRepository<Coo, Integer> {
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "coos.queries")})
     List<Coo> findAllByOrderByAbbreviationAsc();
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "coos.queries")})
     Optional<Coo> findByName(String name);
 
     boolean existsByName(String name);
@@ -18,15 +18,27 @@ package com.felixseifert.coma.backend.repos;
 
 import com.felixseifert.coma.backend.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface CustomerRepository extends JpaRepository<Customer, String> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
 
+public interface CustomerRepository extends JpaRepository<Customer, String>, CustomerRepositoryCustom {
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "customers.queries")})
     Optional<Customer> findByCode(String code);
 
     List<Customer> findByNameStartsWithIgnoreCase(String filterText);
 
+    int countByNameStartsWithIgnoreCase(String filterText);
+
+    List<Customer> findByCodeIn(Collection<String> codes);
+
     boolean existsByCode(String code);
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.repos;
+
+import com.felixseifert.coma.backend.model.Customer;
+import com.felixseifert.coma.backend.model.Customer_;
+import com.felixseifert.coma.backend.model.dto.CustomerGridDTO;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CustomerGridDTO> findCustomerGridDtos(String filterText, int limit, int offset, boolean descending,
+                                                      String sortProperty) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerGridDTO> cq = cb.createQuery(CustomerGridDTO.class);
+        Root<Customer> root = cq.from(Customer.class);
+
+        cq.select(cb.construct(CustomerGridDTO.class,
+                root.get(Customer_.code),
+                root.get(Customer_.name),
+                root.get(Customer_.deliveryLocation),
+                root.get(Customer_.currency)));
+
+        if(StringUtils.isNotBlank(filterText)) {
+            cq.where(createNamePredicate(cb, root, filterText));
+        }
+
+        sortProperty = CustomerGridDTO.FIELD_MAPPING_DTO_TO_ORIGIN.get(sortProperty);
+        if(StringUtils.isBlank(sortProperty)) {
+            sortProperty = Customer_.NAME;
+        }
+        // Secondary order by code keeps the pages stable for equal values of the sort property
+        if(descending) cq.orderBy(cb.desc(root.get(sortProperty)), cb.asc(root.get(Customer_.code)));
+        else cq.orderBy(cb.asc(root.get(sortProperty)), cb.asc(root.get(Customer_.code)));
+
+        return entityManager.createQuery(cq)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    public List<Customer> findByNameStartsWithIgnoreCase(String filterText, int limit, int offset) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Customer> cq = cb.createQuery(Customer.class);
+        Root<Customer> root = cq.from(Customer.class);
+
+        cq.select(root).orderBy(cb.asc(root.get(Customer_.name)), cb.asc(root.get(Customer_.code)));
+
+        if(StringUtils.isNotBlank(filterText)) {
+            cq.where(createNamePredicate(cb, root, filterText));
+        }
+
+        return entityManager.createQuery(cq)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private Predicate createNamePredicate(CriteriaBuilder cb, Root<Customer> root, String filterText) {
+        return cb.like(cb.lower(root.get(Customer_.name)), filterText.toLowerCase() + "%");
+    }
+}
@@ -17,8 +17,10 @@
 package com.felixseifert.coma.backend.repos;
 
 import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.dto.EmployeeGridDTO;
 import com.felixseifert.coma.backend.model.enums.Role;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,7 +30,20 @@ public interface EmployeeRepositoryCustom {
 
     Optional<Employee> findByEmailAddress(String emailAddress);
 
+    List<Employee> findByEmailAddressIn(Collection<String> emailAddresses);
+
     List<Employee> findAllEmployees();
 
     List<Employee> findByNameStartsWithIgnoreCase(String filterText);
+
+    List<EmployeeGridDTO> findEmployeeGridDtos(String filterText, int limit, int offset, boolean descending,
+                                               String sortProperty);
+
+    int countByNameStartsWithIgnoreCase(String filterText);
+
+    Optional<EmployeeGridDTO> findEmployeeGridDtoById(Integer id);
+
+    List<Employee> findByNameStartsWithIgnoreCaseAndRole(String filterText, Role role, int limit, int offset);
+
+    int countByNameStartsWithIgnoreCaseAndRole(String filterText, Role role);
 }
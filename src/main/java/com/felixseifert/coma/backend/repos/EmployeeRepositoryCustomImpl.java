@@ -18,6 +18,7 @@ package com.felixseifert.coma.backend.repos;
 
 import com.felixseifert.coma.backend.model.Employee;
 import com.felixseifert.coma.backend.model.Employee_;
+import com.felixseifert.coma.backend.model.dto.EmployeeGridDTO;
 import com.felixseifert.coma.backend.model.enums.Role;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.jpa.QueryHints;
@@ -25,8 +26,12 @@ import org.hibernate.jpa.QueryHints;
 import javax.persistence.*;
 import javax.persistence.criteria.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
 
@@ -67,6 +72,22 @@ public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
         return Optional.ofNullable(response);
     }
 
+    @Override
+    public List<Employee> findByEmailAddressIn(Collection<String> emailAddresses) {
+        if(emailAddresses.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> cq = cb.createQuery(Employee.class);
+        Root<Employee> root = cq.from(Employee.class);
+        root.fetch(Employee_.ROLES, JoinType.LEFT);
+
+        cq.select(root).where(root.get(Employee_.emailAddress).in(emailAddresses)).distinct(true);
+
+        return entityManager.createQuery(cq).setHint(QueryHints.HINT_READONLY, true).getResultList();
+    }
+
     @Override
     public List<Employee> findAllEmployees() {
         return findByNameStartsWithIgnoreCase(null);
@@ -89,4 +110,124 @@ public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
 
         return entityManager.createQuery(cq).setHint(QueryHints.HINT_READONLY, true).getResultList();
     }
+
+    @Override
+    public List<EmployeeGridDTO> findEmployeeGridDtos(String filterText, int limit, int offset, boolean descending,
+                                                      String sortProperty) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeGridDTO> cq = cb.createQuery(EmployeeGridDTO.class);
+        Root<Employee> root = cq.from(Employee.class);
+
+        cq.select(cb.construct(EmployeeGridDTO.class,
+                root.get(Employee_.id),
+                root.get(Employee_.name),
+                root.get(Employee_.emailAddress),
+                root.get(Employee_.team),
+                root.get(Employee_.location)))
+                .where(createNamePredicate(cb, root, filterText, null));
+
+        sortProperty = EmployeeGridDTO.FIELD_MAPPING_DTO_TO_ORIGIN.get(sortProperty);
+        if(StringUtils.isBlank(sortProperty)) {
+            sortProperty = Employee_.NAME;
+        }
+        // Secondary order by id keeps the pages stable for equal values of the sort property
+        if(descending) cq.orderBy(cb.desc(root.get(sortProperty)), cb.asc(root.get(Employee_.id)));
+        else cq.orderBy(cb.asc(root.get(sortProperty)), cb.asc(root.get(Employee_.id)));
+
+        List<EmployeeGridDTO> employeeDtos = entityManager.createQuery(cq)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultList();
+
+        addRoles(employeeDtos);
+        return employeeDtos;
+    }
+
+    @Override
+    public Optional<EmployeeGridDTO> findEmployeeGridDtoById(Integer id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeGridDTO> cq = cb.createQuery(EmployeeGridDTO.class);
+        Root<Employee> root = cq.from(Employee.class);
+
+        cq.select(cb.construct(EmployeeGridDTO.class,
+                root.get(Employee_.id),
+                root.get(Employee_.name),
+                root.get(Employee_.emailAddress),
+                root.get(Employee_.team),
+                root.get(Employee_.location)))
+                .where(cb.equal(root.get(Employee_.id), id));
+
+        List<EmployeeGridDTO> employeeDtos = entityManager.createQuery(cq)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultList();
+
+        addRoles(employeeDtos);
+        return employeeDtos.stream().findFirst();
+    }
+
+    @Override
+    public int countByNameStartsWithIgnoreCase(String filterText) {
+        return countByNameStartsWithIgnoreCaseAndRole(filterText, null);
+    }
+
+    @Override
+    public List<Employee> findByNameStartsWithIgnoreCaseAndRole(String filterText, Role role, int limit, int offset) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> cq = cb.createQuery(Employee.class);
+        Root<Employee> root = cq.from(Employee.class);
+
+        cq.select(root)
+                .where(createNamePredicate(cb, root, filterText, role))
+                .orderBy(cb.asc(root.get(Employee_.name)), cb.asc(root.get(Employee_.id)));
+
+        return entityManager.createQuery(cq)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int countByNameStartsWithIgnoreCaseAndRole(String filterText, Role role) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Employee> root = cq.from(Employee.class);
+
+        cq.select(cb.count(root)).where(createNamePredicate(cb, root, filterText, role));
+
+        return entityManager.createQuery(cq).getSingleResult().intValue();
+    }
+
+    private Predicate createNamePredicate(CriteriaBuilder cb, Root<Employee> root, String filterText, Role role) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if(StringUtils.isNotBlank(filterText)) {
+            predicates.add(cb.like(cb.lower(root.get(Employee_.name)), "%" + filterText.toLowerCase() + "%"));
+        }
+        if(role != null) {
+            predicates.add(cb.isMember(role, root.get(Employee_.roles)));
+        }
+
+        return cb.and(predicates.toArray(new Predicate[predicates.size()]));
+    }
+
+    // Roles are loaded with one query per page instead of a fetch join, which would break the pagination
+    private void addRoles(List<EmployeeGridDTO> employeeDtos) {
+        if(employeeDtos.isEmpty()) {
+            return;
+        }
+        Map<Integer, EmployeeGridDTO> employeeDtosById = employeeDtos.stream()
+                .collect(Collectors.toMap(EmployeeGridDTO::getId, Function.identity()));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Employee> root = cq.from(Employee.class);
+        Join<Employee, Role> joinRoles = root.join(Employee_.roles);
+
+        cq.multiselect(root.get(Employee_.id), joinRoles)
+                .where(root.get(Employee_.id).in(employeeDtosById.keySet()));
+
+        entityManager.createQuery(cq).getResultList().forEach(tuple ->
+                employeeDtosById.get(tuple.get(0, Integer.class)).getRoles().add(tuple.get(1, Role.class)));
+    }
 }
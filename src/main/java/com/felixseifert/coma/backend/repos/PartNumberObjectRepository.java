@@ -25,6 +25,4 @@ public interface PartNumberObjectRepository extends JpaRepository<PartNumberObje
     boolean existsById(int id);
 
     long count();
-
-    int countByPnStartsWithIgnoreCase(String pn);
 }
@@ -21,9 +21,16 @@ import com.felixseifert.coma.backend.model.Employee;
 import com.felixseifert.coma.backend.model.PartNumberObject;
 import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFilter;
+import com.felixseifert.coma.backend.model.dto.PnSearchDocumentDTO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface PartNumberObjectRepositoryCustom {
 
@@ -34,6 +41,29 @@ public interface PartNumberObjectRepositoryCustom {
     List<PartNumberObjectGridDTO> findByPnStartsWithIgnoreCase(String pn, int limit, int offset,
                                                                boolean descending, String sortProperty);
 
+    List<PartNumberObjectGridDTO> findByPnStartsWithIgnoreCase(String pn, int limit, int offset,
+                                                               boolean descending, String sortProperty,
+                                                               Set<String> fields);
+
+    List<PartNumberObjectGridDTO> findPnGridDtos(PnGridFilter filter, int limit, int offset, boolean descending,
+                                                 String sortProperty, Set<String> fields);
+
+    int countPnGridDtos(PnGridFilter filter);
+
+    PnGridFacetsDTO findPnGridFacets(PnGridFilter filter);
+
+    Optional<PartNumberObjectGridDTO> findPnGridDtoById(Integer id);
+
+    int countByPnStartsWithIgnoreCase(String pn);
+
+    void scrollByPnStartsWithIgnoreCase(String pn, boolean descending, String sortProperty,
+                                        Consumer<PartNumberObjectGridDTO> consumer);
+
+    void scrollPnGridDtos(PnGridFilter filter, boolean descending, String sortProperty,
+                          Consumer<PartNumberObjectGridDTO> consumer);
+
+    void scrollPnSearchDocuments(Consumer<PnSearchDocumentDTO> consumer);
+
     void removePNsForEmployeeByRole(Employee employee, Role role);
 
     void removePNsForBusinessUnit(BusinessUnit businessUnit);
@@ -45,4 +75,22 @@ public interface PartNumberObjectRepositoryCustom {
     Integer countPartNumberObjects(BusinessUnit businessUnit);
 
     boolean existsByCompletePn(String completePn);
+
+    boolean existsByCompletePn(String completePn, Integer excludedId);
+
+    Set<String> findCompletePnsInUse(Collection<String> pns);
+
+    Map<Integer, String> findAllCompletePnsInUse();
+
+    void insertPartNumberObjects(List<PartNumberObject> partNumberObjects);
+
+    void refreshPnGridView(Collection<Integer> ids);
+
+    void refreshPnGridViewForEmployee(Employee employee);
+
+    int rebuildPnGridView();
+
+    long countPnGridView();
+
+    long countPartNumberObjectsWithTaskRelease();
 }
@@ -17,24 +17,88 @@
 package com.felixseifert.coma.backend.repos;
 
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO.Facet;
+import com.felixseifert.coma.backend.model.dto.PnGridFilter;
+import com.felixseifert.coma.backend.model.dto.PnSearchDocumentDTO;
+import com.felixseifert.coma.backend.model.enums.CustomerNotification;
 import com.felixseifert.coma.backend.model.enums.Progress;
 import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.*;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PostInsertIdentifierGenerator;
 import org.hibernate.jpa.QueryHints;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.*;
 import javax.persistence.criteria.*;
+import javax.persistence.metamodel.SingularAttribute;
+import java.io.Serializable;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Collectors;
 
 public class PartNumberObjectRepositoryCustomImpl implements PartNumberObjectRepositoryCustom {
 
+    private static final String PN_GRID_VIEW_INSERT = "insert into pn_grid_view (id, pn, due_date, " +
+            "created_by_team_department, created_date, current_employee_id, current_employee_name, " +
+            "current_employee_role, release_completed_at, status, customer_notification, last_modified_date_time, " +
+            "business_unit_id, customer_code) " +
+            "select p.id, p.pn, p.due_date, p.created_by_team_department, p.created_date, e.id, e.name, " +
+            "t.responsible_employee_role, t.finished_at, t.status, t.customer_notification, " +
+            "p.last_modified_date_time, p.business_unit_name, p.customer_code from part_numbers p " +
+            "join tasks_release t on t.id = p.task_release_id " +
+            "left join employees e on e.id = t.responsible_employee_id";
+
+    private static final String[] PART_NUMBER_COLUMNS = {"pn", "idx", "product_description", "product_code",
+            "complete_source_pn", "create_by_employee_id", "created_by_team_department", "customer_code",
+            "customer_part_number", "due_date", "start_of_production", "end_of_production", "predecessor",
+            "coo_name", "coo_abbreviation", "plant", "plant_code", "catalogue_price", "transfer_price", "ppc",
+            "business_unit_name", "product_manager_id", "product_specialist_id", "task_release_id", "lobs_id",
+            "created_by", "created_date", "last_modified_by", "last_modified_date_time"};
+
+    private static final String[] TASK_RELEASE_COLUMNS = {"started_at", "finished_at", "responsible_employee_id",
+            "responsible_employee_role", "status", "customer_notification", "rejection_reason_or_follow_up"};
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    // MySQL Connector/J only streams results with Integer.MIN_VALUE (or with useCursorFetch=true on the URL),
+    // any positive value loads the complete result into memory
+    @Value("${coma.scroll.fetch-size:500}")
+    private int scrollFetchSize;
+
     @Override
     public Optional<PartNumberObject> findById(Integer id) {
         EntityGraph<PartNumberObject> graph = entityManager.createEntityGraph(PartNumberObject.class);
@@ -77,6 +141,21 @@ public class PartNumberObjectRepositoryCustomImpl implements PartNumberObjectRep
     @Override
     public List<PartNumberObjectGridDTO> findByPnStartsWithIgnoreCase(String pn, int limit, int offset,
                                                                       boolean descending, String sortProperty) throws IllegalArgumentException {
+        return findByPnStartsWithIgnoreCase(pn, limit, offset, descending, sortProperty,
+                PartNumberObjectGridDTO.FIELDS);
+    }
+
+    @Override
+    public List<PartNumberObjectGridDTO> findByPnStartsWithIgnoreCase(String pn, int limit, int offset,
+                                                                      boolean descending, String sortProperty,
+                                                                      Set<String> fields) throws IllegalArgumentException {
+        return findPnGridDtos(PnGridFilter.ofPn(pn), limit, offset, descending, sortProperty, fields);
+    }
+
+    @Override
+    public List<PartNumberObjectGridDTO> findPnGridDtos(PnGridFilter filter, int limit, int offset,
+                                                        boolean descending, String sortProperty,
+                                                        Set<String> fields) throws IllegalArgumentException {
 
         if (offset < 0) {
             throw new IllegalArgumentException("Offset index must not be less than zero!");
@@ -86,58 +165,478 @@ public class PartNumberObjectRepositoryCustomImpl implements PartNumberObjectRep
         }
 
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<PartNumberObjectGridDTO> cq = cb.createQuery(PartNumberObjectGridDTO.class);
-        Root<PartNumberObject> root = cq.from(PartNumberObject.class);
-        Join<PartNumberObject, TaskRelease> joinTask = root.join(PartNumberObject_.TASK_RELEASE);
-        Join<TaskRelease, Employee> joinEmployee =
-                joinTask.join(TaskRelease_.CURRENT_RESPONSIBLE_EMPLOYEE, JoinType.LEFT);
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<PnGridView> root = cq.from(PnGridView.class);
 
+        // Attributes of the read model are named like the fields of the DTO
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(PnGridView_.id).alias("id"));
+        fields.stream().filter(f -> !f.equals("id")).filter(PartNumberObjectGridDTO.FIELDS::contains)
+                .forEach(f -> selections.add(root.get(f).alias(f)));
+        cq.multiselect(selections)
+                .where(createPnGridPredicates(cb, root, filter, true))
+                .orderBy(createPnGridOrder(cb, root, descending, sortProperty));
 
-        cq.select(cb.construct(PartNumberObjectGridDTO.class,
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(cq);
+
+        typedQuery.setFirstResult(offset);
+        typedQuery.setMaxResults(limit);
+
+        typedQuery.setHint(QueryHints.HINT_READONLY, true);
+
+        Set<String> selectedFields = selections.stream().map(Selection::getAlias).collect(Collectors.toSet());
+        return typedQuery.getResultList().stream()
+                .map(tuple -> toPnGridDto(tuple, selectedFields))
+                .collect(Collectors.toList());
+    }
+
+    // The selections of the facets are left out when the facet counts are computed
+    private Predicate[] createPnGridPredicates(CriteriaBuilder cb, Root<PnGridView> root, PnGridFilter filter,
+                                              boolean includeFacets) {
+        List<Predicate> predicates = new ArrayList<>();
+        if(filter == null) {
+            return new Predicate[0];
+        }
+        if(StringUtils.isNotBlank(filter.getPn())) {
+            predicates.add(cb.like(cb.lower(root.get(PnGridView_.pn)), "%" + filter.getPn().toLowerCase() + "%"));
+        }
+        if(filter.getDueDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get(PnGridView_.dueDate), filter.getDueDateFrom()));
+        }
+        if(filter.getDueDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get(PnGridView_.dueDate), filter.getDueDateTo()));
+        }
+        if(includeFacets) {
+            for(Facet facet : Facet.values()) {
+                if(!filter.getSelection(facet).isEmpty()) {
+                    predicates.add(facetExpression(root, facet).in(filter.getSelection(facet)));
+                }
+            }
+        }
+        return predicates.toArray(new Predicate[predicates.size()]);
+    }
+
+    private Expression<?> facetExpression(Root<PnGridView> root, Facet facet) {
+        switch(facet) {
+            case STATUS:
+                return root.get(PnGridView_.status);
+            case CUSTOMER_NOTIFICATION:
+                return root.get(PnGridView_.customerNotification);
+            case BUSINESS_UNIT:
+                return root.get(PnGridView_.businessUnitId);
+            case CUSTOMER:
+                return root.get(PnGridView_.customerCode);
+            case RESPONSIBLE_EMPLOYEE:
+                return root.get(PnGridView_.currentEmployeeId);
+            default:
+                throw new IllegalArgumentException("Unknown facet " + facet);
+        }
+    }
+
+    // Secondary order by id matches the indexes of the read model and keeps the pages stable for equal values
+    private List<Order> createPnGridOrder(CriteriaBuilder cb, Root<PnGridView> root, boolean descending,
+                                          String sortProperty) {
+        Expression<?> orderBy = PartNumberObjectGridDTO.FIELDS.contains(sortProperty) ? root.get(sortProperty)
+                : root.get(PnGridView_.lastModifiedDateTime);
+        if(descending) return List.of(cb.desc(orderBy), cb.desc(root.get(PnGridView_.id)));
+        return List.of(cb.asc(orderBy), cb.asc(root.get(PnGridView_.id)));
+    }
+
+    private PartNumberObjectGridDTO toPnGridDto(Tuple tuple, Set<String> selectedFields) {
+        return new PartNumberObjectGridDTO(
+                tuple.get("id", Integer.class),
+                tupleValue(tuple, selectedFields, "pn", String.class),
+                tupleValue(tuple, selectedFields, "dueDate", LocalDate.class),
+                tupleValue(tuple, selectedFields, "createdByTeamDepartment", String.class),
+                tupleValue(tuple, selectedFields, "createdDate", LocalDate.class),
+                tupleValue(tuple, selectedFields, "currentEmployeeName", String.class),
+                tupleValue(tuple, selectedFields, "currentEmployeeRole", Role.class),
+                tupleValue(tuple, selectedFields, "releaseCompletedAt", LocalDateTime.class),
+                tupleValue(tuple, selectedFields, "status", Progress.class),
+                tupleValue(tuple, selectedFields, "customerNotification", CustomerNotification.class));
+    }
+
+    private <T> T tupleValue(Tuple tuple, Set<String> selectedFields, String field, Class<T> type) {
+        return selectedFields.contains(field) ? tuple.get(field, type) : null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void scrollByPnStartsWithIgnoreCase(String pn, boolean descending, String sortProperty,
+                                               Consumer<PartNumberObjectGridDTO> consumer) {
+        scrollPnGridDtos(PnGridFilter.ofPn(pn), descending, sortProperty, consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void scrollPnGridDtos(PnGridFilter filter, boolean descending, String sortProperty,
+                                 Consumer<PartNumberObjectGridDTO> consumer) {
+
+        Query<PartNumberObjectGridDTO> query =
+                createPnGridQuery(null, filter, descending, sortProperty).unwrap(Query.class);
+        query.setFetchSize(scrollFetchSize);
+        query.setReadOnly(true);
+
+        try(ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while(results.next()) {
+                consumer.accept((PartNumberObjectGridDTO) results.get(0));
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void scrollPnSearchDocuments(Consumer<PnSearchDocumentDTO> consumer) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PnSearchDocumentDTO> cq = cb.createQuery(PnSearchDocumentDTO.class);
+        Root<PartNumberObject> root = cq.from(PartNumberObject.class);
+        Join<PartNumberObject, PartNumberLob> join = root.join(PartNumberObject_.lobs, JoinType.LEFT);
+
+        cq.select(cb.construct(PnSearchDocumentDTO.class,
                 root.get(PartNumberObject_.id),
                 root.get(PartNumberObject_.pn),
-                root.get(PartNumberObject_.dueDate),
-                root.get(PartNumberObject_.createdByTeamDepartment),
-                root.get(PartNumberObject_.createdDate),
-                joinEmployee.get(Employee_.name),
-                joinTask.get(TaskRelease_.currentEmployeesRole),
-                joinTask.get(TaskRelease_.finishedAt),
-                joinTask.get(TaskRelease_.status),
-                joinTask.get(TaskRelease_.customerNotification)));
+                root.get(PartNumberObject_.idx),
+                root.get(PartNumberObject_.productDescription),
+                root.get(PartNumberObject_.customerPartNumber),
+                root.get(PartNumberObject_.predecessor),
+                root.get(PartNumberObject_.completeSourcePn),
+                join.get(PartNumberLob_.comments)));
+
+        Query<PnSearchDocumentDTO> query = entityManager.createQuery(cq).unwrap(Query.class);
+        query.setFetchSize(scrollFetchSize);
+        query.setReadOnly(true);
+
+        try(ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while(results.next()) {
+                consumer.accept((PnSearchDocumentDTO) results.get(0));
+            }
+        }
+    }
+
+    @Override
+    public Optional<PartNumberObjectGridDTO> findPnGridDtoById(Integer id) {
+        TypedQuery<PartNumberObjectGridDTO> typedQuery = createPnGridQuery(id, null, false, null);
+        typedQuery.setHint(QueryHints.HINT_READONLY, true);
+        return typedQuery.getResultList().stream().findFirst();
+    }
+
+    private TypedQuery<PartNumberObjectGridDTO> createPnGridQuery(Integer id, PnGridFilter filter,
+                                                                  boolean descending, String sortProperty) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PartNumberObjectGridDTO> cq = cb.createQuery(PartNumberObjectGridDTO.class);
+        Root<PnGridView> root = cq.from(PnGridView.class);
+
+        cq.select(cb.construct(PartNumberObjectGridDTO.class,
+                root.get(PnGridView_.id),
+                root.get(PnGridView_.pn),
+                root.get(PnGridView_.dueDate),
+                root.get(PnGridView_.createdByTeamDepartment),
+                root.get(PnGridView_.createdDate),
+                root.get(PnGridView_.currentEmployeeName),
+                root.get(PnGridView_.currentEmployeeRole),
+                root.get(PnGridView_.releaseCompletedAt),
+                root.get(PnGridView_.status),
+                root.get(PnGridView_.customerNotification)));
+
+        if(id != null) {
+            cq.where(cb.equal(root.get(PnGridView_.id), id));
+        }
+        else {
+            cq.where(createPnGridPredicates(cb, root, filter, true));
+        }
+        cq.orderBy(createPnGridOrder(cb, root, descending, sortProperty));
+
+        return entityManager.createQuery(cq);
+    }
+
+    @Override
+    public int countByPnStartsWithIgnoreCase(String pn) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<PnGridView> root = cq.from(PnGridView.class);
 
+        cq.select(cb.count(root));
         if(StringUtils.isNotBlank(pn)) {
-            cq.where(cb.like(cb.lower(root.get(PartNumberObject_.pn)), "%" + pn.toLowerCase() + "%"));
+            cq.where(cb.like(cb.lower(root.get(PnGridView_.pn)), pn.toLowerCase() + "%"));
         }
 
-        sortProperty = PartNumberObjectGridDTO.FIELD_MAPPING_DTO_TO_ORIGIN.get(sortProperty);
-        if(StringUtils.isBlank(sortProperty)) {
-            sortProperty = PartNumberObject_.LAST_MODIFIED_DATE_TIME;
+        return entityManager.createQuery(cq).getSingleResult().intValue();
+    }
+
+    @Override
+    public int countPnGridDtos(PnGridFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<PnGridView> root = cq.from(PnGridView.class);
+
+        cq.select(cb.count(root)).where(createPnGridPredicates(cb, root, filter, true));
+
+        return entityManager.createQuery(cq).getSingleResult().intValue();
+    }
+
+    /**
+     * Counts the PNs per facet value in a single grouped query: the PNs matching the filter without the facet
+     * selections are grouped by the combination of all facet values. A combination counts for a value of a facet if
+     * it matches the selections of the other facets. The labels of business units and customers are looked up
+     * afterwards for the values found.
+     */
+    @Override
+    public PnGridFacetsDTO findPnGridFacets(PnGridFilter filter) {
+        if(filter == null) {
+            filter = new PnGridFilter();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<PnGridView> root = cq.from(PnGridView.class);
+
+        List<Expression<?>> groupBy = new ArrayList<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for(Facet facet : Facet.values()) {
+            groupBy.add(facetExpression(root, facet));
+            selections.add(facetExpression(root, facet).alias(facet.name()));
+        }
+        groupBy.add(root.get(PnGridView_.currentEmployeeName));
+        selections.add(root.get(PnGridView_.currentEmployeeName).alias("employeeName"));
+        selections.add(cb.count(root).alias("pnCount"));
+
+        cq.multiselect(selections)
+                .where(createPnGridPredicates(cb, root, filter, false))
+                .groupBy(groupBy);
+
+        PnGridFacetsDTO facets = new PnGridFacetsDTO();
+        for(Tuple tuple : entityManager.createQuery(cq).setHint(QueryHints.HINT_READONLY, true).getResultList()) {
+            long count = tuple.get("pnCount", Long.class);
+            Set<Facet> mismatches = EnumSet.noneOf(Facet.class);
+            for(Facet facet : Facet.values()) {
+                if(!filter.matches(facet, tuple.get(facet.name()))) {
+                    mismatches.add(facet);
+                }
+            }
+            if(mismatches.isEmpty()) {
+                facets.addToTotal(count);
+            }
+            for(Facet facet : Facet.values()) {
+                Object value = tuple.get(facet.name());
+                if(value == null || !(mismatches.isEmpty() || mismatches.equals(EnumSet.of(facet)))) {
+                    continue;
+                }
+                facets.addCount(facet, value, facetLabel(facet, value, tuple.get("employeeName", String.class)),
+                        count);
+            }
         }
 
-        Expression orderBy;
+        lookUpLabels(facets.getValues(Facet.BUSINESS_UNIT), BusinessUnit.class, BusinessUnit_.id, BusinessUnit_.name);
+        lookUpLabels(facets.getValues(Facet.CUSTOMER), Customer.class, Customer_.code, Customer_.name);
+        return facets;
+    }
 
-        switch(sortProperty) {
-            case Employee_.NAME:
-                orderBy = joinEmployee.get(sortProperty);
-                break;
-            case TaskRelease_.FINISHED_AT:
-                orderBy = joinTask.get(sortProperty);
-                break;
-            default:
-                orderBy = root.get(sortProperty);
+    private String facetLabel(Facet facet, Object value, String employeeName) {
+        if(value instanceof Progress) return ((Progress) value).getName();
+        if(value instanceof CustomerNotification) return ((CustomerNotification) value).getName();
+        if(facet == Facet.RESPONSIBLE_EMPLOYEE) return employeeName;
+        return value.toString();
+    }
+
+    private <E, K> void lookUpLabels(List<PnGridFacetsDTO.Value> values, Class<E> entityClass,
+                                     SingularAttribute<? super E, K> key, SingularAttribute<? super E, String> name) {
+        if(values.isEmpty()) return;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<E> root = cq.from(entityClass);
+
+        cq.multiselect(root.get(key), root.get(name))
+                .where(root.get(key).in(values.stream().map(PnGridFacetsDTO.Value::getValue)
+                        .collect(Collectors.toList())));
+
+        Map<Object, String> labels = new HashMap<>();
+        entityManager.createQuery(cq).setHint(QueryHints.HINT_READONLY, true).getResultList()
+                .forEach(tuple -> labels.put(tuple.get(0), tuple.get(1, String.class)));
+        values.forEach(value -> value.setLabel(labels.getOrDefault(value.getValue(), value.getLabel())));
+    }
+
+    /**
+     * Inserts new PNs with their releases and comments with one JDBC batch per table. Hibernate does not batch inserts
+     * of entities whose ids are generated by the database (native ids on MySQL), so the ids are read from the
+     * generated keys of the batch instead, or drawn from the id generator if it is not database generated. The PNs
+     * are not attached to the persistence context afterwards. Only meant for new PNs without request types, channel
+     * profiles, release flow and completed task steps, which are not written.
+     */
+    @Override
+    @Transactional
+    public void insertPartNumberObjects(List<PartNumberObject> partNumberObjects) {
+        if(partNumberObjects.isEmpty()) return;
+        entityManager.flush();
+
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskRelease> taskReleases = new ArrayList<>();
+        List<PartNumberLob> lobs = new ArrayList<>();
+        for(PartNumberObject partNumberObject : partNumberObjects) {
+            partNumberObject.setCreatedBy(auditor);
+            partNumberObject.setCreatedDate(now.toLocalDate());
+            partNumberObject.setLastModifiedBy(auditor);
+            partNumberObject.setLastModifiedDateTime(now);
+            partNumberObject.getTaskRelease().setStartedAt(now);
+            taskReleases.add(partNumberObject.getTaskRelease());
+            if(partNumberObject.getLobs() != null) {
+                lobs.add(partNumberObject.getLobs());
+            }
         }
 
-        if(descending) cq.orderBy(cb.desc(orderBy));
-        else cq.orderBy(cb.asc(orderBy));
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        insertBatch(session, TaskRelease.class, "tasks_release", TASK_RELEASE_COLUMNS, taskReleases,
+                t -> new Object[]{toTimestamp(t.getStartedAt()), toTimestamp(t.getFinishedAt()),
+                        t.getCurrentResponsibleEmployee() != null ? t.getCurrentResponsibleEmployee().getId() : null,
+                        t.getCurrentEmployeesRole() != null ? t.getCurrentEmployeesRole().getDatabaseCode() : null,
+                        t.getStatus() != null ? t.getStatus().getDatabaseCode() : null,
+                        t.getCustomerNotification() != null ? t.getCustomerNotification().getDatabaseCode() : null,
+                        t.getRejectionReasonOrFollowUp()},
+                TaskRelease::setId);
+        insertBatch(session, PartNumberLob.class, "part_number_lobs", new String[]{"comments"}, lobs,
+                l -> new Object[]{l.getComments()}, (l, id) -> l.setId((int) id));
+        insertBatch(session, PartNumberObject.class, "part_numbers", PART_NUMBER_COLUMNS, partNumberObjects,
+                p -> new Object[]{p.getPn(), p.getIdx(), p.getProductDescription(), p.getProductCode(),
+                        p.getCompleteSourcePn(), idOf(p.getCreatedByEmployee()), p.getCreatedByTeamDepartment(),
+                        p.getCustomer() != null ? p.getCustomer().getCode() : null, p.getCustomerPartNumber(),
+                        toDate(p.getDueDate()), toDate(p.getStartOfProduction()), toDate(p.getEndOfProduction()),
+                        p.getPredecessor(), p.getCooName(), p.getCooAbbreviation(), p.getPlant(),
+                        p.getPlantCode(), p.getCataloguePrice(), p.getTransferPrice(), p.getPpc(),
+                        p.getBusinessUnit() != null ? p.getBusinessUnit().getId() : null,
+                        idOf(p.getProductManager()), idOf(p.getProductSpecialist()), p.getTaskRelease().getId(),
+                        p.getLobs() != null ? p.getLobs().getId() : null, p.getCreatedBy(),
+                        toDate(p.getCreatedDate()), p.getLastModifiedBy(), toTimestamp(p.getLastModifiedDateTime())},
+                (p, id) -> p.setId((int) id));
+    }
 
-        TypedQuery<PartNumberObjectGridDTO> typedQuery = entityManager.createQuery(cq);
+    // Prepared through Hibernate, so the statements run in the current transaction and pass the statement inspector
+    private <E> void insertBatch(SessionImplementor session, Class<E> entityType, String table, String[] columns,
+                                 List<E> entities, Function<E, Object[]> values, ObjLongConsumer<E> idSetter) {
+        if(entities.isEmpty()) return;
+
+        IdentifierGenerator generator =
+                session.getFactory().getMetamodel().entityPersister(entityType).getIdentifierGenerator();
+        boolean generatedByDatabase = generator instanceof PostInsertIdentifierGenerator;
+        String sql = String.format("insert into %s (%s%s) values (%s)", table, generatedByDatabase ? "" : "id, ",
+                String.join(", ", columns),
+                String.join(", ", Collections.nCopies(columns.length + (generatedByDatabase ? 0 : 1), "?")));
+
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        PreparedStatement statement = generatedByDatabase ?
+                jdbcCoordinator.getStatementPreparer().prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS) :
+                jdbcCoordinator.getStatementPreparer().prepareStatement(sql);
+        try {
+            for(E entity : entities) {
+                int index = 1;
+                if(!generatedByDatabase) {
+                    Serializable id = generator.generate(session, entity);
+                    idSetter.accept(entity, ((Number) id).longValue());
+                    statement.setObject(index++, id);
+                }
+                for(Object value : values.apply(entity)) {
+                    statement.setObject(index++, value);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            if(generatedByDatabase) {
+                try(ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    for(E entity : entities) {
+                        if(!generatedKeys.next()) {
+                            throw new SQLException("Missing generated key for " + table);
+                        }
+                        idSetter.accept(entity, generatedKeys.getLong(1));
+                    }
+                }
+            }
+        }
+        catch(SQLException e) {
+            throw session.getFactory().getJdbcServices().getSqlExceptionHelper()
+                    .convert(e, "Could not insert into " + table, sql);
+        }
+        finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+    }
 
-        typedQuery.setFirstResult(offset);
-        typedQuery.setMaxResults(limit);
+    private static Integer idOf(Employee employee) {
+        return employee != null ? employee.getId() : null;
+    }
 
-        typedQuery.setHint(QueryHints.HINT_READONLY, true);
+    private static Date toDate(LocalDate date) {
+        return date != null ? Date.valueOf(date) : null;
+    }
 
-        return typedQuery.getResultList();
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    /**
+     * Rewrites the rows of the PN grid read model for the given PNs from the base tables. Rows of deleted PNs are
+     * removed. Pending changes are flushed first, so this must run after the PNs were saved or deleted.
+     */
+    @Override
+    @Transactional
+    public void refreshPnGridView(Collection<Integer> ids) {
+        if(ids.isEmpty()) return;
+        entityManager.flush();
+
+        executePnGridViewUpdate("delete from pn_grid_view where id in (:ids)", ids);
+        executePnGridViewUpdate(PN_GRID_VIEW_INSERT + " where p.id in (:ids)", ids);
+    }
+
+    @Override
+    @Transactional
+    public void refreshPnGridViewForEmployee(Employee employee) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> cq = cb.createQuery(Integer.class);
+        Root<PnGridView> root = cq.from(PnGridView.class);
+
+        cq.select(root.get(PnGridView_.id))
+                .where(cb.equal(root.get(PnGridView_.currentEmployeeId), employee.getId()));
+
+        refreshPnGridView(entityManager.createQuery(cq).getResultList());
+    }
+
+    @Override
+    @Transactional
+    public int rebuildPnGridView() {
+        entityManager.flush();
+
+        executePnGridViewUpdate("delete from pn_grid_view", null);
+        return executePnGridViewUpdate(PN_GRID_VIEW_INSERT, null);
+    }
+
+    @Override
+    public long countPnGridView() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        cq.select(cb.count(cq.from(PnGridView.class)));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    // The same population as the inner join of PN_GRID_VIEW_INSERT, which leaves out PNs without a release
+    @Override
+    public long countPartNumberObjectsWithTaskRelease() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<PartNumberObject> root = cq.from(PartNumberObject.class);
+        root.join(PartNumberObject_.TASK_RELEASE);
+        cq.select(cb.count(root));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    // Synchronising the query with the read model keeps Hibernate from invalidating every cache region
+    private int executePnGridViewUpdate(String sql, Collection<Integer> ids) {
+        javax.persistence.Query query = entityManager.createNativeQuery(sql);
+        if(ids != null) {
+            query.setParameter("ids", ids);
+        }
+        return query.unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(PnGridView.class)
+                .executeUpdate();
     }
 
     @Override
@@ -170,6 +669,14 @@ public class PartNumberObjectRepositoryCustomImpl implements PartNumberObjectRep
                 .where(cb.and(predicates.toArray(new Predicate[predicates.size()])));
 
         entityManager.createQuery(update).executeUpdate();
+
+        CriteriaUpdate<PnGridView> viewUpdate = cb.createCriteriaUpdate(PnGridView.class);
+        Root<PnGridView> viewRoot = viewUpdate.from(PnGridView.class);
+
+        viewUpdate.set(viewRoot.get(PnGridView_.businessUnitId), (Integer) null)
+                .where(cb.equal(viewRoot.get(PnGridView_.businessUnitId), businessUnit.getId()));
+
+        entityManager.createQuery(viewUpdate).executeUpdate();
     }
 
     @Override
@@ -212,6 +719,11 @@ public class PartNumberObjectRepositoryCustomImpl implements PartNumberObjectRep
 
     @Override
     public boolean existsByCompletePn(String completePn) {
+        return existsByCompletePn(completePn, null);
+    }
+
+    @Override
+    public boolean existsByCompletePn(String completePn, Integer excludedId) {
         String pn = completePn.substring(0, 10);
         String idx = completePn.substring(completePn.length() - 3);
 
@@ -226,6 +738,9 @@ public class PartNumberObjectRepositoryCustomImpl implements PartNumberObjectRep
         predicates.add(cb.or(
                 cb.equal(join.get(TaskRelease_.STATUS), Progress.RELEASED),
                 cb.equal(join.get(TaskRelease_.STATUS), Progress.IN_PROGRESS)));
+        if(excludedId != null) {
+            predicates.add(cb.notEqual(root.get(PartNumberObject_.ID), excludedId));
+        }
 
         cq.select(cb.count(root)).where(cb.and(predicates.toArray(new Predicate[predicates.size()])));
 
@@ -233,4 +748,55 @@ public class PartNumberObjectRepositoryCustomImpl implements PartNumberObjectRep
 
         return count > 0;
     }
+
+    @Override
+    public Set<String> findCompletePnsInUse(Collection<String> pns) {
+        Set<String> completePns = new HashSet<>();
+        if(pns.isEmpty()) {
+            return completePns;
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> cq = cb.createQuery(String.class);
+        Root<PartNumberObject> root = cq.from(PartNumberObject.class);
+        Join<PartNumberObject, TaskRelease> join = root.join(PartNumberObject_.TASK_RELEASE);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(root.get(PartNumberObject_.pn).in(pns));
+        predicates.add(cb.isNotNull(root.get(PartNumberObject_.idx)));
+        predicates.add(cb.or(
+                cb.equal(join.get(TaskRelease_.STATUS), Progress.RELEASED),
+                cb.equal(join.get(TaskRelease_.STATUS), Progress.IN_PROGRESS)));
+
+        cq.select(cb.concat(root.get(PartNumberObject_.pn), root.get(PartNumberObject_.idx)))
+                .where(cb.and(predicates.toArray(new Predicate[predicates.size()])));
+
+        completePns.addAll(entityManager.createQuery(cq).setHint(QueryHints.HINT_READONLY, true).getResultList());
+        return completePns;
+    }
+
+    @Override
+    public Map<Integer, String> findAllCompletePnsInUse() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<PartNumberObject> root = cq.from(PartNumberObject.class);
+        Join<PartNumberObject, TaskRelease> join = root.join(PartNumberObject_.TASK_RELEASE);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNotNull(root.get(PartNumberObject_.idx)));
+        predicates.add(cb.notEqual(root.get(PartNumberObject_.idx), ""));
+        predicates.add(cb.or(
+                cb.equal(join.get(TaskRelease_.STATUS), Progress.RELEASED),
+                cb.equal(join.get(TaskRelease_.STATUS), Progress.IN_PROGRESS)));
+
+        cq.multiselect(root.get(PartNumberObject_.id),
+                cb.concat(root.get(PartNumberObject_.pn), root.get(PartNumberObject_.idx)))
+                .where(cb.and(predicates.toArray(new Predicate[predicates.size()])));
+
+        Map<Integer, String> completePns = new HashMap<>();
+        for(Tuple tuple : entityManager.createQuery(cq).setHint(QueryHints.HINT_READONLY, true).getResultList()) {
+            completePns.put(tuple.get(0, Integer.class), tuple.get(1, String.class));
+        }
+        return completePns;
+    }
 }
@@ -19,19 +19,33 @@ package com.felixseifert.coma.backend.repos;
 import com.felixseifert.coma.backend.model.Coo;
 import com.felixseifert.coma.backend.model.Plant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface PlantRepository extends JpaRepository<Plant, Integer> {
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "plants.queries")})
     List<Plant> findByCooOrderByName(Coo coo);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "plants.queries")})
     Optional<Plant> findByCode(String code);
 
+    List<Plant> findByCodeIn(Collection<String> codes);
+
     Optional<Plant> findByNameAndCoo(String name, Coo coo);
 
     boolean existsByNameAndCoo(String name, Coo coo);
 
+    boolean existsByNameAndCooId(String name, Integer cooId);
+
     boolean existsByCode(String code);
 }
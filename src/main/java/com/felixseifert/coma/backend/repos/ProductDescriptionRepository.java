@@ -18,11 +18,18 @@ package com.felixseifert.coma.backend.repos;
 
 import com.felixseifert.coma.backend.model.ProductDescription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface ProductDescriptionRepository extends JpaRepository<ProductDescription, Integer> {
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "product_descriptions.queries")})
     List<ProductDescription> findAllByOrderByDescription();
 
     boolean existsByCode(String code);
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.repos;
+
+import com.felixseifert.coma.backend.model.SchedulerLock;
+import com.felixseifert.coma.backend.model.SchedulerLock_;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+
+public class SchedulerLockRepositoryCustomImpl implements SchedulerLockRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Takes the lock if it is not held or has expired. The conditional update is atomic in the database, so only one
+     * instance gets an updated row.
+     *
+     * @return 1 if the lock was taken, otherwise 0
+     */
+    @Override
+    @Transactional
+    public int lock(String name, String lockedBy, LocalDateTime now, LocalDateTime lockedUntil) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<SchedulerLock> update = cb.createCriteriaUpdate(SchedulerLock.class);
+        Root<SchedulerLock> root = update.from(SchedulerLock.class);
+
+        update.set(root.get(SchedulerLock_.lockedUntil), lockedUntil)
+                .set(root.get(SchedulerLock_.lockedAt), now)
+                .set(root.get(SchedulerLock_.lockedBy), lockedBy)
+                .where(cb.equal(root.get(SchedulerLock_.name), name),
+                        cb.lessThanOrEqualTo(root.get(SchedulerLock_.lockedUntil), now));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int unlock(String name, String lockedBy, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<SchedulerLock> update = cb.createCriteriaUpdate(SchedulerLock.class);
+        Root<SchedulerLock> root = update.from(SchedulerLock.class);
+
+        update.set(root.get(SchedulerLock_.lockedUntil), now)
+                .where(cb.equal(root.get(SchedulerLock_.name), name),
+                        cb.equal(root.get(SchedulerLock_.lockedBy), lockedBy));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -19,11 +19,18 @@ package com.felixseifert.coma.backend.repos;
 import com.felixseifert.coma.backend.model.SelectableValue;
 import com.felixseifert.coma.backend.model.enums.ValueGroup;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface SelectableValueRepository extends JpaRepository<SelectableValue, Integer> {
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = "selectable_values.queries")})
     List<SelectableValue> findAllByValueGroupOrderByLabelAsc(ValueGroup valueGroup);
 
     boolean existsByLabelAndValueGroup(String label, ValueGroup valueGroup);
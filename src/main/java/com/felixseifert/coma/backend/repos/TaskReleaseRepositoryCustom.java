@@ -19,6 +19,8 @@ package com.felixseifert.coma.backend.repos;
 import com.felixseifert.coma.backend.model.Employee;
 import com.felixseifert.coma.backend.model.dto.TaskReleaseDTO;
 
+import javax.persistence.Tuple;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TaskReleaseRepositoryCustom {
@@ -34,4 +36,18 @@ public interface TaskReleaseRepositoryCustom {
     void removeCurrentResponsibilities(Employee employee);
 
     void removeResponsibilitiesInTaskStepsRelease(Employee employee);
+
+    int archiveTaskSteps(List<Long> taskReleaseIds);
+
+    int archiveTaskReleases(List<Long> taskReleaseIds);
+
+    List<Tuple> findFinishedToArchive(LocalDateTime finishedBefore, int limit);
+
+    List<Tuple> findOrphanedFinishedBefore(LocalDateTime finishedBefore, int limit);
+
+    int deleteTaskSteps(List<Long> taskReleaseIds);
+
+    int deleteRolesForReleaseFlow(List<Long> taskReleaseIds);
+
+    int deleteTaskReleases(List<Long> taskReleaseIds);
 }
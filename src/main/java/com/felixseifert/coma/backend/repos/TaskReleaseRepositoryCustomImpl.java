@@ -20,16 +20,27 @@ import com.felixseifert.coma.backend.model.*;
 import com.felixseifert.coma.backend.model.dto.TaskReleaseDTO;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.annotations.QueryHints;
+import org.hibernate.query.NativeQuery;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 public class TaskReleaseRepositoryCustomImpl implements TaskReleaseRepositoryCustom {
 
+    public static final String TASK_RELEASE_ID = "taskReleaseId";
+
+    public static final String FINISHED_AT = "finishedAt";
+
+    public static final String STATUS = "status";
+
+    public static final String PART_NUMBER_OBJECT_ID = "partNumberObjectId";
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -116,6 +127,14 @@ public class TaskReleaseRepositoryCustomImpl implements TaskReleaseRepositoryCus
         update.set(root.get(TaskRelease_.CURRENT_RESPONSIBLE_EMPLOYEE), (Employee) null).where(predicate);
 
         entityManager.createQuery(update).executeUpdate();
+
+        CriteriaUpdate<ArchivedTaskRelease> archiveUpdate = cb.createCriteriaUpdate(ArchivedTaskRelease.class);
+        Root<ArchivedTaskRelease> archiveRoot = archiveUpdate.from(ArchivedTaskRelease.class);
+
+        archiveUpdate.set(archiveRoot.get(ArchivedTaskRelease_.RESPONSIBLE_EMPLOYEE_ID), (Integer) null)
+                .where(cb.equal(archiveRoot.get(ArchivedTaskRelease_.RESPONSIBLE_EMPLOYEE_ID), employee.getId()));
+
+        entityManager.createQuery(archiveUpdate).executeUpdate();
     }
 
     @Override
@@ -130,5 +149,146 @@ public class TaskReleaseRepositoryCustomImpl implements TaskReleaseRepositoryCus
         update.set(root.get(TaskStepRelease_.ASSIGNED_EMPLOYEE), (Employee) null).where(predicate);
 
         entityManager.createQuery(update).executeUpdate();
+
+        CriteriaUpdate<ArchivedTaskStepRelease> archiveUpdate =
+                cb.createCriteriaUpdate(ArchivedTaskStepRelease.class);
+        Root<ArchivedTaskStepRelease> archiveRoot = archiveUpdate.from(ArchivedTaskStepRelease.class);
+
+        archiveUpdate.set(archiveRoot.get(ArchivedTaskStepRelease_.ASSIGNED_EMPLOYEE_ID), (Integer) null)
+                .where(cb.equal(archiveRoot.get(ArchivedTaskStepRelease_.ASSIGNED_EMPLOYEE_ID), employee.getId()));
+
+        entityManager.createQuery(archiveUpdate).executeUpdate();
+    }
+
+    /**
+     * Copies the completed task steps of the given releases into the archive table and removes them from the active
+     * one. Must run in the same transaction as {@link #archiveTaskReleases(List)}.
+     */
+    @Override
+    @Transactional
+    public int archiveTaskSteps(List<Long> taskReleaseIds) {
+        if(taskReleaseIds.isEmpty()) return 0;
+        entityManager.flush();
+
+        executeNativeUpdate("insert into task_steps_release_archive (id, task_release_id, completed_at, " +
+                "role_of_employee, team_of_employee, assigned_employee_id, order_id, archived_at) " +
+                "select id, task_release_id, completed_at, role_of_employee, team_of_employee, " +
+                "assigned_employee_id, order_id, current_timestamp from task_steps_release " +
+                "where task_release_id in (:ids)", taskReleaseIds, ArchivedTaskStepRelease.class);
+
+        return deleteTaskSteps(taskReleaseIds);
+    }
+
+    /**
+     * Moves the given releases with their release flow into the archive tables. Only meant for releases without a PN
+     * and whose task steps were already archived with {@link #archiveTaskSteps(List)}.
+     */
+    @Override
+    @Transactional
+    public int archiveTaskReleases(List<Long> taskReleaseIds) {
+        if(taskReleaseIds.isEmpty()) return 0;
+        entityManager.flush();
+
+        executeNativeUpdate("insert into tasks_release_archive (id, started_at, finished_at, " +
+                "responsible_employee_id, responsible_employee_role, status, customer_notification, " +
+                "rejection_reason_or_follow_up, archived_at) " +
+                "select id, started_at, finished_at, responsible_employee_id, responsible_employee_role, status, " +
+                "customer_notification, rejection_reason_or_follow_up, current_timestamp from tasks_release " +
+                "where id in (:ids)", taskReleaseIds, ArchivedTaskRelease.class);
+        executeNativeUpdate("insert into roles_for_release_flow_archive (task_release_id, role, order_id) " +
+                "select task_release_id, role, order_id from roles_for_release_flow " +
+                "where task_release_id in (:ids)", taskReleaseIds, ArchivedTaskRelease.class);
+
+        deleteRolesForReleaseFlow(taskReleaseIds);
+        return deleteTaskReleases(taskReleaseIds);
+    }
+
+    /**
+     * Finds finished releases which still have rows to archive: releases whose PN was deleted and releases of existing
+     * PNs with completed task steps in the active table. Each tuple holds the {@link #TASK_RELEASE_ID} and the
+     * {@link #PART_NUMBER_OBJECT_ID}, which is null for releases without a PN.
+     */
+    @Override
+    public List<Tuple> findFinishedToArchive(LocalDateTime finishedBefore, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<TaskRelease> root = cq.from(TaskRelease.class);
+        Join<TaskRelease, PartNumberObject> join = root.join(TaskRelease_.partNumberObject, JoinType.LEFT);
+
+        cq.multiselect(root.get(TaskRelease_.id).alias(TASK_RELEASE_ID),
+                join.get(PartNumberObject_.id).alias(PART_NUMBER_OBJECT_ID))
+                .where(cb.lessThan(root.get(TaskRelease_.finishedAt), finishedBefore),
+                        cb.or(cb.isNull(join.get(PartNumberObject_.id)),
+                                cb.isNotEmpty(root.get(TaskRelease_.completedTaskSteps))))
+                .orderBy(cb.asc(root.get(TaskRelease_.id)));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .setHint(QueryHints.READ_ONLY, true)
+                .getResultList();
+    }
+
+    /**
+     * Finds finished releases whose PN was deleted, used by the retention job. Each tuple holds the
+     * {@link #TASK_RELEASE_ID}, the {@link #FINISHED_AT} and the {@link #STATUS}.
+     */
+    @Override
+    public List<Tuple> findOrphanedFinishedBefore(LocalDateTime finishedBefore, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<TaskRelease> root = cq.from(TaskRelease.class);
+        Join<TaskRelease, PartNumberObject> join = root.join(TaskRelease_.partNumberObject, JoinType.LEFT);
+
+        cq.multiselect(root.get(TaskRelease_.id).alias(TASK_RELEASE_ID),
+                root.get(TaskRelease_.finishedAt).alias(FINISHED_AT),
+                root.get(TaskRelease_.status).alias(STATUS))
+                .where(cb.lessThan(root.get(TaskRelease_.finishedAt), finishedBefore),
+                        cb.isNull(join.get(PartNumberObject_.id)))
+                .orderBy(cb.asc(root.get(TaskRelease_.id)));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .setHint(QueryHints.READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int deleteTaskSteps(List<Long> taskReleaseIds) {
+        if(taskReleaseIds.isEmpty()) return 0;
+        entityManager.flush();
+        return executeNativeUpdate("delete from task_steps_release where task_release_id in (:ids)",
+                taskReleaseIds, TaskStepRelease.class);
+    }
+
+    @Override
+    @Transactional
+    public int deleteRolesForReleaseFlow(List<Long> taskReleaseIds) {
+        if(taskReleaseIds.isEmpty()) return 0;
+        entityManager.flush();
+        return executeNativeUpdate("delete from roles_for_release_flow where task_release_id in (:ids)",
+                taskReleaseIds, TaskRelease.class);
+    }
+
+    /**
+     * Deletes the given releases without their children, see {@link #deleteTaskSteps(List)} and
+     * {@link #deleteRolesForReleaseFlow(List)}.
+     */
+    @Override
+    @Transactional
+    public int deleteTaskReleases(List<Long> taskReleaseIds) {
+        if(taskReleaseIds.isEmpty()) return 0;
+        entityManager.flush();
+        return executeNativeUpdate("delete from tasks_release where id in (:ids)",
+                taskReleaseIds, TaskRelease.class);
+    }
+
+    // Synchronising the query with the touched entity keeps Hibernate from invalidating every cache region
+    private int executeNativeUpdate(String sql, List<Long> ids, Class<?> synchronizedEntity) {
+        return entityManager.createNativeQuery(sql)
+                .setParameter("ids", ids)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(synchronizedEntity)
+                .executeUpdate();
     }
 }
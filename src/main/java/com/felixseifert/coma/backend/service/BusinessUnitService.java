@@ -28,6 +28,8 @@ public interface BusinessUnitService {
 
     BusinessUnit getBusinessUnitByName(String name);
 
+    BusinessUnit getBusinessUnitById(Integer id);
+
     BusinessUnit postBusinessUnit(BusinessUnit businessUnit);
 
     BusinessUnit putBusinessUnit(BusinessUnit businessUnit);
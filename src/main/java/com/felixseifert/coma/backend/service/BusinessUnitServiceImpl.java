@@ -19,6 +19,7 @@ package com.felixseifert.coma.backend.service;
 import com.felixseifert.coma.backend.model.BusinessUnit;
 import com.felixseifert.coma.backend.model.Employee;
 import com.felixseifert.coma.backend.repos.BusinessUnitRepository;
+import com.felixseifert.coma.backend.service.ChangeNotifier.ChangeType;
 import com.felixseifert.coma.backend.exceptions.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -44,6 +45,9 @@ public class BusinessUnitServiceImpl implements BusinessUnitService {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private ChangeNotifier changeNotifier;
+
     @Override
     public List<BusinessUnit> getAllBusinessUnits() {
         log.debug("Get all Business Units");
@@ -60,6 +64,16 @@ public class BusinessUnitServiceImpl implements BusinessUnitService {
         return businessUnit.get();
     }
 
+    @Override
+    public BusinessUnit getBusinessUnitById(Integer id) throws EntityIDNotFoundException {
+        Optional<BusinessUnit> businessUnit = businessUnitRepository.findBusinessUnitById(id);
+        if(businessUnit.isEmpty()) {
+            throw new EntityIDNotFoundException(ErrorMessages.BUSINESS_UNIT_NOT_FOUND);
+        }
+        log.debug("Get Business Unit with id={}", id);
+        return businessUnit.get();
+    }
+
     @Override
     @Transactional
     public BusinessUnit postBusinessUnit(BusinessUnit businessUnit)
@@ -81,7 +95,9 @@ public class BusinessUnitServiceImpl implements BusinessUnitService {
                 employeeService.getEmployeeByEmailAddress(pm.getEmailAddress()).addBusinessUnitAsPM(businessUnit));
 
         log.info("Create Business Unit: {}", businessUnit);
-        return businessUnitRepository.save(businessUnit);
+        BusinessUnit savedBusinessUnit = businessUnitRepository.save(businessUnit);
+        changeNotifier.publish(BusinessUnit.class, businessUnit.getId(), ChangeType.CREATED);
+        return savedBusinessUnit;
     }
 
     @Override
@@ -98,7 +114,9 @@ public class BusinessUnitServiceImpl implements BusinessUnitService {
         }
 
         log.info("Update Business Unit: {}", businessUnit);
-        return businessUnitRepository.save(businessUnit);
+        BusinessUnit savedBusinessUnit = businessUnitRepository.save(businessUnit);
+        changeNotifier.publish(BusinessUnit.class, businessUnit.getId(), ChangeType.UPDATED);
+        return savedBusinessUnit;
     }
 
     @Override
@@ -113,6 +131,7 @@ public class BusinessUnitServiceImpl implements BusinessUnitService {
 
         log.info("Delete Business Unit {}", businessUnit);
         businessUnitRepository.delete(businessUnit);
+        changeNotifier.publish(BusinessUnit.class, businessUnit.getId(), ChangeType.DELETED);
     }
 
     private boolean hasDependencies(BusinessUnit businessUnit) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.exceptions.EntityIDNotFoundException;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Notifies listeners, typically open grids of all UIs, about created, updated and deleted entities. Changes are
+ * delivered after the surrounding transaction committed and on a separate thread, so listeners can lock their own
+ * Vaadin session without holding the one of the writing UI.
+ */
+@Component
+@Slf4j
+public class ChangeNotifier {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * A change delivered to all listeners of its entity type. Listeners load the changed data through the change,
+     * so it is queried once and shared by all open UIs. All listeners of a change run on the same thread.
+     */
+    @Getter
+    @ToString(of = {"entityType", "id", "type"})
+    public static class Change {
+
+        private final Class<?> entityType;
+
+        private final Object id;
+
+        private final ChangeType type;
+
+        private final Map<Class<?>, Optional<?>> items = new HashMap<>();
+
+        private final Map<Class<?>, List<?>> itemLists = new HashMap<>();
+
+        public Change(Class<?> entityType, Object id, ChangeType type) {
+            this.entityType = entityType;
+            this.id = id;
+            this.type = type;
+        }
+
+        /**
+         * Returns the changed entity in the given representation, or an empty optional if it does not exist anymore.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> Optional<T> getItem(Class<T> itemType, Function<Object, T> itemLoader) {
+            Optional<?> item = items.get(itemType);
+            if(item == null) {
+                try {
+                    item = Optional.ofNullable(itemLoader.apply(id));
+                } catch(EntityIDNotFoundException e) {
+                    item = Optional.empty();
+                }
+                items.put(itemType, item);
+            }
+            return (Optional<T>) item;
+        }
+
+        /**
+         * Returns all entities in the given representation as they are after the change.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> List<T> getItems(Class<T> itemType, Supplier<List<T>> itemsLoader) {
+            List<?> loaded = itemLists.get(itemType);
+            if(loaded == null) {
+                loaded = itemsLoader.get();
+                itemLists.put(itemType, loaded);
+            }
+            return (List<T>) loaded;
+        }
+    }
+
+    private final Map<Class<?>, List<Consumer<Change>>> listeners = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public void register(Class<?> entityType, Consumer<Change> listener) {
+        listeners.computeIfAbsent(entityType, t -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void unregister(Class<?> entityType, Consumer<Change> listener) {
+        List<Consumer<Change>> listenersOfType = listeners.get(entityType);
+        if(listenersOfType != null) {
+            listenersOfType.remove(listener);
+        }
+    }
+
+    public void publish(Class<?> entityType, Object id, ChangeType type) {
+        Change change = new Change(entityType, id, type);
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                dispatch(change);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void dispatch(Change change) {
+        List<Consumer<Change>> listenersOfType = listeners.get(change.getEntityType());
+        if(listenersOfType == null || listenersOfType.isEmpty()) return;
+        executor.execute(() -> listenersOfType.forEach(listener -> {
+            try {
+                listener.accept(change);
+            } catch(RuntimeException e) {
+                log.warn("Listener failed on {}", change, e);
+            }
+        }));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of all complete PNs (pn + idx) whose release is {@link Progress#RELEASED} or
+ * {@link Progress#IN_PROGRESS}, so uniqueness checks do not hit the database.
+ */
+@Component
+@Slf4j
+public class CompletePnIndex extends PnIndex<String> {
+
+    @Autowired
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    private volatile Map<Integer, String> completePnsById = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Integer> completePnCounts = new ConcurrentHashMap<>();
+
+    public boolean contains(String completePn) {
+        return completePn != null && completePnCounts.containsKey(completePn);
+    }
+
+    public int size() {
+        return completePnCounts.size();
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        Map<Integer, String> newCompletePnsById = new ConcurrentHashMap<>(
+                partNumberObjectRepository.findAllCompletePnsInUse());
+        Map<String, Integer> newCompletePnCounts = new ConcurrentHashMap<>();
+        newCompletePnsById.values().forEach(completePn -> newCompletePnCounts.merge(completePn, 1, Integer::sum));
+
+        completePnsById = newCompletePnsById;
+        completePnCounts = newCompletePnCounts;
+        log.info("Rebuilt complete PN index with {} entries", newCompletePnCounts.size());
+    }
+
+    @Override
+    protected String valueOf(PartNumberObject partNumberObject) {
+        return completePnInUse(partNumberObject);
+    }
+
+    @Override
+    protected synchronized String put(Integer id, String completePn) {
+        String previous = completePn == null ? completePnsById.remove(id) : completePnsById.put(id, completePn);
+        if(Objects.equals(previous, completePn)) return previous;
+
+        if(previous != null) {
+            completePnCounts.computeIfPresent(previous, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        if(completePn != null) {
+            completePnCounts.merge(completePn, 1, Integer::sum);
+        }
+        return previous;
+    }
+
+    static String completePnInUse(PartNumberObject partNumberObject) {
+        if(StringUtils.isBlank(partNumberObject.getIdx()) || partNumberObject.getTaskRelease() == null) {
+            return null;
+        }
+        Progress status = partNumberObject.getTaskRelease().getStatus();
+        if(Progress.RELEASED.equals(status) || Progress.IN_PROGRESS.equals(status)) {
+            return partNumberObject.getPn() + partNumberObject.getIdx();
+        }
+        return null;
+    }
+}
@@ -33,6 +33,10 @@ public interface CooPlantService {
 
     boolean existsByCooAbbreviation(String abbreviation);
 
+    boolean isCooNameInUse(String name);
+
+    boolean isCooAbbreviationInUse(String abbreviation);
+
     List<Plant> getPlantsByCoo(Coo coo);
 
     List<Plant> getPlantsByCoo(String cooName);
@@ -48,4 +52,8 @@ public interface CooPlantService {
     boolean existsByPlantNameAndCoo(String name, Coo coo);
 
     boolean existsByPlantCode(String code);
+
+    boolean isPlantNameInUse(String name, Coo coo);
+
+    boolean isPlantCodeInUse(String code);
 }
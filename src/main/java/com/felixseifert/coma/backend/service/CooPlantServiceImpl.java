@@ -24,6 +24,8 @@ import com.felixseifert.coma.backend.model.Coo;
 import com.felixseifert.coma.backend.model.Plant;
 import com.felixseifert.coma.backend.repos.CooRepository;
 import com.felixseifert.coma.backend.repos.PlantRepository;
+import com.felixseifert.coma.backend.service.ChangeNotifier.ChangeType;
+import com.felixseifert.coma.backend.service.UniquenessRegistry.UniqueKey;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,6 +44,12 @@ public class CooPlantServiceImpl implements CooPlantService {
     @Autowired
     private PlantRepository plantRepository;
 
+    @Autowired
+    private UniquenessRegistry uniquenessRegistry;
+
+    @Autowired
+    private ChangeNotifier changeNotifier;
+
     @Override
     public List<Coo> getAllCoos() {
         log.debug("Get all CoOs");
@@ -61,9 +69,17 @@ public class CooPlantServiceImpl implements CooPlantService {
         if(exists) {
             throw new EntityAlreadyExistsException(ErrorMessages.COO_ALREADY_EXISTS);
         }
+        exists = cooRepository.existsByAbbreviation(coo.getAbbreviation());
+        if(exists) {
+            throw new EntityAlreadyExistsException(ErrorMessages.COO_ABBREVIATION_ALREADY_EXISTS);
+        }
 
         log.info("Create new CoO: {}", coo);
-        return cooRepository.save(coo);
+        Coo savedCoo = cooRepository.save(coo);
+        changeNotifier.publish(Coo.class, coo.getId(), ChangeType.CREATED);
+        uniquenessRegistry.add(UniqueKey.COO_NAME, coo.getName());
+        uniquenessRegistry.add(UniqueKey.COO_ABBREVIATION, coo.getAbbreviation());
+        return savedCoo;
     }
 
     @Override
@@ -73,6 +89,12 @@ public class CooPlantServiceImpl implements CooPlantService {
         }
         log.info("Delete CoO {}", coo);
         cooRepository.delete(coo);
+        changeNotifier.publish(Coo.class, coo.getId(), ChangeType.DELETED);
+        uniquenessRegistry.remove(UniqueKey.COO_NAME, coo.getName());
+        uniquenessRegistry.remove(UniqueKey.COO_ABBREVIATION, coo.getAbbreviation());
+        // Plants of the CoO are removed as well
+        uniquenessRegistry.invalidate(UniqueKey.PLANT_CODE);
+        uniquenessRegistry.invalidate(UniqueKey.PLANT_NAME_AND_COO);
     }
 
     @Override
@@ -89,6 +111,16 @@ public class CooPlantServiceImpl implements CooPlantService {
         return exists;
     }
 
+    @Override
+    public boolean isCooNameInUse(String name) {
+        return uniquenessRegistry.contains(UniqueKey.COO_NAME, name);
+    }
+
+    @Override
+    public boolean isCooAbbreviationInUse(String abbreviation) {
+        return uniquenessRegistry.contains(UniqueKey.COO_ABBREVIATION, abbreviation);
+    }
+
     @Override
     public List<Plant> getPlantsByCoo(Coo coo) {
         log.debug("Get all Plants with CoO {}", coo);
@@ -142,9 +174,18 @@ public class CooPlantServiceImpl implements CooPlantService {
         if(exists) {
             throw new EntityAlreadyExistsException(ErrorMessages.PLANT_ALREADY_EXISTS);
         }
+        exists = plantRepository.existsByCode(plant.getCode());
+        if(exists) {
+            throw new EntityAlreadyExistsException(ErrorMessages.PLANT_CODE_ALREADY_EXISTS);
+        }
 
         log.info("Create new Plant: {}", plant);
-        return plantRepository.save(plant);
+        Plant savedPlant = plantRepository.save(plant);
+        changeNotifier.publish(Plant.class, plant.getId(), ChangeType.CREATED);
+        uniquenessRegistry.add(UniqueKey.PLANT_CODE, plant.getCode());
+        uniquenessRegistry.add(UniqueKey.PLANT_NAME_AND_COO,
+                UniquenessRegistry.plantNameAndCoo(plant.getName(), plant.getCoo()));
+        return savedPlant;
     }
 
     @Override
@@ -155,6 +196,10 @@ public class CooPlantServiceImpl implements CooPlantService {
 
         log.info("Delete Plant {}", plant);
         plantRepository.delete(plant);
+        changeNotifier.publish(Plant.class, plant.getId(), ChangeType.DELETED);
+        uniquenessRegistry.remove(UniqueKey.PLANT_CODE, plant.getCode());
+        uniquenessRegistry.remove(UniqueKey.PLANT_NAME_AND_COO,
+                UniquenessRegistry.plantNameAndCoo(plant.getName(), plant.getCoo()));
     }
 
     @Override
@@ -170,4 +215,15 @@ public class CooPlantServiceImpl implements CooPlantService {
         log.debug("Plant with code {} is persisted: {}", code, exists);
         return exists;
     }
+
+    @Override
+    public boolean isPlantNameInUse(String name, Coo coo) {
+        return uniquenessRegistry.contains(UniqueKey.PLANT_NAME_AND_COO,
+                UniquenessRegistry.plantNameAndCoo(name, coo));
+    }
+
+    @Override
+    public boolean isPlantCodeInUse(String code) {
+        return uniquenessRegistry.contains(UniqueKey.PLANT_CODE, code);
+    }
 }
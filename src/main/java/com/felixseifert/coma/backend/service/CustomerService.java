@@ -18,6 +18,7 @@ package com.felixseifert.coma.backend.service;
 
 import com.felixseifert.coma.backend.exceptions.DependencyException;
 import com.felixseifert.coma.backend.model.Customer;
+import com.felixseifert.coma.backend.model.dto.CustomerGridDTO;
 
 import java.util.List;
 
@@ -29,6 +30,13 @@ public interface CustomerService {
 
     List<Customer> getCustomersByNameStartsWithIgnoreCase(String filterText);
 
+    List<CustomerGridDTO> getCustomerGridDtosByNameStartsWithIgnoreCase(String filterText, int limit, int offset,
+                                                                        boolean descending, String sortProperty);
+
+    int countCustomersByNameStartsWithIgnoreCase(String filterText);
+
+    List<Customer> getCustomersByNameStartsWithIgnoreCase(String filterText, int limit, int offset);
+
     Customer postCustomer(Customer customer);
 
     Customer putCustomer(Customer customer);
@@ -36,4 +44,8 @@ public interface CustomerService {
     void deleteCustomer(Customer customer) throws DependencyException;
 
     boolean exists(String code);
+
+    boolean isCodeInUse(String code);
+
+    boolean isCodeNumberCorrect(String code) throws NumberFormatException;
 }
@@ -17,7 +17,9 @@
 package com.felixseifert.coma.backend.service;
 
 import com.felixseifert.coma.backend.model.Customer;
+import com.felixseifert.coma.backend.model.dto.CustomerGridDTO;
 import com.felixseifert.coma.backend.repos.CustomerRepository;
+import com.felixseifert.coma.backend.service.UniquenessRegistry.UniqueKey;
 import com.felixseifert.coma.backend.exceptions.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -35,6 +37,9 @@ public class CustomerServiceImpl implements CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private UniquenessRegistry uniquenessRegistry;
+
     @Override
     public List<Customer> getAllCustomers() {
         log.debug("Get all Customers");
@@ -58,6 +63,27 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.findByNameStartsWithIgnoreCase(filterText);
     }
 
+    @Override
+    public List<CustomerGridDTO> getCustomerGridDtosByNameStartsWithIgnoreCase(
+            String filterText, int limit, int offset, boolean descending, String sortProperty) {
+        log.debug("Get Customers whos name start with {}, limit={} and offset={}", filterText, limit, offset);
+        return customerRepository.findCustomerGridDtos(filterText, limit, offset, descending, sortProperty);
+    }
+
+    @Override
+    public int countCustomersByNameStartsWithIgnoreCase(String filterText) {
+        if(StringUtils.isNotBlank(filterText)) {
+            return customerRepository.countByNameStartsWithIgnoreCase(filterText);
+        }
+        return (int) customerRepository.count();
+    }
+
+    @Override
+    public List<Customer> getCustomersByNameStartsWithIgnoreCase(String filterText, int limit, int offset) {
+        log.debug("Get Customers whos name start with {}, limit={} and offset={}", filterText, limit, offset);
+        return customerRepository.findByNameStartsWithIgnoreCase(filterText, limit, offset);
+    }
+
     @Override
     public Customer postCustomer(Customer customer) throws BlankValueNotAllowedException, EntityAlreadyExistsException {
 
@@ -69,7 +95,9 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         log.info("Create Customer: {}", customer);
-        return customerRepository.save(customer);
+        Customer savedCustomer = customerRepository.save(customer);
+        uniquenessRegistry.add(UniqueKey.CUSTOMER_CODE, customer.getCode());
+        return savedCustomer;
     }
 
     @Override
@@ -98,6 +126,7 @@ public class CustomerServiceImpl implements CustomerService {
 
         log.info("Delete Customer {}", customer);
         customerRepository.delete(customer);
+        uniquenessRegistry.remove(UniqueKey.CUSTOMER_CODE, customer.getCode());
     }
 
     @Override
@@ -107,6 +136,12 @@ public class CustomerServiceImpl implements CustomerService {
         return exists;
     }
 
+    @Override
+    public boolean isCodeInUse(String code) {
+        return uniquenessRegistry.contains(UniqueKey.CUSTOMER_CODE, code);
+    }
+
+    @Override
     public boolean isCodeNumberCorrect(String code) throws NumberFormatException {
         if(Pattern.matches("[0-9]{8,11}", code)) return true;
         else throw new NumberFormatException("The code does not consist of 8 to 10 digits.");
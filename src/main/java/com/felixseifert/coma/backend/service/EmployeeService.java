@@ -18,6 +18,7 @@ package com.felixseifert.coma.backend.service;
 
 import com.felixseifert.coma.backend.exceptions.DependencyException;
 import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.dto.EmployeeGridDTO;
 import com.felixseifert.coma.backend.model.enums.Role;
 
 import java.util.List;
@@ -34,8 +35,21 @@ public interface EmployeeService {
 
     Employee getEmployeeByEmailAddress(String emailAddress);
 
+    Employee getEmployeeById(Integer id);
+
+    EmployeeGridDTO getEmployeeGridDtoById(Integer id);
+
     List<Employee> getEmployeesByNameStartsWithIgnoreCase(String filterText);
 
+    List<EmployeeGridDTO> getEmployeeGridDtosByNameStartsWithIgnoreCase(String filterText, int limit, int offset,
+                                                                        boolean descending, String sortProperty);
+
+    int countEmployeesByNameStartsWithIgnoreCase(String filterText);
+
+    List<Employee> getEmployeesByNameStartsWithIgnoreCase(String filterText, Role role, int limit, int offset);
+
+    int countEmployeesByNameStartsWithIgnoreCase(String filterText, Role role);
+
     Employee postEmployee(Employee employee);
 
     Employee putEmployee(Employee employee);
@@ -17,13 +17,16 @@
 package com.felixseifert.coma.backend.service;
 
 import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.dto.EmployeeGridDTO;
 import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.repos.EmployeeRepository;
+import com.felixseifert.coma.backend.service.ChangeNotifier.ChangeType;
 import com.felixseifert.coma.backend.exceptions.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
 import java.util.List;
@@ -42,6 +45,9 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Autowired
     private BusinessUnitService businessUnitService;
 
+    @Autowired
+    private ChangeNotifier changeNotifier;
+
     @Override
     public List<Employee> getAllEmployees() {
         log.debug("Get all Employees");
@@ -76,12 +82,57 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employee.get();
     }
 
+    @Override
+    public Employee getEmployeeById(Integer id) throws EntityIDNotFoundException {
+        Optional<Employee> employee = employeeRepository.findById(id);
+        if(employee.isEmpty()) {
+            throw new EntityIDNotFoundException(ErrorMessages.EMPLOYEE_NOT_FOUND);
+        }
+        log.debug("Get Employee with id={}", id);
+        return employee.get();
+    }
+
+    @Override
+    public EmployeeGridDTO getEmployeeGridDtoById(Integer id) throws EntityIDNotFoundException {
+        Optional<EmployeeGridDTO> employeeDto = employeeRepository.findEmployeeGridDtoById(id);
+        if(employeeDto.isEmpty()) {
+            throw new EntityIDNotFoundException(ErrorMessages.EMPLOYEE_NOT_FOUND);
+        }
+        log.debug("Get EmployeeGridDTO with id={}", id);
+        return employeeDto.get();
+    }
+
     @Override
     public List<Employee> getEmployeesByNameStartsWithIgnoreCase(String filterText) {
         log.debug("Get all Employees whos name start with {}", filterText);
         return employeeRepository.findByNameStartsWithIgnoreCase(filterText);
     }
 
+    @Override
+    public List<EmployeeGridDTO> getEmployeeGridDtosByNameStartsWithIgnoreCase(
+            String filterText, int limit, int offset, boolean descending, String sortProperty) {
+        log.debug("Get Employees whos name start with {}, limit={} and offset={}", filterText, limit, offset);
+        return employeeRepository.findEmployeeGridDtos(filterText, limit, offset, descending, sortProperty);
+    }
+
+    @Override
+    public int countEmployeesByNameStartsWithIgnoreCase(String filterText) {
+        return employeeRepository.countByNameStartsWithIgnoreCase(filterText);
+    }
+
+    @Override
+    public List<Employee> getEmployeesByNameStartsWithIgnoreCase(String filterText, Role role, int limit,
+                                                                 int offset) {
+        log.debug("Get Employees with Role {} whos name start with {}, limit={} and offset={}",
+                role, filterText, limit, offset);
+        return employeeRepository.findByNameStartsWithIgnoreCaseAndRole(filterText, role, limit, offset);
+    }
+
+    @Override
+    public int countEmployeesByNameStartsWithIgnoreCase(String filterText, Role role) {
+        return employeeRepository.countByNameStartsWithIgnoreCaseAndRole(filterText, role);
+    }
+
     @Override
     public Employee postEmployee(Employee employee)
             throws BlankValueNotAllowedException, EntityAlreadyExistsException {
@@ -95,10 +146,13 @@ public class EmployeeServiceImpl implements EmployeeService {
             throw new EntityAlreadyExistsException(ErrorMessages.EMAIL_ADDRESS_ALREADY_EXISTS_NO_NEW_ENTITY);
         }
         log.info("Create Employee {}", employee);
-        return employeeRepository.save(employee);
+        Employee savedEmployee = employeeRepository.save(employee);
+        changeNotifier.publish(Employee.class, employee.getId(), ChangeType.CREATED);
+        return savedEmployee;
     }
 
     @Override
+    @Transactional
     public Employee putEmployee(Employee employee) throws BlankValueNotAllowedException, EntityIDNotFoundException {
 
         checkForBlankFields(employee);
@@ -112,7 +166,10 @@ public class EmployeeServiceImpl implements EmployeeService {
             throw new EntityAlreadyExistsException(ErrorMessages.EMAIL_ADDRESS_ALREADY_EXISTS_FOR_OTHER_ENTITY);
         }
         log.info("Update Employee {}", employee);
-        return employeeRepository.save(employee);
+        Employee savedEmployee = employeeRepository.save(employee);
+        partNumberObjectService.refreshPnGridViewForEmployee(savedEmployee);
+        changeNotifier.publish(Employee.class, employee.getId(), ChangeType.UPDATED);
+        return savedEmployee;
     }
 
     @Override
@@ -126,6 +183,7 @@ public class EmployeeServiceImpl implements EmployeeService {
         }
         log.info("Delete Employee {}", employee);
         employeeRepository.delete(employee);
+        changeNotifier.publish(Employee.class, employee.getId(), ChangeType.DELETED);
     }
 
     private boolean hasRelationships(Employee employee) {
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.exceptions.BlankValueNotAllowedException;
+import com.felixseifert.coma.backend.exceptions.ErrorMessages;
+import com.felixseifert.coma.backend.model.*;
+import com.felixseifert.coma.backend.model.dto.PartNumberImportResultDTO;
+import com.felixseifert.coma.backend.model.enums.Role;
+import com.felixseifert.coma.backend.repos.*;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class PartNumberImportServiceImpl implements PartNumberImportService {
+
+    public static final String COLUMN_PN = "pn";
+    public static final String COLUMN_IDX = "idx";
+    public static final String COLUMN_REQUESTER = "requester";
+    public static final String COLUMN_TEAM = "team";
+    public static final String COLUMN_CUSTOMER_CODE = "customer_code";
+    public static final String COLUMN_CUSTOMER_PART_NUMBER = "customer_part_number";
+    public static final String COLUMN_PRODUCT_DESCRIPTION = "product_description";
+    public static final String COLUMN_COO = "coo";
+    public static final String COLUMN_PLANT_CODE = "plant_code";
+    public static final String COLUMN_START_OF_PRODUCTION = "start_of_production";
+    public static final String COLUMN_DUE_DATE = "due_date";
+    public static final String COLUMN_PRODUCT_MANAGER = "product_manager";
+    public static final String COLUMN_PRODUCT_SPECIALIST = "product_specialist";
+    public static final String COLUMN_COMMENTS = "comments";
+
+    private static final int CHUNK_SIZE = 100;
+
+    @Autowired
+    private PartNumberObjectService partNumberObjectService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CooRepository cooRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public PartNumberImportResultDTO importPartNumberObjects(Reader reader) throws IOException {
+
+        List<ImportRow> rows = readRows(reader);
+        log.info("Import {} PartNumberObjects", rows.size());
+
+        // Rows are only validated against lookups loaded upfront, so they can be checked in parallel
+        ImportLookups lookups = loadLookups(rows);
+        rows.parallelStream().forEach(row -> validateRow(row, lookups));
+        rejectDuplicatesInFile(rows);
+
+        PartNumberImportResultDTO result = new PartNumberImportResultDTO();
+        List<ImportRow> validRows = new ArrayList<>();
+        for(ImportRow row : rows) {
+            result.addRow();
+            if(row.rejectReason != null) {
+                result.addReject(row.rowNumber, row.get(COLUMN_PN), row.rejectReason);
+            }
+            else {
+                validRows.add(row);
+            }
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for(int i = 0; i < validRows.size(); i += CHUNK_SIZE) {
+            List<ImportRow> chunk = validRows.subList(i, Math.min(i + CHUNK_SIZE, validRows.size()));
+            try {
+                postRows(transactionTemplate, chunk);
+                result.addImported(chunk.size());
+            }
+            catch(RuntimeException e) {
+                log.warn("Import of rows {} to {} failed, retry them one by one: {}", chunk.get(0).rowNumber,
+                        chunk.get(chunk.size() - 1).rowNumber, e.getMessage());
+                importRowByRow(transactionTemplate, chunk, lookups, result);
+            }
+        }
+
+        result.getRejects().sort(Comparator.comparingInt(PartNumberImportResultDTO.Reject::getRowNumber));
+        log.info("Import of PartNumberObjects finished: {}", result);
+        return result;
+    }
+
+    private void postRows(TransactionTemplate transactionTemplate, List<ImportRow> rows) {
+        transactionTemplate.execute(status -> partNumberObjectService.postPartNumberObjects(
+                rows.stream().map(row -> row.partNumberObject).collect(Collectors.toList())));
+    }
+
+    private void postRow(TransactionTemplate transactionTemplate, ImportRow row) {
+        transactionTemplate.execute(status -> partNumberObjectService.postPartNumberObject(row.partNumberObject));
+    }
+
+    // Only the rows which fail on their own are rejected
+    private void importRowByRow(TransactionTemplate transactionTemplate, List<ImportRow> rows,
+                                ImportLookups lookups, PartNumberImportResultDTO result) {
+        for(ImportRow row : rows) {
+            // Entities of the rolled back chunk keep their generated ids, so they are created again
+            validateRow(row, lookups);
+            if(row.rejectReason != null) {
+                result.addReject(row.rowNumber, row.get(COLUMN_PN), row.rejectReason);
+                continue;
+            }
+            try {
+                postRow(transactionTemplate, row);
+                result.addImported(1);
+            }
+            catch(RuntimeException e) {
+                log.warn("Import of row {} failed: {}", row.rowNumber, e.getMessage());
+                result.addReject(row.rowNumber, row.get(COLUMN_PN), e.getMessage());
+            }
+        }
+    }
+
+    private List<ImportRow> readRows(Reader reader) throws IOException {
+        BufferedReader bufferedReader = new BufferedReader(reader);
+
+        List<String> header = readRecord(bufferedReader);
+        if(header == null) {
+            throw new IllegalArgumentException(ErrorMessages.IMPORT_PN_COLUMN_MISSING);
+        }
+        header = header.stream()
+                .map(column -> StringUtils.removeStart(column, "\uFEFF").trim().toLowerCase())
+                .collect(Collectors.toList());
+        if(!header.contains(COLUMN_PN)) {
+            throw new IllegalArgumentException(ErrorMessages.IMPORT_PN_COLUMN_MISSING);
+        }
+
+        List<ImportRow> rows = new ArrayList<>();
+        int rowNumber = 1;
+        List<String> record;
+        while((record = readRecord(bufferedReader)) != null) {
+            rowNumber++;
+            if(record.stream().allMatch(StringUtils::isBlank)) continue;
+
+            Map<String, String> values = new HashMap<>();
+            for(int i = 0; i < header.size() && i < record.size(); i++) {
+                values.put(header.get(i), record.get(i));
+            }
+            rows.add(new ImportRow(rowNumber, values));
+        }
+        return rows;
+    }
+
+    private List<String> readRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if(c == -1) {
+            return null;
+        }
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while(c != -1) {
+            if(quoted && c == '"') {
+                reader.mark(1);
+                int next = reader.read();
+                if(next == '"') {
+                    value.append('"');
+                }
+                else {
+                    quoted = false;
+                    reader.reset();
+                }
+            }
+            else if(quoted) {
+                value.append((char) c);
+            }
+            else if(c == '"') {
+                quoted = true;
+            }
+            else if(c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            }
+            else if(c == '\n') {
+                break;
+            }
+            else if(c != '\r') {
+                value.append((char) c);
+            }
+            c = reader.read();
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private ImportLookups loadLookups(List<ImportRow> rows) {
+        ImportLookups lookups = new ImportLookups();
+
+        lookups.customersByCode = customerRepository.findByCodeIn(distinctValues(rows, COLUMN_CUSTOMER_CODE))
+                .stream().collect(Collectors.toMap(Customer::getCode, Function.identity()));
+
+        lookups.employeesByEmailAddress = employeeRepository.findByEmailAddressIn(distinctValues(rows,
+                COLUMN_REQUESTER, COLUMN_PRODUCT_MANAGER, COLUMN_PRODUCT_SPECIALIST))
+                .stream().collect(Collectors.toMap(Employee::getEmailAddress, Function.identity()));
+
+        List<Coo> coos = cooRepository.findAll();
+        lookups.coosByName = coos.stream().collect(Collectors.toMap(Coo::getName, Function.identity()));
+        Map<Integer, Coo> coosById = coos.stream().collect(Collectors.toMap(Coo::getId, Function.identity()));
+
+        lookups.plantsByCode = new HashMap<>();
+        lookups.coosByPlantCode = new HashMap<>();
+        for(Plant plant : plantRepository.findByCodeIn(distinctValues(rows, COLUMN_PLANT_CODE))) {
+            lookups.plantsByCode.put(plant.getCode(), plant);
+            lookups.coosByPlantCode.put(plant.getCode(), coosById.get(plant.getCoo().getId()));
+        }
+
+        lookups.completePnsInUse =
+                partNumberObjectRepository.findCompletePnsInUse(distinctValues(rows, COLUMN_PN));
+
+        return lookups;
+    }
+
+    private Set<String> distinctValues(List<ImportRow> rows, String... columns) {
+        Set<String> values = new HashSet<>();
+        for(ImportRow row : rows) {
+            for(String column : columns) {
+                String value = row.get(column);
+                if(value != null) values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private void validateRow(ImportRow row, ImportLookups lookups) {
+        try {
+            row.partNumberObject = createPartNumberObject(row, lookups);
+        }
+        catch(IllegalArgumentException e) {
+            row.rejectReason = e.getMessage();
+        }
+    }
+
+    private PartNumberObject createPartNumberObject(ImportRow row, ImportLookups lookups)
+            throws IllegalArgumentException {
+
+        String pn = row.get(COLUMN_PN);
+        if(pn == null) {
+            throw new BlankValueNotAllowedException(ErrorMessages.PART_NUMBER_NOT_SPECIFIED);
+        }
+        if(pn.length() != 10) {
+            throw new IllegalArgumentException(ErrorMessages.IMPORT_PN_LENGTH_INVALID);
+        }
+
+        String idx = row.get(COLUMN_IDX);
+        if(idx != null && idx.length() != 3) {
+            throw new IllegalArgumentException(ErrorMessages.IMPORT_IDX_LENGTH_INVALID);
+        }
+        if(idx != null && lookups.completePnsInUse.contains(pn + idx)) {
+            throw new IllegalArgumentException(ErrorMessages.IMPORT_COMPLETE_PN_ALREADY_EXISTS);
+        }
+
+        PartNumberObject partNumberObject = new PartNumberObject();
+        partNumberObject.setPn(pn);
+        partNumberObject.setIdx(idx);
+
+        String requesterEmailAddress = row.get(COLUMN_REQUESTER);
+        if(requesterEmailAddress == null) {
+            throw new BlankValueNotAllowedException(ErrorMessages.IMPORT_REQUESTER_NOT_SPECIFIED);
+        }
+        Employee requester = findEmployee(requesterEmailAddress, null, lookups);
+        partNumberObject.setCreatedByEmployee(requester);
+        String team = row.get(COLUMN_TEAM);
+        partNumberObject.setCreatedByTeamDepartment(team != null ? team : requester.getTeam());
+
+        String productManagerEmailAddress = row.get(COLUMN_PRODUCT_MANAGER);
+        if(productManagerEmailAddress != null) {
+            partNumberObject.setProductManager(
+                    findEmployee(productManagerEmailAddress, Role.PRODUCT_MANAGER, lookups));
+        }
+        String productSpecialistEmailAddress = row.get(COLUMN_PRODUCT_SPECIALIST);
+        if(productSpecialistEmailAddress != null) {
+            partNumberObject.setProductSpecialist(
+                    findEmployee(productSpecialistEmailAddress, Role.PRODUCT_SPECIALIST, lookups));
+        }
+
+        String customerCode = row.get(COLUMN_CUSTOMER_CODE);
+        if(customerCode != null) {
+            customerService.isCodeNumberCorrect(customerCode);
+            Customer customer = lookups.customersByCode.get(customerCode);
+            if(customer == null) {
+                throw new IllegalArgumentException(ErrorMessages.CUSTOMER_NOT_FOUND);
+            }
+            partNumberObject.setCustomer(customer);
+        }
+        partNumberObject.setCustomerPartNumber(row.get(COLUMN_CUSTOMER_PART_NUMBER));
+        partNumberObject.setProductDescription(row.get(COLUMN_PRODUCT_DESCRIPTION));
+
+        Coo coo = null;
+        String cooName = row.get(COLUMN_COO);
+        if(cooName != null) {
+            coo = lookups.coosByName.get(cooName);
+            if(coo == null) {
+                throw new IllegalArgumentException(ErrorMessages.COO_NOT_FOUND);
+            }
+        }
+        String plantCode = row.get(COLUMN_PLANT_CODE);
+        if(plantCode != null) {
+            Plant plant = lookups.plantsByCode.get(plantCode);
+            if(plant == null) {
+                throw new IllegalArgumentException(ErrorMessages.PLANT_CODE_NOT_FOUND);
+            }
+            Coo cooOfPlant = lookups.coosByPlantCode.get(plantCode);
+            if(coo != null && !coo.equals(cooOfPlant)) {
+                throw new IllegalArgumentException(ErrorMessages.IMPORT_PLANT_NOT_OF_COO);
+            }
+            coo = cooOfPlant;
+            partNumberObject.setPlant(plant.getName());
+            partNumberObject.setPlantCode(plant.getCode());
+        }
+        if(coo != null) {
+            partNumberObject.setCooName(coo.getName());
+            partNumberObject.setCooAbbreviation(coo.getAbbreviation());
+        }
+
+        partNumberObject.setStartOfProduction(parseDate(row.get(COLUMN_START_OF_PRODUCTION)));
+        partNumberObject.setDueDate(parseDate(row.get(COLUMN_DUE_DATE)));
+        partNumberObject.setComments(row.get(COLUMN_COMMENTS));
+
+        return partNumberObject;
+    }
+
+    private Employee findEmployee(String emailAddress, Role role, ImportLookups lookups) {
+        Employee employee = lookups.employeesByEmailAddress.get(emailAddress);
+        if(employee == null) {
+            throw new IllegalArgumentException(ErrorMessages.EMAIL_ADDRESS_NOT_FOUND);
+        }
+        if(role != null && !employee.getRoles().contains(role)) {
+            throw new IllegalArgumentException(ErrorMessages.IMPORT_EMPLOYEE_ROLE_MISSING);
+        }
+        return employee;
+    }
+
+    private LocalDate parseDate(String date) {
+        if(date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        }
+        catch(DateTimeParseException e) {
+            throw new IllegalArgumentException(ErrorMessages.IMPORT_DATE_INVALID);
+        }
+    }
+
+    private void rejectDuplicatesInFile(List<ImportRow> rows) {
+        Set<String> completePns = new HashSet<>();
+        for(ImportRow row : rows) {
+            if(row.partNumberObject == null || row.partNumberObject.getIdx() == null) continue;
+            if(!completePns.add(row.partNumberObject.getPn() + row.partNumberObject.getIdx())) {
+                row.partNumberObject = null;
+                row.rejectReason = ErrorMessages.IMPORT_COMPLETE_PN_DUPLICATED;
+            }
+        }
+    }
+
+    private static class ImportRow {
+
+        private final int rowNumber;
+
+        private final Map<String, String> values;
+
+        private PartNumberObject partNumberObject;
+
+        private String rejectReason;
+
+        private ImportRow(int rowNumber, Map<String, String> values) {
+            this.rowNumber = rowNumber;
+            this.values = values;
+        }
+
+        private String get(String column) {
+            return StringUtils.trimToNull(values.get(column));
+        }
+    }
+
+    private static class ImportLookups {
+
+        private Map<String, Customer> customersByCode;
+
+        private Map<String, Employee> employeesByEmailAddress;
+
+        private Map<String, Coo> coosByName;
+
+        private Map<String, Plant> plantsByCode;
+
+        private Map<String, Coo> coosByPlantCode;
+
+        private Set<String> completePnsInUse;
+    }
+}
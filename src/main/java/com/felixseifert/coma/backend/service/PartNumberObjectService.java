@@ -21,19 +21,45 @@ import com.felixseifert.coma.backend.model.Employee;
 import com.felixseifert.coma.backend.model.PartNumberObject;
 import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFilter;
+import com.felixseifert.coma.backend.model.dto.PnLineageDTO;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Set;
 
 public interface PartNumberObjectService {
 
     PartNumberObject getPartNumberObjectById(Integer id);
 
+    PartNumberObjectGridDTO getPartNumberObjectGridDtoById(Integer id);
+
     List<PartNumberObjectGridDTO> getPartNumberObjectsByPnStartsWithIgnoreCase(String pn, int limit, int offset,
                                                                                boolean descending,
                                                                                String sortProperty);
 
+    List<PartNumberObjectGridDTO> getPartNumberObjectsByPnStartsWithIgnoreCase(String pn, int limit, int offset,
+                                                                               boolean descending,
+                                                                               String sortProperty,
+                                                                               Set<String> fields);
+
+    List<PartNumberObjectGridDTO> getPartNumberObjects(PnGridFilter filter, int limit, int offset,
+                                                       boolean descending, String sortProperty, Set<String> fields);
+
+    void exportPartNumberObjectsByPnStartsWithIgnoreCase(String pn, boolean descending, String sortProperty,
+                                                         Writer writer) throws IOException;
+
+    void exportPartNumberObjects(PnGridFilter filter, boolean descending, String sortProperty, Writer writer)
+            throws IOException;
+
+    PnGridFacetsDTO getPnGridFacets(PnGridFilter filter);
+
     PartNumberObject postPartNumberObject(PartNumberObject partNumberObject);
 
+    List<PartNumberObject> postPartNumberObjects(List<PartNumberObject> partNumberObjects);
+
     PartNumberObject putPartNumberObject(PartNumberObject partNumberObject);
 
     PartNumberObject denyRequest(PartNumberObject partNumberObject);
@@ -54,6 +80,26 @@ public interface PartNumberObjectService {
 
     boolean existsPartNumberObjectByCompletePn(String completePn);
 
+    boolean isCompletePnInUse(String completePn);
+
+    void rebuildCompletePnIndex();
+
+    List<Integer> searchPartNumberObjectIds(String text, int limit);
+
+    void rebuildSearchIndex();
+
+    List<String> getSimilarPns(String pn, int limit);
+
+    void rebuildFuzzyPnIndex();
+
+    PnLineageDTO getLineage(Integer id, int depth);
+
+    void rebuildLineageGraph();
+
+    void refreshPnGridViewForEmployee(Employee employee);
+
+    int rebuildPnGridView();
+
     int countPartNumberObjects();
 
     int countPartNumberObjects(Employee employee);
@@ -65,4 +111,6 @@ public interface PartNumberObjectService {
     long countPartNumberObjectsCurrentlyResponsible(Employee employee);
 
     int countPartNumberObjectsByPnStartsWithIgnoreCase(String pn);
+
+    int countPartNumberObjects(PnGridFilter filter);
 }
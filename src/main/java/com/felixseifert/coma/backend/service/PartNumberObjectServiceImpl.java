@@ -21,27 +21,44 @@ import com.felixseifert.coma.backend.exceptions.EntityAlreadyExistsException;
 import com.felixseifert.coma.backend.exceptions.EntityIDNotFoundException;
 import com.felixseifert.coma.backend.exceptions.ErrorMessages;
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFilter;
+import com.felixseifert.coma.backend.model.dto.PnLineageDTO;
 import com.felixseifert.coma.backend.model.enums.CustomerNotification;
 import com.felixseifert.coma.backend.model.enums.Progress;
 import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.repos.PartNumberLobRepository;
 import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
 import com.felixseifert.coma.backend.repos.TaskReleaseRepository;
+import com.felixseifert.coma.backend.service.ChangeNotifier.ChangeType;
 import com.felixseifert.coma.backend.model.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class PartNumberObjectServiceImpl implements PartNumberObjectService {
 
+    private static final List<String> EXPORT_HEADER = List.of("ID", "PN", "Due Date", "Created by", "Created at",
+            "Responsible Employee", "Responsible Role", "Progress", "Customer Notification", "Release Date");
+
     @Autowired
     private PartNumberObjectRepository partNumberObjectRepository;
 
@@ -51,6 +68,24 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
     @Autowired
     private TaskReleaseRepository taskReleaseRepository;
 
+    @Autowired
+    private CompletePnIndex completePnIndex;
+
+    @Autowired
+    private PnSearchIndex pnSearchIndex;
+
+    @Autowired
+    private PnFuzzyIndex pnFuzzyIndex;
+
+    @Autowired
+    private PnLineageGraph pnLineageGraph;
+
+    @Autowired
+    private PnIndexes pnIndexes;
+
+    @Autowired
+    private ChangeNotifier changeNotifier;
+
     @Override
     public PartNumberObject getPartNumberObjectById(Integer id) throws EntityIDNotFoundException {
         log.debug("Get PartNumberObject with id {}", id);
@@ -65,6 +100,16 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
         return pnFound;
     }
 
+    @Override
+    public PartNumberObjectGridDTO getPartNumberObjectGridDtoById(Integer id) throws EntityIDNotFoundException {
+        Optional<PartNumberObjectGridDTO> pnDto = partNumberObjectRepository.findPnGridDtoById(id);
+        if(pnDto.isEmpty()) {
+            throw new EntityIDNotFoundException(ErrorMessages.PART_NUMBER_ID_NOT_FOUND);
+        }
+        log.debug("Get PartNumberObjectGridDTO with id={}", id);
+        return pnDto.get();
+    }
+
     @Override
     public List<PartNumberObjectGridDTO> getPartNumberObjectsByPnStartsWithIgnoreCase(
             String pn, int limit, int offset, boolean descending, String sortProperty) {
@@ -83,9 +128,153 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
     }
 
     @Override
+    public List<PartNumberObjectGridDTO> getPartNumberObjectsByPnStartsWithIgnoreCase(
+            String pn, int limit, int offset, boolean descending, String sortProperty, Set<String> fields) {
+
+        log.debug("Get fields {} of ProductNumberObjects with pn starting with {}, limit={} and offset={}",
+                fields, pn, limit, offset);
+
+        if(StringUtils.isBlank(sortProperty)) {
+            sortProperty = PartNumberObject_.LAST_MODIFIED_DATE_TIME;
+            descending = true;
+        }
+
+        return partNumberObjectRepository.findByPnStartsWithIgnoreCase(pn, limit, offset, descending, sortProperty,
+                fields);
+    }
+
+    @Override
+    public List<PartNumberObjectGridDTO> getPartNumberObjects(PnGridFilter filter, int limit, int offset,
+                                                              boolean descending, String sortProperty,
+                                                              Set<String> fields) {
+
+        log.debug("Get fields {} of ProductNumberObjects matching {}, limit={} and offset={}",
+                fields, filter, limit, offset);
+
+        if(StringUtils.isBlank(sortProperty)) {
+            sortProperty = PartNumberObject_.LAST_MODIFIED_DATE_TIME;
+            descending = true;
+        }
+
+        return partNumberObjectRepository.findPnGridDtos(filter, limit, offset, descending, sortProperty, fields);
+    }
+
+    @Override
+    public void exportPartNumberObjectsByPnStartsWithIgnoreCase(String pn, boolean descending, String sortProperty,
+                                                                Writer writer) throws IOException {
+        exportPartNumberObjects(PnGridFilter.ofPn(pn), descending, sortProperty, writer);
+    }
+
+    @Override
+    public void exportPartNumberObjects(PnGridFilter filter, boolean descending, String sortProperty,
+                                        Writer writer) throws IOException {
+
+        log.info("Export all ProductNumberObjects matching {}", filter);
+
+        if(StringUtils.isBlank(sortProperty)) {
+            sortProperty = PartNumberObject_.LAST_MODIFIED_DATE_TIME;
+            descending = true;
+        }
+
+        writer.write(toCsvLine(EXPORT_HEADER));
+        try {
+            partNumberObjectRepository.scrollPnGridDtos(filter, descending, sortProperty, pnDto -> {
+                try {
+                    writer.write(toCsvLine(toExportValues(pnDto)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private List<Object> toExportValues(PartNumberObjectGridDTO pnDto) {
+        return Arrays.asList(pnDto.getId(), pnDto.getPn(), pnDto.getDueDate(), pnDto.getCreatedByTeamDepartment(),
+                pnDto.getCreatedDate(), pnDto.getCurrentEmployeeName(),
+                pnDto.getCurrentEmployeeRole() != null ? pnDto.getCurrentEmployeeRole().getName() : null,
+                pnDto.getStatus() != null ? pnDto.getStatus().getName() : null,
+                pnDto.getCustomerNotification() != null ? pnDto.getCustomerNotification().getName() : null,
+                pnDto.getReleaseCompletedAt() != null ? pnDto.getReleaseCompletedAt().toLocalDate() : null);
+    }
+
+    private String toCsvLine(List<?> values) {
+        return values.stream()
+                .map(value -> value == null ? "" : value.toString())
+                .map(value -> StringUtils.containsAny(value, ',', '"', '\n', '\r') ?
+                        '"' + value.replace("\"", "\"\"") + '"' : value)
+                .collect(Collectors.joining(",", "", "\r\n"));
+    }
+
+    @Override
+    @Transactional
     public PartNumberObject postPartNumberObject(PartNumberObject partNumberObject)
             throws EntityAlreadyExistsException, BlankValueNotAllowedException {
 
+        prepareNewPartNumberObject(partNumberObject);
+        if(partNumberObject.getLobs() != null) {
+            log.info("Create PartNumberLob and PartNumberObject: {}", partNumberObject);
+        }
+        else {
+            log.info("Create PartNumberObject: {}", partNumberObject);
+        }
+        return saveAndIndex(partNumberObject);
+    }
+
+    /**
+     * Creates several new PNs, e.g. a chunk of an import, with one uniqueness query, one batch insert per table, one
+     * refresh of the PN grid view and a single change. Release flows are not supported, so the PNs must not have
+     * finished steps, completed or remaining steps, request types or channel profiles.
+     */
+    @Override
+    @Transactional
+    public List<PartNumberObject> postPartNumberObjects(List<PartNumberObject> partNumberObjects)
+            throws EntityAlreadyExistsException, BlankValueNotAllowedException {
+
+        if(partNumberObjects.isEmpty()) return partNumberObjects;
+
+        Set<String> completePns = new HashSet<>();
+        for(PartNumberObject partNumberObject : partNumberObjects) {
+            if(!isSupportedInBulk(partNumberObject)) {
+                throw new IllegalArgumentException(ErrorMessages.PART_NUMBERS_BULK_NOT_SUPPORTED);
+            }
+            prepareNewPartNumberObject(partNumberObject);
+            String completePn = CompletePnIndex.completePnInUse(partNumberObject);
+            if(completePn != null && !completePns.add(completePn)) {
+                throw new EntityAlreadyExistsException(ErrorMessages.COMPLETE_PN_ALREADY_EXISTS);
+            }
+        }
+
+        // The in-memory index only covers the changes of this instance, so the database decides
+        Set<String> pns = partNumberObjects.stream().map(PartNumberObject::getPn).collect(Collectors.toSet());
+        if(!completePns.isEmpty() &&
+                partNumberObjectRepository.findCompletePnsInUse(pns).stream().anyMatch(completePns::contains)) {
+            throw new EntityAlreadyExistsException(ErrorMessages.COMPLETE_PN_ALREADY_EXISTS);
+        }
+
+        log.info("Create {} PartNumberObjects", partNumberObjects.size());
+        partNumberObjectRepository.insertPartNumberObjects(partNumberObjects);
+        pnIndexes.savedAll(partNumberObjects);
+        changeNotifier.publish(PartNumberObject.class, null, ChangeType.CREATED);
+        return partNumberObjects;
+    }
+
+    private boolean isSupportedInBulk(PartNumberObject partNumberObject) {
+        TaskRelease taskRelease = partNumberObject.getTaskRelease();
+        if(taskRelease != null && (taskRelease.isStepFinished() ||
+                (taskRelease.getCompletedTaskSteps() != null && !taskRelease.getCompletedTaskSteps().isEmpty()) ||
+                (taskRelease.getRemainingSteps() != null && !taskRelease.getRemainingSteps().isEmpty()))) {
+            return false;
+        }
+        return (partNumberObject.getRequestType() == null || partNumberObject.getRequestType().isEmpty()) &&
+                (partNumberObject.getChannelProfiles() == null || partNumberObject.getChannelProfiles().isEmpty());
+    }
+
+    private void prepareNewPartNumberObject(PartNumberObject partNumberObject)
+            throws EntityAlreadyExistsException, BlankValueNotAllowedException {
+
         if(StringUtils.isBlank(partNumberObject.getPn())) {
             throw new BlankValueNotAllowedException(ErrorMessages.PART_NUMBER_NOT_SPECIFIED);
         }
@@ -116,15 +305,11 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
         if(StringUtils.isNotBlank(partNumberObject.getComments())) {
             partNumberObject.setLobs(new PartNumberLob());
             partNumberObject.getLobs().setComments(partNumberObject.getComments());
-            log.info("Create PartNumberLob and PartNumberObject: {}", partNumberObject);
         }
-        else {
-            log.info("Create PartNumberObject: {}", partNumberObject);
-        }
-        return partNumberObjectRepository.save(partNumberObject);
     }
 
     @Override
+    @Transactional
     public PartNumberObject putPartNumberObject(PartNumberObject partNumberObject)
             throws EntityIDNotFoundException, BlankValueNotAllowedException {
 
@@ -163,13 +348,14 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
         else if(partNumberObject.getLobs() != null && StringUtils.isNotBlank(partNumberObject.getComments())) {
             partNumberObject.getLobs().setComments(partNumberObject.getComments());
             log.info("Update PartNumberLob and PartNumberObject: {}", partNumberObject);
-            return partNumberObjectRepository.save(partNumberObject);
+            return saveAndIndex(partNumberObject);
         }
         log.info("Update PartNumberObject: {}", partNumberObject);
-        return partNumberObjectRepository.save(partNumberObject);
+        return saveAndIndex(partNumberObject);
     }
 
     @Override
+    @Transactional
     public PartNumberObject denyRequest(PartNumberObject partNumberObject) {
 
         if(StringUtils.isBlank(partNumberObject.getComments()) &&
@@ -184,6 +370,21 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
         return putPartNumberObject(partNumberObject);
     }
 
+    private PartNumberObject saveAndIndex(PartNumberObject partNumberObject) throws EntityAlreadyExistsException {
+        // The in-memory index only covers the changes of this instance, so the database decides
+        String completePn = CompletePnIndex.completePnInUse(partNumberObject);
+        if(completePn != null &&
+                partNumberObjectRepository.existsByCompletePn(completePn, partNumberObject.getId())) {
+            throw new EntityAlreadyExistsException(ErrorMessages.COMPLETE_PN_ALREADY_EXISTS);
+        }
+
+        ChangeType changeType = partNumberObject.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+        PartNumberObject saved = partNumberObjectRepository.save(partNumberObject);
+        pnIndexes.saved(partNumberObject);
+        changeNotifier.publish(PartNumberObject.class, partNumberObject.getId(), changeType);
+        return saved;
+    }
+
     private boolean isAFinishedTaskStepInvalid(PartNumberObject partNumberObject) {
 
         if(partNumberObject.getTaskRelease() == null ||
@@ -286,6 +487,7 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
     }
 
     @Override
+    @Transactional
     public void deletePartNumberObject(PartNumberObject partNumberObject) throws EntityIDNotFoundException {
 
         if(!partNumberObjectRepository.existsById(partNumberObject.getId())) {
@@ -315,6 +517,8 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
             log.info("Delete PartNumberObject: {}", partNumberObject);
         }
         partNumberObjectRepository.delete(partNumberObject);
+        pnIndexes.deleted(partNumberObject.getId());
+        changeNotifier.publish(PartNumberObject.class, partNumberObject.getId(), ChangeType.DELETED);
     }
 
     @Override
@@ -324,9 +528,11 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
     }
 
     @Override
+    @Transactional
     public void removeCurrentResponsibilities(Employee employee) {
         log.info("Remove all current Responsibilities for {}", employee);
         taskReleaseRepository.removeCurrentResponsibilities(employee);
+        partNumberObjectRepository.refreshPnGridViewForEmployee(employee);
     }
 
     @Override
@@ -355,6 +561,84 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
         return exists;
     }
 
+    @Override
+    public boolean isCompletePnInUse(String completePn) {
+        return completePnIndex.contains(completePn);
+    }
+
+    @Override
+    public void rebuildCompletePnIndex() {
+        log.info("Rebuild index of complete PNs in use");
+        completePnIndex.rebuild();
+    }
+
+    @Override
+    public List<Integer> searchPartNumberObjectIds(String text, int limit) {
+        List<Integer> ids = pnSearchIndex.search(text, limit);
+        log.debug("Found {} ProductNumberObjects for search \"{}\"", ids.size(), text);
+        return ids;
+    }
+
+    @Override
+    public void rebuildSearchIndex() {
+        log.info("Rebuild full-text search index of PNs");
+        pnSearchIndex.rebuild();
+    }
+
+    @Override
+    public List<String> getSimilarPns(String pn, int limit) {
+        List<String> similarPns = pnFuzzyIndex.findSimilar(pn, PnFuzzyIndex.MAX_DISTANCE, limit);
+        log.debug("Found {} PNs similar to {}", similarPns.size(), pn);
+        return similarPns;
+    }
+
+    @Override
+    public void rebuildFuzzyPnIndex() {
+        log.info("Rebuild fuzzy index of PNs");
+        pnFuzzyIndex.rebuild();
+    }
+
+    @Override
+    public PnLineageDTO getLineage(Integer id, int depth) {
+        log.debug("Get lineage of ProductNumberObject with id {} up to depth {}", id, depth);
+        PnLineageDTO lineage = pnLineageGraph.getLineage(id, depth);
+        if(lineage == null) {
+            throw new EntityIDNotFoundException(ErrorMessages.PART_NUMBER_ID_NOT_FOUND);
+        }
+        return lineage;
+    }
+
+    @Override
+    public void rebuildLineageGraph() {
+        log.info("Rebuild lineage graph of PNs");
+        pnLineageGraph.rebuild();
+    }
+
+    @Override
+    @Transactional
+    public void refreshPnGridViewForEmployee(Employee employee) {
+        log.debug("Refresh PN grid rows of {}", employee);
+        partNumberObjectRepository.refreshPnGridViewForEmployee(employee);
+    }
+
+    @Override
+    @Transactional
+    public int rebuildPnGridView() {
+        int rows = partNumberObjectRepository.rebuildPnGridView();
+        log.info("Rebuilt PN grid read model with {} rows", rows);
+        return rows;
+    }
+
+    // Fills the read model after it was added to an existing database or rows were written around the services
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildPnGridViewIfIncomplete() {
+        if(partNumberObjectRepository.countPnGridView()
+                != partNumberObjectRepository.countPartNumberObjectsWithTaskRelease()) {
+            rebuildPnGridView();
+        }
+    }
+
     @Override
     public int countPartNumberObjects() {
         // Typecast possible because PartNumberObject has only Integer id
@@ -383,9 +667,17 @@ public class PartNumberObjectServiceImpl implements PartNumberObjectService {
 
     @Override
     public int countPartNumberObjectsByPnStartsWithIgnoreCase(String pn) {
-        if(StringUtils.isNotBlank(pn)) {
-            return partNumberObjectRepository.countByPnStartsWithIgnoreCase(pn);
-        }
-        return countPartNumberObjects();
+        return partNumberObjectRepository.countByPnStartsWithIgnoreCase(pn);
+    }
+
+    @Override
+    public int countPartNumberObjects(PnGridFilter filter) {
+        return partNumberObjectRepository.countPnGridDtos(filter);
+    }
+
+    @Override
+    public PnGridFacetsDTO getPnGridFacets(PnGridFilter filter) {
+        log.debug("Get facets of ProductNumberObjects matching {}", filter);
+        return partNumberObjectRepository.findPnGridFacets(filter);
     }
 }
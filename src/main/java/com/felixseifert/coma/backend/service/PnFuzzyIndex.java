@@ -0,0 +1,242 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index for typo-tolerant lookups of PNs. Every pn is stored together with all variants which arise from
+ * deleting up to {@link #MAX_DISTANCE} characters. Two strings within this edit distance share such a variant, so the
+ * candidates of a lookup are found with a few map accesses and are only verified with the exact distance. A complete
+ * PN (pn + idx) is looked up by its pn, because the PN grid filters by pn; only the lengths of the idx are kept.
+ * <p>
+ * Memory: a pn of n characters has up to 1 + n + n(n-1)/2 variants, 56 for the usual 10 characters. With about
+ * 120 bytes per variant (string, map entry and a mostly single-element set) the index needs up to 7 KB per pn, i.e.
+ * about 700 MB for 100,000 distinct pns. Variants shared by similar pns are only stored once.
+ */
+@Component
+@Slf4j
+public class PnFuzzyIndex extends PnIndex<PnFuzzyIndex.Key> {
+
+    public static final int MAX_DISTANCE = 2;
+
+    @Autowired
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    // Replaced as a whole on rebuild, so lookups never see a partially built index
+    private volatile Index index = new Index();
+
+    public int size() {
+        return index.idsByPn.size();
+    }
+
+    /**
+     * Returns the indexed pns with an edit distance of at most maxDistance to the input, closest first. Swapped
+     * neighbouring characters count as one edit. An input with an idx is matched by its pn part.
+     */
+    public List<String> findSimilar(String input, int maxDistance, int limit) {
+        String normalised = normalise(input);
+        if(normalised == null || limit <= 0) return List.of();
+        int distance = Math.min(Math.max(maxDistance, 0), MAX_DISTANCE);
+
+        Index currentIndex = index;
+        Map<String, Integer> distances = new HashMap<>();
+        addCandidates(currentIndex, normalised, distance, distances);
+        for(int idxLength : currentIndex.idxLengths) {
+            if(normalised.length() > idxLength) {
+                addCandidates(currentIndex, normalised.substring(0, normalised.length() - idxLength), distance,
+                        distances);
+            }
+        }
+
+        return distances.entrySet().stream()
+                .filter(e -> e.getValue() <= distance)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static void addCandidates(Index currentIndex, String query, int distance, Map<String, Integer> distances) {
+        Set<String> verified = new HashSet<>();
+        for(String variant : variants(query, distance)) {
+            for(String pn : currentIndex.pnsByVariant.getOrDefault(variant, Set.of())) {
+                if(verified.add(pn)) {
+                    distances.merge(pn, editDistance(query, pn), Math::min);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        Index newIndex = new Index();
+        partNumberObjectRepository.scrollPnSearchDocuments(document ->
+                newIndex.put(document.getId(), Key.of(document.getPn(), document.getIdx())));
+
+        index = newIndex;
+        log.info("Rebuilt fuzzy PN index with {} PNs and {} variants", newIndex.idsByPn.size(),
+                newIndex.pnsByVariant.size());
+    }
+
+    @Override
+    protected Key valueOf(PartNumberObject partNumberObject) {
+        return Key.of(partNumberObject.getPn(), partNumberObject.getIdx());
+    }
+
+    @Override
+    protected synchronized Key put(Integer id, Key key) {
+        return index.put(id, key);
+    }
+
+    private static final class Index {
+
+        // Variant with deleted characters -> pns containing this variant; the sets are immutable and replaced
+        private final Map<String, Set<String>> pnsByVariant = new ConcurrentHashMap<>();
+
+        // pn -> ids of the PNs, several PNs can share a pn
+        private final Map<String, Set<Integer>> idsByPn = new ConcurrentHashMap<>();
+
+        private final Map<Integer, Key> keysById = new ConcurrentHashMap<>();
+
+        // Lengths of all idx seen since the last rebuild, removed PNs do not shrink it
+        private final Set<Integer> idxLengths = new ConcurrentSkipListSet<>();
+
+        private Key put(Integer id, Key key) {
+            Key previous = key == null ? keysById.remove(id) : keysById.put(id, key);
+            if(key != null && key.idxLength > 0) idxLengths.add(key.idxLength);
+            String previousPn = previous != null ? previous.pn : null;
+            String pn = key != null ? key.pn : null;
+            if(Objects.equals(previousPn, pn)) return previous;
+
+            if(previousPn != null) {
+                idsByPn.computeIfPresent(previousPn, (k, ids) -> {
+                    if(ids.size() > 1) return without(ids, id);
+                    variants(previousPn, MAX_DISTANCE).forEach(variant -> pnsByVariant.computeIfPresent(variant,
+                            (v, pns) -> pns.size() > 1 ? without(pns, previousPn) : null));
+                    return null;
+                });
+            }
+            if(pn != null) {
+                idsByPn.compute(pn, (k, ids) -> {
+                    if(ids != null) return with(ids, id);
+                    variants(pn, MAX_DISTANCE).forEach(variant -> pnsByVariant.merge(variant, Set.of(pn),
+                            (pns, added) -> with(pns, pn)));
+                    return Set.of(id);
+                });
+            }
+            return previous;
+        }
+
+        private static <T> Set<T> with(Set<T> set, T element) {
+            Set<T> copy = new HashSet<>(set);
+            copy.add(element);
+            return Set.copyOf(copy);
+        }
+
+        private static <T> Set<T> without(Set<T> set, T element) {
+            Set<T> copy = new HashSet<>(set);
+            copy.remove(element);
+            return Set.copyOf(copy);
+        }
+    }
+
+    /**
+     * Normalised pn of a PN and the length of its idx, 0 without idx.
+     */
+    static final class Key {
+
+        private final String pn;
+
+        private final int idxLength;
+
+        private Key(String pn, int idxLength) {
+            this.pn = pn;
+            this.idxLength = idxLength;
+        }
+
+        private static Key of(String pn, String idx) {
+            String normalisedPn = normalise(pn);
+            if(normalisedPn == null) return null;
+            String normalisedIdx = normalise(idx);
+            return new Key(normalisedPn, normalisedIdx != null ? normalisedIdx.length() : 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return idxLength == that.idxLength && pn.equals(that.pn);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pn, idxLength);
+        }
+    }
+
+    private static String normalise(String value) {
+        return StringUtils.isBlank(value) ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // The string itself and all strings with up to maxDeletions characters deleted
+    static Set<String> variants(String value, int maxDeletions) {
+        Set<String> variants = new HashSet<>();
+        variants.add(value);
+        Set<String> current = Set.of(value);
+        for(int i = 0; i < maxDeletions; i++) {
+            Set<String> next = new HashSet<>();
+            for(String variant : current) {
+                for(int position = 0; position < variant.length(); position++) {
+                    next.add(variant.substring(0, position) + variant.substring(position + 1));
+                }
+            }
+            variants.addAll(next);
+            current = next;
+        }
+        return variants;
+    }
+
+    // Optimal string alignment distance: insertions, deletions, substitutions and transpositions of neighbours
+    static int editDistance(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for(int i = 0; i <= a.length(); i++) d[i][0] = i;
+        for(int j = 0; j <= b.length(); j++) d[0][j] = j;
+
+        for(int i = 1; i <= a.length(); i++) {
+            for(int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if(i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory index over all PNs which stores one value per PN id, derived from the PN. The indexes are built at
+ * startup and kept up to date by {@link PnIndexes}. A change made within a transaction is undone if the transaction
+ * does not commit, so an index does not drift from the database.
+ *
+ * @param <V> value of a PN in the index, null if the PN is not indexed
+ */
+public abstract class PnIndex<V> {
+
+    /**
+     * Reads all PNs from the database and replaces the index once it is complete.
+     */
+    public abstract void rebuild();
+
+    public void update(PartNumberObject partNumberObject) {
+        if(partNumberObject.getId() == null) return;
+        update(partNumberObject.getId(), valueOf(partNumberObject));
+    }
+
+    /**
+     * Updates several PNs at once, e.g. a chunk of an import, and undoes them together if the transaction does not
+     * commit.
+     */
+    public void updateAll(Collection<PartNumberObject> partNumberObjects) {
+        Map<Integer, V> previousValues = new HashMap<>();
+        for(PartNumberObject partNumberObject : partNumberObjects) {
+            if(partNumberObject.getId() == null) continue;
+            V value = valueOf(partNumberObject);
+            V previous = put(partNumberObject.getId(), value);
+            if(!Objects.equals(previous, value) && !previousValues.containsKey(partNumberObject.getId())) {
+                previousValues.put(partNumberObject.getId(), previous);
+            }
+        }
+        undoIfNotCommitted(previousValues);
+    }
+
+    public void remove(Integer id) {
+        if(id == null) return;
+        update(id, null);
+    }
+
+    protected abstract V valueOf(PartNumberObject partNumberObject);
+
+    /**
+     * Stores the value of a PN, null removes the PN from the index.
+     *
+     * @return the previous value of the PN
+     */
+    protected abstract V put(Integer id, V value);
+
+    private void update(Integer id, V value) {
+        V previous = put(id, value);
+        if(!Objects.equals(previous, value)) {
+            undoIfNotCommitted(Collections.singletonMap(id, previous));
+        }
+    }
+
+    private void undoIfNotCommitted(Map<Integer, V> previousValues) {
+        if(previousValues.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status != TransactionSynchronization.STATUS_COMMITTED) {
+                    previousValues.forEach((id, previous) -> put(id, previous));
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Updates everything derived from the PNs when a PN is saved or deleted: the PN grid view and all {@link PnIndex}
+ * beans. Must be called within the transaction which saves or deletes the PN.
+ */
+@Component
+@Slf4j
+public class PnIndexes {
+
+    @Autowired
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    @Autowired
+    private List<PnIndex<?>> indexes;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        log.info("Build {} PN indexes", indexes.size());
+        indexes.forEach(PnIndex::rebuild);
+    }
+
+    public void saved(PartNumberObject partNumberObject) {
+        partNumberObjectRepository.refreshPnGridView(Collections.singletonList(partNumberObject.getId()));
+        indexes.forEach(index -> index.update(partNumberObject));
+    }
+
+    /**
+     * Refreshes the PN grid view with one statement pair and updates each index once for all given PNs.
+     */
+    public void savedAll(List<PartNumberObject> partNumberObjects) {
+        partNumberObjectRepository.refreshPnGridView(partNumberObjects.stream()
+                .map(PartNumberObject::getId).collect(Collectors.toList()));
+        indexes.forEach(index -> index.updateAll(partNumberObjects));
+    }
+
+    public void deleted(Integer id) {
+        partNumberObjectRepository.refreshPnGridView(Collections.singletonList(id));
+        indexes.forEach(index -> index.remove(id));
+    }
+}
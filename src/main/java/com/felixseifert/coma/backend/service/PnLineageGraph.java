@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.model.dto.PnLineageDTO;
+import com.felixseifert.coma.backend.model.dto.PnSearchDocumentDTO;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory lineage graph of all PNs. A PN is the child of every PN whose pn or complete PN (pn + idx) equals its
+ * predecessor or complete source PN. References are kept as strings, so a parent can be created after its children.
+ */
+@Component
+@Slf4j
+public class PnLineageGraph extends PnIndex<PnLineageGraph.Entry> {
+
+    @Autowired
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    // Replaced as a whole on rebuild, so lookups never see a partially built graph
+    private volatile Graph graph = new Graph();
+
+    public int size() {
+        return graph.entriesById.size();
+    }
+
+    /**
+     * Returns the ancestors and descendants of the PN up to the given depth, or null if the PN is unknown.
+     */
+    public PnLineageDTO getLineage(Integer id, int depth) {
+        Graph currentGraph = graph;
+        Entry rootEntry = id != null ? currentGraph.entriesById.get(id) : null;
+        if(rootEntry == null) return null;
+
+        PnLineageDTO lineage = new PnLineageDTO(rootEntry.toNode(id, 0));
+        traverse(currentGraph, lineage, id, depth, currentGraph::getParentIds, lineage.getAncestors(), true);
+        traverse(currentGraph, lineage, id, depth, currentGraph::getChildIds, lineage.getDescendants(), false);
+        return lineage;
+    }
+
+    // Breadth-first, so every node is reached on a shortest path and cycles end at visited nodes
+    private static void traverse(Graph currentGraph, PnLineageDTO lineage, Integer rootId, int depth,
+                                 Function<Integer, Set<Integer>> neighbours, List<PnLineageDTO.Node> nodes,
+                                 boolean upwards) {
+        Set<Integer> visited = new HashSet<>(Set.of(rootId));
+        List<Integer> level = List.of(rootId);
+
+        for(int currentDepth = 1; currentDepth <= depth && !level.isEmpty(); currentDepth++) {
+            List<Integer> nextLevel = new ArrayList<>();
+            for(Integer nodeId : level) {
+                for(Integer neighbourId : neighbours.apply(nodeId)) {
+                    Entry entry = currentGraph.entriesById.get(neighbourId);
+                    if(entry == null) continue;
+
+                    lineage.getEdges().add(upwards ? new PnLineageDTO.Edge(neighbourId, nodeId) :
+                            new PnLineageDTO.Edge(nodeId, neighbourId));
+                    if(visited.add(neighbourId)) {
+                        nodes.add(entry.toNode(neighbourId, currentDepth));
+                        nextLevel.add(neighbourId);
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        Graph newGraph = new Graph();
+        partNumberObjectRepository.scrollPnSearchDocuments(document ->
+                newGraph.put(document.getId(), Entry.of(document)));
+
+        graph = newGraph;
+        log.info("Rebuilt PN lineage graph with {} PNs", newGraph.entriesById.size());
+    }
+
+    @Override
+    protected Entry valueOf(PartNumberObject partNumberObject) {
+        return Entry.of(PnSearchDocumentDTO.of(partNumberObject));
+    }
+
+    @Override
+    protected synchronized Entry put(Integer id, Entry entry) {
+        return graph.put(id, entry);
+    }
+
+    private static final class Graph {
+
+        private final Map<Integer, Entry> entriesById = new ConcurrentHashMap<>();
+
+        // pn or complete PN -> ids of the PNs it refers to
+        private final Map<String, Set<Integer>> idsByKey = new ConcurrentHashMap<>();
+
+        // Predecessor or complete source PN -> ids of the PNs referring to it
+        private final Map<String, Set<Integer>> childIdsByParentKey = new ConcurrentHashMap<>();
+
+        private Set<Integer> getParentIds(Integer id) {
+            Entry entry = entriesById.get(id);
+            if(entry == null) return Set.of();
+
+            Set<Integer> parentIds = new TreeSet<>();
+            entry.parentKeys.forEach(key -> parentIds.addAll(idsByKey.getOrDefault(key, Set.of())));
+            parentIds.remove(id);
+            return parentIds;
+        }
+
+        private Set<Integer> getChildIds(Integer id) {
+            Entry entry = entriesById.get(id);
+            if(entry == null) return Set.of();
+
+            Set<Integer> childIds = new TreeSet<>();
+            entry.keys.forEach(key -> childIds.addAll(childIdsByParentKey.getOrDefault(key, Set.of())));
+            childIds.remove(id);
+            return childIds;
+        }
+
+        private Entry put(Integer id, Entry entry) {
+            Entry previous = entry == null ? entriesById.remove(id) : entriesById.put(id, entry);
+            if(Objects.equals(previous, entry)) return previous;
+
+            if(previous != null) {
+                previous.keys.forEach(key -> removeId(idsByKey, key, id));
+                previous.parentKeys.forEach(key -> removeId(childIdsByParentKey, key, id));
+            }
+            if(entry != null) {
+                entry.keys.forEach(key -> idsByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id));
+                entry.parentKeys.forEach(key ->
+                        childIdsByParentKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id));
+            }
+            return previous;
+        }
+
+        private static void removeId(Map<String, Set<Integer>> idsByString, String key, Integer id) {
+            idsByString.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static String normalise(String value) {
+        return StringUtils.isBlank(value) ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static final class Entry {
+
+        private final String pn;
+
+        private final String idx;
+
+        private final Set<String> keys = new HashSet<>();
+
+        private final Set<String> parentKeys = new HashSet<>();
+
+        private Entry(String pn, String idx) {
+            this.pn = pn;
+            this.idx = idx;
+        }
+
+        private static Entry of(PnSearchDocumentDTO document) {
+            Entry entry = new Entry(document.getPn(), document.getIdx());
+            String pn = normalise(document.getPn());
+            String idx = normalise(document.getIdx());
+            if(pn != null) {
+                entry.keys.add(pn);
+                if(idx != null) entry.keys.add(pn + idx);
+            }
+            Optional.ofNullable(normalise(document.getPredecessor())).ifPresent(entry.parentKeys::add);
+            Optional.ofNullable(normalise(document.getCompleteSourcePn())).ifPresent(entry.parentKeys::add);
+            return entry;
+        }
+
+        private PnLineageDTO.Node toNode(Integer id, int depth) {
+            return new PnLineageDTO.Node(id, pn, idx, depth);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+            Entry that = (Entry) o;
+            return Objects.equals(pn, that.pn) && Objects.equals(idx, that.idx) && keys.equals(that.keys) &&
+                    parentKeys.equals(that.parentKeys);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pn, idx, keys, parentKeys);
+        }
+    }
+}
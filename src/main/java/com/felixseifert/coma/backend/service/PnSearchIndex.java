@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.model.dto.PnSearchDocumentDTO;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the searchable text of all PNs: pn, product description, customer part number,
+ * predecessor, complete source PN and comments. Every term of a search has to match the prefix of a token of a PN;
+ * hits are ranked by the weight of the fields they were found in and the rarity of the matched tokens.
+ */
+@Component
+@Slf4j
+public class PnSearchIndex extends PnIndex<Map<String, Integer>> {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int PN_WEIGHT = 10;
+    private static final int IDENTIFIER_WEIGHT = 5;     // Customer part number, predecessor and complete source PN
+    private static final int DESCRIPTION_WEIGHT = 3;
+    private static final int COMMENTS_WEIGHT = 1;
+
+    @Autowired
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    // Token -> (id of PN -> weight of the token in the PN)
+    private volatile NavigableMap<String, Map<Integer, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    // Id of PN -> (token -> weight), needed to remove the old tokens of a PN on updates
+    private volatile Map<Integer, Map<String, Integer>> tokensById = new ConcurrentHashMap<>();
+
+    public int size() {
+        return tokensById.size();
+    }
+
+    /**
+     * Returns the ids of the PNs matching all terms of the search text, best matches first.
+     */
+    public List<Integer> search(String text, int limit) {
+        Set<String> terms = tokenize(text);
+        if(terms.isEmpty() || limit <= 0) return List.of();
+
+        NavigableMap<String, Map<Integer, Integer>> currentPostings = postings;
+        int documentCount = Math.max(tokensById.size(), 1);
+        Map<Integer, Double> scores = null;
+
+        for(String term : terms) {
+            Map<Integer, Double> termScores = new HashMap<>();
+            currentPostings.subMap(term, true, term + Character.MAX_VALUE, false).values().forEach(postingList -> {
+                double idf = Math.log(1 + (double) documentCount / postingList.size());
+                postingList.forEach((id, weight) -> termScores.merge(id, weight * idf, Double::sum));
+            });
+
+            if(scores == null) {
+                scores = termScores;
+            }
+            else {
+                Map<Integer, Double> previousScores = scores;
+                scores = termScores.entrySet().stream().filter(e -> previousScores.containsKey(e.getKey()))
+                        .collect(Collectors.toMap(Map.Entry::getKey,
+                                e -> e.getValue() + previousScores.get(e.getKey())));
+            }
+            if(scores.isEmpty()) return List.of();
+        }
+
+        // Newer PNs come first for equal scores
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Integer, Double>comparingByKey().reversed()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        NavigableMap<String, Map<Integer, Integer>> newPostings = new ConcurrentSkipListMap<>();
+        Map<Integer, Map<String, Integer>> newTokensById = new ConcurrentHashMap<>();
+
+        partNumberObjectRepository.scrollPnSearchDocuments(document -> {
+            Map<String, Integer> tokens = tokenize(document);
+            newTokensById.put(document.getId(), tokens);
+            tokens.forEach((token, weight) ->
+                    newPostings.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).put(document.getId(), weight));
+        });
+
+        postings = newPostings;
+        tokensById = newTokensById;
+        log.info("Rebuilt PN search index with {} PNs and {} tokens", newTokensById.size(), newPostings.size());
+    }
+
+    @Override
+    protected Map<String, Integer> valueOf(PartNumberObject partNumberObject) {
+        return tokenize(PnSearchDocumentDTO.of(partNumberObject));
+    }
+
+    @Override
+    protected synchronized Map<String, Integer> put(Integer id, Map<String, Integer> tokens) {
+        Map<String, Integer> previous = tokens == null ? tokensById.remove(id) : tokensById.put(id, tokens);
+        if(Objects.equals(previous, tokens)) return previous;
+
+        if(previous != null) {
+            previous.keySet().forEach(token -> postings.computeIfPresent(token, (key, postingList) -> {
+                postingList.remove(id);
+                return postingList.isEmpty() ? null : postingList;
+            }));
+        }
+        if(tokens != null) {
+            tokens.forEach((token, weight) ->
+                    postings.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).put(id, weight));
+        }
+        return previous;
+    }
+
+    static Map<String, Integer> tokenize(PnSearchDocumentDTO document) {
+        Map<String, Integer> tokens = new HashMap<>();
+        addTokens(tokens, document.getPn(), PN_WEIGHT);
+        addTokens(tokens, document.getCustomerPartNumber(), IDENTIFIER_WEIGHT);
+        addTokens(tokens, document.getPredecessor(), IDENTIFIER_WEIGHT);
+        addTokens(tokens, document.getCompleteSourcePn(), IDENTIFIER_WEIGHT);
+        addTokens(tokens, document.getProductDescription(), DESCRIPTION_WEIGHT);
+        addTokens(tokens, document.getComments(), COMMENTS_WEIGHT);
+        return tokens;
+    }
+
+    private static void addTokens(Map<String, Integer> tokens, String text, int weight) {
+        tokenizeAll(text).forEach(token -> tokens.merge(token, weight, Integer::sum));
+    }
+
+    // Keeps repeated tokens of the text, so that they raise the weight
+    private static List<String> tokenizeAll(String text) {
+        if(text == null) return List.of();
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    static Set<String> tokenize(String text) {
+        return new LinkedHashSet<>(tokenizeAll(text));
+    }
+}
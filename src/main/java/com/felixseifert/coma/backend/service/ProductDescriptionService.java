@@ -31,4 +31,8 @@ public interface ProductDescriptionService {
     boolean existsByCode(String code);
 
     boolean existsByDescription(String description);
+
+    boolean isCodeInUse(String code);
+
+    boolean isDescriptionInUse(String description);
 }
@@ -22,6 +22,8 @@ import com.felixseifert.coma.backend.exceptions.EntityIDNotFoundException;
 import com.felixseifert.coma.backend.exceptions.ErrorMessages;
 import com.felixseifert.coma.backend.model.ProductDescription;
 import com.felixseifert.coma.backend.repos.ProductDescriptionRepository;
+import com.felixseifert.coma.backend.service.ChangeNotifier.ChangeType;
+import com.felixseifert.coma.backend.service.UniquenessRegistry.UniqueKey;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +38,12 @@ public class ProductDescriptionServiceImpl implements ProductDescriptionService
     @Autowired
     private ProductDescriptionRepository productDescriptionRepository;
 
+    @Autowired
+    private UniquenessRegistry uniquenessRegistry;
+
+    @Autowired
+    private ChangeNotifier changeNotifier;
+
     @Override
     public List<ProductDescription> getAllProductDescriptions() {
         log.debug("Get all ProductDescriptions");
@@ -63,7 +71,11 @@ public class ProductDescriptionServiceImpl implements ProductDescriptionService
         }
 
         log.info("Create new ProductDescription: {}", productDescription);
-        return productDescriptionRepository.save(productDescription);
+        ProductDescription savedProductDescription = productDescriptionRepository.save(productDescription);
+        changeNotifier.publish(ProductDescription.class, productDescription.getId(), ChangeType.CREATED);
+        uniquenessRegistry.add(UniqueKey.PRODUCT_DESCRIPTION_CODE, productDescription.getCode());
+        uniquenessRegistry.add(UniqueKey.PRODUCT_DESCRIPTION_TEXT, productDescription.getDescription());
+        return savedProductDescription;
     }
 
     @Override
@@ -73,6 +85,9 @@ public class ProductDescriptionServiceImpl implements ProductDescriptionService
         }
         log.info("Delete ProductDescription {}", productDescription);
         productDescriptionRepository.delete(productDescription);
+        changeNotifier.publish(ProductDescription.class, productDescription.getId(), ChangeType.DELETED);
+        uniquenessRegistry.remove(UniqueKey.PRODUCT_DESCRIPTION_CODE, productDescription.getCode());
+        uniquenessRegistry.remove(UniqueKey.PRODUCT_DESCRIPTION_TEXT, productDescription.getDescription());
     }
 
     @Override
@@ -88,4 +103,14 @@ public class ProductDescriptionServiceImpl implements ProductDescriptionService
         log.debug("ProductDescription with description text {} is persisted: {}", description, exists);
         return exists;
     }
+
+    @Override
+    public boolean isCodeInUse(String code) {
+        return uniquenessRegistry.contains(UniqueKey.PRODUCT_DESCRIPTION_CODE, code);
+    }
+
+    @Override
+    public boolean isDescriptionInUse(String description) {
+        return uniquenessRegistry.contains(UniqueKey.PRODUCT_DESCRIPTION_TEXT, description);
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.SchedulerLock;
+import com.felixseifert.coma.backend.repos.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Makes sure a scheduled job only runs on one instance of the application, even if several instances share the
+ * database. A job takes its lock row in {@code scheduler_locks} before it starts and releases it when it is done. If
+ * an instance stops while holding a lock, the lock expires after {@code coma.scheduler.lock-minutes}, which has to be
+ * longer than a run of any job.
+ */
+@Service
+@Slf4j
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    // Process name (pid@host) plus a random part, so restarts of the same process do not share a lock
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${coma.scheduler.lock-minutes:180}")
+    private long lockMinutes;
+
+    @Override
+    public boolean tryLock(String name) {
+        createIfAbsent(name);
+        LocalDateTime now = LocalDateTime.now();
+        boolean locked = schedulerLockRepository.lock(name, instanceId, now, now.plusMinutes(lockMinutes)) == 1;
+        if(!locked) {
+            log.info("Scheduler lock {} is held by another instance", name);
+        }
+        return locked;
+    }
+
+    @Override
+    public void unlock(String name) {
+        schedulerLockRepository.unlock(name, instanceId, LocalDateTime.now());
+    }
+
+    private void createIfAbsent(String name) {
+        if(schedulerLockRepository.existsById(name)) return;
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.execute(status -> {
+                SchedulerLock schedulerLock = new SchedulerLock();
+                schedulerLock.setName(name);
+                schedulerLock.setLockedUntil(LocalDateTime.now().minusMinutes(1));
+                return schedulerLockRepository.saveAndFlush(schedulerLock);
+            });
+        } catch(DataIntegrityViolationException e) {
+            log.debug("Scheduler lock {} was created by another instance", name);
+        }
+    }
+}
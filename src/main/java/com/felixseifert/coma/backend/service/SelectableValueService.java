@@ -34,4 +34,6 @@ public interface SelectableValueService {
     void deleteSelectableValue(SelectableValue selectableValue);
 
     boolean exists(String label, ValueGroup valueGroup);
+
+    boolean isInUse(String label, ValueGroup valueGroup);
 }
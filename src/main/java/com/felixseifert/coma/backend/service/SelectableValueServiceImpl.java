@@ -23,6 +23,8 @@ import com.felixseifert.coma.backend.exceptions.ErrorMessages;
 import com.felixseifert.coma.backend.model.SelectableValue;
 import com.felixseifert.coma.backend.model.enums.ValueGroup;
 import com.felixseifert.coma.backend.repos.SelectableValueRepository;
+import com.felixseifert.coma.backend.service.ChangeNotifier.ChangeType;
+import com.felixseifert.coma.backend.service.UniquenessRegistry.UniqueKey;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +39,12 @@ public class SelectableValueServiceImpl implements SelectableValueService {
     @Autowired
     private SelectableValueRepository selectableValueRepository;
 
+    @Autowired
+    private UniquenessRegistry uniquenessRegistry;
+
+    @Autowired
+    private ChangeNotifier changeNotifier;
+
     @Override
     public List<SelectableValue> getAllSelectableValues() {
         log.debug("Get all SelectableValues");
@@ -64,7 +72,11 @@ public class SelectableValueServiceImpl implements SelectableValueService {
             throw new EntityAlreadyExistsException(ErrorMessages.LABEL_VALUE_GROUP_ALREADY_EXISTS);
         }
 
-        return selectableValueRepository.save(selectableValue);
+        SelectableValue savedSelectableValue = selectableValueRepository.save(selectableValue);
+        changeNotifier.publish(SelectableValue.class, selectableValue.getId(), ChangeType.CREATED);
+        uniquenessRegistry.add(UniqueKey.SELECTABLE_VALUE_LABEL_AND_GROUP,
+                UniquenessRegistry.labelAndValueGroup(selectableValue.getLabel(), selectableValue.getValueGroup()));
+        return savedSelectableValue;
     }
 
     @Override
@@ -84,6 +96,9 @@ public class SelectableValueServiceImpl implements SelectableValueService {
         }
 
         selectableValueRepository.delete(selectableValue);
+        changeNotifier.publish(SelectableValue.class, selectableValue.getId(), ChangeType.DELETED);
+        uniquenessRegistry.remove(UniqueKey.SELECTABLE_VALUE_LABEL_AND_GROUP,
+                UniquenessRegistry.labelAndValueGroup(selectableValue.getLabel(), selectableValue.getValueGroup()));
     }
 
     @Override
@@ -93,5 +108,9 @@ public class SelectableValueServiceImpl implements SelectableValueService {
         return exists;
     }
 
-
+    @Override
+    public boolean isInUse(String label, ValueGroup valueGroup) {
+        return uniquenessRegistry.contains(UniqueKey.SELECTABLE_VALUE_LABEL_AND_GROUP,
+                UniquenessRegistry.labelAndValueGroup(label, valueGroup));
+    }
 }
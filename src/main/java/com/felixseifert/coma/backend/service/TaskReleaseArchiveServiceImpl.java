@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.ArchivedTaskStepRelease;
+import com.felixseifert.coma.backend.model.TaskRelease;
+import com.felixseifert.coma.backend.model.TaskStepRelease;
+import com.felixseifert.coma.backend.model.dto.TaskStepReleaseDTO;
+import com.felixseifert.coma.backend.repos.ArchivedTaskStepReleaseRepository;
+import com.felixseifert.coma.backend.repos.TaskReleaseRepository;
+import com.felixseifert.coma.backend.repos.TaskReleaseRepositoryCustomImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Tuple;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Moves releases finished before a threshold out of the active tables so that the queries of the PN grid, the editor
+ * and the notifications only work on the hot set. The release a live PN points to keeps its row in
+ * {@code tasks_release}, only all of its completed task steps move, so the ordered list of the entity never has gaps.
+ * Releases of deleted PNs are archived completely with their release flow. The archived task steps are read with
+ * {@link #getTaskStepsRelease(Long, boolean)}.
+ */
+@Service
+@Slf4j
+public class TaskReleaseArchiveServiceImpl implements TaskReleaseArchiveService {
+
+    static final String LOCK_NAME = "task-release-archive";
+
+    @Autowired
+    private TaskReleaseRepository taskReleaseRepository;
+
+    @Autowired
+    private ArchivedTaskStepReleaseRepository archivedTaskStepReleaseRepository;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${coma.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${coma.archive.finished-before-days:365}")
+    private int finishedBeforeDays;
+
+    @Value("${coma.archive.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    @Scheduled(cron = "${coma.archive.cron:0 30 2 * * *}")
+    public int archiveFinishedTaskReleases() {
+        if(!enabled || !schedulerLockService.tryLock(LOCK_NAME)) return 0;
+        try {
+            return archiveFinishedTaskReleases(LocalDateTime.now().minusDays(finishedBeforeDays));
+        }
+        finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    @Override
+    public int archiveFinishedTaskReleases(LocalDateTime finishedBefore) {
+        log.info("Archive releases finished before {}", finishedBefore);
+
+        // One transaction per batch keeps the locks short; archived releases no longer match the next query
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int archived = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> archiveBatch(finishedBefore));
+            archived += batch;
+        } while(batch == batchSize);
+
+        log.info("Archived {} finished releases", archived);
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime finishedBefore) {
+        List<Tuple> toArchive = taskReleaseRepository.findFinishedToArchive(finishedBefore, batchSize);
+
+        List<Long> taskReleaseIds = new ArrayList<>();
+        List<Long> orphanedTaskReleaseIds = new ArrayList<>();
+        for(Tuple tuple : toArchive) {
+            Long taskReleaseId = tuple.get(TaskReleaseRepositoryCustomImpl.TASK_RELEASE_ID, Long.class);
+            taskReleaseIds.add(taskReleaseId);
+            if(tuple.get(TaskReleaseRepositoryCustomImpl.PART_NUMBER_OBJECT_ID) == null) {
+                orphanedTaskReleaseIds.add(taskReleaseId);
+            }
+        }
+
+        taskReleaseRepository.archiveTaskSteps(taskReleaseIds);
+        taskReleaseRepository.archiveTaskReleases(orphanedTaskReleaseIds);
+        return toArchive.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskStepReleaseDTO> getTaskStepsRelease(Long taskReleaseId, boolean includeArchived) {
+        List<TaskStepReleaseDTO> taskSteps = new ArrayList<>();
+
+        taskReleaseRepository.findById(taskReleaseId).map(TaskRelease::getCompletedTaskSteps)
+                .ifPresent(completedTaskSteps -> completedTaskSteps.forEach(taskStep -> taskSteps.add(toDto(taskStep))));
+
+        if(includeArchived) {
+            archivedTaskStepReleaseRepository.findByTaskReleaseIdOrderByOrderId(taskReleaseId)
+                    .forEach(taskStep -> taskSteps.add(toDto(taskStep)));
+            taskSteps.sort(Comparator.comparing(TaskStepReleaseDTO::getOrderId,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        return taskSteps;
+    }
+
+    private TaskStepReleaseDTO toDto(TaskStepRelease taskStep) {
+        return new TaskStepReleaseDTO(taskStep.getId(), taskStep.getTask().getId(), taskStep.getCompletedAt(),
+                taskStep.getRoleOfEmployee(), taskStep.getTeamOfEmployee(),
+                taskStep.getAssignedEmployee() == null ? null : taskStep.getAssignedEmployee().getId(),
+                taskStep.getOrderId(), false);
+    }
+
+    private TaskStepReleaseDTO toDto(ArchivedTaskStepRelease taskStep) {
+        return new TaskStepReleaseDTO(taskStep.getId(), taskStep.getTaskReleaseId(), taskStep.getCompletedAt(),
+                taskStep.getRoleOfEmployee(), taskStep.getTeamOfEmployee(), taskStep.getAssignedEmployeeId(),
+                taskStep.getOrderId(), true);
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.TaskReleaseSummary;
+import com.felixseifert.coma.backend.model.dto.RetentionReportDTO;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.repos.ArchivedTaskReleaseRepository;
+import com.felixseifert.coma.backend.repos.TaskReleaseRepository;
+import com.felixseifert.coma.backend.repos.TaskReleaseRepositoryCustomImpl;
+import com.felixseifert.coma.backend.repos.TaskReleaseSummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Tuple;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * Deletes orphaned releases, i.e. finished releases whose PN was deleted, once they are older than the retention
+ * period. This covers the orphans still in the active tables as well as the archived ones (see
+ * {@link TaskReleaseArchiveService}). Before deleting, the releases are counted per month and status in
+ * {@link TaskReleaseSummary}. Each batch runs in its own transaction and the job pauses between batches so that it
+ * does not compete with the users for the database. The scheduled run holds a {@link SchedulerLockService} lock, so
+ * it only runs on one instance.
+ */
+@Service
+@Slf4j
+public class TaskReleaseRetentionServiceImpl implements TaskReleaseRetentionService {
+
+    static final String METRIC_NAME = "coma.retention.reclaimed.rows";
+
+    static final String LOCK_NAME = "task-release-retention";
+
+    @Autowired
+    private TaskReleaseRepository taskReleaseRepository;
+
+    @Autowired
+    private ArchivedTaskReleaseRepository archivedTaskReleaseRepository;
+
+    @Autowired
+    private TaskReleaseSummaryRepository taskReleaseSummaryRepository;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${coma.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${coma.retention.orphaned-release-days:1825}")
+    private int orphanedReleaseDays;
+
+    @Value("${coma.retention.batch-size:200}")
+    private int batchSize;
+
+    @Value("${coma.retention.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${coma.retention.pause-ms:200}")
+    private long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile RetentionReportDTO lastReport;
+
+    @Override
+    @Scheduled(cron = "${coma.retention.cron:0 0 3 * * SUN}")
+    public RetentionReportDTO deleteExpiredOrphanedTaskReleases() {
+        if(!enabled || !schedulerLockService.tryLock(LOCK_NAME)) return null;
+        try {
+            return deleteOrphanedTaskReleases(LocalDateTime.now().minusDays(orphanedReleaseDays));
+        }
+        finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    @Override
+    public RetentionReportDTO deleteOrphanedTaskReleases(LocalDateTime finishedBefore) {
+        if(!running.compareAndSet(false, true)) {
+            log.warn("Retention of orphaned releases is already running");
+            return null;
+        }
+        try {
+            log.info("Delete orphaned releases finished before {}", finishedBefore);
+            RetentionReportDTO report = new RetentionReportDTO();
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+            boolean complete = deleteInBatches(report, transactionTemplate, deletedRows -> {
+                List<Tuple> orphans = taskReleaseRepository.findOrphanedFinishedBefore(finishedBefore, batchSize);
+                List<Long> ids = summarize(orphans);
+                deletedRows.add("task_steps_release", taskReleaseRepository.deleteTaskSteps(ids),
+                        report::addTaskSteps);
+                deletedRows.add("task_steps_release_archive",
+                        archivedTaskReleaseRepository.deleteArchivedTaskSteps(ids), report::addTaskSteps);
+                deletedRows.add("roles_for_release_flow", taskReleaseRepository.deleteRolesForReleaseFlow(ids),
+                        report::addRoles);
+                deletedRows.add("tasks_release", taskReleaseRepository.deleteTaskReleases(ids),
+                        report::addTaskReleases);
+                return orphans.size();
+            });
+
+            complete = complete && deleteInBatches(report, transactionTemplate, deletedRows -> {
+                List<Tuple> orphans = archivedTaskReleaseRepository.findFinishedBefore(finishedBefore, batchSize);
+                List<Long> ids = summarize(orphans);
+                deletedRows.add("task_steps_release_archive",
+                        archivedTaskReleaseRepository.deleteArchivedTaskSteps(ids), report::addTaskSteps);
+                deletedRows.add("roles_for_release_flow_archive",
+                        archivedTaskReleaseRepository.deleteArchivedRolesForReleaseFlow(ids), report::addRoles);
+                deletedRows.add("tasks_release_archive",
+                        archivedTaskReleaseRepository.deleteArchivedTaskReleases(ids), report::addArchivedTaskReleases);
+                return orphans.size();
+            });
+
+            report.setComplete(complete);
+            report.setFinishedAt(LocalDateTime.now());
+            lastReport = report;
+            log.info("Retention of orphaned releases finished: {}", report);
+            return report;
+        }
+        finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public RetentionReportDTO getLastReport() {
+        return lastReport;
+    }
+
+    // Returns false if the batch limit was reached or the thread was interrupted before all orphans were deleted
+    private boolean deleteInBatches(RetentionReportDTO report, TransactionTemplate transactionTemplate,
+                                    Batch batch) {
+        while(report.getBatchCount() < maxBatchesPerRun) {
+            DeletedRows deletedRows = new DeletedRows();
+            int size = transactionTemplate.execute(status -> batch.run(deletedRows));
+            deletedRows.committed();
+            report.addBatch();
+            if(size < batchSize) {
+                return true;
+            }
+            if(!pause()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean pause() {
+        if(pauseMillis <= 0) return true;
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Retention of orphaned releases interrupted");
+            return false;
+        }
+    }
+
+    private List<Long> summarize(List<Tuple> orphans) {
+        List<Long> ids = new ArrayList<>();
+        Map<Pair<String, Progress>, Long> counts = new HashMap<>();
+        for(Tuple orphan : orphans) {
+            ids.add(orphan.get(TaskReleaseRepositoryCustomImpl.TASK_RELEASE_ID, Long.class));
+            String period = YearMonth.from(
+                    orphan.get(TaskReleaseRepositoryCustomImpl.FINISHED_AT, LocalDateTime.class)).toString();
+            Progress status = orphan.get(TaskReleaseRepositoryCustomImpl.STATUS, Progress.class);
+            counts.merge(Pair.of(period, status), 1L, Long::sum);
+        }
+
+        counts.forEach((key, count) -> {
+            TaskReleaseSummary summary = taskReleaseSummaryRepository
+                    .findByPeriodAndStatus(key.getLeft(), key.getRight())
+                    .orElseGet(() -> {
+                        TaskReleaseSummary newSummary = new TaskReleaseSummary();
+                        newSummary.setPeriod(key.getLeft());
+                        newSummary.setStatus(key.getRight());
+                        return newSummary;
+                    });
+            summary.setTaskReleaseCount(summary.getTaskReleaseCount() + count);
+            taskReleaseSummaryRepository.save(summary);
+        });
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface Batch {
+        int run(DeletedRows deletedRows);
+    }
+
+    // Rows deleted by a batch; the report and the metric are only updated once the batch is committed
+    private class DeletedRows {
+
+        private final List<Runnable> updates = new ArrayList<>();
+
+        void add(String table, int rows, IntConsumer reportUpdate) {
+            updates.add(() -> {
+                meterRegistry.counter(METRIC_NAME, "table", table).increment(rows);
+                reportUpdate.accept(rows);
+            });
+        }
+
+        void committed() {
+            updates.forEach(Runnable::run);
+        }
+    }
+}
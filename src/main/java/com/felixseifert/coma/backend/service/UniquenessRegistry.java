@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.Coo;
+import com.felixseifert.coma.backend.model.enums.ValueGroup;
+import com.felixseifert.coma.backend.repos.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash indexes of unique values of the reference data, used by the create dialogs to validate input without
+ * querying the database. An index is loaded with a single query the first time it is used and afterwards kept in
+ * sync by the post and delete methods of the services. A value missing from an index is looked up in the database,
+ * so values saved by another instance are found as well. The services still check uniqueness against the database
+ * when saving.
+ */
+@Component
+@Slf4j
+public class UniquenessRegistry {
+
+    public enum UniqueKey {
+        COO_NAME, COO_ABBREVIATION, PLANT_CODE, PLANT_NAME_AND_COO, CUSTOMER_CODE, PRODUCT_DESCRIPTION_CODE,
+        PRODUCT_DESCRIPTION_TEXT, SELECTABLE_VALUE_LABEL_AND_GROUP
+    }
+
+    @Autowired
+    private CooRepository cooRepository;
+
+    @Autowired
+    private PlantRepository plantRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Autowired
+    private SelectableValueRepository selectableValueRepository;
+
+    private final Map<UniqueKey, Set<String>> indexes = new ConcurrentHashMap<>();
+
+    public static String plantNameAndCoo(String name, Coo coo) {
+        return name + '\n' + (coo != null ? coo.getId() : null);
+    }
+
+    public static String labelAndValueGroup(String label, ValueGroup valueGroup) {
+        return label + '\n' + valueGroup;
+    }
+
+    public boolean contains(UniqueKey key, String value) {
+        if(value == null) return false;
+        Set<String> index = getIndex(key);
+        if(index.contains(value)) return true;
+        if(!existsInDatabase(key, value)) return false;
+        index.add(value);
+        return true;
+    }
+
+    public void add(UniqueKey key, String value) {
+        Set<String> index = indexes.get(key);
+        if(index == null || value == null) return;
+        index.add(value);
+        invalidateOnRollback(key);
+    }
+
+    public void remove(UniqueKey key, String value) {
+        Set<String> index = indexes.get(key);
+        if(index == null || value == null) return;
+        index.remove(value);
+        invalidateOnRollback(key);
+    }
+
+    public void invalidate(UniqueKey key) {
+        indexes.remove(key);
+    }
+
+    public void invalidateAll() {
+        log.info("Invalidate all uniqueness indexes");
+        indexes.clear();
+    }
+
+    // The index is reloaded on next use if the surrounding transaction does not commit
+    private void invalidateOnRollback(UniqueKey key) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status != TransactionSynchronization.STATUS_COMMITTED) {
+                    invalidate(key);
+                }
+            }
+        });
+    }
+
+    // Loaded outside of the map, computeIfAbsent would block other keys of the same bin during the query
+    private Set<String> getIndex(UniqueKey key) {
+        Set<String> index = indexes.get(key);
+        if(index != null) return index;
+        Set<String> loaded = load(key);
+        index = indexes.putIfAbsent(key, loaded);
+        return index != null ? index : loaded;
+    }
+
+    private boolean existsInDatabase(UniqueKey key, String value) {
+        switch(key) {
+            case COO_NAME:
+                return cooRepository.existsByName(value);
+            case COO_ABBREVIATION:
+                return cooRepository.existsByAbbreviation(value);
+            case PLANT_CODE:
+                return plantRepository.existsByCode(value);
+            case PLANT_NAME_AND_COO:
+                String cooId = value.substring(value.lastIndexOf('\n') + 1);
+                return !"null".equals(cooId) && plantRepository.existsByNameAndCooId(
+                        value.substring(0, value.lastIndexOf('\n')), Integer.valueOf(cooId));
+            case CUSTOMER_CODE:
+                return customerRepository.existsByCode(value);
+            case PRODUCT_DESCRIPTION_CODE:
+                return productDescriptionRepository.existsByCode(value);
+            case PRODUCT_DESCRIPTION_TEXT:
+                return productDescriptionRepository.existsByDescription(value);
+            case SELECTABLE_VALUE_LABEL_AND_GROUP:
+                return selectableValueRepository.existsByLabelAndValueGroup(
+                        value.substring(0, value.lastIndexOf('\n')),
+                        ValueGroup.valueOf(value.substring(value.lastIndexOf('\n') + 1)));
+            default:
+                return false;
+        }
+    }
+
+    private Set<String> load(UniqueKey key) {
+        Set<String> index = ConcurrentHashMap.newKeySet();
+        switch(key) {
+            case COO_NAME:
+                cooRepository.findAll().forEach(coo -> index.add(coo.getName()));
+                break;
+            case COO_ABBREVIATION:
+                cooRepository.findAll().forEach(coo -> index.add(coo.getAbbreviation()));
+                break;
+            case PLANT_CODE:
+                plantRepository.findAll().forEach(plant -> index.add(plant.getCode()));
+                break;
+            case PLANT_NAME_AND_COO:
+                plantRepository.findAll().forEach(plant -> index.add(plantNameAndCoo(plant.getName(), plant.getCoo())));
+                break;
+            case CUSTOMER_CODE:
+                customerRepository.findAll().forEach(customer -> index.add(customer.getCode()));
+                break;
+            case PRODUCT_DESCRIPTION_CODE:
+                productDescriptionRepository.findAll().forEach(description -> index.add(description.getCode()));
+                break;
+            case PRODUCT_DESCRIPTION_TEXT:
+                productDescriptionRepository.findAll().forEach(description -> index.add(description.getDescription()));
+                break;
+            case SELECTABLE_VALUE_LABEL_AND_GROUP:
+                selectableValueRepository.findAll().forEach(value ->
+                        index.add(labelAndValueGroup(value.getLabel(), value.getValueGroup())));
+                break;
+        }
+        log.debug("Loaded uniqueness index {} with {} entries", key, index.size());
+        return index;
+    }
+}
@@ -30,14 +30,18 @@ import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.component.page.Viewport;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.router.RouterLink;
+import com.vaadin.flow.shared.ui.Transport;
 import org.springframework.boot.info.BuildProperties;
 
 // @PWA(name = "Part Number Communication Accelerator", shortName = "PNacc")
+// Client messages are sent as XHR, so they pass the servlet filters and UI interactions can be traced
+@Push(transport = Transport.WEBSOCKET_XHR)
 @Viewport("width=device-width, minimum-scale=1, initial-scale=1, user-scalable=yes, viewport-fit=cover")
 public class MainLayout extends AppLayout implements RouterLayout {
 
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.common;
+
+import com.felixseifert.coma.backend.service.ChangeNotifier.Change;
+import com.felixseifert.coma.backend.service.ChangeNotifier.ChangeType;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.data.provider.DataProvider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pushes changes of entities to the grid of one UI. An updated entity is loaded again and only its row is
+ * refreshed; created and deleted entities let the grid load its visible rows again. Several of these refreshes
+ * which arrive before the UI handled the first one are merged into one. Data is loaded through the change outside
+ * of the session lock, so it is queried once per change for all open UIs.
+ */
+@Slf4j
+public class GridChangeListener<T> implements Consumer<Change> {
+
+    private final UI ui;
+
+    private final DataProvider<T, ?> dataProvider;
+
+    private final Class<T> itemType;
+
+    private final Function<Object, T> itemLoader;
+
+    private final Supplier<List<T>> itemsLoader;
+
+    private final AtomicBoolean refreshAllPending = new AtomicBoolean();
+
+    private final AtomicReference<List<T>> pendingItems = new AtomicReference<>();
+
+    public GridChangeListener(UI ui, DataProvider<T, ?> dataProvider, Class<T> itemType,
+                              Function<Object, T> itemLoader) {
+        this(ui, dataProvider, itemType, itemLoader, null);
+    }
+
+    /**
+     * @param itemsLoader loads all items for grids with an in-memory data provider, may be null
+     */
+    public GridChangeListener(UI ui, DataProvider<T, ?> dataProvider, Class<T> itemType,
+                              Function<Object, T> itemLoader, Supplier<List<T>> itemsLoader) {
+        this.ui = ui;
+        this.dataProvider = dataProvider;
+        this.itemType = itemType;
+        this.itemLoader = itemLoader;
+        this.itemsLoader = itemsLoader;
+    }
+
+    @Override
+    public void accept(Change change) {
+        if(change.getType() == ChangeType.UPDATED) {
+            Optional<T> item = change.getItem(itemType, itemLoader);
+            if(item.isPresent()) {
+                access(() -> {
+                    onItemUpdated(item.get());
+                    dataProvider.refreshItem(item.get());
+                });
+                return;
+            }
+        }
+        refreshAll(change);
+    }
+
+    /**
+     * Called within the session lock before the row of the updated item is refreshed.
+     */
+    protected void onItemUpdated(T item) {
+    }
+
+    /**
+     * Called within the session lock before all rows are refreshed.
+     *
+     * @param items all items loaded by the items loader, null if there is none or a previous call already got them
+     */
+    protected void onItemsChanged(List<T> items) {
+    }
+
+    private void refreshAll(Change change) {
+        if(itemsLoader != null) {
+            pendingItems.set(change.getItems(itemType, itemsLoader));
+        }
+        if(!refreshAllPending.compareAndSet(false, true)) return;
+        access(() -> {
+            refreshAllPending.set(false);
+            onItemsChanged(pendingItems.getAndSet(null));
+            dataProvider.refreshAll();
+        });
+    }
+
+    private void access(Runnable command) {
+        try {
+            ui.access(command::run);
+        } catch(UIDetachedException e) {
+            log.debug("Skip change for detached UI {}", ui.getUIId());
+        }
+    }
+}
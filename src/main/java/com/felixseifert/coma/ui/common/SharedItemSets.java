@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.common;
+
+import com.felixseifert.coma.backend.model.BusinessUnit;
+import com.felixseifert.coma.backend.model.Coo;
+import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.Plant;
+import com.felixseifert.coma.backend.model.ProductDescription;
+import com.felixseifert.coma.backend.model.SelectableValue;
+import com.felixseifert.coma.backend.model.dto.EntityLabelDTO;
+import com.felixseifert.coma.backend.model.enums.Role;
+import com.felixseifert.coma.backend.model.enums.ValueGroup;
+import com.felixseifert.coma.backend.service.*;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Item sets of ComboBoxes and MultiselectComboBoxes which are the same for all UIs. All UIs reference the same
+ * immutable {@link Snapshot}, so the items are held once per application instead of once per UI. When the
+ * underlying data changes, the snapshot is discarded and a new one is built on the next access (copy-on-write).
+ * Snapshots are built without a lock, so a slow build never blocks UIs. Concurrent builds may overlap, but only
+ * the newest version is published.
+ * Business units and employees are held as {@link EntityLabelDTO}s instead of entities, which are resolved by id
+ * when a selection is written to the edited bean.
+ */
+@SpringComponent
+@Slf4j
+public class SharedItemSets {
+
+    private static final List<Class<?>> ENTITY_TYPES = List.of(SelectableValue.class, Coo.class, Plant.class,
+            ProductDescription.class, BusinessUnit.class, Employee.class);
+
+    private final SelectableValueService selectableValueService;
+
+    private final CooPlantService cooPlantService;
+
+    private final ProductDescriptionService productDescriptionService;
+
+    private final BusinessUnitService businessUnitService;
+
+    private final EmployeeService employeeService;
+
+    private final ChangeNotifier changeNotifier;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public SharedItemSets(SelectableValueService selectableValueService, CooPlantService cooPlantService,
+                          ProductDescriptionService productDescriptionService,
+                          BusinessUnitService businessUnitService, EmployeeService employeeService,
+                          ChangeNotifier changeNotifier) {
+        this.selectableValueService = selectableValueService;
+        this.cooPlantService = cooPlantService;
+        this.productDescriptionService = productDescriptionService;
+        this.businessUnitService = businessUnitService;
+        this.employeeService = employeeService;
+        this.changeNotifier = changeNotifier;
+    }
+
+    @PostConstruct
+    public void registerChangeListeners() {
+        ENTITY_TYPES.forEach(entityType -> changeNotifier.register(entityType, change -> invalidate()));
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        if(current != null && current.getVersion() == version.get()) {
+            return current;
+        }
+        return publish(build(version.get()));
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    // A snapshot built concurrently for a newer version wins, an older one is replaced
+    private Snapshot publish(Snapshot newSnapshot) {
+        while(true) {
+            Snapshot current = snapshot.get();
+            if(current != null && current.getVersion() >= newSnapshot.getVersion()) {
+                return current;
+            }
+            if(snapshot.compareAndSet(current, newSnapshot)) {
+                log.debug("Built shared item sets with version {}", newSnapshot.getVersion());
+                return newSnapshot;
+            }
+        }
+    }
+
+    // A change during the build increments the version, so the next access builds again
+    private Snapshot build(long versionToBuild) {
+        List<BusinessUnit> businessUnits = businessUnitService.getAllBusinessUnits();
+        return new Snapshot(versionToBuild,
+                readSelectableValueLabels(),
+                cooPlantService.getAllCoos().stream()
+                        .map(c -> String.format("%s (%s)", c.getAbbreviation(), c.getName()))
+                        .collect(Collectors.toUnmodifiableList()),
+                readPlantNamesByCooName(),
+                productDescriptionService.getAllProductDescriptions().stream()
+                        .map(pd -> String.format("%s (%s)", pd.getDescription(), pd.getCode()))
+                        .collect(Collectors.toUnmodifiableList()),
+                businessUnits.stream().map(SharedItemSets::businessUnitLabel).collect(Collectors.toUnmodifiableList()),
+                readProductManagersByBusinessUnitId(businessUnits),
+                readEmployeesByRole());
+    }
+
+    private Map<ValueGroup, List<String>> readSelectableValueLabels() {
+        Map<ValueGroup, List<String>> labels = new EnumMap<>(ValueGroup.class);
+        for(ValueGroup valueGroup : ValueGroup.values()) {
+            labels.put(valueGroup, selectableValueService.getSelectableValuesByValueGroup(valueGroup).stream()
+                    .map(SelectableValue::getLabel).collect(Collectors.toUnmodifiableList()));
+        }
+        return Collections.unmodifiableMap(labels);
+    }
+
+    private Map<String, List<String>> readPlantNamesByCooName() {
+        Map<String, List<String>> plantNames = new HashMap<>();
+        for(Coo coo : cooPlantService.getAllCoos()) {
+            plantNames.put(coo.getName(), cooPlantService.getPlantsByCoo(coo).stream()
+                    .map(Plant::getName).collect(Collectors.toUnmodifiableList()));
+        }
+        return Collections.unmodifiableMap(plantNames);
+    }
+
+    private Map<Integer, List<EntityLabelDTO>> readProductManagersByBusinessUnitId(List<BusinessUnit> businessUnits) {
+        Map<Integer, List<EntityLabelDTO>> productManagers = new HashMap<>();
+        for(BusinessUnit businessUnit : businessUnits) {
+            if(businessUnit.getProductManagers() == null) continue;
+            productManagers.put(businessUnit.getId(), businessUnit.getProductManagers().stream()
+                    .map(SharedItemSets::employeeLabel).collect(Collectors.toUnmodifiableList()));
+        }
+        return Collections.unmodifiableMap(productManagers);
+    }
+
+    private Map<Role, List<EntityLabelDTO>> readEmployeesByRole() {
+        Map<Role, List<EntityLabelDTO>> employees = new EnumMap<>(Role.class);
+        for(Role role : Role.values()) {
+            employees.put(role, employeeService.getAllEmployeesByRole(role).stream()
+                    .map(SharedItemSets::employeeLabel).collect(Collectors.toUnmodifiableList()));
+        }
+        return Collections.unmodifiableMap(employees);
+    }
+
+    public static EntityLabelDTO businessUnitLabel(BusinessUnit businessUnit) {
+        return businessUnit != null ? new EntityLabelDTO(businessUnit.getId(), businessUnit.getName()) : null;
+    }
+
+    public static EntityLabelDTO employeeLabel(Employee employee) {
+        return employee != null ? new EntityLabelDTO(employee.getId(), employee.getName()) : null;
+    }
+
+    /**
+     * Immutable item sets at one point in time. The lists can be handed to components directly.
+     */
+    @Getter
+    public static class Snapshot {
+
+        private final long version;
+
+        private final Map<ValueGroup, List<String>> selectableValueLabels;
+
+        private final List<String> cooLabels;
+
+        private final Map<String, List<String>> plantNamesByCooName;
+
+        private final List<String> productDescriptionLabels;
+
+        private final List<EntityLabelDTO> businessUnits;
+
+        private final Map<Integer, List<EntityLabelDTO>> productManagersByBusinessUnitId;
+
+        private final Map<Role, List<EntityLabelDTO>> employeesByRole;
+
+        private Snapshot(long version, Map<ValueGroup, List<String>> selectableValueLabels, List<String> cooLabels,
+                         Map<String, List<String>> plantNamesByCooName, List<String> productDescriptionLabels,
+                         List<EntityLabelDTO> businessUnits,
+                         Map<Integer, List<EntityLabelDTO>> productManagersByBusinessUnitId,
+                         Map<Role, List<EntityLabelDTO>> employeesByRole) {
+            this.version = version;
+            this.selectableValueLabels = selectableValueLabels;
+            this.cooLabels = cooLabels;
+            this.plantNamesByCooName = plantNamesByCooName;
+            this.productDescriptionLabels = productDescriptionLabels;
+            this.businessUnits = businessUnits;
+            this.productManagersByBusinessUnitId = productManagersByBusinessUnitId;
+            this.employeesByRole = employeesByRole;
+        }
+
+        public List<String> getSelectableValueLabels(ValueGroup valueGroup) {
+            return selectableValueLabels.getOrDefault(valueGroup, List.of());
+        }
+
+        public List<String> getPlantNames(String cooName) {
+            return cooName != null ? plantNamesByCooName.getOrDefault(cooName, List.of()) : List.of();
+        }
+
+        public List<EntityLabelDTO> getEmployees(Role role) {
+            return employeesByRole.getOrDefault(role, List.of());
+        }
+
+        public List<EntityLabelDTO> getProductManagers(EntityLabelDTO businessUnit) {
+            return businessUnit != null ? productManagersByBusinessUnitId.get(businessUnit.getId()) : null;
+        }
+
+        /**
+         * All lists of this snapshot, which are shared between the UIs.
+         */
+        public Set<Object> getSharedLists() {
+            Set<Object> sharedLists = Collections.newSetFromMap(new IdentityHashMap<>());
+            sharedLists.addAll(selectableValueLabels.values());
+            sharedLists.add(cooLabels);
+            sharedLists.addAll(plantNamesByCooName.values());
+            sharedLists.add(productDescriptionLabels);
+            sharedLists.add(businessUnits);
+            sharedLists.addAll(productManagersByBusinessUnitId.values());
+            sharedLists.addAll(employeesByRole.values());
+            return sharedLists;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.common;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Set;
+
+/**
+ * Reports the heap footprint of each UI after navigation at debug level. The footprint is estimated by the
+ * serialized size of the UI with its components. Shared item sets, other UIs, the session and objects which are
+ * not serializable (e.g. Spring beans) are not counted, since they are not held per UI.
+ */
+@SpringComponent
+@Slf4j
+public class UiFootprintReporter implements VaadinServiceInitListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SharedItemSets sharedItemSets;
+
+    public UiFootprintReporter(SharedItemSets sharedItemSets) {
+        this.sharedItemSets = sharedItemSets;
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addUIInitListener(uiInitEvent -> {
+            UI ui = uiInitEvent.getUI();
+            ui.addAfterNavigationListener(navigationEvent -> {
+                if(log.isDebugEnabled()) {
+                    log.debug("UI {} of session {} holds {} bytes after navigation to {}", ui.getUIId(),
+                            ui.getSession().getSession().getId(), estimateFootprint(ui),
+                            navigationEvent.getLocation().getPath());
+                }
+            });
+        });
+    }
+
+    /**
+     * @return estimated size in bytes of the state held only by the given UI or -1 if it cannot be estimated
+     */
+    public long estimateFootprint(UI ui) {
+        CountingOutputStream countingOutputStream = new CountingOutputStream();
+        try(ObjectOutputStream objectOutputStream =
+                    new UiObjectOutputStream(countingOutputStream, ui, sharedItemSets.getSnapshot().getSharedLists())) {
+            objectOutputStream.writeObject(ui);
+        } catch(IOException e) {
+            log.warn("Could not estimate footprint of UI {}", ui.getUIId(), e);
+            return -1;
+        }
+        return countingOutputStream.count;
+    }
+
+    private static class UiObjectOutputStream extends ObjectOutputStream {
+
+        private static final String EXCLUDED = "";
+
+        private final UI ui;
+
+        private final Set<Object> sharedLists;
+
+        private UiObjectOutputStream(OutputStream outputStream, UI ui, Set<Object> sharedLists) throws IOException {
+            super(outputStream);
+            this.ui = ui;
+            this.sharedLists = sharedLists;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            if(obj == ui) return obj;
+            if(!(obj instanceof Serializable) || obj instanceof UI || obj instanceof VaadinSession
+                    || obj instanceof VaadinService || sharedLists.contains(obj)) {
+                return EXCLUDED;
+            }
+            return obj;
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.common;
+
+import com.felixseifert.coma.backend.config.RequestChannel;
+import com.felixseifert.coma.backend.config.RequestChannelResolver;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+
+/**
+ * Attributes work to the UI whenever a Vaadin session is bound to the thread, which includes UI events received via
+ * push and not as servlet request.
+ */
+@SpringComponent
+public class VaadinRequestChannelResolver implements RequestChannelResolver {
+
+    @Override
+    public String resolve() {
+        return VaadinSession.getCurrent() != null ? RequestChannel.UI : null;
+    }
+}
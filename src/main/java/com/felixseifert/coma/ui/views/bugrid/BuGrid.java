@@ -18,15 +18,22 @@ package com.felixseifert.coma.ui.views.bugrid;
 
 import com.felixseifert.coma.backend.model.BusinessUnit;
 import com.felixseifert.coma.backend.service.BusinessUnitService;
+import com.felixseifert.coma.backend.service.ChangeNotifier;
 import com.felixseifert.coma.ui.MainLayout;
+import com.felixseifert.coma.ui.common.GridChangeListener;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.ListDataProvider;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Route(value = "units", layout = MainLayout.class)
@@ -35,7 +42,20 @@ public class BuGrid extends VerticalLayout {
 
     private static final long serialVersionUID = 1L;
 
-    public BuGrid(BusinessUnitService businessUnitService, BuEditor buEditor) {
+    private BusinessUnitService businessUnitService;
+
+    private ChangeNotifier changeNotifier;
+
+    private List<BusinessUnit> businessUnits;
+
+    private ListDataProvider<BusinessUnit> dataProvider;
+
+    private GridChangeListener<BusinessUnit> changeListener;
+
+    public BuGrid(BusinessUnitService businessUnitService, BuEditor buEditor, ChangeNotifier changeNotifier) {
+
+        this.businessUnitService = businessUnitService;
+        this.changeNotifier = changeNotifier;
 
         // Create grid structure with relevant columns
         Grid<BusinessUnit> grid = new Grid<>();
@@ -44,7 +64,9 @@ public class BuGrid extends VerticalLayout {
         grid.getColumns().forEach(c -> c.setAutoWidth(true));
 
         // Set items of the grid
-        grid.setItems(businessUnitService.getAllBusinessUnits());
+        businessUnits = new ArrayList<>(businessUnitService.getAllBusinessUnits());
+        dataProvider = new ListDataProvider<>(businessUnits);
+        grid.setDataProvider(dataProvider);
 
         // Create actions displayed above the grid
         Button createButton= new Button("New Business Unit", VaadinIcon.PLUS.create());
@@ -61,13 +83,44 @@ public class BuGrid extends VerticalLayout {
 
         createButton.addClickListener(e -> buEditor.openEditor(new BusinessUnit()));
 
+        // Rows of other UIs are refreshed by their changeListener
         buEditor.setChangeHandler(() -> {
             buEditor.close();
+            businessUnits.clear();
+            businessUnits.addAll(businessUnitService.getAllBusinessUnits());
+            dataProvider.refreshAll();
             grid.deselectAll();
-            grid.setItems(businessUnitService.getAllBusinessUnits());
         });
     }
 
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        changeListener = new GridChangeListener<>(attachEvent.getUI(), dataProvider, BusinessUnit.class,
+                id -> businessUnitService.getBusinessUnitById((Integer) id),
+                businessUnitService::getAllBusinessUnits) {
+            @Override
+            protected void onItemUpdated(BusinessUnit businessUnit) {
+                int index = businessUnits.indexOf(businessUnit);
+                if(index >= 0) {
+                    businessUnits.set(index, businessUnit);
+                }
+            }
+
+            @Override
+            protected void onItemsChanged(List<BusinessUnit> items) {
+                if(items == null) return;
+                businessUnits.clear();
+                businessUnits.addAll(items);
+            }
+        };
+        changeNotifier.register(BusinessUnit.class, changeListener);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        changeNotifier.unregister(BusinessUnit.class, changeListener);
+    }
+
     private static String ProductManagerLabel(BusinessUnit businessUnit) {
         if(businessUnit.getProductManagers() != null) {
             return businessUnit.getProductManagers().stream()
@@ -35,7 +35,7 @@ public class CustomerCodeValidator implements Validator<String> {
     public ValidationResult apply(String code, ValueContext valueContext) {
         if(!Pattern.matches("[0-9]*", code)) return ValidationResult.error("Customer Codes consist of numbers.");
         if(code.length() != 8 && code.length() != 10) return ValidationResult.error("Customer Codes have 8 or 10 digits");
-        if(customerService.exists(code)) return ValidationResult.error("Customer Code already exists.");
+        if(customerService.isCodeInUse(code)) return ValidationResult.error("Customer Code already exists.");
         return ValidationResult.ok();
     }
 }
@@ -17,6 +17,7 @@
 package com.felixseifert.coma.ui.views.customergrid;
 
 import com.felixseifert.coma.backend.model.Customer;
+import com.felixseifert.coma.backend.model.dto.CustomerGridDTO;
 import com.felixseifert.coma.backend.service.CustomerService;
 import com.felixseifert.coma.ui.MainLayout;
 import com.felixseifert.coma.ui.common.Filter;
@@ -26,6 +27,7 @@ import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.*;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
@@ -46,15 +48,19 @@ public class CustomerGrid extends VerticalLayout {
         this.customerService = customerService;
 
         // Create grid structure with relevant columns
-        Grid<Customer> grid = new Grid<>();
-        grid.addColumn(Customer::getCode).setHeader("Customer Code").setSortable(true);
-        grid.addColumn(Customer::getName).setHeader("Name").setSortable(true);
-        grid.addColumn(Customer::getDeliveryLocation).setHeader("Delivery Location").setSortable(true);
-        grid.addColumn(Customer::getCurrency).setHeader("Currency").setSortable(true);
+        Grid<CustomerGridDTO> grid = new Grid<>();
+        grid.addColumn(CustomerGridDTO::getCode).setHeader("Customer Code").setSortProperty("code");
+        grid.addColumn(CustomerGridDTO::getName).setHeader("Name").setSortProperty("name");
+        grid.addColumn(CustomerGridDTO::getDeliveryLocation).setHeader("Delivery Location")
+                .setSortProperty("deliveryLocation");
+        grid.addColumn(CustomerGridDTO::getCurrency).setHeader("Currency").setSortProperty("currency");
         grid.getColumns().forEach(c -> c.setAutoWidth(true));
 
-        // Set items of the grid
-        grid.setItems(filterCustomers(null));
+        // Set up dataProvider for grid for lazy loading
+        DataProvider<CustomerGridDTO, String> dataProvider = createCustomerDataProvider();
+        ConfigurableFilterDataProvider<CustomerGridDTO, Void, String> dataProviderWrapper =
+                dataProvider.withConfigurableFilter();
+        grid.setDataProvider(dataProviderWrapper);
 
         // Create actions displayed above the grid
         TextField filter = new Filter("Search for Customer Name");
@@ -69,26 +75,45 @@ public class CustomerGrid extends VerticalLayout {
 
         // Add listeners
         filter.setValueChangeMode(ValueChangeMode.EAGER);
-        filter.addValueChangeListener(e -> grid.setItems(filterCustomers(e.getValue())));
+        filter.addValueChangeListener(e -> {
+            String filterText = e.getValue();
+            if(StringUtils.isBlank(filterText)) {
+                filterText = null;
+            }
+            dataProviderWrapper.setFilter(filterText);
+        });
 
-        grid.asSingleSelect().addValueChangeListener(e ->
-                customerEditor.openEditor(grid.asSingleSelect().getValue()));
+        grid.asSingleSelect().addValueChangeListener(e -> {
+            CustomerGridDTO customerDto = grid.asSingleSelect().getValue();
+            customerEditor.openEditor(customerDto != null ?
+                    customerService.getCustomerByCode(customerDto.getCode()) : null);
+        });
 
         createButton.addClickListener(e -> customerEditor.openEditor(new Customer()));
 
         customerEditor.setChangeHandler(() -> {
             customerEditor.close();
             grid.deselectAll();
-            grid.setItems(filterCustomers(filter.getValue()));
+            grid.getDataProvider().refreshAll();
         });
     }
 
-    private List<Customer> filterCustomers(String filterText) {
-        if(StringUtils.isNotBlank(filterText)) {
-            return customerService.getCustomersByNameStartsWithIgnoreCase(filterText);
-        }
-        else {
-            return customerService.getAllCustomers();
+    private DataProvider<CustomerGridDTO, String> createCustomerDataProvider() {
+        return DataProvider.fromFilteringCallbacks(
+                query -> getCustomerListProvided(query).stream(),
+                query -> customerService.countCustomersByNameStartsWithIgnoreCase(query.getFilter().orElse(null)));
+    }
+
+    private List<CustomerGridDTO> getCustomerListProvided(Query<CustomerGridDTO, String> query) {
+        String sortProperty = null;
+        boolean descending = false;
+        SortOrder<String> firstSortOrder = query.getSortOrders().stream().findFirst().orElse(null);
+        if(firstSortOrder != null) {
+            sortProperty = firstSortOrder.getSorted();
+            descending = firstSortOrder.getDirection() == SortDirection.DESCENDING;
         }
+
+        return customerService.getCustomerGridDtosByNameStartsWithIgnoreCase(query.getFilter().orElse(null),
+                query.getLimit(), query.getOffset(), descending, sortProperty);
     }
 }
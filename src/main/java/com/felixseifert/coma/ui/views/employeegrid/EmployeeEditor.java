@@ -22,10 +22,10 @@ import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.enums.ValueGroup;
 import com.felixseifert.coma.backend.service.*;
 import com.felixseifert.coma.ui.common.ChangeHandler;
+import com.felixseifert.coma.ui.common.SharedItemSets;
 import com.felixseifert.coma.ui.common.dialogs.DeleteConfirmationDialog;
 import com.felixseifert.coma.ui.common.dialogs.SaveConfirmationDialog;
 import com.felixseifert.coma.backend.model.Employee;
-import com.felixseifert.coma.backend.model.SelectableValue;
 import com.vaadin.flow.component.Key;
 import com.vaadin.flow.component.KeyNotifier;
 import com.vaadin.flow.component.Text;
@@ -66,6 +66,8 @@ public class EmployeeEditor extends Dialog implements KeyNotifier {
 
     private SelectableValueService selectableValueService;
 
+    private SharedItemSets sharedItemSets;
+
     @Autowired
     private RelationshipService relationshipService;
 
@@ -99,10 +101,12 @@ public class EmployeeEditor extends Dialog implements KeyNotifier {
     @Setter
     private ChangeHandler changeHandler;
 
-    public EmployeeEditor(EmployeeService employeeService, SelectableValueService selectableValueService) {
+    public EmployeeEditor(EmployeeService employeeService, SelectableValueService selectableValueService,
+                          SharedItemSets sharedItemSets) {
 
         this.employeeService = employeeService;
         this.selectableValueService = selectableValueService;
+        this.sharedItemSets = sharedItemSets;
 
         saveTeamConfirmationDialog =
                 new SaveConfirmationDialog("Save " + ValueGroup.DEPARTMENT.getFieldDescription(),
@@ -124,7 +128,7 @@ public class EmployeeEditor extends Dialog implements KeyNotifier {
         teamComboBox.setClearButtonVisible(true);
         teamComboBox.addCustomValueSetListener(e -> {
             teamComboBox.setValue(e.getDetail());
-            if(!selectableValueService.exists(e.getDetail(), ValueGroup.DEPARTMENT)) {
+            if(!selectableValueService.isInUse(e.getDetail(), ValueGroup.DEPARTMENT)) {
                 saveTeamConfirmationDialog.open(e.getDetail());     // Todo: Add restriction of max length (see model)
             }
         });
@@ -132,7 +136,7 @@ public class EmployeeEditor extends Dialog implements KeyNotifier {
         locationComboBox.setClearButtonVisible(true);
         locationComboBox.addCustomValueSetListener(e -> {
             locationComboBox.setValue(e.getDetail());
-            if(!selectableValueService.exists(e.getDetail(), ValueGroup.LOCATION)) {
+            if(!selectableValueService.isInUse(e.getDetail(), ValueGroup.LOCATION)) {
                 saveLocationConfirmationDialog.open(e.getDetail()); // Todo: Add restriction of max length (see model)
             }
         });
@@ -199,10 +203,9 @@ public class EmployeeEditor extends Dialog implements KeyNotifier {
     }
 
     private void reloadComboBoxes(Employee employee) {
-        teamComboBox.setItems(selectableValueService.getSelectableValuesByValueGroup(ValueGroup.DEPARTMENT)
-                .stream().map(SelectableValue::getLabel));
-        locationComboBox.setItems(selectableValueService.getSelectableValuesByValueGroup(ValueGroup.LOCATION)
-                .stream().map(SelectableValue::getLabel));
+        SharedItemSets.Snapshot sharedItems = sharedItemSets.getSnapshot();
+        teamComboBox.setItems(sharedItems.getSelectableValueLabels(ValueGroup.DEPARTMENT));
+        locationComboBox.setItems(sharedItems.getSelectableValueLabels(ValueGroup.LOCATION));
         roleCheckboxGroup.setItems(generateRoleItems(employee));
     }
 
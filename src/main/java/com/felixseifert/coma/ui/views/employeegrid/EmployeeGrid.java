@@ -17,16 +17,22 @@
 package com.felixseifert.coma.ui.views.employeegrid;
 
 import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.dto.EmployeeGridDTO;
 import com.felixseifert.coma.backend.model.enums.Role;
+import com.felixseifert.coma.backend.service.ChangeNotifier;
 import com.felixseifert.coma.backend.service.EmployeeService;
 import com.felixseifert.coma.ui.MainLayout;
 import com.felixseifert.coma.ui.common.Filter;
+import com.felixseifert.coma.ui.common.GridChangeListener;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.provider.*;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
@@ -43,22 +49,33 @@ public class EmployeeGrid extends VerticalLayout {
 
     private EmployeeService employeeService;
 
-    public EmployeeGrid(EmployeeService employeeService, EmployeeEditor employeeEditor) {
+    private ChangeNotifier changeNotifier;
+
+    private Grid<EmployeeGridDTO> grid;
+
+    private GridChangeListener<EmployeeGridDTO> changeListener;
+
+    public EmployeeGrid(EmployeeService employeeService, EmployeeEditor employeeEditor,
+                        ChangeNotifier changeNotifier) {
 
         this.employeeService = employeeService;
+        this.changeNotifier = changeNotifier;
 
         // Create grid structure with relevant columns
-        Grid<Employee> grid = new Grid<>();
-        grid.addColumn(Employee::getName).setHeader("Name").setSortable(true);
-        grid.addColumn(Employee::getEmailAddress).setHeader("Email Address").setSortable(true);
-        grid.addColumn(Employee::getTeam).setHeader("Team").setSortable(true);
-        grid.addColumn(Employee::getLocation).setHeader("Location").setSortable(true);
+        grid = new Grid<>();
+        grid.addColumn(EmployeeGridDTO::getName).setHeader("Name").setSortProperty("name");
+        grid.addColumn(EmployeeGridDTO::getEmailAddress).setHeader("Email Address").setSortProperty("emailAddress");
+        grid.addColumn(EmployeeGridDTO::getTeam).setHeader("Team").setSortProperty("team");
+        grid.addColumn(EmployeeGridDTO::getLocation).setHeader("Location").setSortProperty("location");
         grid.addColumn(e -> e.getRoles().stream().map(Role::getName).collect(Collectors.joining(", ")))
-                .setHeader("Roles").setSortable(true);
+                .setHeader("Roles");
         grid.getColumns().forEach(c -> c.setAutoWidth(true));
 
-        // Set items of the grid
-        grid.setItems(filterEmployees(null));
+        // Set up dataProvider for grid for lazy loading
+        DataProvider<EmployeeGridDTO, String> dataProvider = createEmployeeDataProvider();
+        ConfigurableFilterDataProvider<EmployeeGridDTO, Void, String> dataProviderWrapper =
+                dataProvider.withConfigurableFilter();
+        grid.setDataProvider(dataProviderWrapper);
 
         // Create actions displayed above the grid
         TextField filter = new Filter("Search for Employee");
@@ -73,24 +90,58 @@ public class EmployeeGrid extends VerticalLayout {
 
         // Add listeners
         filter.setValueChangeMode(ValueChangeMode.EAGER);
-        filter.addValueChangeListener(e -> grid.setItems(filterEmployees(e.getValue())));
+        filter.addValueChangeListener(e -> {
+            String filterText = e.getValue();
+            if(StringUtils.isBlank(filterText)) {
+                filterText = null;
+            }
+            dataProviderWrapper.setFilter(filterText);
+        });
 
-        grid.asSingleSelect().addValueChangeListener(e ->
-                employeeEditor.openEditor(grid.asSingleSelect().getValue()));
+        grid.asSingleSelect().addValueChangeListener(e -> {
+            EmployeeGridDTO employeeDto = grid.asSingleSelect().getValue();
+            employeeEditor.openEditor(employeeDto != null ?
+                    employeeService.getEmployeeByEmailAddress(employeeDto.getEmailAddress()) : null);
+        });
 
         createButton.addClickListener(e -> employeeEditor.openEditor(new Employee()));
 
+        // Rows of other UIs are refreshed by their changeListener
         employeeEditor.setChangeHandler(() -> {
             employeeEditor.close();
+            grid.getDataProvider().refreshAll();
             grid.deselectAll();
-            grid.setItems(filterEmployees(filter.getValue()));
         });
     }
 
-    private List<Employee> filterEmployees(String filterText) {
-        if(StringUtils.isNotBlank(filterText)) {
-            return employeeService.getEmployeesByNameStartsWithIgnoreCase(filterText);
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        changeListener = new GridChangeListener<>(attachEvent.getUI(), grid.getDataProvider(), EmployeeGridDTO.class,
+                id -> employeeService.getEmployeeGridDtoById((Integer) id));
+        changeNotifier.register(Employee.class, changeListener);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        changeNotifier.unregister(Employee.class, changeListener);
+    }
+
+    private DataProvider<EmployeeGridDTO, String> createEmployeeDataProvider() {
+        return DataProvider.fromFilteringCallbacks(
+                query -> getEmployeeListProvided(query).stream(),
+                query -> employeeService.countEmployeesByNameStartsWithIgnoreCase(query.getFilter().orElse(null)));
+    }
+
+    private List<EmployeeGridDTO> getEmployeeListProvided(Query<EmployeeGridDTO, String> query) {
+        String sortProperty = null;
+        boolean descending = false;
+        SortOrder<String> firstSortOrder = query.getSortOrders().stream().findFirst().orElse(null);
+        if(firstSortOrder != null) {
+            sortProperty = firstSortOrder.getSorted();
+            descending = firstSortOrder.getDirection() == SortDirection.DESCENDING;
         }
-        return employeeService.getAllEmployees();
+
+        return employeeService.getEmployeeGridDtosByNameStartsWithIgnoreCase(query.getFilter().orElse(null),
+                query.getLimit(), query.getOffset(), descending, sortProperty);
     }
 }
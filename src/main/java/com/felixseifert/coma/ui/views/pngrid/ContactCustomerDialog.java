@@ -94,7 +94,7 @@ public class ContactCustomerDialog extends AbstractDialog {
         rejectionReasonComboBox.addValueChangeListener(e -> getOkButton().setEnabled(okButtonEnabled()));
         rejectionReasonComboBox.addCustomValueSetListener(e -> {
             rejectionReasonComboBox.setValue(e.getDetail());
-            if(!selectableValueService.exists(e.getDetail(), ValueGroup.REASON_FOR_REACTION)) {
+            if(!selectableValueService.isInUse(e.getDetail(), ValueGroup.REASON_FOR_REACTION)) {
                 saveReasonDialog.open(e.getDetail());     // Todo: Add restriction of max length (see model)
             }
         });
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.views.pngrid;
+
+import com.felixseifert.coma.backend.config.BeanGetter;
+import com.felixseifert.coma.backend.model.dto.PartNumberImportResultDTO;
+import com.felixseifert.coma.backend.service.PartNumberImportService;
+import com.felixseifert.coma.backend.service.PartNumberImportServiceImpl;
+import com.felixseifert.coma.ui.common.ViewConstants;
+import com.felixseifert.coma.ui.common.dialogs.AbstractDialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.MemoryBuffer;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+@Getter(AccessLevel.PACKAGE)
+public class ImportDialog extends AbstractDialog {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMNS = {PartNumberImportServiceImpl.COLUMN_PN,
+            PartNumberImportServiceImpl.COLUMN_IDX, PartNumberImportServiceImpl.COLUMN_REQUESTER,
+            PartNumberImportServiceImpl.COLUMN_TEAM, PartNumberImportServiceImpl.COLUMN_CUSTOMER_CODE,
+            PartNumberImportServiceImpl.COLUMN_CUSTOMER_PART_NUMBER,
+            PartNumberImportServiceImpl.COLUMN_PRODUCT_DESCRIPTION, PartNumberImportServiceImpl.COLUMN_COO,
+            PartNumberImportServiceImpl.COLUMN_PLANT_CODE, PartNumberImportServiceImpl.COLUMN_START_OF_PRODUCTION,
+            PartNumberImportServiceImpl.COLUMN_DUE_DATE, PartNumberImportServiceImpl.COLUMN_PRODUCT_MANAGER,
+            PartNumberImportServiceImpl.COLUMN_PRODUCT_SPECIALIST, PartNumberImportServiceImpl.COLUMN_COMMENTS};
+
+    private PartNumberImportService partNumberImportService;
+
+    private MemoryBuffer buffer = new MemoryBuffer();
+
+    private Upload upload = new Upload(buffer);
+
+    private Paragraph summary = new Paragraph();
+
+    private Grid<PartNumberImportResultDTO.Reject> rejectGrid = new Grid<>();
+
+    ImportDialog() {
+        super("Import PN Requests");
+
+        partNumberImportService = BeanGetter.getBean(PartNumberImportService.class);
+
+        this.setWidth(ViewConstants.SIMPLE_DIALOG_WIDTH_STRING);
+
+        Paragraph description = new Paragraph("Upload a UTF-8 encoded CSV file with a header line. " +
+                "Supported columns: " + String.join(", ", COLUMNS) + ". " +
+                "Employees are referenced by email address, dates are given as yyyy-MM-dd.");
+
+        upload.setAcceptedFileTypes(".csv", "text/csv");
+        upload.setMaxFiles(1);
+        upload.addSucceededListener(e -> importFile());
+
+        rejectGrid.addColumn(PartNumberImportResultDTO.Reject::getRowNumber).setHeader("Row").setAutoWidth(true);
+        rejectGrid.addColumn(PartNumberImportResultDTO.Reject::getPn).setHeader("PN").setAutoWidth(true);
+        rejectGrid.addColumn(PartNumberImportResultDTO.Reject::getReason).setHeader("Reason");
+        rejectGrid.setHeightByRows(true);
+        rejectGrid.setVisible(false);
+
+        getContent().add(description, upload, summary, rejectGrid);
+
+        getCancelButton().setVisible(false);
+        getOkButton().setText("Close");
+        getOkButton().setIcon(VaadinIcon.CHECK.create());
+        getOkButton().getElement().getThemeList().add("primary");
+    }
+
+    private void importFile() {
+        try(Reader reader = new InputStreamReader(buffer.getInputStream(), StandardCharsets.UTF_8)) {
+            PartNumberImportResultDTO result = partNumberImportService.importPartNumberObjects(reader);
+            summary.setText(result.toString());
+            rejectGrid.setItems(result.getRejects());
+            rejectGrid.setVisible(!result.getRejects().isEmpty());
+        }
+        catch(IOException | IllegalArgumentException e) {
+            summary.setText(e.getMessage());
+            rejectGrid.setVisible(false);
+        }
+    }
+}
@@ -16,6 +16,9 @@
 
 package com.felixseifert.coma.ui.views.pngrid;
 
+import com.felixseifert.coma.backend.config.TraceSpan;
+import com.felixseifert.coma.backend.config.Tracer;
+import com.felixseifert.coma.backend.model.dto.EntityLabelDTO;
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
 import com.felixseifert.coma.backend.model.enums.CustomerNotification;
 import com.felixseifert.coma.backend.model.enums.Progress;
@@ -23,6 +26,7 @@ import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.enums.ValueGroup;
 import com.felixseifert.coma.backend.service.*;
 import com.felixseifert.coma.ui.common.ChangeHandler;
+import com.felixseifert.coma.ui.common.SharedItemSets;
 import com.felixseifert.coma.ui.common.dialogs.DeleteConfirmationDialog;
 import com.felixseifert.coma.ui.common.StyledText;
 import com.felixseifert.coma.ui.common.ViewConstants;
@@ -60,7 +64,6 @@ import org.vaadin.gatanaso.MultiselectComboBox;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @SpringComponent
 @UIScope
@@ -78,9 +81,6 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
     @Getter(AccessLevel.NONE)
     private CooPlantService cooPlantService;
 
-    @Getter(AccessLevel.NONE)
-    private SelectableValueService selectableValueService;
-
     @Getter(AccessLevel.NONE)
     private CustomerService customerService;
 
@@ -88,7 +88,7 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
     private BusinessUnitService businessUnitService;
 
     @Getter(AccessLevel.NONE)
-    private ProductDescriptionService productDescriptionService;
+    private SharedItemSets sharedItemSets;
 
     private H3 heading = new H3();
 
@@ -134,9 +134,9 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
 
     private ReleaseFlowField<Role> releaseFlowField = new ReleaseFlowField<>();
 
-    private ComboBox<BusinessUnit> businessUnitComboBox = new ComboBox<>("Business Unit");
+    private ComboBox<EntityLabelDTO> businessUnitComboBox = new ComboBox<>("Business Unit");
 
-    private Map<Role, ComboBox<Employee>> employeeFields = new HashMap<>();
+    private Map<Role, ComboBox<EntityLabelDTO>> employeeFields = new HashMap<>();
 
     private TextArea commentsField = new TextArea("Comments");
 
@@ -172,19 +172,17 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
 
     public PartNumberObjectEditor(PartNumberObjectService partNumberObjectService,
                                   EmployeeService employeeService,
-                                  SelectableValueService selectableValueService,
                                   CustomerService customerService,
-                                  BusinessUnitService businessUnitService,
                                   CooPlantService cooPlantService,
-                                  ProductDescriptionService productDescriptionService) {
+                                  BusinessUnitService businessUnitService,
+                                  SharedItemSets sharedItemSets) {
 
         this.partNumberObjectService = partNumberObjectService;
         this.employeeService = employeeService;
-        this.selectableValueService = selectableValueService;
         this.customerService = customerService;
-        this.businessUnitService = businessUnitService;
         this.cooPlantService = cooPlantService;
-        this.productDescriptionService = productDescriptionService;
+        this.businessUnitService = businessUnitService;
+        this.sharedItemSets = sharedItemSets;
 
         submitButton.getElement().getThemeList().add("primary");
         saveButton.getElement().getThemeList().add("secondary");
@@ -248,8 +246,18 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
         });
 
         // Listeners for form buttons
-        saveButton.addClickListener(e -> saveButtonListener(partNumberObjectBinder.getBean()));
-        submitButton.addClickListener(e -> submitButtonListener(partNumberObjectBinder.getBean()));
+        saveButton.addClickListener(e -> {
+            try(TraceSpan span = Tracer.startSpan(TraceSpan.Kind.UI, "Save PN")) {
+                if(span.isRecording()) span.setDetail("id " + partNumberObjectBinder.getBean().getId());
+                saveButtonListener(partNumberObjectBinder.getBean());
+            }
+        });
+        submitButton.addClickListener(e -> {
+            try(TraceSpan span = Tracer.startSpan(TraceSpan.Kind.UI, "Submit PN")) {
+                if(span.isRecording()) span.setDetail("id " + partNumberObjectBinder.getBean().getId());
+                submitButtonListener(partNumberObjectBinder.getBean());
+            }
+        });
         denyButton.addClickListener(e -> denyButtonListener(partNumberObjectBinder.getBean()));
         deleteButton.addClickListener(e ->
                 deleteConfirmationDialog.open(partNumberObjectBinder.getBean().getPn() +
@@ -381,7 +389,7 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
         cooComboBox.addValueChangeListener(e -> {
             if(StringUtils.isNotBlank(e.getValue())) {
                 String cooName = splitFieldValueParentheses(e.getValue())[1];
-                sourceComboBox.setItems(cooPlantService.getPlantsByCoo(cooName).stream().map(Plant::getName));
+                sourceComboBox.setItems(sharedItemSets.getSnapshot().getPlantNames(cooName));
                 writeToHiddenCooFields(e.getValue());
             }
             else if(StringUtils.isNotBlank(e.getOldValue())) {
@@ -441,16 +449,14 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
                 createEmployeeField(Role.PRODUCT_MANAGER),
                 createEmployeeField(Role.PRODUCT_SPECIALIST)));
 
-        businessUnitComboBox.setItemLabelGenerator(BusinessUnit::getName);
+        businessUnitComboBox.setItemLabelGenerator(EntityLabelDTO::getLabel);
         businessUnitComboBox.setClearButtonVisible(true);
         businessUnitComboBox.setMinWidth(ViewConstants.MIN_WIDTH_FOR_FIELD_STRING);
         businessUnitComboBox.addValueChangeListener(event -> {
-            if(event.getValue() != null && event.getValue().getProductManagers() != null) {
-                employeeFields.get(Role.PRODUCT_MANAGER).setItems(event.getValue().getProductManagers());
-            }
-            else {
-                employeeFields.get(Role.PRODUCT_MANAGER).setItems(employeeService.getAllProductManagers());
-            }
+            SharedItemSets.Snapshot sharedItems = sharedItemSets.getSnapshot();
+            List<EntityLabelDTO> productManagers = sharedItems.getProductManagers(event.getValue());
+            employeeFields.get(Role.PRODUCT_MANAGER).setItems(productManagers != null ? productManagers :
+                    sharedItems.getEmployees(Role.PRODUCT_MANAGER));
         });
         employeeFields.get(Role.PRODUCT_MANAGER).setPlaceholder("Select based on Business Unit.");
 
@@ -496,11 +502,11 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
         return row;
     }
 
-    private ComboBox<Employee> createEmployeeField(Role role) {
-        ComboBox<Employee> comboBox = new ComboBox<>(role.getName());
+    private ComboBox<EntityLabelDTO> createEmployeeField(Role role) {
+        ComboBox<EntityLabelDTO> comboBox = new ComboBox<>(role.getName());
 
         comboBox.setClearButtonVisible(true);
-        comboBox.setItemLabelGenerator(Employee::getName);
+        comboBox.setItemLabelGenerator(EntityLabelDTO::getLabel);
         comboBox.setMinWidth(ViewConstants.MIN_WIDTH_FOR_FIELD_STRING);
 
         employeeFields.put(role, comboBox);
@@ -554,15 +560,22 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
         partNumberObjectBinder.forField(commentsField)
                 .bind(PartNumberObject::getComments, PartNumberObject::setComments);
 
-        partNumberObjectBinder.forField(businessUnitComboBox).bind(PartNumberObject_.BUSINESS_UNIT);
-        employeeFields.forEach((role, field) -> partNumberObjectBinder.forField(field).bind(role.getPnVariable()));
+        // Shared items only hold id and label, the entities are loaded when a selection is written to the bean
+        partNumberObjectBinder.forField(businessUnitComboBox)
+                .withConverter(label -> label != null ? businessUnitService.getBusinessUnitById(label.getId()) : null,
+                        SharedItemSets::businessUnitLabel)
+                .bind(PartNumberObject_.BUSINESS_UNIT);
+        employeeFields.forEach((role, field) -> partNumberObjectBinder.forField(field)
+                .withConverter(label -> label != null ? employeeService.getEmployeeById(label.getId()) : null,
+                        SharedItemSets::employeeLabel)
+                .bind(role.getPnVariable()));
         partNumberObjectBinder.forField(releaseFlowField).bind(pn -> pn.getTaskRelease().getRemainingSteps(),
                 (pn, list) -> pn.getTaskRelease().setRemainingSteps(list));
     }
 
     private boolean completePnValidity() {
         if(!pnField.isInvalid()) {
-            return !partNumberObjectService.existsPartNumberObjectByCompletePn(pnField.getValue() + idxField.getValue());
+            return !partNumberObjectService.isCompletePnInUse(pnField.getValue() + idxField.getValue());
         }
         return true;
     }
@@ -592,12 +605,15 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
             return;
         }
 
-        boolean persisted = partNumberObjectGridDTO.getId() != null;
-        if(persisted) {
-            openEditor(partNumberObjectService.getPartNumberObjectById(partNumberObjectGridDTO.getId()));
-            return;
+        try(TraceSpan span = Tracer.startSpan(TraceSpan.Kind.UI, "Open PN editor")) {
+            boolean persisted = partNumberObjectGridDTO.getId() != null;
+            if(persisted) {
+                if(span.isRecording()) span.setDetail("id " + partNumberObjectGridDTO.getId());
+                openEditor(partNumberObjectService.getPartNumberObjectById(partNumberObjectGridDTO.getId()));
+                return;
+            }
+            openEditor(new PartNumberObject());
         }
-        openEditor(new PartNumberObject());
     }
 
     private void openEditor(PartNumberObject partNumberObject) {
@@ -721,26 +737,29 @@ public class PartNumberObjectEditor extends Dialog implements KeyNotifier {
     }
 
     private void reloadComboBoxes(PartNumberObject partNumberObject) {
-        customerComboBox.setItems(customerService.getAllCustomers());
-        createdByComboBox.setItems(employeeService.getAllEmployees());
-        requestTypeMultiselect.setItems(selectableValueService.getSelectableValuesByValueGroup(ValueGroup.REQUEST_TYPE)
-                .stream().map(SelectableValue::getLabel));
-        profileMultiselect.setItems(selectableValueService.getSelectableValuesByValueGroup(ValueGroup.CHANNEL_PROFILE)
-                .stream().map(SelectableValue::getLabel));
-        cooComboBox.setItems(cooPlantService.getAllCoos()
-                .stream().map(c -> String.format("%s (%s)", c.getAbbreviation(), c.getName())));
+        customerComboBox.setDataProvider(
+                (filter, offset, limit) ->
+                        customerService.getCustomersByNameStartsWithIgnoreCase(filter, limit, offset).stream(),
+                customerService::countCustomersByNameStartsWithIgnoreCase);
+        createdByComboBox.setDataProvider(
+                (filter, offset, limit) ->
+                        employeeService.getEmployeesByNameStartsWithIgnoreCase(filter, null, limit, offset).stream(),
+                filter -> employeeService.countEmployeesByNameStartsWithIgnoreCase(filter, null));
+        // Items of the other fields are shared between all UIs
+        SharedItemSets.Snapshot sharedItems = sharedItemSets.getSnapshot();
+        requestTypeMultiselect.setItems(sharedItems.getSelectableValueLabels(ValueGroup.REQUEST_TYPE));
+        profileMultiselect.setItems(sharedItems.getSelectableValueLabels(ValueGroup.CHANNEL_PROFILE));
+        cooComboBox.setItems(sharedItems.getCooLabels());
         cooComboBox.setValue(readCooComboBoxValue(partNumberObject));
         sourceComboBox.setItems(partNumberObject != null && StringUtils.isNotBlank(partNumberObject.getCooName()) ?
-                cooPlantService.getPlantsByCoo(partNumberObject.getCooName()).stream().map(Plant::getName)
-                        .collect(Collectors.toList()) : List.of());
+                sharedItems.getPlantNames(partNumberObject.getCooName()) : List.of());
         sourceCodeField.setValue(partNumberObject != null && partNumberObject.getPlantCode() != null
                 ? partNumberObject.getPlantCode() : "");
-        productDescriptionComboBox.setItems(productDescriptionService.getAllProductDescriptions()
-                .stream().map(pd -> String.format("%s (%s)", pd.getDescription(), pd.getCode())));
+        productDescriptionComboBox.setItems(sharedItems.getProductDescriptionLabels());
         productDescriptionComboBox.setValue(readProductDescriptionComboBoxValue(partNumberObject));
-        businessUnitComboBox.setItems(businessUnitService.getAllBusinessUnits());
+        businessUnitComboBox.setItems(sharedItems.getBusinessUnits());
 
-        employeeFields.forEach((role, field) -> field.setItems(employeeService.getAllEmployeesByRole(role)));
+        employeeFields.forEach((role, field) -> field.setItems(sharedItems.getEmployees(role)));
     }
 
     private String readCooComboBoxValue(PartNumberObject partNumberObject) {
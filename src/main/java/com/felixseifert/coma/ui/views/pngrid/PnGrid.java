@@ -16,25 +16,52 @@
 
 package com.felixseifert.coma.ui.views.pngrid;
 
+import com.felixseifert.coma.backend.config.TraceSpan;
+import com.felixseifert.coma.backend.config.Tracer;
+import com.felixseifert.coma.backend.model.PartNumberObject;
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO.Facet;
+import com.felixseifert.coma.backend.model.dto.PnGridFilter;
+import com.felixseifert.coma.backend.service.ChangeNotifier;
 import com.felixseifert.coma.backend.service.PartNumberObjectService;
 import com.felixseifert.coma.ui.MainLayout;
 import com.felixseifert.coma.ui.common.Filter;
+import com.felixseifert.coma.ui.common.GridChangeListener;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridSortOrder;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.provider.*;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.VaadinSession;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
+import org.vaadin.gatanaso.MultiselectComboBox;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Route(value = "partnumbers", layout = MainLayout.class)
 @PageTitle("PN List")
@@ -42,8 +69,25 @@ public class PnGrid extends VerticalLayout {
 
     private static final long serialVersionUID = 1L;
 
+    // Columns which are rendered from several fields of PartNumberObjectGridDTO
+    private static final Map<String, Set<String>> FIELDS_OF_COLUMN = Map.of(
+            "currentEmployeeName", Set.of("currentEmployeeName", "currentEmployeeRole", "releaseCompletedAt"));
+
+    private static final int MAX_SUGGESTIONS = 5;
+
+    private static final Map<Facet, String> FACET_HEADERS = Map.of(
+            Facet.STATUS, "Progress",
+            Facet.CUSTOMER_NOTIFICATION, "Customer Notification",
+            Facet.BUSINESS_UNIT, "Business Unit",
+            Facet.CUSTOMER, "Customer",
+            Facet.RESPONSIBLE_EMPLOYEE, "Responsible Employee");
+
     private PartNumberObjectService partNumberObjectService;
 
+    private ChangeNotifier changeNotifier;
+
+    private GridChangeListener<PartNumberObjectGridDTO> changeListener;
+
     @Getter
     private Grid<PartNumberObjectGridDTO> grid;
 
@@ -53,10 +97,40 @@ public class PnGrid extends VerticalLayout {
     @Getter
     private Button createButton;
 
+    @Getter
+    private Button importButton;
+
+    @Getter
+    private Anchor exportLink;
+
+    @Getter
+    private MultiselectComboBox<String> columnSelect;
+
+    @Getter
+    private final Map<Facet, MultiselectComboBox<PnGridFacetsDTO.Value>> facetSelects = new EnumMap<>(Facet.class);
+
+    @Getter
+    private DatePicker dueDateFrom = new DatePicker();
+
+    @Getter
+    private DatePicker dueDateTo = new DatePicker();
+
+    @Getter
+    private HorizontalLayout suggestions = new HorizontalLayout();
+
+    private ConfigurableFilterDataProvider<PartNumberObjectGridDTO, Void, PnGridFilter> dataProviderWrapper;
+
+    // Suppresses the value change listeners of the facets while their items are replaced
+    private boolean updatingFacets;
+
+    private final Map<String, String> hideableColumnHeaders = new LinkedHashMap<>();
+
     public PnGrid(PartNumberObjectEditor partNumberObjectEditor,
-                  PartNumberObjectService partNumberObjectService) {
+                  PartNumberObjectService partNumberObjectService,
+                  ChangeNotifier changeNotifier) {
 
         this.partNumberObjectService = partNumberObjectService;
+        this.changeNotifier = changeNotifier;
 
         Function<PartNumberObjectGridDTO, String> currentEmployeeHeader = pnDto -> {
             if(pnDto.getCurrentEmployeeName() != null && pnDto.getCurrentEmployeeRole() != null) {
@@ -71,50 +145,81 @@ public class PnGrid extends VerticalLayout {
 
         // Create grid structure with relevant columns
         grid = new Grid<>();
-        grid.addColumn(PartNumberObjectGridDTO::getId).setHeader("ID").setSortProperty("id");
-        grid.addColumn(PartNumberObjectGridDTO::getPn).setHeader("PN").setSortProperty("pn");
-        grid.addColumn(PartNumberObjectGridDTO::getDueDate).setHeader("Due Date").setSortProperty("dueDate");
-        grid.addColumn(PartNumberObjectGridDTO::getCreatedByTeamDepartment).setHeader("Created by")
-                .setSortProperty("createdByTeamDepartment");
-        grid.addColumn(PartNumberObjectGridDTO::getCreatedDate).setHeader("Created at")
-                .setSortProperty("createdDate");
-        grid.addColumn(currentEmployeeHeader::apply)
-                .setHeader("Responsible Employee").setSortProperty("currentEmployeeName");
-        grid.addColumn(pnDTO -> pnDTO.getStatus() != null ? pnDTO.getStatus().getName() : null)
-                .setHeader("Progress").setSortProperty("status");
-        grid.addColumn(pnDTO -> pnDTO.getCustomerNotification() != null ?
-                pnDTO.getCustomerNotification().getName() : null)
-                .setHeader("Customer Notification").setSortProperty("customerNotification");
-        grid.addColumn(pnDTO -> pnDTO.getReleaseCompletedAt() != null ?
-                pnDTO.getReleaseCompletedAt().toLocalDate() : null)
-                .setHeader("Release Date").setSortProperty("releaseCompletedAt");
+        grid.addColumn(PartNumberObjectGridDTO::getId).setHeader("ID").setSortProperty("id").setKey("id");
+        addHideableColumn(PartNumberObjectGridDTO::getPn, "PN", "pn");
+        addHideableColumn(PartNumberObjectGridDTO::getDueDate, "Due Date", "dueDate");
+        addHideableColumn(PartNumberObjectGridDTO::getCreatedByTeamDepartment, "Created by",
+                "createdByTeamDepartment");
+        addHideableColumn(PartNumberObjectGridDTO::getCreatedDate, "Created at", "createdDate");
+        addHideableColumn(currentEmployeeHeader::apply, "Responsible Employee", "currentEmployeeName");
+        addHideableColumn(pnDTO -> pnDTO.getStatus() != null ? pnDTO.getStatus().getName() : null,
+                "Progress", "status");
+        addHideableColumn(pnDTO -> pnDTO.getCustomerNotification() != null ?
+                pnDTO.getCustomerNotification().getName() : null, "Customer Notification", "customerNotification");
+        addHideableColumn(pnDTO -> pnDTO.getReleaseCompletedAt() != null ?
+                pnDTO.getReleaseCompletedAt().toLocalDate() : null, "Release Date", "releaseCompletedAt");
         grid.getColumns().forEach(c -> c.setAutoWidth(true));
 
+        columnSelect = new MultiselectComboBox<>();
+        columnSelect.setPlaceholder("Columns");
+        columnSelect.setItems(hideableColumnHeaders.keySet());
+        columnSelect.setItemLabelGenerator(hideableColumnHeaders::get);
+        columnSelect.setValue(new HashSet<>(hideableColumnHeaders.keySet()));
+
         // Set up dataProvider for grid for lazy loading
-        DataProvider<PartNumberObjectGridDTO, String> dataProvider = createPartNumberObjectDataProvider();
-        ConfigurableFilterDataProvider<PartNumberObjectGridDTO, Void, String> dataProviderWrapper =
-                dataProvider.withConfigurableFilter();
+        DataProvider<PartNumberObjectGridDTO, PnGridFilter> dataProvider = createPartNumberObjectDataProvider();
+        dataProviderWrapper = dataProvider.withConfigurableFilter();
         grid.setDataProvider(dataProviderWrapper);
 
         // Create actions displayed above the grid
         filter = new Filter("Search for PN");
         createButton = new Button("New Request", VaadinIcon.PLUS.create());
-        HorizontalLayout actions = new HorizontalLayout(filter, createButton);
+        importButton = new Button("Import", VaadinIcon.UPLOAD.create());
+        exportLink = new Anchor(new StreamResource("pn-list.csv", this::writeExport), "");
+        exportLink.getElement().setAttribute("download", true);
+        exportLink.add(new Button("Export", VaadinIcon.DOWNLOAD.create()));
+        HorizontalLayout actions = new HorizontalLayout(filter, columnSelect, createButton, importButton, exportLink);
         actions.setWidthFull();
         actions.setJustifyContentMode(JustifyContentMode.CENTER);
 
+        // Create facets displayed between actions and grid
+        HorizontalLayout facets = new HorizontalLayout();
+        facets.setWidthFull();
+        facets.setJustifyContentMode(JustifyContentMode.CENTER);
+        for(Facet facet : Facet.values()) {
+            MultiselectComboBox<PnGridFacetsDTO.Value> facetSelect = new MultiselectComboBox<>();
+            facetSelect.setPlaceholder(FACET_HEADERS.get(facet));
+            facetSelect.setItemLabelGenerator(PnGridFacetsDTO.Value::toString);
+            facetSelects.put(facet, facetSelect);
+            facets.add(facetSelect);
+        }
+        dueDateFrom.setPlaceholder("Due from");
+        dueDateTo.setPlaceholder("Due until");
+        facets.add(dueDateFrom, dueDateTo);
+        updateFacets(new PnGridFilter());
+
+        suggestions.setWidthFull();
+        suggestions.setJustifyContentMode(JustifyContentMode.CENTER);
+        suggestions.setVisible(false);
+
         // Add previously created components to layout
-        this.add(actions, grid);
+        this.add(actions, facets, suggestions, grid);
         this.setSizeFull();
 
         // Add listeners
         filter.setValueChangeMode(ValueChangeMode.EAGER);
-        filter.addValueChangeListener(e -> {
-            String filterText = e.getValue();
-            if(StringUtils.isBlank(filterText)) {
-                filterText = null;
-            }
-            dataProviderWrapper.setFilter(filterText);
+        filter.addValueChangeListener(e -> applyFilter());
+        facetSelects.values().forEach(facetSelect -> facetSelect.addValueChangeListener(e -> {
+            if(!updatingFacets) applyFilter();
+        }));
+        dueDateFrom.addValueChangeListener(e -> applyFilter());
+        dueDateTo.addValueChangeListener(e -> applyFilter());
+
+        // Hidden columns are not fetched, so the visible rows have to be loaded again
+        columnSelect.addValueChangeListener(e -> {
+            grid.getColumns().stream().filter(c -> hideableColumnHeaders.containsKey(c.getKey()))
+                    .forEach(c -> c.setVisible(e.getValue().contains(c.getKey())));
+            grid.getDataProvider().refreshAll();
         });
 
         grid.asSingleSelect().addValueChangeListener(e ->
@@ -122,22 +227,144 @@ public class PnGrid extends VerticalLayout {
 
         createButton.addClickListener(e -> partNumberObjectEditor.openEditor(new PartNumberObjectGridDTO()));
 
+        importButton.addClickListener(e -> {
+            ImportDialog importDialog = new ImportDialog();
+            importDialog.setChangeHandler(() -> grid.getDataProvider().refreshAll());
+            importDialog.open();
+        });
+
+        // Rows of other UIs are refreshed by their changeListener
         partNumberObjectEditor.setChangeHandler(() -> {
             partNumberObjectEditor.close();
-            grid.deselectAll();
             grid.getDataProvider().refreshAll();
+            grid.deselectAll();
         });
     }
 
-    private DataProvider<PartNumberObjectGridDTO, String> createPartNumberObjectDataProvider() {
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        // Facet counts depend on all rows, so they are counted again with every pushed change
+        changeListener = new GridChangeListener<>(attachEvent.getUI(), grid.getDataProvider(),
+                PartNumberObjectGridDTO.class,
+                id -> partNumberObjectService.getPartNumberObjectGridDtoById((Integer) id)) {
+            @Override
+            protected void onItemUpdated(PartNumberObjectGridDTO item) {
+                updateFacets(createFilter());
+            }
+
+            @Override
+            protected void onItemsChanged(List<PartNumberObjectGridDTO> items) {
+                updateFacets(createFilter());
+            }
+        };
+        changeNotifier.register(PartNumberObject.class, changeListener);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        changeNotifier.unregister(PartNumberObject.class, changeListener);
+    }
+
+    private PnGridFilter createFilter() {
+        PnGridFilter pnGridFilter = new PnGridFilter();
+        pnGridFilter.setPn(StringUtils.isBlank(filter.getValue()) ? null : filter.getValue());
+        pnGridFilter.setDueDateFrom(dueDateFrom.getValue());
+        pnGridFilter.setDueDateTo(dueDateTo.getValue());
+        facetSelects.forEach((facet, facetSelect) -> pnGridFilter.setSelection(facet,
+                facetSelect.getValue().stream().map(PnGridFacetsDTO.Value::getValue).collect(Collectors.toSet())));
+        return pnGridFilter;
+    }
+
+    private void applyFilter() {
+        PnGridFilter pnGridFilter = createFilter();
+        dataProviderWrapper.setFilter(pnGridFilter);
+        long total = updateFacets(pnGridFilter);
+        updateSuggestions(total == 0 ? pnGridFilter.getPn() : null);
+    }
+
+    // Offers similar PNs when a typed PN does not match anything
+    private void updateSuggestions(String pn) {
+        suggestions.removeAll();
+        List<String> similarPns = StringUtils.isBlank(pn) ? List.of() :
+                partNumberObjectService.getSimilarPns(pn, MAX_SUGGESTIONS);
+        if(!similarPns.isEmpty()) {
+            suggestions.add(new Span("Did you mean"));
+            similarPns.forEach(similarPn -> {
+                Button suggestion = new Button(similarPn, e -> filter.setValue(similarPn));
+                suggestion.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+                suggestions.add(suggestion);
+            });
+        }
+        suggestions.setVisible(!similarPns.isEmpty());
+    }
+
+    // Counts of all facets are loaded with one call; selected values stay available even without matching PNs
+    private long updateFacets(PnGridFilter pnGridFilter) {
+        PnGridFacetsDTO facets;
+        try(TraceSpan span = Tracer.startSpan(TraceSpan.Kind.UI, "Count PN grid facets")) {
+            facets = partNumberObjectService.getPnGridFacets(pnGridFilter);
+        }
+
+        updatingFacets = true;
+        try {
+            facetSelects.forEach((facet, facetSelect) -> {
+                Set<PnGridFacetsDTO.Value> selected = new HashSet<>(facetSelect.getValue());
+                List<PnGridFacetsDTO.Value> values = facets.getValues(facet);
+                selected.stream().filter(value -> !values.contains(value))
+                        .forEach(value -> values.add(new PnGridFacetsDTO.Value(facet, value.getValue(),
+                                value.getLabel(), 0)));
+                facetSelect.setItems(values);
+                facetSelect.setValue(values.stream().filter(selected::contains).collect(Collectors.toSet()));
+            });
+        } finally {
+            updatingFacets = false;
+        }
+        return facets.getTotal();
+    }
+
+    private DataProvider<PartNumberObjectGridDTO, PnGridFilter> createPartNumberObjectDataProvider() {
         return DataProvider.fromFilteringCallbacks(
-                query -> getPartNumberObjectListProvided(query).stream(),
-                query -> partNumberObjectService
-                        .countPartNumberObjectsByPnStartsWithIgnoreCase(query.getFilter().orElse(null)));
+                query -> {
+                    try(TraceSpan span = Tracer.startSpan(TraceSpan.Kind.UI, "Fetch PN grid page")) {
+                        if(span.isRecording()) {
+                            span.setDetail("offset " + query.getOffset() + ", limit " + query.getLimit());
+                        }
+                        return getPartNumberObjectListProvided(query).stream();
+                    }
+                },
+                query -> {
+                    try(TraceSpan span = Tracer.startSpan(TraceSpan.Kind.UI, "Count PN grid rows")) {
+                        return partNumberObjectService.countPartNumberObjects(query.getFilter().orElse(null));
+                    }
+                });
+    }
+
+    private void writeExport(OutputStream outputStream, VaadinSession session) throws IOException {
+        PnGridFilter pnGridFilter;
+        String sortProperty = null;
+        boolean descending = false;
+
+        // Resource is written outside of the session lock, so take a snapshot of filter and sort first
+        session.lock();
+        try {
+            pnGridFilter = createFilter();
+            GridSortOrder<PartNumberObjectGridDTO> firstSortOrder = grid.getSortOrder().stream()
+                    .findFirst().orElse(null);
+            if(firstSortOrder != null) {
+                sortProperty = firstSortOrder.getSorted().getSortOrder(firstSortOrder.getDirection())
+                        .map(SortOrder::getSorted).findFirst().orElse(null);
+                descending = firstSortOrder.getDirection() == SortDirection.DESCENDING;
+            }
+        } finally {
+            session.unlock();
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        partNumberObjectService.exportPartNumberObjects(pnGridFilter, descending, sortProperty, writer);
     }
 
     private List<PartNumberObjectGridDTO> getPartNumberObjectListProvided(
-            Query<PartNumberObjectGridDTO, String> query) {
+            Query<PartNumberObjectGridDTO, PnGridFilter> query) {
         String sortProperty = null;
         boolean descending = false;
         SortOrder<String> firstSortOrder = query.getSortOrders().stream().findFirst().orElse(null);
@@ -146,10 +373,23 @@ public class PnGrid extends VerticalLayout {
             descending = firstSortOrder.getDirection() == SortDirection.DESCENDING;
         }
 
-        String filter = query.getFilter().orElse(null);
+        PnGridFilter pnGridFilter = query.getFilter().orElse(null);
         int limit = query.getLimit();
         int offset = query.getOffset();
-        return partNumberObjectService
-                .getPartNumberObjectsByPnStartsWithIgnoreCase(filter, limit, offset, descending, sortProperty);
+        return partNumberObjectService.getPartNumberObjects(pnGridFilter, limit, offset, descending, sortProperty,
+                getVisibleFields());
+    }
+
+    private void addHideableColumn(ValueProvider<PartNumberObjectGridDTO, ?> valueProvider, String header,
+                                   String field) {
+        grid.addColumn(valueProvider).setHeader(header).setSortProperty(field).setKey(field);
+        hideableColumnHeaders.put(field, header);
+    }
+
+    private Set<String> getVisibleFields() {
+        Set<String> fields = new HashSet<>();
+        grid.getColumns().stream().filter(Grid.Column::isVisible)
+                .forEach(c -> fields.addAll(FIELDS_OF_COLUMN.getOrDefault(c.getKey(), Set.of(c.getKey()))));
+        return fields;
     }
 }
@@ -29,21 +29,22 @@ import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.select.Select;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 
 import java.util.*;
-import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Field to compose an ordered list of items. Each item is shown as a numbered button which removes it on click and
+ * neighbouring items are separated by an icon which swaps them. The components are kept in sync with the list of
+ * items by index, so changes only update the affected buttons and icons on the client.
+ */
 @Tag("release-flow-field")
-@Slf4j
 public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnabled {
 
     private static final long serialVersionUID = 1L;
 
-    private ItemLabelGenerator<T> itemLabelGenerator;
+    private ItemLabelGenerator<T> itemLabelGenerator = String::valueOf;
 
     private Select<T> select = new Select<>();
 
@@ -53,7 +54,12 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
 
     private HorizontalLayout labelLayout = new HorizontalLayout();
 
-    private List<Object> itemList = new ArrayList<>();
+    private List<T> items = new ArrayList<>();
+
+    // buttons.get(i) shows items.get(i), icons.get(i) is placed between buttons.get(i) and buttons.get(i + 1)
+    private List<Button> buttons = new ArrayList<>();
+
+    private List<Icon> icons = new ArrayList<>();
 
     private String buttonText = "";
 
@@ -68,7 +74,6 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
         add(labelLayout);
         labelLayout.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.CENTER);
         setPresentationValue(getEmptyValue());
-        refreshLabels();
     }
 
     public ReleaseFlowField(String selectLabel) {
@@ -78,14 +83,12 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
 
     @Override
     protected List<T> generateModelValue() {
-        return itemList.stream().filter(i -> !(i instanceof Icon)).map(i -> (T) i).collect(Collectors.toList());
+        return new ArrayList<>(items);
     }
 
     @Override
     protected void setPresentationValue(List<T> ts) {
-        itemList.clear();
-        refreshLabels();
-        ts.stream().forEach(this::addSelectedItem);
+        showItems(ts);
     }
 
     private HorizontalLayout createSelect() {
@@ -100,87 +103,100 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
 
         addButton.setEnabled(false);
         addButton.setIconAfterText(true);
-        addButton.addClickListener(event -> addSelectedItem(select.getValue()));
+        addButton.addClickListener(event -> {
+            addItem(select.getValue());
+            select.clear();
+            updateValue();
+        });
 
         return horizontalLayout;
     }
 
-    private void addSelectedItem(T toAdd) {
-        if(toAdd == null) return;
-        if(!itemList.isEmpty()) {
-            itemList.add(createChangeIcon());
+    /**
+     * Changes the shown items to the given ones by reusing the existing buttons and icons.
+     */
+    private void showItems(List<T> newItems) {
+        while(items.size() > newItems.size()) {
+            removeLastItem();
+        }
+        for(int i = 0; i < items.size(); i++) {
+            if(!Objects.equals(items.get(i), newItems.get(i))) {
+                items.set(i, newItems.get(i));
+                refreshButtonText(i);
+            }
+        }
+        for(int i = items.size(); i < newItems.size(); i++) {
+            addItem(newItems.get(i));
         }
-        itemList.add(toAdd);
-        refreshLabels();
         enableButton(false);
-        select.clear();
     }
 
-    private void removeSelectedItem(String text) {
-        if(itemList.isEmpty() || StringUtils.isBlank(text)) return;
-
-        int numberInParentheses;
-        try {
-            String numberText;
-            if(numbersLeftOfText) {
-                numberText = text.split("\\)\\s")[0];
-                numberInParentheses = Integer.parseInt(numberText.substring(1));
-            }
-            else {
-                numberText = text.split("\\s\\(")[1];
-                numberInParentheses = Integer.parseInt(numberText.substring(0, numberText.length() - 1));
-            }
-        } catch (IndexOutOfBoundsException | PatternSyntaxException | NumberFormatException e) {
-            log.error("Button texts are invalid (labelLayout modified or Roles have wrong name).");
-            return;
+    private void addItem(T toAdd) {
+        if(toAdd == null) return;
+        if(!items.isEmpty()) {
+            Icon icon = createChangeIcon();
+            icons.add(icon);
+            labelLayout.add(icon);
         }
+        items.add(toAdd);
+        Button button = new Button();
+        button.addClickListener(event -> removeItem(buttons.indexOf(button)));
+        buttons.add(button);
+        labelLayout.add(button);
+        refreshButtonText(items.size() - 1);
+        enableButton(false);
+    }
 
-        int index = (2 * numberInParentheses) - 2;
-        itemList.remove(index);
+    private void removeLastItem() {
+        int index = items.size() - 1;
+        items.remove(index);
+        labelLayout.remove(buttons.remove(index));
+        if(!icons.isEmpty()) {
+            labelLayout.remove(icons.remove(icons.size() - 1));
+        }
+    }
 
-        enableButton(true);
+    private void removeItem(int index) {
+        if(index < 0 || index >= items.size()) return;
 
-        if(itemList.isEmpty()) {
-            refreshLabels();
-            return;
+        items.remove(index);
+        labelLayout.remove(buttons.remove(index));
+        if(!icons.isEmpty()) {
+            // Remove the icon after the button or the one before it if it was the last button
+            labelLayout.remove(icons.remove(Math.min(index, icons.size() - 1)));
         }
 
-        if(index < itemList.size()) {
-            itemList.remove(index);
-            refreshLabels();
-            return;
+        // Only the numbers of the following buttons change
+        for(int i = index; i < items.size(); i++) {
+            refreshButtonText(i);
         }
+        enableButton(true);
+        updateValue();
+    }
+
+    private void swapItems(int iconIndex) {
+        if(iconIndex < 0 || iconIndex + 1 >= items.size()) return;
 
-        itemList.remove(index - 1);
-        refreshLabels();
+        Collections.swap(items, iconIndex, iconIndex + 1);
+        refreshButtonText(iconIndex);
+        refreshButtonText(iconIndex + 1);
+        enableButton(true);
+        updateValue();
     }
 
-    private void refreshLabels() {
-        labelLayout.removeAll();
-        int numberOfTs = 0;
-        for(int i = 0; i < itemList.size(); i++) {
-            Object item = itemList.get(i);
-            if(item instanceof Icon) {
-                ((Icon) item).setId("" + i);
-                labelLayout.add((Icon) item);
-                continue;
-            }
-            numberOfTs++;
-            Button button = new Button();
-            if(numbersLeftOfText) {
-                button.setText(String.format("(%d) %s", numberOfTs, itemLabelGenerator.apply((T) item)));
-            }
-            else {
-                button.setText(String.format("%s (%d)", itemLabelGenerator.apply((T) item), numberOfTs));
-            }
-            button.addClickListener(event -> removeSelectedItem(event.getSource().getText()));
-            labelLayout.add(button);
+    private void refreshButtonText(int index) {
+        String label = itemLabelGenerator.apply(items.get(index));
+        String number = Integer.toString(index + 1);
+        String text = numbersLeftOfText ? "(" + number + ") " + label : label + " (" + number + ")";
+
+        Button button = buttons.get(index);
+        if(!text.equals(button.getText())) {
+            button.setText(text);
         }
-        updateValue();
     }
 
     private void enableButton(boolean isValueSelected) {
-        boolean maxReached = maxNumberItems > 0 && itemList.size() >= (2 * maxNumberItems - 1);
+        boolean maxReached = maxNumberItems > 0 && items.size() >= maxNumberItems;
         addButton.setEnabled(isValueSelected && !maxReached);
 
         if(maxReached) {
@@ -194,7 +210,9 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
         Icon icon = new Icon(VaadinIcon.EXCHANGE);
         setIconStyle(icon, isEnabled());
         icon.setSize("18px");
-        icon.addClickListener(event -> exchangeListener(icon.getId().orElse(null)));
+        icon.addClickListener(event -> {
+            if(isEnabled()) swapItems(icons.indexOf(icon));
+        });
         return icon;
     }
 
@@ -207,23 +225,6 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
 
     }
 
-    private void exchangeListener(String id) {
-        if(itemList.isEmpty() || StringUtils.isBlank(id)) return;
-
-        int number;
-        try {
-            number = Integer.parseInt(id);
-        }
-        catch(NumberFormatException e) {
-            log.error("ID is invalid (id modified).");
-            return;
-        }
-
-        Collections.swap(itemList, number - 1, number + 1);
-        refreshLabels();
-        enableButton(true);
-    }
-
     public void setDescription(String descriptionText) {
         description.add(new Span(descriptionText));
     }
@@ -290,6 +291,7 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
     public void setItemLabelGenerator(ItemLabelGenerator<T> itemLabelGenerator) {
         this.itemLabelGenerator = itemLabelGenerator;
         select.setItemLabelGenerator(itemLabelGenerator);
+        refreshButtonTexts();
     }
 
     public void setMaxNumberItems(Integer max) {
@@ -300,26 +302,30 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
     public void setNumbersLeftOfText(Boolean numbersLeftOfText) {
         if(numbersLeftOfText == null) numbersLeftOfText = false;
         this.numbersLeftOfText = numbersLeftOfText;
-        refreshLabels();
+        refreshButtonTexts();
+    }
+
+    private void refreshButtonTexts() {
+        for(int i = 0; i < items.size(); i++) {
+            refreshButtonText(i);
+        }
     }
 
     @Override
     public void setValue(List<T> value) {
-        itemList.clear();
-        refreshLabels();
         select.clear();
-        value.forEach(this::addSelectedItem);
+        showItems(value);
+        updateValue();
     }
 
     @Override
     public List<T> getValue() {
-        return itemList.stream().filter(item -> !(item instanceof Icon))
-                .map(item -> (T) item).collect(Collectors.toList());
+        return new ArrayList<>(items);
     }
 
     @Override
     public boolean isEmpty() {
-        return itemList.isEmpty();
+        return items.isEmpty();
     }
 
     @Override
@@ -327,14 +333,7 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
         select.setEnabled(enabled);
         enableButton(enabled);
         labelLayout.setEnabled(enabled);
-
-        if(enabled) {
-            labelLayout.getChildren().filter(component -> component instanceof Icon)
-                    .forEach(icon -> setIconStyle((Icon) icon, true));
-            return;
-        }
-        labelLayout.getChildren().filter(component -> component instanceof Icon)
-                .forEach(icon -> setIconStyle((Icon) icon, false));
+        icons.forEach(icon -> setIconStyle(icon, enabled));
     }
 
     @Override
@@ -344,8 +343,8 @@ public class ReleaseFlowField<T> extends CustomField<List<T>> implements HasEnab
 
     @Override
     public void clear() {
-        itemList.clear();
-        refreshLabels();
+        showItems(List.of());
+        updateValue();
     }
 
     @Override
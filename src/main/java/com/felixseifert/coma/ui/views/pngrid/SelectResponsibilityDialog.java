@@ -142,13 +142,13 @@ public class SelectResponsibilityDialog extends AbstractDialog {
     private void loadFields(PartNumberObject partNumberObject) {
         textFieldMap.forEach((key, value) -> key.setValue(value.apply(partNumberObject)));
 
-        if(isChangeRequester(partNumberObject)) {
-            employeeComboBox.setItems(employeeService.getAllEmployees());
-            return;
-        }
+        Role role = isChangeRequester(partNumberObject) ? null :
+                partNumberObject.getTaskRelease().getCurrentEmployeesRole();
 
-        employeeComboBox.setItems(employeeService.getAllEmployeesByRole(
-                partNumberObject.getTaskRelease().getCurrentEmployeesRole()));
+        employeeComboBox.setDataProvider(
+                (filter, offset, limit) ->
+                        employeeService.getEmployeesByNameStartsWithIgnoreCase(filter, role, limit, offset).stream(),
+                filter -> employeeService.countEmployeesByNameStartsWithIgnoreCase(filter, role));
     }
 
     private void changeHandler(PartNumberObject partNumberObject) {
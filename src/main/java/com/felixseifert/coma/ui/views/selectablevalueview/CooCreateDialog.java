@@ -46,11 +46,11 @@ public class CooCreateDialog extends AbstractSimpleCreateDialog<Coo> {
 
         getBinder().forField(nameField)
                 .asRequired("Please type in a name.")
-                .withValidator(n -> !cooPlantService.existsByCooName(n), "This name already exists.")
+                .withValidator(n -> !cooPlantService.isCooNameInUse(n), "This name already exists.")
                 .bind("name");
         getBinder().forField(abbrField)
                 .asRequired("Please type in an abbreviation.")
-                .withValidator(a -> !cooPlantService.existsByCooAbbreviation(a), "This abbreviation already exists.")
+                .withValidator(a -> !cooPlantService.isCooAbbreviationInUse(a), "This abbreviation already exists.")
                 .bind("abbreviation");
 
         getCompulsoryFields().add("name");
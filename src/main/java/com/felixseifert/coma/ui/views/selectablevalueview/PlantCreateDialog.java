@@ -48,12 +48,12 @@ public class PlantCreateDialog extends AbstractSimpleCreateDialog<Plant> {
 
         getBinder().forField(nameField)
                 .asRequired("Please type in a name.")
-                .withValidator(n -> !cooPlantService.existsByPlantNameAndCoo(n, getBinder().getBean().getCoo()),
+                .withValidator(n -> !cooPlantService.isPlantNameInUse(n, getBinder().getBean().getCoo()),
                         "This name already exists.")
                 .bind("name");
         getBinder().forField(codeField)
                 .asRequired("Please type in the product source code.")
-                .withValidator(c -> !cooPlantService.existsByPlantCode(c), "This code already exists.")
+                .withValidator(c -> !cooPlantService.isPlantCodeInUse(c), "This code already exists.")
                 .bind("code");
 
         getCompulsoryFields().add("name");
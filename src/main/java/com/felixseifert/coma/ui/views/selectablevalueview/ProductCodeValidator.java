@@ -35,7 +35,7 @@ public class ProductCodeValidator implements Validator<String> {
     public ValidationResult apply(String code, ValueContext valueContext) {
         if(!Pattern.matches("[0-9]*", code)) return ValidationResult.error("Product code consists only of numbers");
         if(code.length() != 6) return ValidationResult.error("Product codes have exactly 6 digits.");
-        if(productDescriptionService.existsByCode(code)) return ValidationResult.error("Product code already exists.");
+        if(productDescriptionService.isCodeInUse(code)) return ValidationResult.error("Product code already exists.");
         return ValidationResult.ok();
     }
 }
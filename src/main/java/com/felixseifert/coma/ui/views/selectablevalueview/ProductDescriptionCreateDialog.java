@@ -51,7 +51,7 @@ public class ProductDescriptionCreateDialog extends AbstractSimpleCreateDialog<P
                 .bind("code");
         getBinder().forField(descriptionField)
                 .asRequired("Please type in a product description.")
-                .withValidator(d -> !productDescriptionService.existsByDescription(d),
+                .withValidator(d -> !productDescriptionService.isDescriptionInUse(d),
                         "Product description already exists")
                 .bind("description");
 
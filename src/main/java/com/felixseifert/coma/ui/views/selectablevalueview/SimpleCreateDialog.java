@@ -39,7 +39,7 @@ public class SimpleCreateDialog extends AbstractSimpleCreateDialog<SelectableVal
 
         getBinder().forField(textField)
                 .asRequired("Please type in a value.")
-                .withValidator(v -> !selectableValueService.exists(textField.getValue(),
+                .withValidator(v -> !selectableValueService.isInUse(textField.getValue(),
                         getBinder().getBean().getValueGroup()),
                         "This value already exists.")
                 .bind("label");
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.views.slowqueryview;
+
+import com.felixseifert.coma.backend.config.SlowQueryRecorder;
+import com.felixseifert.coma.backend.model.dto.SlowQueryDTO;
+import com.felixseifert.coma.ui.MainLayout;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.ColumnTextAlign;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Label;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Lists the statements recorded by the {@link SlowQueryRecorder}. Not linked in the navigation, it is opened directly
+ * by its URL while investigating with {@code coma.slow-query.enabled=true}.
+ */
+@Route(value = "admin/slow-queries", layout = MainLayout.class)
+@PageTitle("Slow Queries")
+public class SlowQueryView extends VerticalLayout {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final SlowQueryRecorder slowQueryRecorder;
+
+    private final Grid<SlowQueryDTO> grid = new Grid<>();
+
+    public SlowQueryView(SlowQueryRecorder slowQueryRecorder) {
+
+        this.slowQueryRecorder = slowQueryRecorder;
+
+        grid.addColumn(slowQuery -> slowQuery.getRecordedAt().format(TIME_FORMATTER)).setHeader("Recorded At")
+                .setAutoWidth(true).setFlexGrow(0);
+        grid.addColumn(SlowQueryDTO::getElapsedMillis).setHeader("Time (ms)").setTextAlign(ColumnTextAlign.END)
+                .setComparator(SlowQueryDTO::getElapsedMillis).setAutoWidth(true).setFlexGrow(0);
+        grid.addColumn(slowQuery -> slowQuery.getRowCount() < 0 ? "" : slowQuery.getRowCount()).setHeader("Rows")
+                .setTextAlign(ColumnTextAlign.END).setAutoWidth(true).setFlexGrow(0);
+        grid.addColumn(SlowQueryDTO::getCallSite).setHeader("Call Site").setAutoWidth(true).setFlexGrow(0);
+        grid.addColumn(SlowQueryDTO::getSql).setHeader("SQL").setFlexGrow(1);
+        grid.addColumn(slowQuery -> String.join(", ", slowQuery.getParameters())).setHeader("Parameters")
+                .setFlexGrow(0).setWidth("240px");
+        grid.setItemDetailsRenderer(new ComponentRenderer<>(
+                slowQuery -> new Label(slowQuery.getSql() + " [" + String.join(", ", slowQuery.getParameters()) +
+                        "]")));
+
+        Label threshold = new Label("Statements taking at least " + slowQueryRecorder.getThresholdMillis() +
+                " ms");
+        Button refreshButton = new Button("Refresh", VaadinIcon.REFRESH.create(), e -> refresh());
+        Button clearButton = new Button("Clear", VaadinIcon.TRASH.create(), e -> {
+            slowQueryRecorder.clear();
+            refresh();
+        });
+        HorizontalLayout actions = new HorizontalLayout(threshold, refreshButton, clearButton);
+        actions.setWidthFull();
+        actions.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
+        actions.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.CENTER);
+
+        this.add(actions, grid);
+        this.setSizeFull();
+
+        refresh();
+    }
+
+    private void refresh() {
+        grid.setItems(slowQueryRecorder.getSlowQueries());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.views.traceview;
+
+import com.felixseifert.coma.backend.config.Trace;
+import com.felixseifert.coma.backend.config.TraceSpan;
+import com.felixseifert.coma.backend.config.Tracer;
+import com.felixseifert.coma.ui.MainLayout;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.ColumnTextAlign;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Label;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.treegrid.TreeGrid;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Lists the traces recorded by the {@link Tracer}. Not linked in the navigation, it is opened directly by its URL
+ * like the other admin views, since traces show internal statements and timings.
+ */
+@Route(value = "admin/traces", layout = MainLayout.class)
+@PageTitle("Traces")
+public class TraceView extends VerticalLayout {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Tracer tracer;
+
+    private final Grid<Trace> traceGrid = new Grid<>();
+
+    private final TreeGrid<TraceSpan> spanGrid = new TreeGrid<>();
+
+    public TraceView(Tracer tracer) {
+
+        this.tracer = tracer;
+
+        traceGrid.addColumn(trace -> trace.getStartedAt().format(TIME_FORMATTER)).setHeader("Started At")
+                .setAutoWidth(true).setFlexGrow(0);
+        traceGrid.addColumn(Trace::getDisplayName).setHeader("Action").setFlexGrow(1);
+        traceGrid.addColumn(trace -> formatMillis(trace.getDurationMillis())).setHeader("Time (ms)")
+                .setComparator(Trace::getDurationMillis).setTextAlign(ColumnTextAlign.END).setAutoWidth(true)
+                .setFlexGrow(0);
+        traceGrid.addColumn(Trace::getSqlCount).setHeader("SQL Statements").setComparator(Trace::getSqlCount)
+                .setTextAlign(ColumnTextAlign.END).setAutoWidth(true).setFlexGrow(0);
+        traceGrid.addColumn(trace -> formatMillis(trace.getSqlMillis())).setHeader("SQL Time (ms)")
+                .setComparator(Trace::getSqlMillis).setTextAlign(ColumnTextAlign.END).setAutoWidth(true)
+                .setFlexGrow(0);
+        traceGrid.addColumn(trace -> trace.getSpanCount() +
+                (trace.getDroppedSpanCount() > 0 ? " (+" + trace.getDroppedSpanCount() + " dropped)" : ""))
+                .setHeader("Spans").setTextAlign(ColumnTextAlign.END).setAutoWidth(true).setFlexGrow(0);
+        traceGrid.setHeight("40%");
+
+        spanGrid.addHierarchyColumn(TraceSpan::getName).setHeader("Span").setFlexGrow(1);
+        spanGrid.addColumn(TraceSpan::getKind).setHeader("Kind").setAutoWidth(true).setFlexGrow(0);
+        spanGrid.addColumn(span -> span.getDetail() != null ? span.getDetail() : "").setHeader("Detail")
+                .setAutoWidth(true).setFlexGrow(0);
+        spanGrid.addColumn(span -> formatMillis(span.getOffsetMillis())).setHeader("Start (ms)")
+                .setTextAlign(ColumnTextAlign.END).setAutoWidth(true).setFlexGrow(0);
+        spanGrid.addColumn(span -> formatMillis(span.getDurationMillis())).setHeader("Time (ms)")
+                .setTextAlign(ColumnTextAlign.END).setAutoWidth(true).setFlexGrow(0);
+        spanGrid.setHeight("60%");
+
+        Label sampling = new Label(String.format("Sampling %.0f %% of UI interactions and REST calls",
+                tracer.getSampleRate() * 100));
+        Button refreshButton = new Button("Refresh", VaadinIcon.REFRESH.create(), e -> refresh());
+        Button clearButton = new Button("Clear", VaadinIcon.TRASH.create(), e -> {
+            tracer.clear();
+            refresh();
+        });
+        HorizontalLayout actions = new HorizontalLayout(sampling, refreshButton, clearButton);
+        actions.setWidthFull();
+        actions.setJustifyContentMode(FlexComponent.JustifyContentMode.CENTER);
+        actions.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.CENTER);
+
+        this.add(actions, traceGrid, spanGrid);
+        this.setSizeFull();
+
+        traceGrid.asSingleSelect().addValueChangeListener(e -> showSpans(e.getValue()));
+
+        refresh();
+    }
+
+    private void refresh() {
+        traceGrid.setItems(tracer.getTraces());
+        showSpans(null);
+    }
+
+    private void showSpans(Trace trace) {
+        if(trace == null) {
+            spanGrid.setItems(List.of(), TraceSpan::getChildren);
+            return;
+        }
+        List<TraceSpan> rootSpans = List.of(trace.getRoot());
+        spanGrid.setItems(rootSpans, TraceSpan::getChildren);
+        spanGrid.expandRecursively(rootSpans, Integer.MAX_VALUE);
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format("%.1f", millis);
+    }
+}
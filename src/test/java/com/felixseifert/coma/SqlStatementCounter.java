@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread, so tests can assert query budgets and catch
+ * N+1 regressions. Registered as {@code hibernate.session_factory.statement_inspector} in the test properties;
+ * statements are only recorded between {@link #start()} and {@link #stop()}. Pending changes should be flushed
+ * before starting, otherwise their statements are counted for the flow under test. Timings are measured by the JMH
+ * benchmarks instead, wall-clock limits are not reliable on shared build machines.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum StatementType {SELECT, INSERT, UPDATE, DELETE, OTHER}
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if(statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    public static void stop() {
+        STATEMENTS.remove();
+    }
+
+    public static List<String> getStatements() {
+        List<String> statements = STATEMENTS.get();
+        if(statements == null) {
+            throw new IllegalStateException("SqlStatementCounter has not been started on this thread");
+        }
+        return List.copyOf(statements);
+    }
+
+    public static int count() {
+        return getStatements().size();
+    }
+
+    public static int count(StatementType type) {
+        return (int) getStatements().stream().filter(sql -> typeOf(sql) == type).count();
+    }
+
+    public static void assertStatementCount(int expected) {
+        if(count() != expected) {
+            fail(message("Expected " + expected + " statements"));
+        }
+    }
+
+    public static void assertStatementCount(StatementType type, int expected) {
+        if(count(type) != expected) {
+            fail(message("Expected " + expected + " " + type + " statements"));
+        }
+    }
+
+    public static void assertMaxStatementCount(int max) {
+        if(count() > max) {
+            fail(message("Expected at most " + max + " statements"));
+        }
+    }
+
+    public static void assertMaxStatementCount(StatementType type, int max) {
+        if(count(type) > max) {
+            fail(message("Expected at most " + max + " " + type + " statements"));
+        }
+    }
+
+    static StatementType typeOf(String sql) {
+        String trimmed = sql.stripLeading().toLowerCase(Locale.ROOT);
+        for(StatementType type : StatementType.values()) {
+            if(trimmed.startsWith(type.name().toLowerCase(Locale.ROOT))) {
+                return type;
+            }
+        }
+        return StatementType.OTHER;
+    }
+
+    private static String message(String expectation) {
+        List<String> statements = getStatements();
+        StringBuilder message = new StringBuilder(expectation).append(" but ").append(statements.size())
+                .append(" were issued:");
+        statements.forEach(sql -> message.append(System.lineSeparator()).append("  ").append(sql));
+        return message.toString();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import com.felixseifert.coma.backend.service.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RunWith(SpringRunner.class)
+public class MethodMetricsAspectTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void serviceAndRepositoryCallsAreTimedTest() {
+        long serviceCallsBefore = count("service", "CustomerServiceImpl");
+        long repositoryCallsBefore = count("repository", "CustomerRepositoryCustomImpl");
+
+        customerService.getCustomerGridDtosByNameStartsWithIgnoreCase("a", 10, 0, false, null);
+
+        assertEquals(serviceCallsBefore + 1, count("service", "CustomerServiceImpl"));
+        assertEquals(repositoryCallsBefore + 1, count("repository", "CustomerRepositoryCustomImpl"));
+    }
+
+    @Test
+    public void hibernateAndConnectionPoolMetricsAreBoundTest() {
+        assertNotNull(meterRegistry.find("hibernate.query.executions").meter());
+        assertNotNull(meterRegistry.find("hikaricp.connections").meter());
+        assertNotNull(meterRegistry.find(HibernateLoadMetrics.METRIC_NAME).tag("type", "proxy").counter());
+    }
+
+    private long count(String layer, String className) {
+        Timer timer = meterRegistry.find(MethodMetricsAspect.METRIC_NAME)
+                .tag("layer", layer)
+                .tag("class", className)
+                .tag("channel", RequestChannel.BACKGROUND)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
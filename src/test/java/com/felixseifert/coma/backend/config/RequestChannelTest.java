@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.Assert.assertEquals;
+
+public class RequestChannelTest {
+
+    private final RequestChannel requestChannel = new RequestChannel();
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void currentTest_rest() {
+        bindRequest("/rest/v1/release-tasks/unfinished-with-responsible-employee");
+        assertEquals(RequestChannel.REST, requestChannel.current());
+    }
+
+    @Test
+    public void currentTest_ui() {
+        bindRequest("/pn-grid");
+        assertEquals(RequestChannel.UI, requestChannel.current());
+    }
+
+    @Test
+    public void currentTest_background() {
+        assertEquals(RequestChannel.BACKGROUND, requestChannel.current());
+    }
+
+    private void bindRequest(String uri) {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest("GET", uri)));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import com.felixseifert.coma.backend.model.dto.SlowQueryDTO;
+import com.felixseifert.coma.backend.service.CustomerService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+@SpringBootTest(properties = {"coma.slow-query.enabled=true", "coma.slow-query.threshold-ms=0"})
+@RunWith(SpringRunner.class)
+public class SlowQueryDataSourcePostProcessorTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private SlowQueryRecorder slowQueryRecorder;
+
+    @Before
+    public void setup() {
+        slowQueryRecorder.clear();
+    }
+
+    @Test
+    public void criteriaQueryIsRecordedTest() {
+        customerService.getCustomerGridDtosByNameStartsWithIgnoreCase("Slow", 10, 0, false, null);
+
+        List<SlowQueryDTO> slowQueries = slowQueryRecorder.getSlowQueries();
+        assertTrue(slowQueries.stream().anyMatch(slowQuery ->
+                slowQuery.getSql().toLowerCase().contains("customers") &&
+                slowQuery.getParameters().stream().anyMatch(parameter -> parameter.equals("<String>")) &&
+                slowQuery.getRowCount() == 0 &&
+                slowQuery.getCallSite().startsWith("CustomerServiceImpl.getCustomerGridDtosByNameStartsWithIgnoreCase")));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import com.felixseifert.coma.backend.model.dto.SlowQueryDTO;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SlowQueryRecorderTest {
+
+    private final SlowQueryRecorder slowQueryRecorder = new SlowQueryRecorder(100, 2);
+
+    @Test
+    public void isSlowTest() {
+        assertFalse(slowQueryRecorder.isSlow(TimeUnit.MILLISECONDS.toNanos(99)));
+        assertTrue(slowQueryRecorder.isSlow(TimeUnit.MILLISECONDS.toNanos(100)));
+    }
+
+    @Test
+    public void recordTest_latestFirstAndBounded() {
+        slowQueryRecorder.record("select 1", List.of(), 1, TimeUnit.MILLISECONDS.toNanos(150));
+        slowQueryRecorder.record("select 2", Arrays.asList("abc", null), 2, TimeUnit.MILLISECONDS.toNanos(250));
+        slowQueryRecorder.record("select 3", List.of(3), 3, TimeUnit.MILLISECONDS.toNanos(350));
+
+        List<SlowQueryDTO> slowQueries = slowQueryRecorder.getSlowQueries();
+        assertEquals(2, slowQueries.size());
+        assertEquals("select 3", slowQueries.get(0).getSql());
+        assertEquals(List.of("3"), slowQueries.get(0).getParameters());
+        assertEquals(350, slowQueries.get(0).getElapsedMillis());
+        assertEquals("select 2", slowQueries.get(1).getSql());
+        assertEquals(List.of("<String>", "null"), slowQueries.get(1).getParameters());
+        assertTrue(slowQueries.get(1).getCallSite().startsWith("SlowQueryRecorderTest.recordTest"));
+    }
+
+    @Test
+    public void clearTest() {
+        slowQueryRecorder.record("select 1", List.of(), 1, TimeUnit.MILLISECONDS.toNanos(150));
+        slowQueryRecorder.clear();
+        assertTrue(slowQueryRecorder.getSlowQueries().isEmpty());
+    }
+}
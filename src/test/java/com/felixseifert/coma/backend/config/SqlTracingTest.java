@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import com.felixseifert.coma.SqlStatementCounter;
+import com.felixseifert.coma.backend.service.CustomerService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// The JDBC wrapper of the slow query recorder stays disabled, SQL spans must not depend on it
+@SpringBootTest(properties = "coma.tracing.sample-rate=1")
+@RunWith(SpringRunner.class)
+public class SqlTracingTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Before
+    public void setup() {
+        tracer.clear();
+        SqlStatementCounter.start();
+    }
+
+    @After
+    public void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
+    @Test
+    public void sqlSpansAreRecordedTest() {
+        try(TraceSpan root = tracer.startTrace("Test")) {
+            customerService.getCustomerGridDtosByNameStartsWithIgnoreCase("Traced", 10, 0, false, null);
+        }
+
+        List<Trace> traces = tracer.getTraces();
+        assertEquals(1, traces.size());
+        Trace trace = traces.get(0);
+        assertTrue(trace.getSqlCount() >= 1);
+        assertTrue(containsSqlSpan(trace.getRoot()));
+        // The statement inspector configured in the test properties is still called
+        assertTrue(SqlStatementCounter.count() >= 1);
+    }
+
+    @Test
+    public void noSqlSpansWithoutTraceTest() {
+        customerService.getCustomerGridDtosByNameStartsWithIgnoreCase("Untraced", 10, 0, false, null);
+
+        assertFalse(Tracer.isTracing());
+        assertTrue(tracer.getTraces().isEmpty());
+    }
+
+    private boolean containsSqlSpan(TraceSpan span) {
+        if(span.getKind() == TraceSpan.Kind.SQL && span.getName().toLowerCase().contains("customers")) {
+            return true;
+        }
+        return span.getChildren().stream().anyMatch(this::containsSqlSpan);
+    }
+}
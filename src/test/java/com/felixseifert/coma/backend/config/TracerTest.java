@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TracerTest {
+
+    @Test
+    public void startTraceTest_spanTree() {
+        Tracer tracer = new Tracer(1, 10, 100);
+
+        try(TraceSpan root = tracer.startTrace("UI interaction")) {
+            assertTrue(Tracer.isTracing());
+            try(TraceSpan uiSpan = Tracer.startSpan(TraceSpan.Kind.UI, "Open PN editor")) {
+                try(TraceSpan serviceSpan = Tracer.startSpan(TraceSpan.Kind.SERVICE, "getPartNumberObjectById")) {
+                    long now = System.nanoTime();
+                    Tracer.recordSpan(TraceSpan.Kind.SQL, "select 1", "1 rows", now - 2_000_000, now);
+                }
+            }
+        }
+        assertFalse(Tracer.isTracing());
+
+        List<Trace> traces = tracer.getTraces();
+        assertEquals(1, traces.size());
+        Trace trace = traces.get(0);
+        assertEquals("Open PN editor", trace.getDisplayName());
+        assertEquals(4, trace.getSpanCount());
+        assertEquals(1, trace.getSqlCount());
+        assertEquals(2, trace.getSqlMillis(), 0.001);
+
+        TraceSpan uiSpan = trace.getRoot().getChildren().get(0);
+        TraceSpan serviceSpan = uiSpan.getChildren().get(0);
+        TraceSpan sqlSpan = serviceSpan.getChildren().get(0);
+        assertEquals(TraceSpan.Kind.UI, uiSpan.getKind());
+        assertEquals("getPartNumberObjectById", serviceSpan.getName());
+        assertEquals("select 1", sqlSpan.getName());
+        assertEquals("1 rows", sqlSpan.getDetail());
+        assertTrue(trace.getDurationMillis() >= uiSpan.getDurationMillis());
+    }
+
+    @Test
+    public void startTraceTest_notSampled() {
+        Tracer tracer = new Tracer(0, 10, 100);
+
+        try(TraceSpan root = tracer.startTrace("UI interaction")) {
+            assertSame(TraceSpan.NOOP, root);
+            assertFalse(Tracer.isTracing());
+            assertSame(TraceSpan.NOOP, Tracer.startSpan(TraceSpan.Kind.UI, "Open PN editor"));
+        }
+        assertTrue(tracer.getTraces().isEmpty());
+    }
+
+    @Test
+    public void startTraceTest_boundedStoreAndSpans() {
+        Tracer tracer = new Tracer(1, 2, 2);
+
+        for(int i = 0; i < 3; i++) {
+            try(TraceSpan root = tracer.startTrace("Trace " + i)) {
+                Tracer.startSpan(TraceSpan.Kind.SERVICE, "first").close();
+                Tracer.startSpan(TraceSpan.Kind.SERVICE, "second").close();
+            }
+        }
+
+        List<Trace> traces = tracer.getTraces();
+        assertEquals(2, traces.size());
+        assertEquals("Trace 2", traces.get(0).getName());
+        assertEquals("Trace 1", traces.get(1).getName());
+        assertEquals(2, traces.get(0).getSpanCount());
+        assertEquals(1, traces.get(0).getDroppedSpanCount());
+    }
+}
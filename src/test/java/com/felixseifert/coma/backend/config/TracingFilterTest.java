@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.config;
+
+import com.felixseifert.coma.ui.MainLayout;
+import com.vaadin.flow.component.page.Push;
+import com.vaadin.flow.shared.ui.Transport;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "coma.tracing.sample-rate=1")
+@RunWith(SpringRunner.class)
+public class TracingFilterTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Before
+    public void setup() {
+        tracer.clear();
+    }
+
+    // Sends a UIDL request like the client does for a UI interaction, Vaadin answers it without a session
+    @Test
+    public void uidlRequestIsTracedTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> request =
+                new HttpEntity<>("{\"csrfToken\":\"\",\"rpc\":[],\"syncId\":0,\"clientId\":0}", headers);
+
+        restTemplate.postForEntity("/?v-r=uidl&v-uiId=0", request, String.class);
+
+        List<Trace> traces = tracer.getTraces();
+        assertEquals(1, traces.size());
+        assertEquals("UI interaction", traces.get(0).getName());
+        assertTrue(traces.get(0).getRoot().getDetail().startsWith("HTTP "));
+    }
+
+    @Test
+    public void staticResourceIsNotTracedTest() {
+        restTemplate.getForEntity("/favicon.ico", String.class);
+
+        assertTrue(tracer.getTraces().isEmpty());
+    }
+
+    // Messages over the websocket bypass the servlet filters, hence the client has to send them as XHR
+    @Test
+    public void clientMessagesAreSentAsXhrTest() {
+        assertEquals(Transport.WEBSOCKET_XHR, MainLayout.class.getAnnotation(Push.class).transport());
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.model.enums;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DatabaseCodeLookupTest {
+
+    @Test
+    public void fromDatabaseCodeTest_allConstants() {
+        assertAllConstantsFound(Role.class);
+        assertAllConstantsFound(Progress.class);
+        assertAllConstantsFound(CustomerNotification.class);
+        assertAllConstantsFound(ValueGroup.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromDatabaseCodeTest_unknownCode() {
+        new DatabaseCodeLookup<>(Role.class).fromDatabaseCode(50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fromDatabaseCodeTest_codeOutOfRange() {
+        new DatabaseCodeLookup<>(Progress.class).fromDatabaseCode(-1);
+    }
+
+    @Test
+    public void converterTest() {
+        RoleConverter roleConverter = new RoleConverter();
+        assertEquals(Integer.valueOf(20), roleConverter.convertToDatabaseColumn(Role.PRODUCT_SPECIALIST));
+        assertEquals(Role.PRODUCT_SPECIALIST, roleConverter.convertToEntityAttribute(20));
+        assertNull(roleConverter.convertToDatabaseColumn(null));
+        assertNull(roleConverter.convertToEntityAttribute(null));
+    }
+
+    private static <E extends Enum<E> & DatabaseCodeEnum> void assertAllConstantsFound(Class<E> enumType) {
+        DatabaseCodeLookup<E> lookup = new DatabaseCodeLookup<>(enumType);
+        for(E constant : enumType.getEnumConstants()) {
+            assertSame(constant, lookup.fromDatabaseCode(constant.getDatabaseCode()));
+        }
+    }
+}
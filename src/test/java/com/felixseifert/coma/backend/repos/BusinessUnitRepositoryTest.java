@@ -16,9 +16,11 @@
 
 package com.felixseifert.coma.backend.repos;
 
+import com.felixseifert.coma.SqlStatementCounter;
 import com.felixseifert.coma.backend.model.BusinessUnit;
 import com.felixseifert.coma.backend.model.Employee;
 import com.felixseifert.coma.backend.model.enums.Role;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -64,6 +66,11 @@ public class BusinessUnitRepositoryTest {
         testEntityManager.flush();
     }
 
+    @After
+    public void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
     @Test
     public void findAllTest() {
         List<BusinessUnit> listActual = businessUnitRepository.findAllBusinessUnits();
@@ -119,4 +126,16 @@ public class BusinessUnitRepositoryTest {
         assertTrue(businessUnitRepository.existsById(businessUnitExpected1.getId()));
         assertFalse(businessUnitRepository.existsById(99));
     }
+
+    @Test
+    public void findAllStatementCountTest() {
+        testEntityManager.clear();
+        SqlStatementCounter.start();
+
+        businessUnitRepository.findAllBusinessUnits().forEach(businessUnit ->
+                businessUnit.getProductManagers().forEach(Employee::getName));
+
+        // Business units are loaded together with their product managers
+        SqlStatementCounter.assertMaxStatementCount(1);
+    }
 }
@@ -16,8 +16,11 @@
 
 package com.felixseifert.coma.backend.repos;
 
+import com.felixseifert.coma.SqlStatementCounter;
 import com.felixseifert.coma.backend.model.enums.Currency;
 import com.felixseifert.coma.backend.model.Customer;
+import com.felixseifert.coma.backend.model.dto.CustomerGridDTO;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -69,6 +72,11 @@ public class CustomerRepositoryTest {
         testEntityManager.flush();
     }
 
+    @After
+    public void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
     @Test
     public void findAllTest() {
         List<Customer> listActual = customerRepository.findAll();
@@ -131,4 +139,50 @@ public class CustomerRepositoryTest {
         assertTrue(customerRepository.existsByCode(customerExpected1.getCode()));
         assertFalse(customerRepository.existsByCode("99999"));
     }
+
+    @Test
+    public void findCustomerGridDtosTest() {
+        List<CustomerGridDTO> customerDtosActual = customerRepository.findCustomerGridDtos(null, 2, 0, false, "code");
+
+        assertEquals(2, customerDtosActual.size());
+        assertEquals(customerExpected1.getCode(), customerDtosActual.get(0).getCode());
+        assertEquals(customerExpected3.getCode(), customerDtosActual.get(1).getCode());
+        assertEquals(customerExpected3.getName(), customerDtosActual.get(1).getName());
+    }
+
+    @Test
+    public void findCustomerGridDtosTest_filterDescending() {
+        List<CustomerGridDTO> customerDtosActual = customerRepository.findCustomerGridDtos("re", 10, 0, true, "name");
+
+        assertEquals(2, customerDtosActual.size());
+        assertEquals(customerExpected2.getCode(), customerDtosActual.get(0).getCode());
+        assertEquals(customerExpected3.getCode(), customerDtosActual.get(1).getCode());
+    }
+
+    @Test
+    public void countByNameStartsWithIgnoreCaseTest() {
+        assertEquals(2, customerRepository.countByNameStartsWithIgnoreCase("re"));
+        assertEquals(0, customerRepository.countByNameStartsWithIgnoreCase("zz"));
+    }
+
+    @Test
+    public void findByNameStartsWithIgnoreCaseTest_paged() {
+        List<Customer> customerListActual = customerRepository.findByNameStartsWithIgnoreCase("re", 1, 1);
+        List<Customer> customerListActualAll = customerRepository.findByNameStartsWithIgnoreCase(null, 10, 0);
+
+        assertEquals(List.of(customerExpected2), customerListActual);
+        assertEquals(List.of(customerExpected1, customerExpected3, customerExpected2), customerListActualAll);
+    }
+
+    @Test
+    public void customerGridPageStatementCountTest() {
+        testEntityManager.clear();
+        SqlStatementCounter.start();
+
+        customerRepository.findCustomerGridDtos(null, 50, 0, false, "code");
+        customerRepository.count();
+
+        // Rows of the page and the count
+        SqlStatementCounter.assertStatementCount(2);
+    }
 }
@@ -16,8 +16,11 @@
 
 package com.felixseifert.coma.backend.repos;
 
+import com.felixseifert.coma.SqlStatementCounter;
 import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.dto.EmployeeGridDTO;
 import com.felixseifert.coma.backend.model.enums.Role;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -28,6 +31,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -60,6 +64,11 @@ public class EmployeeRepositoryTest {
         testEntityManager.flush();
     }
 
+    @After
+    public void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
     @Test
     public void findAllTest() {
         List<Employee> employeeListActual = employeeRepository.findAllEmployees();
@@ -91,6 +100,16 @@ public class EmployeeRepositoryTest {
         assertTrue(employeeListActualEmpty.isEmpty());
     }
 
+    @Test
+    public void findByEmailAddressInTest() {
+        List<Employee> employeeListActual = employeeRepository.findByEmailAddressIn(
+                List.of(employeeExpectedPm.getEmailAddress(), "unknown@jp.bosch.com"));
+
+        assertEquals(List.of(employeeExpectedPm), employeeListActual);
+        assertTrue(employeeListActual.get(0).getRoles().contains(Role.PRODUCT_MANAGER));
+        assertTrue(employeeRepository.findByEmailAddressIn(List.of()).isEmpty());
+    }
+
     @Test
     public void findByIdTest() {
         Optional<Employee> employeeActual = employeeRepository.findById(employeeExpectedPm.getId());
@@ -155,4 +174,62 @@ public class EmployeeRepositoryTest {
         assertTrue(employeeRepository.existsByEmailAddress(employeeExpectedPm.getEmailAddress()));
         assertFalse(employeeRepository.existsByEmailAddress("unknown@jp.bosch.com"));
     }
+
+    @Test
+    public void findEmployeeGridDtosTest() {
+        List<EmployeeGridDTO> employeeDtosActual = employeeRepository.findEmployeeGridDtos(null, 1, 1, false, "name");
+
+        assertEquals(1, employeeDtosActual.size());
+        assertEquals(employeeExpectedPs.getEmailAddress(), employeeDtosActual.get(0).getEmailAddress());
+        assertEquals(Set.of(Role.PRODUCT_SPECIALIST), employeeDtosActual.get(0).getRoles());
+    }
+
+    @Test
+    public void findEmployeeGridDtosTest_filterDescending() {
+        List<EmployeeGridDTO> employeeDtosActual =
+                employeeRepository.findEmployeeGridDtos("r", 10, 0, true, "emailAddress");
+        List<EmployeeGridDTO> employeeDtosActualEmpty =
+                employeeRepository.findEmployeeGridDtos("zz", 10, 0, true, "emailAddress");
+
+        assertEquals(2, employeeDtosActual.size());
+        assertEquals(employeeExpectedPs.getName(), employeeDtosActual.get(0).getName());
+        assertEquals(Set.of(Role.PRODUCT_MANAGER), employeeDtosActual.get(1).getRoles());
+        assertTrue(employeeDtosActualEmpty.isEmpty());
+    }
+
+    @Test
+    public void countByNameStartsWithIgnoreCaseTest() {
+        assertEquals(2, employeeRepository.countByNameStartsWithIgnoreCase(null));
+        assertEquals(1, employeeRepository.countByNameStartsWithIgnoreCase("berta"));
+        assertEquals(0, employeeRepository.countByNameStartsWithIgnoreCase("zz"));
+    }
+
+    @Test
+    public void findByNameStartsWithIgnoreCaseAndRoleTest() {
+        List<Employee> employeeListActual =
+                employeeRepository.findByNameStartsWithIgnoreCaseAndRole("r", null, 1, 1);
+        List<Employee> employeeListActualRole =
+                employeeRepository.findByNameStartsWithIgnoreCaseAndRole(null, Role.PRODUCT_MANAGER, 10, 0);
+
+        assertEquals(List.of(employeeExpectedPs), employeeListActual);
+        assertEquals(List.of(employeeExpectedPm), employeeListActualRole);
+    }
+
+    @Test
+    public void countByNameStartsWithIgnoreCaseAndRoleTest() {
+        assertEquals(1, employeeRepository.countByNameStartsWithIgnoreCaseAndRole("r", Role.PRODUCT_SPECIALIST));
+        assertEquals(0, employeeRepository.countByNameStartsWithIgnoreCaseAndRole("berta", Role.PRODUCT_SPECIALIST));
+    }
+
+    @Test
+    public void employeeGridPageStatementCountTest() {
+        testEntityManager.clear();
+        SqlStatementCounter.start();
+
+        employeeRepository.findEmployeeGridDtos(null, 50, 0, false, "name");
+        employeeRepository.countByNameStartsWithIgnoreCase(null);
+
+        // Rows of the page, roles of all employees of the page and the count
+        SqlStatementCounter.assertStatementCount(3);
+    }
 }
@@ -21,6 +21,9 @@ import com.felixseifert.coma.backend.model.PartNumberObject_;
 import com.felixseifert.coma.backend.model.enums.Progress;
 import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO;
+import com.felixseifert.coma.backend.model.dto.PnGridFacetsDTO.Facet;
+import com.felixseifert.coma.backend.model.dto.PnGridFilter;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,8 +33,11 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -78,6 +84,7 @@ public class PartNumberObjectRepositoryTest {
         testEntityManager.persist(partNumberObjectExpected2);
         testEntityManager.persist(partNumberObjectExpected3);
         testEntityManager.flush();
+        partNumberObjectRepository.rebuildPnGridView();
 
         String employeeName = "Heinrich Hanzen";
 
@@ -142,6 +149,19 @@ public class PartNumberObjectRepositoryTest {
         assertEquals(partNumberObjectExpected3Dto, partNumberObjectListActual.get(1));
     }
 
+    @Test
+    public void findByPnStartsWithIgnoreCaseTest_fields() {
+        List<PartNumberObjectGridDTO> partNumberObjectListActual = partNumberObjectRepository
+                .findByPnStartsWithIgnoreCase(pnBeginning, 10, 0, true, "pn", Set.of("pn", "status"));
+
+        assertEquals(List.of(partNumberObjectExpected3Dto, partNumberObjectExpected1Dto), partNumberObjectListActual);
+        assertEquals(partNumberObjectExpected3.getPn(), partNumberObjectListActual.get(0).getPn());
+        assertEquals(partNumberObjectExpected3.getTaskRelease().getStatus(),
+                partNumberObjectListActual.get(0).getStatus());
+        assertNull(partNumberObjectListActual.get(0).getDueDate());
+        assertNull(partNumberObjectListActual.get(0).getCurrentEmployeeName());
+    }
+
     @Test(expected = Exception.class)
     public void findByPnStartsWithIgnoreCaseTest_wrongOffset() {
         partNumberObjectRepository.findByPnStartsWithIgnoreCase("", 2, -1, true, PartNumberObject_.PN);
@@ -153,6 +173,68 @@ public class PartNumberObjectRepositoryTest {
         partNumberObjectRepository.findByPnStartsWithIgnoreCase("", 0, 0, true, PartNumberObject_.PN);
     }
 
+    @Test
+    public void scrollByPnStartsWithIgnoreCaseTest_sort() {
+        List<PartNumberObjectGridDTO> partNumberObjectListActual = new ArrayList<>();
+        partNumberObjectRepository.scrollByPnStartsWithIgnoreCase(pnBeginning, true, PartNumberObject_.PN,
+                partNumberObjectListActual::add);
+
+        assertEquals(List.of(partNumberObjectExpected3Dto, partNumberObjectExpected1Dto),
+                partNumberObjectListActual);
+    }
+
+    @Test
+    public void findPnGridDtoByIdTest() {
+        Optional<PartNumberObjectGridDTO> pnDtoActual =
+                partNumberObjectRepository.findPnGridDtoById(partNumberObjectExpected1.getId());
+
+        assertTrue(pnDtoActual.isPresent());
+        assertEquals(partNumberObjectExpected1.getPn(), pnDtoActual.get().getPn());
+        assertEquals(Progress.IN_PROGRESS, pnDtoActual.get().getStatus());
+        assertFalse(partNumberObjectRepository.findPnGridDtoById(999).isPresent());
+    }
+
+    @Test
+    public void refreshPnGridViewTest() {
+        partNumberObjectExpected1.setPn("5555555555");
+        partNumberObjectExpected1.getTaskRelease().setStatus(Progress.RELEASED);
+        partNumberObjectRepository.refreshPnGridView(List.of(partNumberObjectExpected1.getId()));
+
+        PartNumberObjectGridDTO pnDtoActual =
+                partNumberObjectRepository.findPnGridDtoById(partNumberObjectExpected1.getId()).orElseThrow();
+        assertEquals("5555555555", pnDtoActual.getPn());
+        assertEquals(Progress.RELEASED, pnDtoActual.getStatus());
+        assertEquals(1, partNumberObjectRepository.countByPnStartsWithIgnoreCase(pnBeginning));
+    }
+
+    @Test
+    public void refreshPnGridViewTest_deleted() {
+        partNumberObjectRepository.delete(partNumberObjectExpected2);
+        partNumberObjectRepository.refreshPnGridView(List.of(partNumberObjectExpected2.getId()));
+
+        assertFalse(partNumberObjectRepository.findPnGridDtoById(partNumberObjectExpected2.getId()).isPresent());
+        assertEquals(2, partNumberObjectRepository.countPnGridView());
+    }
+
+    @Test
+    public void rebuildPnGridViewTest() {
+        assertEquals(3, partNumberObjectRepository.rebuildPnGridView());
+        assertEquals(3, partNumberObjectRepository.countPnGridView());
+    }
+
+    @Test
+    public void countPartNumberObjectsWithTaskReleaseTest_withoutTaskRelease() {
+        PartNumberObject partNumberObjectWithoutRelease = new PartNumberObject();
+        partNumberObjectWithoutRelease.setPn("1111111111");
+        partNumberObjectWithoutRelease.setTaskRelease(null);
+        testEntityManager.persistAndFlush(partNumberObjectWithoutRelease);
+
+        assertEquals(3, partNumberObjectRepository.rebuildPnGridView());
+        assertEquals(partNumberObjectRepository.countPnGridView(),
+                partNumberObjectRepository.countPartNumberObjectsWithTaskRelease());
+        assertEquals(4, partNumberObjectRepository.count());
+    }
+
     @Test
     public void findByIdTest() {
         Optional<PartNumberObject> partNumberActual =
@@ -206,6 +288,21 @@ public class PartNumberObjectRepositoryTest {
         assertFalse(partNumberObjectRepository.existsByCompletePn("9898989898zzz"));
     }
 
+    @Test
+    public void findCompletePnsInUseTest() {
+        assertEquals(Set.of(partNumberObjectExpected1.getPn() + partNumberObjectExpected1.getIdx()),
+                partNumberObjectRepository.findCompletePnsInUse(
+                        List.of(partNumberObjectExpected1.getPn(), partNumberObjectExpected2.getPn())));
+        assertTrue(partNumberObjectRepository.findCompletePnsInUse(List.of("9898989898")).isEmpty());
+    }
+
+    @Test
+    public void findAllCompletePnsInUseTest() {
+        assertEquals(Map.of(partNumberObjectExpected1.getId(),
+                partNumberObjectExpected1.getPn() + partNumberObjectExpected1.getIdx()),
+                partNumberObjectRepository.findAllCompletePnsInUse());
+    }
+
     @Test
     public void countTest() {
         assertEquals(3, partNumberObjectRepository.count());
@@ -215,4 +312,40 @@ public class PartNumberObjectRepositoryTest {
     public void countByPartNumberStartsWithIgnoreCaseTest() {
         assertEquals(2, partNumberObjectRepository.countByPnStartsWithIgnoreCase(pnBeginning));
     }
+
+    @Test
+    public void findPnGridDtosTest_status() {
+        PnGridFilter filter = new PnGridFilter();
+        filter.getStatuses().add(Progress.IN_PROGRESS);
+
+        List<PartNumberObjectGridDTO> partNumberObjectListActual = partNumberObjectRepository.findPnGridDtos(
+                filter, 10, 0, false, PartNumberObject_.PN, PartNumberObjectGridDTO.FIELDS);
+
+        assertEquals(List.of(partNumberObjectExpected1Dto), partNumberObjectListActual);
+        assertEquals(1, partNumberObjectRepository.countPnGridDtos(filter));
+    }
+
+    @Test
+    public void findPnGridFacetsTest() {
+        PnGridFacetsDTO facets = partNumberObjectRepository.findPnGridFacets(new PnGridFilter());
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(1, facets.getValues(Facet.STATUS).size());
+        assertEquals(Progress.IN_PROGRESS, facets.getValues(Facet.STATUS).get(0).getValue());
+        assertEquals(Progress.IN_PROGRESS.getName(), facets.getValues(Facet.STATUS).get(0).getLabel());
+        assertEquals(1, facets.getValues(Facet.STATUS).get(0).getCount());
+    }
+
+    @Test
+    public void findPnGridFacetsTest_selection() {
+        PnGridFilter filter = PnGridFilter.ofPn(pnBeginning);
+        assertEquals(2, partNumberObjectRepository.findPnGridFacets(filter).getTotal());
+
+        filter.getStatuses().add(Progress.IN_PROGRESS);
+        PnGridFacetsDTO facets = partNumberObjectRepository.findPnGridFacets(filter);
+
+        // The selection of a facet does not narrow down the values of the same facet
+        assertEquals(1, facets.getTotal());
+        assertEquals(1, facets.getValues(Facet.STATUS).get(0).getCount());
+    }
 }
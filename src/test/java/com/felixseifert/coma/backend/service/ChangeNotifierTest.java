@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.exceptions.EntityIDNotFoundException;
+import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.service.ChangeNotifier.Change;
+import com.felixseifert.coma.backend.service.ChangeNotifier.ChangeType;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class ChangeNotifierTest {
+
+    private final ChangeNotifier changeNotifier = new ChangeNotifier();
+
+    private final BlockingQueue<Change> changes = new LinkedBlockingQueue<>();
+
+    private final Consumer<Change> listener = changes::add;
+
+    @After
+    public void tearDown() {
+        changeNotifier.shutdown();
+    }
+
+    @Test
+    public void publishTest_withoutTransaction() throws InterruptedException {
+        changeNotifier.register(Employee.class, listener);
+        changeNotifier.publish(Employee.class, 1, ChangeType.UPDATED);
+        changeNotifier.publish(PartNumberObject.class, 2, ChangeType.CREATED);
+
+        Change change = changes.poll(5, TimeUnit.SECONDS);
+        assertNotNull(change);
+        assertEquals(Employee.class, change.getEntityType());
+        assertEquals(1, change.getId());
+        assertEquals(ChangeType.UPDATED, change.getType());
+        assertNull(changes.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void publishTest_afterCommit() throws InterruptedException {
+        changeNotifier.register(Employee.class, listener);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeNotifier.publish(Employee.class, 1, ChangeType.DELETED);
+            assertNull(changes.poll(100, TimeUnit.MILLISECONDS));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Change change = changes.poll(5, TimeUnit.SECONDS);
+        assertNotNull(change);
+        assertEquals(ChangeType.DELETED, change.getType());
+    }
+
+    @Test
+    public void unregisterTest() throws InterruptedException {
+        changeNotifier.register(Employee.class, listener);
+        changeNotifier.unregister(Employee.class, listener);
+        changeNotifier.publish(Employee.class, 1, ChangeType.CREATED);
+
+        assertNull(changes.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void getItemTest_loadedOncePerChange() {
+        AtomicInteger loads = new AtomicInteger();
+        Change change = new Change(Employee.class, 1, ChangeType.UPDATED);
+
+        assertEquals("1", change.getItem(String.class, id -> loads.incrementAndGet() + "").orElse(null));
+        assertEquals("1", change.getItem(String.class, id -> loads.incrementAndGet() + "").orElse(null));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void getItemTest_notFound() {
+        Change change = new Change(Employee.class, 1, ChangeType.UPDATED);
+        assertFalse(change.getItem(String.class, id -> {
+            throw new EntityIDNotFoundException("not found");
+        }).isPresent());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CompletePnIndexTest {
+
+    @InjectMocks
+    private CompletePnIndex completePnIndex;
+
+    @Mock
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    private PartNumberObject partNumberObject;
+
+    @Before
+    public void setup() {
+        when(partNumberObjectRepository.findAllCompletePnsInUse())
+                .thenReturn(Map.of(1, "0123456789abc", 2, "9876543210xyz"));
+        completePnIndex.rebuild();
+
+        partNumberObject = new PartNumberObject();
+        partNumberObject.setId(3);
+        partNumberObject.setPn("1111111111");
+        partNumberObject.setIdx("new");
+        partNumberObject.getTaskRelease().setStatus(Progress.IN_PROGRESS);
+    }
+
+    @Test
+    public void rebuildTest() {
+        assertEquals(2, completePnIndex.size());
+        assertTrue(completePnIndex.contains("0123456789abc"));
+        assertFalse(completePnIndex.contains("0123456789abd"));
+        assertFalse(completePnIndex.contains(null));
+    }
+
+    @Test
+    public void updateTest() {
+        completePnIndex.update(partNumberObject);
+        assertTrue(completePnIndex.contains("1111111111new"));
+
+        partNumberObject.setIdx("old");
+        completePnIndex.update(partNumberObject);
+        assertFalse(completePnIndex.contains("1111111111new"));
+        assertTrue(completePnIndex.contains("1111111111old"));
+    }
+
+    @Test
+    public void updateTest_denied() {
+        completePnIndex.update(partNumberObject);
+        partNumberObject.getTaskRelease().setStatus(Progress.DENIED);
+        completePnIndex.update(partNumberObject);
+        assertFalse(completePnIndex.contains("1111111111new"));
+    }
+
+    @Test
+    public void updateTest_sameCompletePnTwice() {
+        partNumberObject.setPn("0123456789");
+        partNumberObject.setIdx("abc");
+        completePnIndex.update(partNumberObject);
+        completePnIndex.remove(1);
+        assertTrue(completePnIndex.contains("0123456789abc"));
+        completePnIndex.remove(partNumberObject.getId());
+        assertFalse(completePnIndex.contains("0123456789abc"));
+    }
+
+    @Test
+    public void updateTest_rolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            completePnIndex.update(partNumberObject);
+            completePnIndex.remove(1);
+            assertTrue(completePnIndex.contains("1111111111new"));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertFalse(completePnIndex.contains("1111111111new"));
+        assertTrue(completePnIndex.contains("0123456789abc"));
+    }
+
+    @Test
+    public void updateAllTest_rolledBack() {
+        PartNumberObject otherPartNumberObject = new PartNumberObject();
+        otherPartNumberObject.setId(4);
+        otherPartNumberObject.setPn("2222222222");
+        otherPartNumberObject.setIdx("new");
+        otherPartNumberObject.getTaskRelease().setStatus(Progress.IN_PROGRESS);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            completePnIndex.updateAll(List.of(partNumberObject, otherPartNumberObject));
+            assertTrue(completePnIndex.contains("1111111111new"));
+            assertTrue(completePnIndex.contains("2222222222new"));
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertFalse(completePnIndex.contains("1111111111new"));
+        assertFalse(completePnIndex.contains("2222222222new"));
+        assertEquals(2, completePnIndex.size());
+    }
+}
@@ -119,6 +119,12 @@ public class CooPlantServiceImplTest {
         cooPlantService.postCoo(cooExpected1);
     }
 
+    @Test(expected = EntityAlreadyExistsException.class)
+    public void postCooTest_abbrExists() {
+        when(cooRepository.existsByAbbreviation(cooExpected1.getAbbreviation())).thenReturn(true);
+        cooPlantService.postCoo(cooExpected1);
+    }
+
     @Test(expected = BlankValueNotAllowedException.class)
     public void postCooTest_abbrNull() {
         Coo cooEmptyAbbr = new Coo();
@@ -289,6 +295,12 @@ public class CooPlantServiceImplTest {
         cooPlantService.postPlant(plantExpected1);
     }
 
+    @Test(expected = EntityAlreadyExistsException.class)
+    public void postPlantTest_codeExists() {
+        when(plantRepository.existsByCode(plantExpected1.getCode())).thenReturn(true);
+        cooPlantService.postPlant(plantExpected1);
+    }
+
     @Test
     public void deletePlantTest() {
         when(plantRepository.existsByNameAndCoo(plantExpected1.getName(), plantExpected1.getCoo())).thenReturn(true);
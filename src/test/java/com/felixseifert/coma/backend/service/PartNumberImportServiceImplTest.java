@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.dto.PartNumberImportResultDTO;
+import com.felixseifert.coma.backend.model.enums.Role;
+import com.felixseifert.coma.backend.repos.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PartNumberImportServiceImplTest {
+
+    @InjectMocks
+    private PartNumberImportServiceImpl partNumberImportServiceImpl;
+
+    @Mock
+    private PartNumberObjectService partNumberObjectService;
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private CooRepository cooRepository;
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void importPartNumberObjectsTest_failedChunkIsRetriedRowByRow() throws IOException {
+        Employee requester = new Employee();
+        requester.setEmailAddress("requester@jp.bosch.com");
+        requester.setTeam("SMS");
+        requester.addRole(Role.REQUESTER);
+        when(employeeRepository.findByEmailAddressIn(any())).thenReturn(List.of(requester));
+        when(partNumberObjectService.postPartNumberObjects(
+                argThat(pns -> pns.stream().anyMatch(pn -> "2222222222".equals(pn.getPn())))))
+                .thenThrow(new IllegalArgumentException("Chunk does not fit into the database"));
+        when(partNumberObjectService.postPartNumberObject(argThat(pn -> "2222222222".equals(pn.getPn()))))
+                .thenThrow(new IllegalArgumentException("Row does not fit into the database"));
+
+        String csv = "pn,requester\n" +
+                "1111111111,requester@jp.bosch.com\n" +
+                "2222222222,requester@jp.bosch.com\n" +
+                "3333333333,requester@jp.bosch.com\n";
+
+        PartNumberImportResultDTO result =
+                partNumberImportServiceImpl.importPartNumberObjects(new StringReader(csv));
+
+        assertEquals(2, result.getImportedCount());
+        assertEquals(1, result.getRejects().size());
+        assertEquals(3, result.getRejects().get(0).getRowNumber());
+        assertEquals("Row does not fit into the database", result.getRejects().get(0).getReason());
+        // Whole chunk at once, then each row on its own
+        verify(partNumberObjectService, times(1)).postPartNumberObjects(any());
+        verify(partNumberObjectService, times(3)).postPartNumberObject(any());
+    }
+}
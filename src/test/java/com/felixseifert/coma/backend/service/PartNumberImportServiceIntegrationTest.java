@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.SqlStatementCounter;
+import com.felixseifert.coma.SqlStatementCounter.StatementType;
+import com.felixseifert.coma.backend.exceptions.ErrorMessages;
+import com.felixseifert.coma.backend.model.*;
+import com.felixseifert.coma.backend.model.dto.PartNumberImportResultDTO;
+import com.felixseifert.coma.backend.model.enums.Currency;
+import com.felixseifert.coma.backend.model.enums.Role;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+public class PartNumberImportServiceIntegrationTest {
+
+    @Autowired
+    private PartNumberImportService partNumberImportService;
+
+    @Autowired
+    private PartNumberObjectService partNumberObjectService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CooPlantService cooPlantService;
+
+    private static final String HEADER = "pn,idx,requester,customer_code,coo,plant_code,start_of_production," +
+            "product_manager,comments\n";
+
+    @Before
+    public void setup() {
+        Employee requester = new Employee();
+        requester.setName("Requesting Person");
+        requester.setEmailAddress("requester@jp.bosch.com");
+        requester.setTeam("SMS");
+        requester.addRole(Role.REQUESTER);
+        employeeService.postEmployee(requester);
+
+        Employee productManager = new Employee();
+        productManager.setName("Managing Person");
+        productManager.setEmailAddress("manager@jp.bosch.com");
+        productManager.addRole(Role.PRODUCT_MANAGER);
+        employeeService.postEmployee(productManager);
+
+        Customer customer = new Customer();
+        customer.setCode("12345678");
+        customer.setName("Important Customer");
+        customer.setDeliveryLocation("Kyoto, Japan");
+        customer.setCurrency(Currency.JPY.toString());
+        customerService.postCustomer(customer);
+
+        Coo coo = new Coo();
+        coo.setName("Interesting Country");
+        coo.setAbbreviation("IC");
+        cooPlantService.postCoo(coo);
+        Plant plant = new Plant();
+        plant.setName("Good Plant");
+        plant.setCode("P100");
+        plant.setCoo(coo);
+        cooPlantService.postPlant(plant);
+
+        PartNumberObject existing = new PartNumberObject();
+        existing.setPn("0123456789");
+        existing.setIdx("abc");
+        existing.setCreatedByTeamDepartment("SMS");
+        existing.setStartOfProduction(LocalDate.parse("2020-01-01"));
+        partNumberObjectService.postPartNumberObject(existing);
+    }
+
+    @Test
+    @Transactional
+    public void importPartNumberObjectsTest() throws IOException {
+        String csv = HEADER +
+                "1111111111,new,requester@jp.bosch.com,12345678,Interesting Country,P100,2020-02-01," +
+                "manager@jp.bosch.com,\"Imported, with comma\"\n" +
+                "2222222222,,requester@jp.bosch.com,,,P100,,,\n" +
+                "\n" +
+                "0123456789,abc,requester@jp.bosch.com,,,,,,\n" +
+                "3333333333,,unknown@jp.bosch.com,,,,,,\n" +
+                "4444444444,,requester@jp.bosch.com,1234,,,,,\n" +
+                "5555555555,,requester@jp.bosch.com,,,,01.02.2020,,\n" +
+                "1111111111,new,requester@jp.bosch.com,,,,,,\n" +
+                "6666666666,,requester@jp.bosch.com,,,,,requester@jp.bosch.com,\n";
+
+        PartNumberImportResultDTO result = partNumberImportService.importPartNumberObjects(new StringReader(csv));
+
+        assertEquals(8, result.getRowCount());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(List.of(5, 6, 7, 8, 9, 10), result.getRejects().stream()
+                .map(PartNumberImportResultDTO.Reject::getRowNumber).collect(Collectors.toList()));
+        assertEquals(List.of(ErrorMessages.IMPORT_COMPLETE_PN_ALREADY_EXISTS, ErrorMessages.EMAIL_ADDRESS_NOT_FOUND,
+                "The code does not consist of 8 to 10 digits.", ErrorMessages.IMPORT_DATE_INVALID,
+                ErrorMessages.IMPORT_COMPLETE_PN_DUPLICATED, ErrorMessages.IMPORT_EMPLOYEE_ROLE_MISSING),
+                result.getRejects().stream().map(PartNumberImportResultDTO.Reject::getReason)
+                        .collect(Collectors.toList()));
+        assertEquals(3, partNumberObjectService.countPartNumberObjects());
+        assertEquals(1, partNumberObjectService.countPartNumberObjectsByPnStartsWithIgnoreCase("1111111111"));
+    }
+
+    @Test
+    @Transactional
+    public void importPartNumberObjectsTest_statementBudget() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for(int i = 0; i < 250; i++) {
+            csv.append(String.format("%010d", 7_000_000_000L + i))
+                    .append(",imp,requester@jp.bosch.com,12345678,,P100,,,Imported in bulk\n");
+        }
+
+        PartNumberImportResultDTO result;
+        SqlStatementCounter.start();
+        try {
+            result = partNumberImportService.importPartNumberObjects(new StringReader(csv.toString()));
+
+            // 3 chunks: five lookups and the roles of the two employees, then one uniqueness query per chunk
+            SqlStatementCounter.assertMaxStatementCount(StatementType.SELECT, 5 + 2 + 3);
+            // Release, comment, PN and grid view rows are inserted with one batch each per chunk
+            SqlStatementCounter.assertStatementCount(StatementType.INSERT, 4 * 3);
+            SqlStatementCounter.assertStatementCount(StatementType.DELETE, 3);
+            SqlStatementCounter.assertStatementCount(StatementType.UPDATE, 0);
+            // OTHER is not limited: H2 draws the ids from a sequence, MySQL returns them as generated keys
+        } finally {
+            SqlStatementCounter.stop();
+        }
+
+        assertEquals(250, result.getImportedCount());
+        assertEquals(251, partNumberObjectService.countPartNumberObjects());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    @Transactional
+    public void importPartNumberObjectsTest_pnColumnMissing() throws IOException {
+        partNumberImportService.importPartNumberObjects(new StringReader("idx,requester\nabc,a@b.com\n"));
+    }
+}
@@ -16,9 +16,13 @@
 
 package com.felixseifert.coma.backend.service;
 
+import com.felixseifert.coma.SqlStatementCounter;
+import com.felixseifert.coma.SqlStatementCounter.StatementType;
+import com.felixseifert.coma.backend.exceptions.EntityAlreadyExistsException;
 import com.felixseifert.coma.backend.model.PartNumberObject;
 import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -27,11 +31,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @SpringBootTest
 @RunWith(SpringRunner.class)
@@ -40,6 +49,12 @@ public class PartNumberObjectServiceIntegrationTest {
     @Autowired
     private PartNumberObjectService partNumberObjectService;
 
+    @Autowired
+    private CompletePnIndex completePnIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private String pnBeginning;
     private PartNumberObject partNumberObjectExpected1;
     private PartNumberObject partNumberObjectExpected2;
@@ -84,6 +99,11 @@ public class PartNumberObjectServiceIntegrationTest {
                 employeeName, Role.REQUESTER, null, null, null);
     }
 
+    @After
+    public void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
     @Test
     @Transactional
     public void getPartNumberObjectByPnStartsWithIgnoreCaseTest_pageable_sort() {
@@ -92,6 +112,19 @@ public class PartNumberObjectServiceIntegrationTest {
         assertEquals(List.of(partNumberObjectExpected1Dto, partNumberObjectExpected3Dto), actual);
     }
 
+    @Test
+    @Transactional
+    public void exportPartNumberObjectsByPnStartsWithIgnoreCaseTest() throws IOException {
+        StringWriter writer = new StringWriter();
+        partNumberObjectService.exportPartNumberObjectsByPnStartsWithIgnoreCase(pnBeginning, false, "id", writer);
+        String[] lines = writer.toString().split("\r\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("ID,PN,"));
+        assertTrue(lines[1].startsWith(partNumberObjectExpected1.getId() + "," + partNumberObjectExpected1.getPn()));
+        assertTrue(lines[2].startsWith(partNumberObjectExpected3.getId() + "," + partNumberObjectExpected3.getPn()));
+    }
+
     @Test
     @Transactional
     public void getPartNumberObjectByIdTest() {
@@ -117,6 +150,22 @@ public class PartNumberObjectServiceIntegrationTest {
         assertEquals(4, partNumberObjectListActual.size());
     }
 
+    @Test(expected = EntityAlreadyExistsException.class)
+    @Transactional
+    public void postPartNumberObjectTest_completePnInUseOnOtherInstance() {
+        partNumberObjectExpected1.setIdx("abc");
+        partNumberObjectService.putPartNumberObject(partNumberObjectExpected1);
+        // Another instance would not know the complete PN
+        completePnIndex.remove(partNumberObjectExpected1.getId());
+
+        PartNumberObject partNumberObjectToSave = new PartNumberObject();
+        partNumberObjectToSave.setPn(partNumberObjectExpected1.getPn());
+        partNumberObjectToSave.setIdx("abc");
+        partNumberObjectToSave.setStartOfProduction(LocalDate.parse("2024-05-15"));
+        partNumberObjectToSave.setCreatedByTeamDepartment("SLC");
+        partNumberObjectService.postPartNumberObject(partNumberObjectToSave);
+    }
+
     @Test
     @Transactional
     public void putPartNumberObjectTest_removeComments() {
@@ -161,4 +210,48 @@ public class PartNumberObjectServiceIntegrationTest {
         assertEquals(partNumberObjectExpected1.getComments(), partNumberObjectActual.getLobs().getComments());
         assertEquals(3, partNumberObjectListActual.size());
     }
+
+    @Test
+    @Transactional
+    public void getPartNumberObjectByPnStartsWithIgnoreCaseTest_statementCount() {
+        entityManager.flush();
+        SqlStatementCounter.start();
+
+        partNumberObjectService.getPartNumberObjectsByPnStartsWithIgnoreCase(pnBeginning, 2, 0, false, "pn");
+
+        SqlStatementCounter.assertStatementCount(StatementType.SELECT, 1);
+        SqlStatementCounter.assertStatementCount(1);
+    }
+
+    @Test
+    @Transactional
+    public void getPartNumberObjectByIdTest_statementCount() {
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.start();
+
+        partNumberObjectService.getPartNumberObjectById(partNumberObjectExpected1.getId());
+
+        // PN and its comments, all other associations are loaded lazily
+        SqlStatementCounter.assertMaxStatementCount(2);
+    }
+
+    @Test
+    @Transactional
+    public void postPartNumberObjectTest_statementCount() {
+        PartNumberObject partNumberObjectToSave = new PartNumberObject();
+        partNumberObjectToSave.setPn("abcdefghij");
+        partNumberObjectToSave.setStartOfProduction(LocalDate.parse("2024-05-15"));
+        partNumberObjectToSave.setCreatedByTeamDepartment("SLC");
+        partNumberObjectToSave.setComments("Loooong Text...");
+        entityManager.flush();
+        SqlStatementCounter.start();
+
+        partNumberObjectService.postPartNumberObject(partNumberObjectToSave);
+        entityManager.flush();
+
+        // PN, task, comments and the row of the PN grid read model
+        SqlStatementCounter.assertStatementCount(StatementType.INSERT, 4);
+        SqlStatementCounter.assertMaxStatementCount(12);
+    }
 }
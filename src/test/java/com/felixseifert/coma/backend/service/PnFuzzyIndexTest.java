@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.model.dto.PnSearchDocumentDTO;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PnFuzzyIndexTest {
+
+    @InjectMocks
+    private PnFuzzyIndex pnFuzzyIndex;
+
+    @Mock
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    private PartNumberObject partNumberObject;
+
+    @Before
+    public void setup() {
+        doAnswer(invocation -> {
+            Consumer<PnSearchDocumentDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new PnSearchDocumentDTO(1, "0123456789", "abc", null, null, null, null, null));
+            consumer.accept(new PnSearchDocumentDTO(2, "0123456789", null, null, null, null, null, null));
+            consumer.accept(new PnSearchDocumentDTO(3, "9876543210", null, null, null, null, null, null));
+            return null;
+        }).when(partNumberObjectRepository).scrollPnSearchDocuments(any());
+        pnFuzzyIndex.rebuild();
+
+        partNumberObject = new PartNumberObject();
+        partNumberObject.setId(4);
+        partNumberObject.setPn("1111111111");
+    }
+
+    @Test
+    public void rebuildTest() {
+        assertEquals(3, pnFuzzyIndex.size());
+    }
+
+    @Test
+    public void findSimilarTest() {
+        assertEquals(List.of("0123456789"), pnFuzzyIndex.findSimilar("1023456789", 1, 5));
+        assertEquals(List.of("0123456789"), pnFuzzyIndex.findSimilar("01234567", 2, 5));
+        assertTrue(pnFuzzyIndex.findSimilar("01234567", 1, 5).isEmpty());
+        assertEquals(List.of("0123456789"), pnFuzzyIndex.findSimilar("0123456789ABD", 2, 5));
+        assertEquals(List.of("9876543210"), pnFuzzyIndex.findSimilar(" 9876543201 ", 2, 5));
+        assertTrue(pnFuzzyIndex.findSimilar("5555555555", 2, 5).isEmpty());
+        assertTrue(pnFuzzyIndex.findSimilar(null, 2, 5).isEmpty());
+    }
+
+    // Complete PNs are suggested by their pn, which the PN grid can filter by
+    @Test
+    public void findSimilarTest_completePn() {
+        assertEquals(List.of("0123456789"), pnFuzzyIndex.findSimilar("1023456789abc", 2, 5));
+        assertEquals(List.of("0123456789"), pnFuzzyIndex.findSimilar("0123456789a", 2, 5));
+        assertTrue(pnFuzzyIndex.findSimilar("0123456789abc", 2, 5).stream().noneMatch(pn -> pn.endsWith("abc")));
+    }
+
+    @Test
+    public void findSimilarTest_ordered() {
+        partNumberObject.setPn("0123456778");
+        pnFuzzyIndex.update(partNumberObject);
+
+        assertEquals(List.of("0123456789", "0123456778"), pnFuzzyIndex.findSimilar("0123456789", 2, 5));
+        assertEquals(List.of("0123456789"), pnFuzzyIndex.findSimilar("0123456789", 2, 1));
+    }
+
+    @Test
+    public void updateTest() {
+        pnFuzzyIndex.update(partNumberObject);
+        assertEquals(List.of("1111111111"), pnFuzzyIndex.findSimilar("1111111112", 1, 5));
+
+        partNumberObject.setPn("2222222222");
+        pnFuzzyIndex.update(partNumberObject);
+        assertTrue(pnFuzzyIndex.findSimilar("1111111112", 2, 5).isEmpty());
+
+        pnFuzzyIndex.remove(partNumberObject.getId());
+        assertTrue(pnFuzzyIndex.findSimilar("2222222222", 2, 5).isEmpty());
+        assertEquals(3, pnFuzzyIndex.size());
+    }
+
+    @Test
+    public void removeTest_sharedPn() {
+        pnFuzzyIndex.remove(2);
+        assertEquals(List.of("0123456789"), pnFuzzyIndex.findSimilar("0123456788", 1, 5));
+        pnFuzzyIndex.remove(1);
+        assertTrue(pnFuzzyIndex.findSimilar("0123456788", 1, 5).isEmpty());
+    }
+}
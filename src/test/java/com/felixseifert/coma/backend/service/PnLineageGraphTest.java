@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.model.dto.PnLineageDTO;
+import com.felixseifert.coma.backend.model.dto.PnSearchDocumentDTO;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PnLineageGraphTest {
+
+    @InjectMocks
+    private PnLineageGraph pnLineageGraph;
+
+    @Mock
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    private PartNumberObject partNumberObject;
+
+    // 1 <- 2 (predecessor) <- 3 (complete source PN) <- 4 (predecessor), 5 without relations
+    @Before
+    public void setup() {
+        doAnswer(invocation -> {
+            Consumer<PnSearchDocumentDTO> consumer = invocation.getArgument(0);
+            consumer.accept(document(1, "1111111111", "abc", null, null));
+            consumer.accept(document(2, "2222222222", "abc", "1111111111", null));
+            consumer.accept(document(3, "3333333333", null, null, "2222222222ABC"));
+            consumer.accept(document(4, "4444444444", null, "3333333333", null));
+            consumer.accept(document(5, "5555555555", null, null, null));
+            return null;
+        }).when(partNumberObjectRepository).scrollPnSearchDocuments(any());
+        pnLineageGraph.rebuild();
+
+        partNumberObject = new PartNumberObject();
+        partNumberObject.setId(6);
+        partNumberObject.setPn("6666666666");
+        partNumberObject.setPredecessor("4444444444");
+    }
+
+    @Test
+    public void getLineageTest() {
+        PnLineageDTO lineage = pnLineageGraph.getLineage(3, 5);
+
+        assertEquals("3333333333", lineage.getRoot().getPn());
+        assertEquals(List.of(2, 1), ids(lineage.getAncestors()));
+        assertEquals(List.of(1, 2), lineage.getAncestors().stream().map(PnLineageDTO.Node::getDepth)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(4), ids(lineage.getDescendants()));
+        assertEquals(Set.of(new PnLineageDTO.Edge(2, 3), new PnLineageDTO.Edge(1, 2), new PnLineageDTO.Edge(3, 4)),
+                lineage.getEdges());
+    }
+
+    @Test
+    public void getLineageTest_depth() {
+        PnLineageDTO lineage = pnLineageGraph.getLineage(4, 1);
+        assertEquals(List.of(3), ids(lineage.getAncestors()));
+        assertTrue(lineage.getDescendants().isEmpty());
+
+        assertTrue(pnLineageGraph.getLineage(5, 3).getAncestors().isEmpty());
+        assertNull(pnLineageGraph.getLineage(99, 3));
+    }
+
+    @Test
+    public void updateTest() {
+        pnLineageGraph.update(partNumberObject);
+        assertEquals(List.of(4, 3, 2, 1), ids(pnLineageGraph.getLineage(6, 10).getAncestors()));
+        assertEquals(List.of(2, 3, 4, 6), ids(pnLineageGraph.getLineage(1, 10).getDescendants()));
+
+        partNumberObject.setPredecessor("5555555555");
+        pnLineageGraph.update(partNumberObject);
+        assertEquals(List.of(5), ids(pnLineageGraph.getLineage(6, 10).getAncestors()));
+        assertEquals(List.of(6), ids(pnLineageGraph.getLineage(5, 10).getDescendants()));
+
+        pnLineageGraph.remove(partNumberObject.getId());
+        assertTrue(pnLineageGraph.getLineage(5, 10).getDescendants().isEmpty());
+        assertEquals(5, pnLineageGraph.size());
+    }
+
+    @Test
+    public void updateTest_parentCreatedLater() {
+        PartNumberObject parent = new PartNumberObject();
+        parent.setId(7);
+        parent.setPn("0000000000");
+        partNumberObject.setPredecessor("0000000000");
+
+        pnLineageGraph.update(partNumberObject);
+        assertTrue(pnLineageGraph.getLineage(6, 1).getAncestors().isEmpty());
+        pnLineageGraph.update(parent);
+        assertEquals(List.of(6), ids(pnLineageGraph.getLineage(7, 1).getDescendants()));
+    }
+
+    private static PnSearchDocumentDTO document(Integer id, String pn, String idx, String predecessor,
+                                                String completeSourcePn) {
+        return new PnSearchDocumentDTO(id, pn, idx, null, null, predecessor, completeSourcePn, null);
+    }
+
+    private static List<Integer> ids(List<PnLineageDTO.Node> nodes) {
+        return nodes.stream().map(PnLineageDTO.Node::getId).collect(Collectors.toList());
+    }
+}
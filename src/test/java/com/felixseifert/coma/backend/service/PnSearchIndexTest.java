@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.PartNumberLob;
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.model.dto.PnSearchDocumentDTO;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PnSearchIndexTest {
+
+    @InjectMocks
+    private PnSearchIndex pnSearchIndex;
+
+    @Mock
+    private PartNumberObjectRepository partNumberObjectRepository;
+
+    private PartNumberObject partNumberObject;
+
+    @Before
+    public void setup() {
+        doAnswer(invocation -> {
+            Consumer<PnSearchDocumentDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new PnSearchDocumentDTO(1, "0123456789", "abc", "Housing", "X-4711", null,
+                    null, "Customer asked for a new housing"));
+            consumer.accept(new PnSearchDocumentDTO(2, "9876543210", null, "Cover", null, "0123456789",
+                    null, "Housing is reused"));
+            consumer.accept(new PnSearchDocumentDTO(3, "5555555555", null, "Sensor", null, null,
+                    "0123456789abc", null));
+            return null;
+        }).when(partNumberObjectRepository).scrollPnSearchDocuments(any());
+        pnSearchIndex.rebuild();
+
+        partNumberObject = new PartNumberObject();
+        partNumberObject.setId(4);
+        partNumberObject.setPn("1111111111");
+        partNumberObject.setProductDescription("Bracket");
+        PartNumberLob lobs = new PartNumberLob();
+        lobs.setComments("Second source for the housing");
+        partNumberObject.setLobs(lobs);
+    }
+
+    @Test
+    public void searchTest_ranking() {
+        assertEquals(3, pnSearchIndex.size());
+        assertEquals(List.of(1, 2), pnSearchIndex.search("housing", 10));
+        assertEquals(List.of(1, 3, 2), pnSearchIndex.search("0123456789", 10));
+        assertEquals(List.of(1), pnSearchIndex.search("0123456789", 1));
+    }
+
+    @Test
+    public void searchTest_allTermsAndPrefixes() {
+        assertEquals(List.of(1), pnSearchIndex.search("x-47 HOUS", 10));
+        assertEquals(List.of(2), pnSearchIndex.search("cover housing", 10));
+        assertTrue(pnSearchIndex.search("cover sensor", 10).isEmpty());
+        assertTrue(pnSearchIndex.search(" ", 10).isEmpty());
+        assertTrue(pnSearchIndex.search(null, 10).isEmpty());
+    }
+
+    @Test
+    public void updateTest() {
+        pnSearchIndex.update(partNumberObject);
+        assertEquals(List.of(4), pnSearchIndex.search("bracket", 10));
+        assertTrue(pnSearchIndex.search("housing", 10).contains(4));
+
+        partNumberObject.getLobs().setComments(null);
+        pnSearchIndex.update(partNumberObject);
+        assertFalse(pnSearchIndex.search("housing", 10).contains(4));
+
+        pnSearchIndex.remove(partNumberObject.getId());
+        assertTrue(pnSearchIndex.search("bracket", 10).isEmpty());
+        assertEquals(3, pnSearchIndex.size());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.repos.SchedulerLockRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+public class SchedulerLockServiceIntegrationTest {
+
+    private static final String LOCK_NAME = "test-job";
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @After
+    public void tearDown() {
+        schedulerLockRepository.deleteById(LOCK_NAME);
+    }
+
+    @Test
+    public void tryLockTest() {
+        assertTrue(schedulerLockService.tryLock(LOCK_NAME));
+        assertFalse(schedulerLockService.tryLock(LOCK_NAME));
+
+        schedulerLockService.unlock(LOCK_NAME);
+        assertTrue(schedulerLockService.tryLock(LOCK_NAME));
+    }
+
+    @Test
+    public void tryLockTest_heldByOtherInstance() {
+        assertTrue(schedulerLockService.tryLock(LOCK_NAME));
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(0, schedulerLockRepository.lock(LOCK_NAME, "other instance", now, now.plusMinutes(10)));
+        // Releasing only works for the instance holding the lock
+        assertEquals(0, schedulerLockRepository.unlock(LOCK_NAME, "other instance", now));
+        assertFalse(schedulerLockService.tryLock(LOCK_NAME));
+    }
+
+    @Test
+    public void tryLockTest_expired() {
+        assertTrue(schedulerLockService.tryLock(LOCK_NAME));
+        LocalDateTime later = LocalDateTime.now().plusDays(1);
+
+        assertEquals(1, schedulerLockRepository.lock(LOCK_NAME, "other instance", later, later.plusMinutes(10)));
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.*;
+import com.felixseifert.coma.backend.model.dto.TaskStepReleaseDTO;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.model.enums.Role;
+import com.felixseifert.coma.backend.repos.ArchivedTaskReleaseRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@Transactional
+public class TaskReleaseArchiveServiceIntegrationTest {
+
+    @Autowired
+    private TaskReleaseArchiveService taskReleaseArchiveService;
+
+    @Autowired
+    private PartNumberObjectService partNumberObjectService;
+
+    @Autowired
+    private ArchivedTaskReleaseRepository archivedTaskReleaseRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Employee employee;
+    private TaskRelease oldOrphanedTaskRelease;
+    private TaskRelease newOrphanedTaskRelease;
+    private PartNumberObject finishedPartNumberObject;
+
+    @Before
+    public void setup() {
+        employee = new Employee();
+        employee.setName("Archie Archiver");
+        employee.setEmailAddress("archie.archiver@coma.com");
+        employee.setTeam("CRA");
+        entityManager.persist(employee);
+
+        oldOrphanedTaskRelease = createFinishedTaskRelease(LocalDateTime.now().minusYears(2));
+        oldOrphanedTaskRelease.setCurrentResponsibleEmployee(employee);
+        oldOrphanedTaskRelease.setCurrentEmployeesRole(Role.SLC);
+        oldOrphanedTaskRelease.getRemainingSteps().addAll(List.of(Role.SJP, Role.PRODUCT_MANAGER));
+        entityManager.persist(oldOrphanedTaskRelease);
+        newOrphanedTaskRelease = createFinishedTaskRelease(LocalDateTime.now().minusDays(1));
+        entityManager.persist(newOrphanedTaskRelease);
+
+        finishedPartNumberObject = new PartNumberObject();
+        finishedPartNumberObject.setPn("0815000042");
+        finishedPartNumberObject.setStartOfProduction(LocalDate.parse("2020-01-01"));
+        finishedPartNumberObject.setCreatedByTeamDepartment("CRA");
+        partNumberObjectService.postPartNumberObject(finishedPartNumberObject);
+        TaskRelease taskRelease = finishedPartNumberObject.getTaskRelease();
+        taskRelease.setFinishedAt(LocalDateTime.now().minusYears(2));
+        taskRelease.setStatus(Progress.RELEASED);
+        taskRelease.addTaskStep(createTaskStep());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void archiveFinishedTaskReleasesTest() {
+        int archived = taskReleaseArchiveService.archiveFinishedTaskReleases(LocalDateTime.now().minusYears(1));
+        entityManager.clear();
+
+        assertEquals(2, archived);
+
+        assertNull(entityManager.find(TaskRelease.class, oldOrphanedTaskRelease.getId()));
+        assertTrue(archivedTaskReleaseRepository.findById(oldOrphanedTaskRelease.getId()).isPresent());
+        assertEquals(Progress.RELEASED,
+                archivedTaskReleaseRepository.findById(oldOrphanedTaskRelease.getId()).get().getStatus());
+
+        assertNotNull(entityManager.find(TaskRelease.class, newOrphanedTaskRelease.getId()));
+        assertEquals(1, entityManager.find(TaskRelease.class, newOrphanedTaskRelease.getId())
+                .getCompletedTaskSteps().size());
+
+        TaskRelease attachedTaskRelease = entityManager.find(PartNumberObject.class, finishedPartNumberObject.getId())
+                .getTaskRelease();
+        assertNotNull(attachedTaskRelease);
+        assertTrue(attachedTaskRelease.getCompletedTaskSteps().isEmpty());
+        assertFalse(archivedTaskReleaseRepository.findById(attachedTaskRelease.getId()).isPresent());
+    }
+
+    @Test
+    public void archiveFinishedTaskReleasesTest_allColumnsCopied() {
+        taskReleaseArchiveService.archiveFinishedTaskReleases(LocalDateTime.now().minusYears(1));
+        entityManager.clear();
+
+        ArchivedTaskRelease archivedTaskRelease =
+                archivedTaskReleaseRepository.findById(oldOrphanedTaskRelease.getId()).orElseThrow();
+        assertEquals(oldOrphanedTaskRelease.getFinishedAt().truncatedTo(ChronoUnit.MILLIS),
+                archivedTaskRelease.getFinishedAt().truncatedTo(ChronoUnit.MILLIS));
+        assertEquals(employee.getId(), archivedTaskRelease.getResponsibleEmployeeId());
+        assertEquals(Role.SLC, archivedTaskRelease.getResponsibleEmployeeRole());
+        assertEquals(List.of(Role.SJP, Role.PRODUCT_MANAGER), archivedTaskRelease.getRemainingSteps());
+        assertNotNull(archivedTaskRelease.getArchivedAt());
+    }
+
+    @Test
+    public void archiveFinishedTaskReleasesTest_nothingLeft() {
+        taskReleaseArchiveService.archiveFinishedTaskReleases(LocalDateTime.now().minusYears(1));
+        entityManager.clear();
+
+        assertEquals(0, taskReleaseArchiveService.archiveFinishedTaskReleases(LocalDateTime.now().minusYears(1)));
+    }
+
+    @Test
+    public void getTaskStepsReleaseTest_includeArchived() {
+        Long taskReleaseId = oldOrphanedTaskRelease.getId();
+        taskReleaseArchiveService.archiveFinishedTaskReleases(LocalDateTime.now().minusYears(1));
+        entityManager.clear();
+
+        assertTrue(taskReleaseArchiveService.getTaskStepsRelease(taskReleaseId, false).isEmpty());
+
+        List<TaskStepReleaseDTO> taskSteps = taskReleaseArchiveService.getTaskStepsRelease(taskReleaseId, true);
+        assertEquals(2, taskSteps.size());
+        assertTrue(taskSteps.stream().allMatch(TaskStepReleaseDTO::isArchived));
+        assertEquals(employee.getId(), taskSteps.get(0).getAssignedEmployeeId());
+        assertEquals("CRA", taskSteps.get(0).getTeamOfEmployee());
+    }
+
+    @Test
+    public void getTaskStepsReleaseTest_includeArchivedOfExistingPn() {
+        Long taskReleaseId = finishedPartNumberObject.getTaskRelease().getId();
+        taskReleaseArchiveService.archiveFinishedTaskReleases(LocalDateTime.now().minusYears(1));
+        entityManager.clear();
+
+        assertTrue(taskReleaseArchiveService.getTaskStepsRelease(taskReleaseId, false).isEmpty());
+
+        List<TaskStepReleaseDTO> taskSteps = taskReleaseArchiveService.getTaskStepsRelease(taskReleaseId, true);
+        assertEquals(1, taskSteps.size());
+        assertTrue(taskSteps.get(0).isArchived());
+        assertEquals(taskReleaseId, taskSteps.get(0).getTaskReleaseId());
+        assertEquals(employee.getId(), taskSteps.get(0).getAssignedEmployeeId());
+        assertEquals(Integer.valueOf(0), taskSteps.get(0).getOrderId());
+    }
+
+    @Test
+    public void getTaskStepsReleaseTest_notArchived() {
+        List<TaskStepReleaseDTO> taskSteps =
+                taskReleaseArchiveService.getTaskStepsRelease(newOrphanedTaskRelease.getId(), true);
+        assertEquals(1, taskSteps.size());
+        assertFalse(taskSteps.get(0).isArchived());
+    }
+
+    private TaskRelease createFinishedTaskRelease(LocalDateTime finishedAt) {
+        TaskRelease taskRelease = new TaskRelease();
+        taskRelease.setFinishedAt(finishedAt);
+        taskRelease.setStatus(Progress.RELEASED);
+        taskRelease.addTaskStep(createTaskStep());
+        if(finishedAt.isBefore(LocalDateTime.now().minusYears(1))) {
+            taskRelease.addTaskStep(createTaskStep());
+        }
+        return taskRelease;
+    }
+
+    private TaskStepRelease createTaskStep() {
+        TaskStepRelease taskStepRelease = new TaskStepRelease();
+        taskStepRelease.setRoleOfEmployee("Requester");
+        taskStepRelease.setAssignedEmployee(employee);
+        taskStepRelease.setCompletedAt(LocalDateTime.now().minusYears(2));
+        return taskStepRelease;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.dto.RetentionReportDTO;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.repos.ArchivedTaskReleaseRepository;
+import com.felixseifert.coma.backend.repos.TaskReleaseRepository;
+import com.felixseifert.coma.backend.repos.TaskReleaseRepositoryCustomImpl;
+import com.felixseifert.coma.backend.repos.TaskReleaseSummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+
+import javax.persistence.Tuple;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskReleaseRetentionServiceImplTest {
+
+    @InjectMocks
+    private TaskReleaseRetentionServiceImpl taskReleaseRetentionService;
+
+    @Mock
+    private TaskReleaseRepository taskReleaseRepository;
+
+    @Mock
+    private ArchivedTaskReleaseRepository archivedTaskReleaseRepository;
+
+    @Mock
+    private TaskReleaseSummaryRepository taskReleaseSummaryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(taskReleaseRetentionService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(taskReleaseRetentionService, "batchSize", 200);
+        ReflectionTestUtils.setField(taskReleaseRetentionService, "maxBatchesPerRun", 10);
+
+        Tuple orphan = mock(Tuple.class);
+        when(orphan.get(TaskReleaseRepositoryCustomImpl.TASK_RELEASE_ID, Long.class)).thenReturn(1L);
+        when(orphan.get(TaskReleaseRepositoryCustomImpl.FINISHED_AT, LocalDateTime.class))
+                .thenReturn(LocalDateTime.now().minusYears(6));
+        when(orphan.get(TaskReleaseRepositoryCustomImpl.STATUS, Progress.class)).thenReturn(Progress.RELEASED);
+        when(taskReleaseRepository.findOrphanedFinishedBefore(any(), anyInt())).thenReturn(List.of(orphan));
+        when(taskReleaseRepository.deleteTaskSteps(List.of(1L))).thenReturn(2);
+        when(taskReleaseRepository.deleteTaskReleases(List.of(1L))).thenReturn(1);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    }
+
+    @Test
+    public void deleteOrphanedTaskReleasesTest_countedAfterCommit() {
+        RetentionReportDTO report =
+                taskReleaseRetentionService.deleteOrphanedTaskReleases(LocalDateTime.now().minusYears(5));
+
+        assertEquals(1, report.getTaskReleaseCount());
+        assertEquals(2, report.getTaskStepCount());
+        assertEquals(1, meterRegistry.counter(TaskReleaseRetentionServiceImpl.METRIC_NAME,
+                "table", "tasks_release").count(), 0);
+        assertSame(report, taskReleaseRetentionService.getLastReport());
+    }
+
+    @Test
+    public void deleteOrphanedTaskReleasesTest_notCountedIfCommitFails() {
+        doThrow(new TransactionSystemException("Commit failed")).when(transactionManager).commit(any());
+
+        try {
+            taskReleaseRetentionService.deleteOrphanedTaskReleases(LocalDateTime.now().minusYears(5));
+            fail("Failed commit is not propagated");
+        } catch(TransactionSystemException e) {
+            // Expected
+        }
+
+        assertEquals(0, meterRegistry.counter(TaskReleaseRetentionServiceImpl.METRIC_NAME,
+                "table", "tasks_release").count(), 0);
+        assertEquals(0, meterRegistry.counter(TaskReleaseRetentionServiceImpl.METRIC_NAME,
+                "table", "task_steps_release").count(), 0);
+        assertNull(taskReleaseRetentionService.getLastReport());
+    }
+}
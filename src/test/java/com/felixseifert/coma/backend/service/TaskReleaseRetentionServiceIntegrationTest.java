@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.*;
+import com.felixseifert.coma.backend.model.dto.RetentionReportDTO;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.model.enums.Role;
+import com.felixseifert.coma.backend.repos.TaskReleaseSummaryRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.Assert.*;
+
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@Transactional
+public class TaskReleaseRetentionServiceIntegrationTest {
+
+    private static final long ARCHIVED_TASK_RELEASE_ID = 900_000_001L;
+
+    @Autowired
+    private TaskReleaseRetentionService taskReleaseRetentionService;
+
+    @Autowired
+    private PartNumberObjectService partNumberObjectService;
+
+    @Autowired
+    private TaskReleaseSummaryRepository taskReleaseSummaryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Employee employee;
+    private LocalDateTime expiredFinishedAt;
+    private TaskRelease expiredTaskRelease;
+    private TaskRelease keptTaskRelease;
+    private PartNumberObject partNumberObject;
+
+    @Before
+    public void setup() {
+        employee = new Employee();
+        employee.setName("Rita Retention");
+        employee.setEmailAddress("rita.retention@coma.com");
+        employee.setTeam("CRA");
+        entityManager.persist(employee);
+
+        expiredFinishedAt = LocalDateTime.now().minusYears(6);
+
+        expiredTaskRelease = createOrphanedTaskRelease(expiredFinishedAt);
+        expiredTaskRelease.getRemainingSteps().add(Role.PRODUCT_MANAGER);
+        entityManager.persist(expiredTaskRelease);
+        keptTaskRelease = createOrphanedTaskRelease(LocalDateTime.now().minusYears(1));
+        entityManager.persist(keptTaskRelease);
+
+        ArchivedTaskRelease archivedTaskRelease = new ArchivedTaskRelease();
+        archivedTaskRelease.setId(ARCHIVED_TASK_RELEASE_ID);
+        archivedTaskRelease.setFinishedAt(expiredFinishedAt);
+        archivedTaskRelease.setStatus(Progress.DENIED);
+        archivedTaskRelease.getRemainingSteps().add(Role.SLC);
+        entityManager.persist(archivedTaskRelease);
+        ArchivedTaskStepRelease archivedTaskStep = new ArchivedTaskStepRelease();
+        archivedTaskStep.setId(ARCHIVED_TASK_RELEASE_ID);
+        archivedTaskStep.setTaskReleaseId(ARCHIVED_TASK_RELEASE_ID);
+        archivedTaskStep.setRoleOfEmployee("Requester");
+        archivedTaskStep.setOrderId(0);
+        entityManager.persist(archivedTaskStep);
+
+        partNumberObject = new PartNumberObject();
+        partNumberObject.setPn("4711000042");
+        partNumberObject.setStartOfProduction(LocalDate.parse("2020-01-01"));
+        partNumberObject.setCreatedByTeamDepartment("CRA");
+        partNumberObjectService.postPartNumberObject(partNumberObject);
+        partNumberObject.getTaskRelease().setFinishedAt(expiredFinishedAt);
+        partNumberObject.getTaskRelease().setStatus(Progress.RELEASED);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void deleteOrphanedTaskReleasesTest() {
+        RetentionReportDTO report =
+                taskReleaseRetentionService.deleteOrphanedTaskReleases(LocalDateTime.now().minusYears(5));
+        entityManager.clear();
+
+        assertTrue(report.isComplete());
+        assertEquals(1, report.getTaskReleaseCount());
+        assertEquals(1, report.getArchivedTaskReleaseCount());
+        assertEquals(2, report.getTaskStepCount());
+        assertEquals(2, report.getRoleCount());
+        assertEquals(6, report.getReclaimedRowCount());
+        assertSame(report, taskReleaseRetentionService.getLastReport());
+
+        assertNull(entityManager.find(TaskRelease.class, expiredTaskRelease.getId()));
+        assertNull(entityManager.find(ArchivedTaskRelease.class, ARCHIVED_TASK_RELEASE_ID));
+        assertNull(entityManager.find(ArchivedTaskStepRelease.class, ARCHIVED_TASK_RELEASE_ID));
+        assertNotNull(entityManager.find(TaskRelease.class, keptTaskRelease.getId()));
+        assertNotNull(entityManager.find(PartNumberObject.class, partNumberObject.getId()).getTaskRelease());
+    }
+
+    @Test
+    public void deleteOrphanedTaskReleasesTest_summarized() {
+        taskReleaseRetentionService.deleteOrphanedTaskReleases(LocalDateTime.now().minusYears(5));
+        String period = YearMonth.from(expiredFinishedAt).toString();
+
+        assertEquals(1, taskReleaseSummaryRepository.findByPeriodAndStatus(period, Progress.RELEASED)
+                .orElseThrow().getTaskReleaseCount());
+        assertEquals(1, taskReleaseSummaryRepository.findByPeriodAndStatus(period, Progress.DENIED)
+                .orElseThrow().getTaskReleaseCount());
+    }
+
+    @Test
+    public void deleteOrphanedTaskReleasesTest_nothingExpired() {
+        RetentionReportDTO report =
+                taskReleaseRetentionService.deleteOrphanedTaskReleases(LocalDateTime.now().minusYears(10));
+
+        assertTrue(report.isComplete());
+        assertEquals(0, report.getReclaimedRowCount());
+        assertEquals(2, report.getBatchCount());
+    }
+
+    private TaskRelease createOrphanedTaskRelease(LocalDateTime finishedAt) {
+        TaskRelease taskRelease = new TaskRelease();
+        taskRelease.setFinishedAt(finishedAt);
+        taskRelease.setStatus(Progress.RELEASED);
+        TaskStepRelease taskStepRelease = new TaskStepRelease();
+        taskStepRelease.setRoleOfEmployee("Requester");
+        taskStepRelease.setAssignedEmployee(employee);
+        taskStepRelease.setCompletedAt(finishedAt);
+        taskRelease.addTaskStep(taskStepRelease);
+        return taskRelease;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.backend.service;
+
+import com.felixseifert.coma.backend.model.Coo;
+import com.felixseifert.coma.backend.model.SelectableValue;
+import com.felixseifert.coma.backend.model.enums.ValueGroup;
+import com.felixseifert.coma.backend.repos.*;
+import com.felixseifert.coma.backend.service.UniquenessRegistry.UniqueKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UniquenessRegistryTest {
+
+    @InjectMocks
+    private UniquenessRegistry uniquenessRegistry;
+
+    @Mock
+    private CooRepository cooRepository;
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Mock
+    private SelectableValueRepository selectableValueRepository;
+
+    @Before
+    public void setup() {
+        Coo coo = new Coo();
+        coo.setName("Germany");
+        coo.setAbbreviation("DE");
+        lenient().when(cooRepository.findAll()).thenReturn(List.of(coo));
+
+        SelectableValue selectableValue = new SelectableValue();
+        selectableValue.setLabel("Berlin");
+        selectableValue.setValueGroup(ValueGroup.LOCATION);
+        lenient().when(selectableValueRepository.findAll()).thenReturn(List.of(selectableValue));
+    }
+
+    @Test
+    public void containsTest() {
+        assertTrue(uniquenessRegistry.contains(UniqueKey.COO_NAME, "Germany"));
+        assertFalse(uniquenessRegistry.contains(UniqueKey.COO_NAME, "France"));
+        assertTrue(uniquenessRegistry.contains(UniqueKey.COO_ABBREVIATION, "DE"));
+        assertFalse(uniquenessRegistry.contains(UniqueKey.COO_ABBREVIATION, null));
+    }
+
+    @Test
+    public void containsTest_loadedOnce() {
+        uniquenessRegistry.contains(UniqueKey.COO_NAME, "Germany");
+        uniquenessRegistry.contains(UniqueKey.COO_NAME, "France");
+        verify(cooRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void containsTest_labelAndValueGroup() {
+        assertTrue(uniquenessRegistry.contains(UniqueKey.SELECTABLE_VALUE_LABEL_AND_GROUP,
+                UniquenessRegistry.labelAndValueGroup("Berlin", ValueGroup.LOCATION)));
+        assertFalse(uniquenessRegistry.contains(UniqueKey.SELECTABLE_VALUE_LABEL_AND_GROUP,
+                UniquenessRegistry.labelAndValueGroup("Berlin", ValueGroup.DEPARTMENT)));
+    }
+
+    @Test
+    public void addAndRemoveTest() {
+        assertFalse(uniquenessRegistry.contains(UniqueKey.COO_NAME, "France"));
+        uniquenessRegistry.add(UniqueKey.COO_NAME, "France");
+        assertTrue(uniquenessRegistry.contains(UniqueKey.COO_NAME, "France"));
+
+        uniquenessRegistry.remove(UniqueKey.COO_NAME, "Germany");
+        assertFalse(uniquenessRegistry.contains(UniqueKey.COO_NAME, "Germany"));
+    }
+
+    @Test
+    public void invalidateTest() {
+        uniquenessRegistry.contains(UniqueKey.COO_NAME, "Germany");
+        uniquenessRegistry.invalidate(UniqueKey.COO_NAME);
+        uniquenessRegistry.contains(UniqueKey.COO_NAME, "Germany");
+        verify(cooRepository, times(2)).findAll();
+    }
+
+    @Test
+    public void containsTest_fallbackToDatabase() {
+        when(cooRepository.existsByName("France")).thenReturn(true);
+        assertTrue(uniquenessRegistry.contains(UniqueKey.COO_NAME, "France"));
+        assertTrue(uniquenessRegistry.contains(UniqueKey.COO_NAME, "France"));
+        verify(cooRepository, times(1)).existsByName("France");
+        verify(cooRepository, never()).existsByName("Germany");
+    }
+
+    @Test
+    public void containsTest_fallbackToDatabase_plantNameAndCoo() {
+        Coo coo = new Coo();
+        coo.setId(3);
+        when(plantRepository.existsByNameAndCooId("Munich", 3)).thenReturn(true);
+        assertTrue(uniquenessRegistry.contains(UniqueKey.PLANT_NAME_AND_COO,
+                UniquenessRegistry.plantNameAndCoo("Munich", coo)));
+        assertFalse(uniquenessRegistry.contains(UniqueKey.PLANT_NAME_AND_COO,
+                UniquenessRegistry.plantNameAndCoo("Munich", null)));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.benchmark;
+
+import com.felixseifert.coma.ComAApplication;
+import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.repos.EmployeeRepository;
+import com.felixseifert.coma.backend.repos.PartNumberObjectRepository;
+import com.felixseifert.coma.backend.repos.TaskReleaseRepository;
+import com.felixseifert.coma.backend.service.PartNumberObjectService;
+import com.felixseifert.coma.backend.service.PnIndexes;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context with the JPA layer on an embedded H2 database, filled by the {@link DatasetGenerator} with
+ * the given number of PNs. All other dimensions of the dataset can be set with {@code dataset.*} system properties.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    @Param({"10000"})
+    public int partNumberObjects;
+
+    private ConfigurableApplicationContext context;
+
+    PartNumberObjectRepository partNumberObjectRepository;
+
+    TaskReleaseRepository taskReleaseRepository;
+
+    PartNumberObjectService partNumberObjectService;
+
+    TransactionTemplate transactionTemplate;
+
+    private List<Integer> partNumberObjectIds;
+
+    private List<Integer> inProgressPartNumberObjectIds;
+
+    private List<String> completePns;
+
+    private final List<Employee> employees = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(ComAApplication.class)
+                .properties("server.port=0", "logging.level.root=warn")
+                .run();
+        partNumberObjectRepository = context.getBean(PartNumberObjectRepository.class);
+        taskReleaseRepository = context.getBean(TaskReleaseRepository.class);
+        partNumberObjectService = context.getBean(PartNumberObjectService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public Integer getPartNumberObjectId(int i) {
+        return partNumberObjectIds.get(Math.floorMod(i, partNumberObjectIds.size()));
+    }
+
+    public Integer getInProgressPartNumberObjectId(int i) {
+        return inProgressPartNumberObjectIds.get(Math.floorMod(i, inProgressPartNumberObjectIds.size()));
+    }
+
+    public String getCompletePn(int i) {
+        return completePns.get(Math.floorMod(i, completePns.size()));
+    }
+
+    public Employee getEmployee(int i) {
+        return employees.get(Math.floorMod(i, employees.size()));
+    }
+
+    private void seed() {
+        DatasetSpec spec = DatasetSpec.fromSystemProperties();
+        spec.setPartNumberObjects(partNumberObjects);
+        DatasetGenerator generator = new DatasetGenerator(context.getBean(DataSource.class),
+                context.getBean(PlatformTransactionManager.class), spec);
+        generator.generate();
+
+        partNumberObjectIds = generator.getPartNumberObjectIds();
+        inProgressPartNumberObjectIds = generator.getInProgressPartNumberObjectIds();
+        completePns = generator.getCompletePns();
+        EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+        generator.getEmployeeIds().forEach(id -> employeeRepository.findById((int) id).ifPresent(employees::add));
+
+        // The generator writes past JPA, so all PN indexes and the PN grid read model have to be built again
+        context.getBean(PnIndexes.class).rebuildAll();
+        partNumberObjectService.rebuildPnGridView();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.benchmark;
+
+import com.felixseifert.coma.backend.model.enums.DatabaseCodeLookup;
+import com.felixseifert.coma.backend.model.enums.Role;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the array lookup of {@link DatabaseCodeLookup} with the former stream based lookup of the converters.
+ * Run it with {@code -prof gc} to compare the allocations per operation, too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseCodeLookupBenchmark {
+
+    private final DatabaseCodeLookup<Role> lookup = new DatabaseCodeLookup<>(Role.class);
+
+    // Boxed like the values Hibernate hands to the converters
+    private Integer[] databaseCodes;
+
+    @Setup
+    public void setup() {
+        databaseCodes = Arrays.stream(Role.values()).map(Role::getDatabaseCode).toArray(Integer[]::new);
+    }
+
+    @Benchmark
+    public void stream(Blackhole blackhole) {
+        for(Integer databaseCode : databaseCodes) {
+            blackhole.consume(Arrays.stream(Role.values()).filter(r -> r.getDatabaseCode().equals(databaseCode))
+                    .findFirst().orElseThrow(IllegalArgumentException::new));
+        }
+    }
+
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        for(Integer databaseCode : databaseCodes) {
+            blackhole.consume(lookup.fromDatabaseCode(databaseCode));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DatabaseCodeLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.benchmark;
+
+import com.felixseifert.coma.ComAApplication;
+import com.felixseifert.coma.backend.model.enums.CustomerNotification;
+import com.felixseifert.coma.backend.model.enums.Progress;
+import com.felixseifert.coma.backend.model.enums.Role;
+import com.felixseifert.coma.backend.service.PartNumberObjectService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Creates a synthetic dataset of employees, business units, customers, COOs, plants and PNs with their release
+ * tasks, task steps and comments. The same {@link DatasetSpec} (including its seed) always creates the same data.
+ * Rows are inserted with batched JDBC statements in one transaction per batch of PNs, bypassing JPA. Generated ids
+ * continue after the highest existing id, so the generator can also fill a database which already contains data.
+ * For MySQL, add {@code rewriteBatchedStatements=true} to the JDBC URL to send the batches as multi-row inserts.
+ */
+@Slf4j
+public class DatasetGenerator {
+
+    private static final LocalDateTime BASE_DATE_TIME = LocalDateTime.of(2019, 1, 1, 8, 0);
+
+    private static final Role[] RELEASE_FLOW_ROLES =
+            {Role.PRODUCT_SPECIALIST, Role.PRODUCT_MANAGER, Role.SLC, Role.SJP};
+
+    private static final String[] WORDS = {"part", "number", "release", "customer", "plant", "delivery",
+            "request", "price", "production", "change", "approved", "missing", "check", "update", "please"};
+
+    private static final String[] TEAMS = {"SMS", "CRA", "RBR", "PJM", "AAS", "MKT"};
+
+    private static final String GENERATOR = "dataset-generator";
+
+    private static final String[] ID_TABLES = {"employees", "business_units", "coos", "plants", "part_numbers",
+            "part_number_lobs", "tasks_release", "task_steps_release"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DatasetSpec spec;
+
+    private final SplittableRandom random;
+
+    private long nextId;
+
+    private final Map<Role, List<Integer>> employeeIdsByRole = new EnumMap<>(Role.class);
+
+    private final Map<Integer, String> teamsByEmployeeId = new HashMap<>();
+
+    private final List<Integer> businessUnitIds = new ArrayList<>();
+
+    private final List<String> customerCodes = new ArrayList<>();
+
+    private final List<String[]> plants = new ArrayList<>();     // {cooName, cooAbbreviation, plantName, plantCode}
+
+    @Getter
+    private final List<Integer> partNumberObjectIds = new ArrayList<>();
+
+    @Getter
+    private final List<Integer> inProgressPartNumberObjectIds = new ArrayList<>();
+
+    @Getter
+    private final List<String> completePns = new ArrayList<>();
+
+    @Getter
+    private final List<Integer> employeeIds = new ArrayList<>();
+
+    public DatasetGenerator(DataSource dataSource, PlatformTransactionManager transactionManager, DatasetSpec spec) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.spec = spec;
+        this.random = new SplittableRandom(spec.getSeed());
+    }
+
+    public void generate() {
+        long start = System.currentTimeMillis();
+        nextId = Arrays.stream(ID_TABLES)
+                .mapToLong(table -> jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table,
+                        Long.class))
+                .max().orElse(0) + 1;
+
+        transactionTemplate.execute(status -> {
+            insertEmployees();
+            insertBusinessUnits();
+            insertCustomers();
+            insertCoosAndPlants();
+            return null;
+        });
+        for(int offset = 0; offset < spec.getPartNumberObjects(); offset += spec.getBatchSize()) {
+            int count = Math.min(spec.getBatchSize(), spec.getPartNumberObjects() - offset);
+            transactionTemplate.execute(status -> {
+                insertPartNumberObjects(count);
+                return null;
+            });
+        }
+        restartHibernateSequence();
+        log.info("Generated {} PNs in {} ms", spec.getPartNumberObjects(), System.currentTimeMillis() - start);
+    }
+
+    private void insertEmployees() {
+        List<Object[]> employees = new ArrayList<>();
+        List<Object[]> roles = new ArrayList<>();
+        for(int i = 0; i < spec.getEmployees(); i++) {
+            int id = (int) nextId++;
+            String emailAddress = "employee" + id + "@example.com";
+            String team = TEAMS[random.nextInt(TEAMS.length)];
+            employees.add(new Object[]{id, emailAddress, "Employee " + id, team, "Location " + (id % 7),
+                    GENERATOR, Date.valueOf(randomDateTime().toLocalDate())});
+            employeeIds.add(id);
+            teamsByEmployeeId.put(id, team);
+
+            // Every employee may request PNs, the other roles are spread over the employees
+            Set<Role> rolesOfEmployee = EnumSet.of(Role.REQUESTER);
+            rolesOfEmployee.add(RELEASE_FLOW_ROLES[i % RELEASE_FLOW_ROLES.length]);
+            if(random.nextInt(4) == 0) {
+                rolesOfEmployee.add(RELEASE_FLOW_ROLES[random.nextInt(RELEASE_FLOW_ROLES.length)]);
+            }
+            for(Role role : rolesOfEmployee) {
+                roles.add(new Object[]{id, role.getDatabaseCode()});
+                employeeIdsByRole.computeIfAbsent(role, r -> new ArrayList<>()).add(id);
+            }
+        }
+        batchUpdate("INSERT INTO employees (id, email_address, name, team, location, created_by, created_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", employees);
+        batchUpdate("INSERT INTO roles_of_employees (employee_id, roles) VALUES (?, ?)", roles);
+    }
+
+    private void insertBusinessUnits() {
+        List<Object[]> businessUnits = new ArrayList<>();
+        List<Object[]> productManagers = new ArrayList<>();
+        for(int i = 0; i < spec.getBusinessUnits(); i++) {
+            int id = (int) nextId++;
+            businessUnits.add(new Object[]{id, "Business Unit " + id, GENERATOR,
+                    Date.valueOf(randomDateTime().toLocalDate())});
+            businessUnitIds.add(id);
+            Set<Integer> productManagerIds = new HashSet<>();
+            for(int j = 0; j < spec.getProductManagersPerBusinessUnit(); j++) {
+                Integer productManagerId = randomEmployee(Role.PRODUCT_MANAGER);
+                if(productManagerId != null && productManagerIds.add(productManagerId)) {
+                    productManagers.add(new Object[]{id, productManagerId});
+                }
+            }
+        }
+        batchUpdate("INSERT INTO business_units (id, name, created_by, created_date) VALUES (?, ?, ?, ?)",
+                businessUnits);
+        batchUpdate("INSERT INTO business_unit_employee (business_unit_id, product_manager_id) VALUES (?, ?)",
+                productManagers);
+    }
+
+    private void insertCustomers() {
+        List<Object[]> customers = new ArrayList<>();
+        for(int i = 0; i < spec.getCustomers(); i++) {
+            // Customer codes are numeric with 8 to 11 digits, as the customer service validates them
+            String code = String.format("%0" + (8 + random.nextInt(4)) + "d", nextId++);
+            customers.add(new Object[]{code, "Customer " + code, "Location " + random.nextInt(100),
+                    random.nextBoolean() ? "EUR" : "CNY"});
+            customerCodes.add(code);
+        }
+        batchUpdate("INSERT INTO customers (code, name, delivery_location, currency) VALUES (?, ?, ?, ?)",
+                customers);
+    }
+
+    private void insertCoosAndPlants() {
+        List<Object[]> coos = new ArrayList<>();
+        List<Object[]> plantRows = new ArrayList<>();
+        for(int i = 0; i < spec.getCoos(); i++) {
+            int cooId = (int) nextId++;
+            String cooName = "Country " + cooId;
+            String cooAbbreviation = abbreviationOf(cooId);
+            coos.add(new Object[]{cooId, cooName, cooAbbreviation});
+            for(int j = 0; j < spec.getPlantsPerCoo(); j++) {
+                int plantId = (int) nextId++;
+                String plantName = "Plant " + plantId;
+                String plantCode = "P" + plantId;
+                plantRows.add(new Object[]{plantId, plantName, plantCode, cooId});
+                plants.add(new String[]{cooName, cooAbbreviation, plantName, plantCode});
+            }
+        }
+        batchUpdate("INSERT INTO coos (id, name, abbreviation) VALUES (?, ?, ?)", coos);
+        batchUpdate("INSERT INTO plants (id, name, code, coo_id) VALUES (?, ?, ?, ?)", plantRows);
+    }
+
+    private void insertPartNumberObjects(int count) {
+        List<Object[]> partNumbers = new ArrayList<>(count);
+        List<Object[]> lobs = new ArrayList<>();
+        List<Object[]> taskReleases = new ArrayList<>(count);
+        List<Object[]> remainingSteps = new ArrayList<>();
+        List<Object[]> taskSteps = new ArrayList<>();
+
+        for(int i = 0; i < count; i++) {
+            int id = (int) nextId++;
+            long taskReleaseId = nextId++;
+            LocalDateTime createdAt = randomDateTime();
+
+            Integer requesterId = randomEmployee(Role.REQUESTER);
+            Integer productSpecialistId = randomEmployee(Role.PRODUCT_SPECIALIST);
+            Integer productManagerId = randomEmployee(Role.PRODUCT_MANAGER);
+            Map<Role, Integer> employeeIdsOfFlow = new EnumMap<>(Role.class);
+            employeeIdsOfFlow.put(Role.REQUESTER, requesterId);
+            employeeIdsOfFlow.put(Role.PRODUCT_SPECIALIST, productSpecialistId);
+            employeeIdsOfFlow.put(Role.PRODUCT_MANAGER, productManagerId);
+            employeeIdsOfFlow.put(Role.SLC, randomEmployee(Role.SLC));
+            employeeIdsOfFlow.put(Role.SJP, randomEmployee(Role.SJP));
+
+            // Release flow: the requester followed by distinct roles
+            List<Role> flow = new ArrayList<>(List.of(Role.REQUESTER));
+            List<Role> candidates = new ArrayList<>(List.of(RELEASE_FLOW_ROLES));
+            int steps = random.nextInt(Math.min(spec.getMaxStepsPerTask(), candidates.size()) + 1);
+            for(int s = 0; s < steps; s++) {
+                flow.add(candidates.remove(random.nextInt(candidates.size())));
+            }
+
+            double statusDraw = random.nextDouble();
+            Progress status = statusDraw < spec.getFinishedPercentage() ? Progress.RELEASED :
+                    statusDraw < spec.getFinishedPercentage() + spec.getDeniedPercentage() ?
+                            Progress.DENIED : Progress.IN_PROGRESS;
+            int completed = status == Progress.RELEASED ? flow.size() : 1 + random.nextInt(flow.size());
+            if(status == Progress.IN_PROGRESS) completed--;
+
+            LocalDateTime stepTime = createdAt;
+            for(int s = 0; s < completed; s++) {
+                stepTime = stepTime.plusHours(1 + random.nextInt(72));
+                Role role = flow.get(s);
+                Integer employeeId = employeeIdsOfFlow.get(role);
+                taskSteps.add(new Object[]{nextId++, Timestamp.valueOf(stepTime), role.getName(),
+                        teamsByEmployeeId.get(employeeId), employeeId, taskReleaseId, s});
+            }
+
+            Role currentRole = null;
+            Integer currentEmployeeId = null;
+            Timestamp finishedAt = null;
+            CustomerNotification customerNotification = CustomerNotification.NOT_NOTIFIED;
+            if(status == Progress.IN_PROGRESS) {
+                currentRole = flow.get(completed);
+                currentEmployeeId = employeeIdsOfFlow.get(currentRole);
+                for(int s = completed + 1; s < flow.size(); s++) {
+                    remainingSteps.add(new Object[]{taskReleaseId, flow.get(s).getDatabaseCode(),
+                            s - completed - 1});
+                }
+            }
+            else {
+                finishedAt = Timestamp.valueOf(stepTime);
+                customerNotification = CustomerNotification.values()[random.nextInt(
+                        CustomerNotification.values().length)];
+            }
+            taskReleases.add(new Object[]{taskReleaseId, Timestamp.valueOf(createdAt), finishedAt,
+                    currentEmployeeId, currentRole != null ? currentRole.getDatabaseCode() : null,
+                    status.getDatabaseCode(), customerNotification.getDatabaseCode()});
+
+            Integer lobId = null;
+            if(random.nextDouble() < spec.getCommentPercentage()) {
+                lobId = (int) nextId++;
+                lobs.add(new Object[]{lobId, randomComment()});
+            }
+
+            String pn = String.format("%010d", random.nextLong(10_000_000_000L));
+            String idx = status == Progress.RELEASED ? randomIdx() : null;
+            if(idx != null) {
+                completePns.add(pn + idx);
+            }
+            String[] plant = plants.isEmpty() ? null : plants.get(random.nextInt(plants.size()));
+            LocalDate startOfProduction = createdAt.toLocalDate().plusDays(30 + random.nextInt(300));
+            partNumbers.add(new Object[]{id, pn, idx, requesterId, teamsByEmployeeId.get(requesterId),
+                    customerCodes.isEmpty() ? null : customerCodes.get(random.nextInt(customerCodes.size())),
+                    Date.valueOf(createdAt.toLocalDate().plusDays(7 + random.nextInt(60))),
+                    Date.valueOf(startOfProduction), Date.valueOf(startOfProduction.plusYears(2)),
+                    plant != null ? plant[0] : null, plant != null ? plant[1] : null,
+                    plant != null ? plant[2] : null, plant != null ? plant[3] : null,
+                    Math.round(random.nextDouble() * 100_000) / 100.0, random.nextBoolean(), random.nextBoolean(),
+                    businessUnitIds.isEmpty() ? null : businessUnitIds.get(random.nextInt(businessUnitIds.size())),
+                    productManagerId, productSpecialistId, taskReleaseId, lobId,
+                    GENERATOR, Date.valueOf(createdAt.toLocalDate()),
+                    GENERATOR, Timestamp.valueOf(stepTime.plusMinutes(random.nextInt(30 * 24 * 60)))});
+            partNumberObjectIds.add(id);
+            if(status == Progress.IN_PROGRESS) {
+                inProgressPartNumberObjectIds.add(id);
+            }
+        }
+
+        batchUpdate("INSERT INTO part_number_lobs (id, comments) VALUES (?, ?)", lobs);
+        batchUpdate("INSERT INTO tasks_release (id, started_at, finished_at, responsible_employee_id, " +
+                "responsible_employee_role, status, customer_notification) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                taskReleases);
+        batchUpdate("INSERT INTO roles_for_release_flow (task_release_id, role, order_id) VALUES (?, ?, ?)",
+                remainingSteps);
+        batchUpdate("INSERT INTO task_steps_release (id, completed_at, role_of_employee, team_of_employee, " +
+                "assigned_employee_id, task_release_id, order_id) VALUES (?, ?, ?, ?, ?, ?, ?)", taskSteps);
+        batchUpdate("INSERT INTO part_numbers (id, pn, idx, create_by_employee_id, created_by_team_department, " +
+                "customer_code, due_date, start_of_production, end_of_production, coo_name, coo_abbreviation, " +
+                "plant, plant_code, catalogue_price, transfer_price, ppc, business_unit_name, product_manager_id, " +
+                "product_specialist_id, task_release_id, lobs_id, created_by, created_date, last_modified_by, " +
+                "last_modified_date_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", partNumbers);
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        if(rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(sql, rows);
+    }
+
+    // H2 generates the ids of all entities from one sequence, which has to continue after the generated ids
+    private void restartHibernateSequence() {
+        try {
+            jdbcTemplate.execute("ALTER SEQUENCE hibernate_sequence RESTART WITH " + nextId);
+        } catch(DataAccessException e) {
+            log.debug("No hibernate_sequence to restart, ids are generated by the database");
+        }
+    }
+
+    private Integer randomEmployee(Role role) {
+        List<Integer> employeeIds = employeeIdsByRole.get(role);
+        if(employeeIds == null || employeeIds.isEmpty()) return null;
+        return employeeIds.get(random.nextInt(employeeIds.size()));
+    }
+
+    private LocalDateTime randomDateTime() {
+        return BASE_DATE_TIME.plusMinutes(random.nextInt(2 * 365 * 24 * 60));
+    }
+
+    private String randomIdx() {
+        char[] idx = new char[3];
+        for(int i = 0; i < idx.length; i++) {
+            idx[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(idx);
+    }
+
+    private String randomComment() {
+        int length = 1 + random.nextInt(Math.max(1, spec.getMaxCommentLength()));
+        StringBuilder comment = new StringBuilder(length + 16);
+        while(comment.length() < length) {
+            comment.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return comment.substring(0, length);
+    }
+
+    private static String abbreviationOf(long id) {
+        char[] abbreviation = new char[3];
+        long value = id;
+        for(int i = abbreviation.length - 1; i >= 0; i--) {
+            abbreviation[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new String(abbreviation);
+    }
+
+    /**
+     * Fills the database configured for the application, e.g. with
+     * {@code -Dspring.datasource.url=... -Ddataset.partNumberObjects=1000000}.
+     */
+    public static void main(String[] args) {
+        try(ConfigurableApplicationContext context = new SpringApplicationBuilder(ComAApplication.class)
+                .properties("server.port=0").run(args)) {
+            new DatasetGenerator(context.getBean(DataSource.class),
+                    context.getBean(PlatformTransactionManager.class), DatasetSpec.fromSystemProperties())
+                    .generate();
+            context.getBean(PartNumberObjectService.class).rebuildPnGridView();
+        }
+    }
+}
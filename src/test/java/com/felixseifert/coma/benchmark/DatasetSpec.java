@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.benchmark;
+
+import lombok.Data;
+
+/**
+ * Volumes and distribution of a dataset created by {@link DatasetGenerator}. Percentages are given as fractions
+ * between 0 and 1.
+ */
+@Data
+public class DatasetSpec {
+
+    private long seed = 42;
+
+    private int employees = 500;
+
+    private int businessUnits = 20;
+
+    private int productManagersPerBusinessUnit = 3;
+
+    private int customers = 2000;
+
+    private int coos = 30;
+
+    private int plantsPerCoo = 5;
+
+    private int partNumberObjects = 100_000;
+
+    // Roles in the release flow after the requester
+    private int maxStepsPerTask = 4;
+
+    private double finishedPercentage = 0.6;
+
+    private double deniedPercentage = 0.1;
+
+    private double commentPercentage = 0.3;
+
+    private int maxCommentLength = 2000;
+
+    private int batchSize = 1000;
+
+    /**
+     * Creates a spec from system properties with the prefix {@code dataset.}, e.g. {@code -Ddataset.seed=7}.
+     */
+    public static DatasetSpec fromSystemProperties() {
+        DatasetSpec spec = new DatasetSpec();
+        spec.setSeed(Long.getLong("dataset.seed", spec.getSeed()));
+        spec.setEmployees(Integer.getInteger("dataset.employees", spec.getEmployees()));
+        spec.setBusinessUnits(Integer.getInteger("dataset.businessUnits", spec.getBusinessUnits()));
+        spec.setProductManagersPerBusinessUnit(Integer.getInteger("dataset.productManagersPerBusinessUnit",
+                spec.getProductManagersPerBusinessUnit()));
+        spec.setCustomers(Integer.getInteger("dataset.customers", spec.getCustomers()));
+        spec.setCoos(Integer.getInteger("dataset.coos", spec.getCoos()));
+        spec.setPlantsPerCoo(Integer.getInteger("dataset.plantsPerCoo", spec.getPlantsPerCoo()));
+        spec.setPartNumberObjects(Integer.getInteger("dataset.partNumberObjects", spec.getPartNumberObjects()));
+        spec.setMaxStepsPerTask(Integer.getInteger("dataset.maxStepsPerTask", spec.getMaxStepsPerTask()));
+        spec.setFinishedPercentage(Double.parseDouble(System.getProperty("dataset.finishedPercentage",
+                Double.toString(spec.getFinishedPercentage()))));
+        spec.setDeniedPercentage(Double.parseDouble(System.getProperty("dataset.deniedPercentage",
+                Double.toString(spec.getDeniedPercentage()))));
+        spec.setCommentPercentage(Double.parseDouble(System.getProperty("dataset.commentPercentage",
+                Double.toString(spec.getCommentPercentage()))));
+        spec.setMaxCommentLength(Integer.getInteger("dataset.maxCommentLength", spec.getMaxCommentLength()));
+        spec.setBatchSize(Integer.getInteger("dataset.batchSize", spec.getBatchSize()));
+        return spec;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.benchmark;
+
+import com.felixseifert.coma.backend.model.PartNumberObject;
+import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
+import com.felixseifert.coma.backend.model.dto.TaskReleaseDTO;
+import com.felixseifert.coma.backend.service.PartNumberObjectService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of the PN repositories and services on a seeded {@link BenchmarkContext}. Run all benchmarks with
+ * {@code mvn -P benchmark test-compile exec:exec}, results are written to {@code target/jmh-result.json}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartNumberObjectBenchmark {
+
+    @State(Scope.Thread)
+    public static class Counter {
+
+        private int value;
+
+        int next() {
+            return value++;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Sort {
+
+        @Param({"id", "pn", "dueDate", "createdDate", "currentEmployeeName", "status"})
+        public String sortProperty;
+
+        @Param({"false", "true"})
+        public boolean descending;
+    }
+
+    @Benchmark
+    public List<PartNumberObjectGridDTO> findByPnStartsWithIgnoreCase(BenchmarkContext context, Sort sort) {
+        return context.partNumberObjectRepository
+                .findByPnStartsWithIgnoreCase("000", 50, 0, sort.descending, sort.sortProperty);
+    }
+
+    @Benchmark
+    public Optional<PartNumberObject> findById(BenchmarkContext context, Counter counter) {
+        return context.partNumberObjectRepository
+                .findById(context.getPartNumberObjectId(counter.next()));
+    }
+
+    @Benchmark
+    public boolean existsByCompletePn(BenchmarkContext context, Counter counter) {
+        return context.partNumberObjectRepository.existsByCompletePn(
+                context.getCompletePn(counter.next()));
+    }
+
+    @Benchmark
+    public List<TaskReleaseDTO> findAllUnfinishedByEmployeeEmailAddress(BenchmarkContext context,
+                                                                         Counter counter) {
+        return context.taskReleaseRepository.findAllUnfinishedByEmployeeEmailAddress(
+                context.getEmployee(counter.next()).getEmailAddress());
+    }
+
+    /**
+     * Finishes the current step of a PN in progress, so the task is transferred to the next employee. The transaction
+     * is rolled back to keep the seeded data unchanged.
+     */
+    @Benchmark
+    public PartNumberObject transferTaskToNextEmployee(BenchmarkContext context, Counter counter) {
+        PartNumberObjectService partNumberObjectService = context.partNumberObjectService;
+        Integer id = context.getInProgressPartNumberObjectId(counter.next());
+        return context.transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            PartNumberObject partNumberObject = partNumberObjectService.getPartNumberObjectById(id);
+            partNumberObject.getTaskRelease().setStepFinished(true);
+            return partNumberObjectService.putPartNumberObject(partNumberObject);
+        });
+    }
+
+    /**
+     * Loads a PN with everything the editor shows, as done when a row of the PN grid is opened.
+     */
+    @Benchmark
+    public PartNumberObject openEditor(BenchmarkContext context, Counter counter) {
+        Integer id = context.getPartNumberObjectId(counter.next());
+        return context.transactionTemplate.execute(status ->
+                context.partNumberObjectService.getPartNumberObjectById(id));
+    }
+
+    /**
+     * Creates a new PN with comments. The transaction is rolled back to keep the seeded data unchanged.
+     */
+    @Benchmark
+    public PartNumberObject postPartNumberObject(BenchmarkContext context, Counter counter) {
+        PartNumberObject partNumberObject = new PartNumberObject();
+        partNumberObject.setPn(String.format("B%09d", counter.next()));
+        partNumberObject.setStartOfProduction(LocalDate.parse("2024-05-15"));
+        partNumberObject.setCreatedByTeamDepartment("SLC");
+        partNumberObject.setComments("Loooong Text...");
+        return context.transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return context.partNumberObjectService.postPartNumberObject(partNumberObject);
+        });
+    }
+
+    @Benchmark
+    public long count(BenchmarkContext context) {
+        return context.partNumberObjectRepository.count();
+    }
+
+    @Benchmark
+    public int countByPnStartsWithIgnoreCase(BenchmarkContext context) {
+        return context.partNumberObjectRepository.countByPnStartsWithIgnoreCase("000");
+    }
+
+    @Benchmark
+    public Integer countPartNumberObjectsOfEmployee(BenchmarkContext context, Counter counter) {
+        return context.partNumberObjectRepository
+                .countPartNumberObjects(context.getEmployee(counter.next()));
+    }
+
+    @Benchmark
+    public Long countPartNumberObjectsCurrentlyResponsible(BenchmarkContext context, Counter counter) {
+        return context.taskReleaseRepository
+                .countPartNumberObjectsCurrentlyResponsible(context.getEmployee(counter.next()));
+    }
+}
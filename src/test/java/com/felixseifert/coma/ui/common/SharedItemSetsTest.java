@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.common;
+
+import com.felixseifert.coma.backend.model.BusinessUnit;
+import com.felixseifert.coma.backend.model.Employee;
+import com.felixseifert.coma.backend.model.SelectableValue;
+import com.felixseifert.coma.backend.model.dto.EntityLabelDTO;
+import com.felixseifert.coma.backend.model.enums.ValueGroup;
+import com.felixseifert.coma.backend.service.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SharedItemSetsTest {
+
+    private SelectableValueService selectableValueService;
+
+    private BusinessUnitService businessUnitService;
+
+    private SharedItemSets sharedItemSets;
+
+    @Before
+    public void setup() {
+        selectableValueService = mock(SelectableValueService.class);
+        businessUnitService = mock(BusinessUnitService.class);
+        sharedItemSets = new SharedItemSets(selectableValueService, mock(CooPlantService.class),
+                mock(ProductDescriptionService.class), businessUnitService,
+                mock(EmployeeService.class), mock(ChangeNotifier.class));
+
+        SelectableValue selectableValue = new SelectableValue();
+        selectableValue.setLabel("Berlin");
+        when(selectableValueService.getSelectableValuesByValueGroup(any())).thenReturn(List.of());
+        when(selectableValueService.getSelectableValuesByValueGroup(ValueGroup.LOCATION))
+                .thenReturn(List.of(selectableValue));
+    }
+
+    @Test
+    public void getSnapshotTest_shared() {
+        SharedItemSets.Snapshot snapshot = sharedItemSets.getSnapshot();
+
+        assertSame(snapshot, sharedItemSets.getSnapshot());
+        assertSame(snapshot.getSelectableValueLabels(ValueGroup.LOCATION),
+                sharedItemSets.getSnapshot().getSelectableValueLabels(ValueGroup.LOCATION));
+        assertEquals(List.of("Berlin"), snapshot.getSelectableValueLabels(ValueGroup.LOCATION));
+        verify(selectableValueService, times(1)).getSelectableValuesByValueGroup(ValueGroup.LOCATION);
+    }
+
+    @Test
+    public void getSnapshotTest_invalidated() {
+        SharedItemSets.Snapshot snapshot = sharedItemSets.getSnapshot();
+        sharedItemSets.invalidate();
+
+        SharedItemSets.Snapshot newSnapshot = sharedItemSets.getSnapshot();
+        assertNotSame(snapshot, newSnapshot);
+        assertTrue(newSnapshot.getVersion() > snapshot.getVersion());
+        verify(selectableValueService, times(2)).getSelectableValuesByValueGroup(ValueGroup.LOCATION);
+    }
+
+    @Test
+    public void getSnapshotTest_invalidatedDuringBuild() {
+        when(businessUnitService.getAllBusinessUnits()).then(invocation -> {
+            sharedItemSets.invalidate();
+            return List.of();
+        }).thenReturn(List.of());
+
+        SharedItemSets.Snapshot snapshot = sharedItemSets.getSnapshot();
+
+        SharedItemSets.Snapshot newSnapshot = sharedItemSets.getSnapshot();
+        assertNotSame(snapshot, newSnapshot);
+        assertTrue(newSnapshot.getVersion() > snapshot.getVersion());
+        assertSame(newSnapshot, sharedItemSets.getSnapshot());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getSnapshotTest_immutable() {
+        sharedItemSets.getSnapshot().getSelectableValueLabels(ValueGroup.LOCATION).add("Munich");
+    }
+
+    @Test
+    public void getSnapshotTest_businessUnitLabels() {
+        Employee productManager = new Employee();
+        productManager.setId(7);
+        productManager.setName("Erika Mustermann");
+        BusinessUnit businessUnit = new BusinessUnit();
+        businessUnit.setId(3);
+        businessUnit.setName("Mobile Networks");
+        businessUnit.getProductManagers().add(productManager);
+        when(businessUnitService.getAllBusinessUnits()).thenReturn(List.of(businessUnit));
+
+        SharedItemSets.Snapshot snapshot = sharedItemSets.getSnapshot();
+
+        EntityLabelDTO businessUnitLabel = snapshot.getBusinessUnits().get(0);
+        assertEquals(Integer.valueOf(3), businessUnitLabel.getId());
+        assertEquals("Mobile Networks", businessUnitLabel.getLabel());
+        EntityLabelDTO productManagerLabel = snapshot.getProductManagers(businessUnitLabel).get(0);
+        assertEquals(Integer.valueOf(7), productManagerLabel.getId());
+        assertEquals("Erika Mustermann", productManagerLabel.getLabel());
+        assertNull(snapshot.getProductManagers(null));
+    }
+}
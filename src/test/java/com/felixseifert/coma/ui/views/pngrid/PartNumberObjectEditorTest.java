@@ -23,6 +23,7 @@ import com.felixseifert.coma.backend.model.Employee;
 import com.felixseifert.coma.backend.model.PartNumberObject;
 import com.felixseifert.coma.backend.model.SelectableValue;
 import com.felixseifert.coma.backend.service.*;
+import com.felixseifert.coma.ui.common.SharedItemSets;
 import com.vaadin.flow.component.UI;
 import org.junit.Assert;
 import org.junit.Before;
@@ -63,6 +64,9 @@ public class PartNumberObjectEditorTest {
     @Mock
     private ProductDescriptionService productDescriptionService;
 
+    @Mock
+    private ChangeNotifier changeNotifier;
+
     private PartNumberObjectEditor partNumberObjectEditor;
 
     private PartNumberObject partNumberObjectPersisted;
@@ -79,9 +83,10 @@ public class PartNumberObjectEditorTest {
         when(ui.getLocale()).thenReturn(Locale.ENGLISH);
         UI.setCurrent(ui);
 
+        SharedItemSets sharedItemSets = new SharedItemSets(selectableValueService, cooPlantService,
+                productDescriptionService, businessUnitService, employeeService, changeNotifier);
         partNumberObjectEditor = new PartNumberObjectEditor(partNumberObjectService, employeeService,
-                selectableValueService, customerService, businessUnitService, cooPlantService,
-                productDescriptionService);
+                customerService, cooPlantService, businessUnitService, sharedItemSets);
 
         businessUnit = new BusinessUnit();
         businessUnit.setName("New Unit");
@@ -136,8 +141,10 @@ public class PartNumberObjectEditorTest {
         assertTrue(partNumberObjectEditor.getDeleteButton().isVisible());
         assertEquals(partNumberObjectPersisted.getPn() + partNumberObjectPersisted.getIdx(),
                 partNumberObjectEditor.getCompletePnField().getValue());
-        Assert.assertEquals(businessUnit, partNumberObjectEditor.getBusinessUnitComboBox().getValue());
-        Assert.assertEquals(employee, partNumberObjectEditor.getEmployeeFields().get(Role.PRODUCT_MANAGER).getValue());
+        Assert.assertEquals(SharedItemSets.businessUnitLabel(businessUnit),
+                partNumberObjectEditor.getBusinessUnitComboBox().getValue());
+        Assert.assertEquals(SharedItemSets.employeeLabel(employee),
+                partNumberObjectEditor.getEmployeeFields().get(Role.PRODUCT_MANAGER).getValue());
         assertEquals(String.format("%s (%s)", partNumberObjectPersisted.getCooAbbreviation(),
                 partNumberObjectPersisted.getCooName()), partNumberObjectEditor.getCooComboBox().getValue());
         // Assert disabled saveButton when no changes in editor
@@ -16,6 +16,7 @@
 
 package com.felixseifert.coma.ui.views.pngrid;
 
+import com.felixseifert.coma.SqlStatementCounter;
 import com.felixseifert.coma.backend.model.dto.PartNumberObjectGridDTO;
 import com.felixseifert.coma.backend.model.enums.Role;
 import com.felixseifert.coma.backend.model.enums.ValueGroup;
@@ -23,8 +24,11 @@ import com.felixseifert.coma.backend.model.Employee;
 import com.felixseifert.coma.backend.model.PartNumberObject;
 import com.felixseifert.coma.backend.model.SelectableValue;
 import com.felixseifert.coma.backend.service.*;
+import com.felixseifert.coma.ui.common.SharedItemSets;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.data.provider.Query;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -33,6 +37,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
 import java.time.LocalDate;
 import java.util.List;
@@ -58,14 +64,20 @@ public class PnGridIntegrationTest {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CooPlantService cooPlantService;
+
     @Autowired
     private BusinessUnitService businessUnitService;
 
     @Autowired
-    private CooPlantService cooPlantService;
+    private ChangeNotifier changeNotifier;
 
     @Autowired
-    private ProductDescriptionService productDescriptionService;
+    private SharedItemSets sharedItemSets;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     private PartNumberObjectEditor partNumberObjectEditor;
 
@@ -98,9 +110,8 @@ public class PnGridIntegrationTest {
         employeeService.postEmployee(employee);
 
         partNumberObjectEditor = new PartNumberObjectEditor(partNumberObjectService, employeeService,
-                selectableValueService, customerService, businessUnitService, cooPlantService,
-                productDescriptionService);
-        pnGrid = new PnGrid(partNumberObjectEditor, partNumberObjectService);
+                customerService, cooPlantService, businessUnitService, sharedItemSets);
+        pnGrid = new PnGrid(partNumberObjectEditor, partNumberObjectService, changeNotifier);
 
         partNumberObject1 = new PartNumberObject();
         partNumberObject1.setPn("0123456789");
@@ -145,6 +156,14 @@ public class PnGridIntegrationTest {
 
         employee.setName("New Name");
         employeeService.putEmployee(employee);
+
+        // Shared item sets are refreshed after commit, which does not happen within the test transaction
+        sharedItemSets.invalidate();
+    }
+
+    @After
+    public void tearDown() {
+        SqlStatementCounter.stop();
     }
 
     @Test
@@ -183,7 +202,8 @@ public class PnGridIntegrationTest {
         commonAssertions();
 
         partNumberObjectEditor.getIdxField().setValue("old");
-        partNumberObjectEditor.getEmployeeFields().get(Role.PRODUCT_SPECIALIST).setValue(employee);
+        partNumberObjectEditor.getEmployeeFields().get(Role.PRODUCT_SPECIALIST)
+                .setValue(SharedItemSets.employeeLabel(employee));
         partNumberObjectEditor.getSaveButton().click();
 
         assertEquals(3, pnGrid.getGrid().getDataProvider().size(new Query<>()));
@@ -191,7 +211,7 @@ public class PnGridIntegrationTest {
     }
 
     private void commonAssertions() {
-        assertEquals(List.of(employee),
+        assertEquals(List.of(SharedItemSets.employeeLabel(employee)),
                 partNumberObjectEditor.getEmployeeFields().get(Role.PRODUCT_SPECIALIST).getDataProvider()
                 .fetch(new Query<>()).collect(Collectors.toList()));
         assertEquals(List.of(selectableValue.getLabel()), partNumberObjectEditor.getProfileMultiselect()
@@ -255,4 +275,66 @@ public class PnGridIntegrationTest {
         assertTrue(pnGrid.getGrid().getDataProvider().fetch(new Query<>()).collect(Collectors.toList())
                 .containsAll(List.of(partNumberObject3Dto, partNumberObject2Dto, partNumberObject1Dto)));
     }
+
+    @Test
+    @Transactional
+    public void filterTest_didYouMean() {
+        pnGrid.getFilter().setValue("1023456789");
+        assertEquals(0, pnGrid.getGrid().getDataProvider().fetch(new Query<>()).count());
+        assertTrue(pnGrid.getSuggestions().isVisible());
+        Button suggestion = (Button) pnGrid.getSuggestions().getComponentAt(1);
+        assertEquals("0123456789", suggestion.getText());
+
+        suggestion.click();
+        assertEquals("0123456789", pnGrid.getFilter().getValue());
+        assertEquals(2, pnGrid.getGrid().getDataProvider().fetch(new Query<>()).count());
+        assertFalse(pnGrid.getSuggestions().isVisible());
+    }
+
+    @Test
+    @Transactional
+    public void filterTest_didYouMeanCompletePn() {
+        pnGrid.getFilter().setValue("1023456789ABC");
+        assertEquals(0, pnGrid.getGrid().getDataProvider().fetch(new Query<>()).count());
+        Button suggestion = (Button) pnGrid.getSuggestions().getComponentAt(1);
+        assertEquals("0123456789", suggestion.getText());
+
+        suggestion.click();
+        assertEquals(2, pnGrid.getGrid().getDataProvider().fetch(new Query<>()).count());
+        assertFalse(pnGrid.getSuggestions().isVisible());
+    }
+
+    @Test
+    @Transactional
+    public void gridShowsRenamedEmployeeTest() {
+        assertTrue(pnGrid.getGrid().getDataProvider().fetch(new Query<>())
+                .allMatch(pnDto -> "New Name".equals(pnDto.getCurrentEmployeeName())));
+    }
+
+    @Test
+    @Transactional
+    public void gridPageFetchStatementCountTest() {
+        entityManager.flush();
+        SqlStatementCounter.start();
+
+        pnGrid.getGrid().getDataProvider().fetch(new Query<>()).count();
+        pnGrid.getGrid().getDataProvider().size(new Query<>());
+
+        // One statement for the rows of the page and one for the count
+        SqlStatementCounter.assertStatementCount(2);
+    }
+
+    @Test
+    @Transactional
+    public void openEditorStatementBudgetTest() {
+        sharedItemSets.getSnapshot();
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.start();
+
+        partNumberObjectEditor.openEditor(partNumberObject2Dto);
+
+        assertTrue(partNumberObjectEditor.isOpened());
+        SqlStatementCounter.assertMaxStatementCount(15);
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Felix Seifert <mail@felix-seifert.com> (https://felix-seifert.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.felixseifert.coma.ui.views.pngrid;
+
+import com.vaadin.flow.component.ClickEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.icon.Icon;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ReleaseFlowFieldTest {
+
+    private ReleaseFlowField<String> releaseFlowField;
+
+    @Before
+    public void setup() {
+        releaseFlowField = new ReleaseFlowField<>();
+        releaseFlowField.setItemLabelGenerator(String::toUpperCase);
+        releaseFlowField.setValue(List.of("a", "b", "c"));
+    }
+
+    @Test
+    public void setValueTest() {
+        assertEquals(List.of("a", "b", "c"), releaseFlowField.getValue());
+        assertEquals(List.of("A (1)", "B (2)", "C (3)"), getButtonTexts());
+        assertEquals(2, getLabelComponents().stream().filter(c -> c instanceof Icon).count());
+    }
+
+    @Test
+    public void setValueTest_reuseComponents() {
+        Button firstButton = getButtons().get(0);
+        releaseFlowField.setValue(List.of("a", "d"));
+
+        assertEquals(List.of("a", "d"), releaseFlowField.getValue());
+        assertSame(firstButton, getButtons().get(0));
+        assertEquals(List.of("A (1)", "D (2)"), getButtonTexts());
+        assertEquals(1, getLabelComponents().stream().filter(c -> c instanceof Icon).count());
+    }
+
+    @Test
+    public void removeTest() {
+        getButtons().get(1).click();
+
+        assertEquals(List.of("a", "c"), releaseFlowField.getValue());
+        assertEquals(List.of("A (1)", "C (2)"), getButtonTexts());
+        assertEquals(3, getLabelComponents().size());
+    }
+
+    @Test
+    public void removeTest_last() {
+        getButtons().get(2).click();
+
+        assertEquals(List.of("a", "b"), releaseFlowField.getValue());
+        assertTrue(getLabelComponents().get(getLabelComponents().size() - 1) instanceof Button);
+    }
+
+    @Test
+    public void swapTest() {
+        Icon secondIcon = (Icon) getLabelComponents().get(3);
+        ComponentUtil.fireEvent(secondIcon, new ClickEvent<>(secondIcon));
+
+        assertEquals(List.of("a", "c", "b"), releaseFlowField.getValue());
+        assertEquals(List.of("A (1)", "C (2)", "B (3)"), getButtonTexts());
+    }
+
+    @Test
+    public void numbersLeftOfTextTest() {
+        releaseFlowField.setNumbersLeftOfText(true);
+        assertEquals(List.of("(1) A", "(2) B", "(3) C"), getButtonTexts());
+    }
+
+    private List<Component> getLabelComponents() {
+        Component labelLayout = releaseFlowField.getChildren().skip(2).findFirst().orElseThrow();
+        return labelLayout.getChildren().collect(Collectors.toList());
+    }
+
+    private List<Button> getButtons() {
+        return getLabelComponents().stream().filter(c -> c instanceof Button).map(c -> (Button) c)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> getButtonTexts() {
+        return getButtons().stream().map(Button::getText).collect(Collectors.toList());
+    }
+}